@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.net.ConnectException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections4.KeyValue;
 import org.apache.commons.collections4.keyvalue.DefaultKeyValue;
@@ -33,6 +34,9 @@ import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -45,6 +49,8 @@ import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.retry.annotation.Backoff;
@@ -53,7 +59,7 @@ import org.springframework.retry.annotation.Retryable;
 import static dev.sunbirdrc.registry.middleware.util.Constants.*;
 
 public class ElasticServiceImpl implements IElasticService {
-    private static Map<String, RestHighLevelClient> esClient = new HashMap<String, RestHighLevelClient>();
+    private static Map<String, RestHighLevelClient> esClient = new ConcurrentHashMap<String, RestHighLevelClient>();
     private static Logger logger = LoggerFactory.getLogger(ElasticServiceImpl.class);
 
     private static String connectionInfo;
@@ -81,20 +87,25 @@ public class ElasticServiceImpl implements IElasticService {
     public void init(Set<String> indices) throws RuntimeException {
         indices.iterator().forEachRemaining(index -> {
             try {
-                addIndex(index.toLowerCase(), searchType);
+                ensureIndex(index);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         });
     }
 
+    @Override
+    public void ensureIndex(String index) throws IOException {
+        addIndex(index.toLowerCase(), searchType);
+    }
+
     /**
      * This method creates the high-level-client w.r.to index, if client is not created. for every index one client object is created
      *
      * @param indexName      for ElasticSearch
      * @param connectionInfo of ElasticSearch
      */
-    private static void createClient(String indexName, String connectionInfo) {
+    private static synchronized void createClient(String indexName, String connectionInfo) {
         final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
         credentialsProvider.setCredentials(AuthScope.ANY,
                 new UsernamePasswordCredentials(userName, password));
@@ -224,6 +235,36 @@ public class ElasticServiceImpl implements IElasticService {
         response = getClient(index).get(new GetRequest(index, searchType, uuidPropertyValue), RequestOptions.DEFAULT);
         return response.getSourceAsMap();
     }
+
+    @Override
+    @Retryable(value = {IOException.class, ConnectException.class}, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
+            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
+    public Map<String, JsonNode> multiGet(String index, Collection<String> uuidPropertyValues) throws IOException {
+        logger.debug("multiGet starts with index {} for {} ids", index, uuidPropertyValues.size());
+        Map<String, JsonNode> documents = new HashMap<>();
+        if (uuidPropertyValues.isEmpty()) {
+            return documents;
+        }
+        MultiGetRequest request = new MultiGetRequest();
+        for (String uuidPropertyValue : uuidPropertyValues) {
+            request.add(new MultiGetRequest.Item(index, searchType, uuidPropertyValue));
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        MultiGetResponse response = getClient(index).mget(request, RequestOptions.DEFAULT);
+        for (MultiGetItemResponse item : response.getResponses()) {
+            if (item.isFailed()) {
+                logger.error("multiGet failed for {} in index {}: {}", item.getId(), index, item.getFailure().getMessage());
+                continue;
+            }
+            if (item.getResponse().isExists()) {
+                JsonNode node = mapper.readValue(item.getResponse().getSourceAsString(), JsonNode.class);
+                if (isActive(node)) {
+                    documents.put(item.getId(), node);
+                }
+            }
+        }
+        return documents;
+    }
     
 
     /**
@@ -292,8 +333,7 @@ public class ElasticServiceImpl implements IElasticService {
         SearchResponse searchResponse = getClient(index).search(searchRequest, RequestOptions.DEFAULT);
         for (SearchHit hit : searchResponse.getHits()) {
             JsonNode node = mapper.readValue(hit.getSourceAsString(), JsonNode.class);
-            // TODO: Add draft mode condition
-            if(node.get(STATUS_KEYWORD) == null || node.get(STATUS_KEYWORD).asBoolean()) {
+            if (isActive(node)) {
                 dataArray.add(node);
             }
         }
@@ -305,6 +345,52 @@ public class ElasticServiceImpl implements IElasticService {
 
     }
 
+    /**
+     * ES 6.x has no point-in-time api, so the cursor is kept consistent by sorting on a unique and immutable field.
+     * Records that exist for the whole walk are returned exactly once even while other records are written.
+     */
+    @Override
+    public void searchAfter(String index, SearchQuery searchQuery, String sortField, int batchSize, SearchBatchHandler batchHandler) throws IOException {
+        BoolQueryBuilder query = buildQuery(searchQuery);
+        RestHighLevelClient client = getClient(index);
+        ObjectMapper mapper = new ObjectMapper();
+        Object[] cursor = null;
+        long total = 0;
+        while (true) {
+            SearchSourceBuilder sourceBuilder = new SearchSourceBuilder()
+                    .query(query)
+                    .size(batchSize)
+                    .sort(SortBuilders.fieldSort(String.format("%s.keyword", sortField)).order(SortOrder.ASC))
+                    .trackTotalHits(false);
+            if (cursor != null) {
+                sourceBuilder.searchAfter(cursor);
+            }
+            SearchResponse searchResponse = client.search(new SearchRequest(index).source(sourceBuilder), RequestOptions.DEFAULT);
+            SearchHit[] hits = searchResponse.getHits().getHits();
+            if (hits.length == 0) {
+                break;
+            }
+            ArrayNode batch = JsonNodeFactory.instance.arrayNode();
+            for (SearchHit hit : hits) {
+                JsonNode node = mapper.readValue(hit.getSourceAsString(), JsonNode.class);
+                if (isActive(node)) {
+                    batch.add(node);
+                }
+            }
+            batchHandler.handle(batch);
+            total += batch.size();
+            if (hits.length < batchSize) {
+                break;
+            }
+            cursor = hits[hits.length - 1].getSortValues();
+        }
+        logger.debug("Total records walked through search_after on {}: {}", index, total);
+    }
+
+    private boolean isActive(JsonNode node) {
+        return node.get(STATUS_KEYWORD) == null || node.get(STATUS_KEYWORD).asBoolean();
+    }
+
     @Override
     public String getServiceName() {
         return SUNBIRD_ELASTIC_SERVICE_NAME;
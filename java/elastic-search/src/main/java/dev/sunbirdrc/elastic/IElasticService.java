@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import dev.sunbirdrc.pojos.HealthIndicator;
 import dev.sunbirdrc.pojos.SearchQuery;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 import org.elasticsearch.rest.RestStatus;
 
@@ -12,6 +13,12 @@ import org.elasticsearch.rest.RestStatus;
  */
 public interface IElasticService extends HealthIndicator {
 
+    /** Creates the index in ES unless it exists
+     * @param index - ElasticSearch Index
+     * @throws IOException
+     */
+    void ensureIndex(String index) throws IOException;
+
     /** Saves document into ES(ElasticSearch)
      * @param index - ElasticSearch Index
      * @param id - document id
@@ -27,6 +34,13 @@ public interface IElasticService extends HealthIndicator {
      */
     Map<String, Object> readEntity(String index, String uuidPropertyValue) throws IOException;
 
+    /** Reads all the documents with the given uuidPropertyValues from ES in a single round trip
+     * @param index - ElasticSearch Index
+     * @param uuidPropertyValues - which map to documents
+     * @return active documents keyed by uuidPropertyValue, ids without an active document are left out
+     */
+    Map<String, JsonNode> multiGet(String index, Collection<String> uuidPropertyValues) throws IOException;
+
     /** updates document with respect to input uuidPropertyValue to ES
      * @param index - ElasticSearch Index
      * @param inputEntity - input json document for updating
@@ -48,4 +62,13 @@ public interface IElasticService extends HealthIndicator {
      */
     JsonNode search(String index, SearchQuery searchQuery) throws IOException;
 
+    /** walks through all the documents matching the query using a search_after cursor, without from/size paging
+     * @param index - ElasticSearch Index
+     * @param searchQuery - which contains details for search, limit and offset are ignored
+     * @param sortField - unique and immutable field used as the cursor, ex: uuidPropertyName
+     * @param batchSize - number of documents fetched from ES per round trip
+     * @param batchHandler - receives the documents batch by batch
+     */
+    void searchAfter(String index, SearchQuery searchQuery, String sortField, int batchSize, SearchBatchHandler batchHandler) throws IOException;
+
 }
@@ -0,0 +1,18 @@
+package dev.sunbirdrc.elastic;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.io.IOException;
+
+/**
+ * Receives the documents of a cursor based search one batch at a time
+ */
+@FunctionalInterface
+public interface SearchBatchHandler {
+
+    /**
+     * @param batch - documents of the current page, in cursor order
+     * @throws IOException when the batch cannot be written to its destination
+     */
+    void handle(ArrayNode batch) throws IOException;
+}
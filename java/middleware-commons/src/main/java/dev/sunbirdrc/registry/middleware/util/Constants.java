@@ -6,12 +6,14 @@ public class Constants {
 	public static final String SIGN_DATA = "data";
 	public static final String SIGN_VALUE = "value";
 	public static final String SIGN_CREDENTIAL_TEMPLATE = "credentialTemplate";
+	public static final String SIGN_ITEMS = "items";
 	public static final String TOKEN_OBJECT = "x-authenticated-user-token";
 	public static final String LD_JSON_MEDIA_TYPE = "application/ld+json";
 	public static final String VC_JSON_MEDIA_TYPE = "application/vc+ld+json"; //this is not accepted yet, subjected to change.
 
 
 	public static final String SUNBIRDRC_REGISTRY_API = "sunbirdrc-registry-api"; //todo make it configurable for backward compatibility
+	public static final String SUNBIRDRC_REGISTRY_STARTUP = "sunbirdrc-registry-startup";
 	public static final String SUNBIRD_ENCRYPTION_SERVICE_NAME = "sunbird.encryption.service";
 	public static final String SUNBIRD_ID_GEN_SERVICE_NAME = "sunbird.idgen.service";
 	public static final String SUNBIRD_SIGNATURE_SERVICE_NAME = "sunbird.signature.service";
@@ -19,6 +21,7 @@ public class Constants {
 	public static final String SUNBIRD_ELASTIC_SERVICE_NAME = "sunbird.elastic.service";
 	public static final String SUNBIRD_FILE_STORAGE_SERVICE_NAME = "sunbird.file-storage.service";
 	public static final String SUNBIRD_KAFKA_SERVICE_NAME = "sunbird.kafka.service";
+	public static final String SUNBIRD_EVENT_SERVICE_NAME = "sunbird.event.service";
 	public static final String SUNBIRD_KEYCLOAK_SERVICE_NAME = "sunbird.keycloak.service";
 
 	public static final String SUNBIRD_CERTIFICATE_SERVICE_NAME = "sunbird.certificate-api.service";
@@ -26,6 +29,15 @@ public class Constants {
 	public static final String SUNBIRDRC_DATABASE_NAME = "sunbirdrc.database";
 	public static final String GRAPH_GLOBAL_CONFIG = "graph_global_config";
 	public static final String PERSISTENT_GRAPH = "persisten_graph";
+	// One vertex per owner of a record, so that the records of an owner are found by exact match
+	public static final String OWNER_INDEX_LABEL = "OwnerIndex";
+	public static final String OWNER_INDEX_OWNER = "owner";
+	public static final String OWNER_INDEX_ENTITY_TYPE = "entityType";
+	public static final String OWNER_INDEX_ENTITY_ID = "entityId";
+	// One vertex per index created in the shard, so that each index is created once
+	public static final String INDEX_CATALOG_LABEL = "IndexCatalog";
+	public static final String INDEX_CATALOG_DEFINITION = "definition";
+	public static final String INDEX_CATALOG_INDEX = "index";
 
 	// Internal properties
 	public static final String STATUS_KEYWORD = "_status";
@@ -89,6 +101,7 @@ public class Constants {
 	public static final String REGISTRY_READ_ENDPOINT = "/read";
 	public static final String REGISTRY_SEARCH_ENDPOINT = "/search";
 	public static final String SIGNATURE_SIGN_ENDPOINT = "/utils/sign";
+	public static final String SIGNATURE_SIGN_BATCH_ENDPOINT = "/utils/sign/batch";
 	public static final String SIGNATURE_VERIFY_ENDPOINT = "/utils/verify";
 	public static final String REGISTRY_AUDT_READ_ENDPOINT="/audit";
 	
@@ -24,10 +24,14 @@ import dev.sunbirdrc.registry.identity_providers.pojos.IdentityException;
 import dev.sunbirdrc.registry.identity_providers.pojos.IdentityManager;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static dev.sunbirdrc.registry.middleware.util.Constants.CONNECTION_FAILURE;
 
@@ -40,6 +44,11 @@ public class Auth0AdminUtil implements IdentityManager {
 	private static final String PASSWORD = "password";
 	public static final String SUNBIRD_AUTH0_SERVICE_NAME = "sunbird.auth0.service";
 	private final IdentityProviderConfiguration identityProviderConfiguration;
+	/**
+	 * Role id of every entity type, the role is created and given its permission once.
+	 * An entry is dropped when creating a user with the role fails, so the next invite resolves it again.
+	 */
+	private final ConcurrentMap<String, String> entityRoleIds = new ConcurrentHashMap<>();
 
 	@Value("${auth0.resource.server.id}")
 	private String resourceServerId;
@@ -55,10 +64,35 @@ public class Auth0AdminUtil implements IdentityManager {
 
 	@Override
 	public String createUser(CreateUserRequest createUserRequest) throws IdentityException {
+		return createUser(getManagementAPI(), createUserRequest);
+	}
+
+	/**
+	 * Invites the users with a single management token, the role of an entity type is resolved only for the first
+	 * user of that type.
+	 */
+	@Override
+	public List<String> createUsers(List<CreateUserRequest> createUserRequests) throws IdentityException {
+		ManagementAPI mgmt = getManagementAPI();
+		List<String> userIds = new ArrayList<>(createUserRequests.size());
+		for (CreateUserRequest createUserRequest : createUserRequests) {
+			userIds.add(createUser(mgmt, createUserRequest));
+		}
+		return userIds;
+	}
+
+	private ManagementAPI getManagementAPI() throws IdentityException {
+		try {
+			return ManagementAPI.newBuilder(identityProviderConfiguration.getRealm(), getToken()).build();
+		} catch (Exception e) {
+			logger.error("Error getting auth0 management token", e);
+			throw new IdentityException(String.format("Auth0 user creation error %s", e.getMessage()));
+		}
+	}
+
+	private String createUser(ManagementAPI mgmt, CreateUserRequest createUserRequest) throws IdentityException {
 		logger.info("Creating user with mobile_number : " + createUserRequest.getUserName());
 		try {
-			String token = getToken();
-			ManagementAPI mgmt = ManagementAPI.newBuilder(identityProviderConfiguration.getRealm(), token).build();
 			Optional<String> roleOptional = createOrGetRole(mgmt, createUserRequest);
 			if (roleOptional.isPresent()) {
 				Optional<String> userOptional = createOrGetUser(mgmt, createUserRequest, roleOptional.get());
@@ -69,6 +103,7 @@ public class Auth0AdminUtil implements IdentityManager {
 				}
 			}
 		} catch (Exception e) {
+			entityRoleIds.remove(createUserRequest.getEntity());
 			logger.error("Error creating user in auth0", e);
 			throw new IdentityException(String.format("Auth0 user creation error %s", e.getMessage()));
 		}
@@ -104,6 +139,16 @@ public class Auth0AdminUtil implements IdentityManager {
 	}
 
 	private Optional<String> createOrGetRole(ManagementAPI mgmt, CreateUserRequest createUserRequest) throws Auth0Exception {
+		String roleId = entityRoleIds.get(createUserRequest.getEntity());
+		if (roleId == null) {
+			Optional<String> roleOptional = createOrGetRoleFromAuth0(mgmt, createUserRequest);
+			roleOptional.ifPresent(id -> entityRoleIds.put(createUserRequest.getEntity(), id));
+			return roleOptional;
+		}
+		return Optional.of(roleId);
+	}
+
+	private Optional<String> createOrGetRoleFromAuth0(ManagementAPI mgmt, CreateUserRequest createUserRequest) throws Auth0Exception {
 		String role = createUserRequest.getEntity();
 		try {
 			Role roleRepresentation = createRole(mgmt, role);
@@ -2,28 +2,37 @@ package dev.sunbirdrc.registry.authorization;
 
 import java.util.Map;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import dev.sunbirdrc.registry.authorization.pojos.OAuth2Configuration;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.util.Assert;
 
-import static org.springframework.security.oauth2.jwt.NimbusJwtDecoder.withJwkSetUri;
-
 final class CustomJwtDecoders {
 
-    public static TenantJwtDecoder fromOidcIssuerLocation(String oidcIssuerLocation) {
+    public static TenantJwtDecoder fromOidcIssuerLocation(String oidcIssuerLocation, OAuth2Configuration oAuth2Configuration) {
         Assert.hasText(oidcIssuerLocation, "oidcIssuerLocation cannot be empty");
         Map<String, Object> configuration = CustomJwtDecoderProviderConfigurationUtils.getConfigurationForOidcIssuerLocation(oidcIssuerLocation);
-        return withProviderConfiguration(configuration);
+        return withProviderConfiguration(configuration, oAuth2Configuration);
     }
     
-    private static TenantJwtDecoder withProviderConfiguration(Map<String, Object> configuration) {
+    private static TenantJwtDecoder withProviderConfiguration(Map<String, Object> configuration, OAuth2Configuration oAuth2Configuration) {
         String metadataIssuer = CustomJwtDecoderProviderConfigurationUtils.getIssuer(configuration);
         OAuth2TokenValidator<Jwt> jwtValidator = JwtValidators.createDefaultWithIssuer(metadataIssuer);
-        NimbusJwtDecoder jwtDecoder = withJwkSetUri(configuration.get("jwks_uri").toString()).build();
+        RefreshingJwkSource jwkSource = new RefreshingJwkSource(configuration.get("jwks_uri").toString(),
+                oAuth2Configuration.getJwksRefreshInterval(), oAuth2Configuration.getJwksMinRefreshInterval());
+        // same processor NimbusJwtDecoder.withJwkSetUri builds, claims are checked by the spring validator
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
         jwtDecoder.setJwtValidator(jwtValidator);
-        return TenantJwtDecoder.from(jwtDecoder, metadataIssuer);
+        return TenantJwtDecoder.from(jwtDecoder, metadataIssuer, oAuth2Configuration.getTokenCacheSize());
     }
 
     private CustomJwtDecoders() {}
 }
-
@@ -0,0 +1,101 @@
+package dev.sunbirdrc.registry.authorization;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestOperations;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the JWK set of an issuer in memory and refreshes it in the background, so signing keys are usually known
+ * before the first token signed with them arrives.
+ * A token with an unknown key id triggers a refresh as well. Only one thread fetches while the others wait for its
+ * result, and misses within minRefreshIntervalMillis of the last fetch reuse the current set, so a key rotation or a
+ * burst of made up key ids can't flood the issuer.
+ */
+class RefreshingJwkSource implements JWKSource<SecurityContext> {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshingJwkSource.class);
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String jwkSetUri;
+    private final long minRefreshIntervalMillis;
+    private final RestOperations restOperations;
+    private final Object refreshLock = new Object();
+    private volatile JWKSet jwkSet;
+    private volatile long lastAttempt;
+
+    RefreshingJwkSource(String jwkSetUri, long refreshIntervalMillis, long minRefreshIntervalMillis) {
+        this(jwkSetUri, refreshIntervalMillis, minRefreshIntervalMillis, new RestTemplate());
+    }
+
+    RefreshingJwkSource(String jwkSetUri, long refreshIntervalMillis, long minRefreshIntervalMillis, RestOperations restOperations) {
+        this.jwkSetUri = jwkSetUri;
+        this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+        this.restOperations = restOperations;
+        if (refreshIntervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::refreshInBackground, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        JWKSet current = jwkSet;
+        if (current == null) {
+            current = refreshIfUnchanged(null);
+        }
+        List<JWK> matches = jwkSelector.select(current);
+        if (matches.isEmpty()) {
+            // the issuer may have rotated its keys
+            matches = jwkSelector.select(refreshIfUnchanged(current));
+        }
+        return matches;
+    }
+
+    private JWKSet refreshIfUnchanged(JWKSet seen) throws KeySourceException {
+        synchronized (refreshLock) {
+            if (jwkSet == seen && System.currentTimeMillis() - lastAttempt < minRefreshIntervalMillis) {
+                if (seen == null) {
+                    throw new KeySourceException("JWK set of " + jwkSetUri + " is unavailable");
+                }
+                return seen;
+            }
+            return jwkSet != seen ? jwkSet : refresh();
+        }
+    }
+
+    private void refreshInBackground() {
+        try {
+            synchronized (refreshLock) {
+                refresh();
+            }
+        } catch (KeySourceException e) {
+            logger.error("Refreshing JWK set from {} failed, keeping the current keys: {}", jwkSetUri, e.getMessage());
+        }
+    }
+
+    private JWKSet refresh() throws KeySourceException {
+        lastAttempt = System.currentTimeMillis();
+        try {
+            String body = restOperations.getForObject(jwkSetUri, String.class);
+            jwkSet = JWKSet.parse(body);
+            logger.debug("Loaded {} keys from {}", jwkSet.getKeys().size(), jwkSetUri);
+            return jwkSet;
+        } catch (Exception e) {
+            throw new KeySourceException("Couldn't retrieve remote JWK set: " + e.getMessage(), e);
+        }
+    }
+}
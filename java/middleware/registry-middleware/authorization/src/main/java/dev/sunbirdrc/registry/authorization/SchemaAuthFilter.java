@@ -6,32 +6,34 @@ import org.slf4j.LoggerFactory;
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
+/**
+ * Lets requests to schemas with anonymous roles through without authentication.
+ * The anonymous schemas are kept in an immutable snapshot that is replaced as a whole when a schema is added or
+ * removed, so deciding on a request is a lookup of the entity name of the path without any locking or regex
+ * compilation.
+ */
 public class SchemaAuthFilter implements Filter {
     private static final Logger logger = LoggerFactory.getLogger(SchemaAuthFilter.class);
-    private static final String INVITE_URL_PATTERN = "/api/v1/([A-Za-z0-9_])+/invite(/)?";
+    private static final String API_PREFIX = "/api/v1/";
+    private static final String ENCODED_QUERY = "%3F";
+    private static final Pattern INVITE_ENTITY_PATTERN = Pattern.compile("[A-Za-z0-9_]+");
+    private static final String INVITE_SUFFIX = "/invite";
 
-    private final Set<String> anonymousInviteSchemas =  new HashSet<>();
-    private final Set<String> anonymousSchemas =  new HashSet<>();
+    private volatile Routes routes = new Routes(Collections.emptySet(), Collections.emptySet());
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws ServletException, IOException {
         HttpServletRequest request = (HttpServletRequest) servletRequest;
-        String requestUri = request.getRequestURI();
         try {
-            if (requestUri.matches(INVITE_URL_PATTERN) &&
-                    anonymousInviteSchemas.stream()
-                            .map(d -> String.format("/api/v1/%s/invite(/)?(\\\\?.*)?", d))
-                            .anyMatch(requestUri::matches)) {
-                servletRequest.getRequestDispatcher(((HttpServletRequest) servletRequest).getServletPath()).forward(servletRequest, servletResponse);
-                return;
-            } else if (!requestUri.matches(INVITE_URL_PATTERN) && anonymousSchemas.stream()
-                    .map(d -> String.format("/api/v1/%s(/.*)?(((\\\\?)|(\\\\%s)).*)?", d, "%3F"))
-                    .anyMatch(requestUri::matches)) {
-                servletRequest.getRequestDispatcher(((HttpServletRequest) servletRequest).getServletPath()).forward(servletRequest, servletResponse);
+            if (isAnonymous(request.getRequestURI())) {
+                servletRequest.getRequestDispatcher(request.getServletPath()).forward(servletRequest, servletResponse);
                 return;
             }
             filterChain.doFilter(servletRequest, servletResponse);
@@ -41,25 +43,69 @@ public class SchemaAuthFilter implements Filter {
         }
     }
 
+    /**
+     * An invite, /api/v1/{entity}/invite, is anonymous when the entity has an anonymous invite role. Any other path
+     * under /api/v1/{entity} is anonymous when the entity has an anonymous manage role.
+     */
+    boolean isAnonymous(String requestUri) {
+        if (requestUri == null || !requestUri.startsWith(API_PREFIX)) {
+            return false;
+        }
+        int entityEnd = requestUri.indexOf('/', API_PREFIX.length());
+        if (entityEnd < 0) {
+            entityEnd = requestUri.length();
+        }
+        String entity = requestUri.substring(API_PREFIX.length(), entityEnd);
+        String rest = requestUri.substring(entityEnd);
+        Routes current = routes;
+        if ((rest.equals(INVITE_SUFFIX) || rest.equals(INVITE_SUFFIX + "/")) && INVITE_ENTITY_PATTERN.matcher(entity).matches()) {
+            return current.anonymousInviteSchemas.contains(entity);
+        }
+        int encodedQuery = entity.indexOf(ENCODED_QUERY);
+        if (encodedQuery >= 0) {
+            entity = entity.substring(0, encodedQuery);
+        }
+        return current.anonymousSchemas.contains(entity);
+    }
+
     public void appendAnonymousInviteSchema(String schema) {
-        anonymousInviteSchemas.add(schema);
+        appendAnonymousInviteSchema(Collections.singletonList(schema));
     }
 
     public void appendAnonymousSchema(String schema) {
-        anonymousSchemas.add(schema);
+        appendAnonymousSchema(Collections.singletonList(schema));
     }
 
 
-    public void appendAnonymousInviteSchema(List<String> entitiesWithAnonymousInviteRoles) {
-        anonymousInviteSchemas.addAll(entitiesWithAnonymousInviteRoles);
+    public synchronized void appendAnonymousInviteSchema(List<String> entitiesWithAnonymousInviteRoles) {
+        routes = new Routes(union(routes.anonymousInviteSchemas, entitiesWithAnonymousInviteRoles), routes.anonymousSchemas);
     }
 
-    public void appendAnonymousSchema(List<String> entitiesWithAnonymousManageRoles) {
-        anonymousSchemas.addAll(entitiesWithAnonymousManageRoles);
+    public synchronized void appendAnonymousSchema(List<String> entitiesWithAnonymousManageRoles) {
+        routes = new Routes(routes.anonymousInviteSchemas, union(routes.anonymousSchemas, entitiesWithAnonymousManageRoles));
     }
 
-    public void removeSchema(String schema) {
-        anonymousSchemas.remove(schema);
+    public synchronized void removeSchema(String schema) {
+        Set<String> anonymousInviteSchemas = new HashSet<>(routes.anonymousInviteSchemas);
         anonymousInviteSchemas.remove(schema);
+        Set<String> anonymousSchemas = new HashSet<>(routes.anonymousSchemas);
+        anonymousSchemas.remove(schema);
+        routes = new Routes(anonymousInviteSchemas, anonymousSchemas);
+    }
+
+    private static Set<String> union(Set<String> schemas, Collection<String> added) {
+        Set<String> result = new HashSet<>(schemas);
+        result.addAll(added);
+        return result;
+    }
+
+    private static final class Routes {
+        private final Set<String> anonymousInviteSchemas;
+        private final Set<String> anonymousSchemas;
+
+        Routes(Set<String> anonymousInviteSchemas, Set<String> anonymousSchemas) {
+            this.anonymousInviteSchemas = Collections.unmodifiableSet(anonymousInviteSchemas);
+            this.anonymousSchemas = Collections.unmodifiableSet(anonymousSchemas);
+        }
     }
 }
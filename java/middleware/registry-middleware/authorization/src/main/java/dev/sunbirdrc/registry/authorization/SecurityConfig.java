@@ -35,9 +35,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 		httpConfig
 				.addFilterBefore(schemaAuthFilter, WebAsyncManagerIntegrationFilter.class)
 				.authorizeRequests(auth -> auth
-						.antMatchers("/**/invite", "/health", "/error",
+						.antMatchers("/**/invite", "/health", "/health/**", "/error",
 								"/_schemas/**", "/**/templates/**", "/**/*.json", "/**/verify",
-								"/swagger-ui", "/**/search", "/**/attestation/**",
+								"/swagger-ui", "/**/search", "/**/search/export", "/**/attestation/**",
 								"/api/docs/swagger.json", "/api/docs/*.json", "/plugin/**", "/swagger-ui.html")
 						.permitAll()
 				)
@@ -50,7 +50,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 	}
 
 	private void addManager(Map<String, AuthenticationManager> authenticationManagers, OAuth2Resources auth2Resources) {
-		TenantJwtDecoder tenantJwtDecoder = CustomJwtDecoders.fromOidcIssuerLocation(auth2Resources.getUri());
+		TenantJwtDecoder tenantJwtDecoder = CustomJwtDecoders.fromOidcIssuerLocation(auth2Resources.getUri(), oAuth2Configuration);
 		JwtAuthenticationProvider authenticationProvider = new JwtAuthenticationProvider(tenantJwtDecoder);
 		authenticationProvider.setJwtAuthenticationConverter(new CustomJwtAuthenticationConverter(auth2Resources.getProperties()));
 		authenticationManagers.put(tenantJwtDecoder.getIssuer(), authenticationProvider::authenticate);
@@ -5,21 +5,86 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers decoded tokens, keyed by a hash of the raw token, until they expire. Clients reuse a token for its whole
+ * lifetime, so this saves parsing and verifying the signature on every request.
+ * Tokens without an expiry are not cached, and once maxCacheSize tokens are cached new ones are only decoded.
+ */
 public final class TenantJwtDecoder implements JwtDecoder {
+    private static final long PURGE_INTERVAL_MILLIS = 1000;
+
     JwtDecoder jwtDecoder;
     @Getter
     String issuer;
-    private TenantJwtDecoder(JwtDecoder jwtDecoder, String issuer) {
+    private final int maxCacheSize;
+    private final Map<String, Jwt> decodedTokens = new ConcurrentHashMap<>();
+    private volatile long lastPurge;
+
+    private TenantJwtDecoder(JwtDecoder jwtDecoder, String issuer, int maxCacheSize) {
         this.jwtDecoder = jwtDecoder;
         this.issuer = issuer;
+        this.maxCacheSize = maxCacheSize;
     }
 
     @Override
     public Jwt decode(String token) throws JwtException {
-        return this.jwtDecoder.decode(token);
+        if (maxCacheSize <= 0) {
+            return this.jwtDecoder.decode(token);
+        }
+        String key = hash(token);
+        Jwt cached = decodedTokens.get(key);
+        if (cached != null) {
+            if (Instant.now().isBefore(cached.getExpiresAt())) {
+                return cached;
+            }
+            decodedTokens.remove(key);
+        }
+        Jwt jwt = this.jwtDecoder.decode(token);
+        if (jwt.getExpiresAt() != null && hasRoom()) {
+            decodedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    int getCacheSize() {
+        return decodedTokens.size();
+    }
+
+    private boolean hasRoom() {
+        if (decodedTokens.size() < maxCacheSize) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastPurge > PURGE_INTERVAL_MILLIS) {
+            lastPurge = now;
+            Instant instant = Instant.ofEpochMilli(now);
+            decodedTokens.values().removeIf(jwt -> !instant.isBefore(jwt.getExpiresAt()));
+        }
+        return decodedTokens.size() < maxCacheSize;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public static TenantJwtDecoder from(JwtDecoder jwtDecoder, String issuer) {
-        return new TenantJwtDecoder(jwtDecoder, issuer);
+        return from(jwtDecoder, issuer, 0);
+    }
+
+    public static TenantJwtDecoder from(JwtDecoder jwtDecoder, String issuer, int maxCacheSize) {
+        return new TenantJwtDecoder(jwtDecoder, issuer, maxCacheSize);
     }
 }
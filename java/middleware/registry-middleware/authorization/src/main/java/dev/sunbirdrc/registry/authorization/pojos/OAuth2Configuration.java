@@ -15,5 +15,17 @@ import java.util.List;
 @Data
 public class OAuth2Configuration {
 	List<OAuth2Resources> resources;
+	/**
+	 * Number of decoded tokens kept until they expire, 0 decodes every request
+	 */
+	int tokenCacheSize = 10000;
+	/**
+	 * Interval in milliseconds at which the signing keys of the issuers are fetched in the background
+	 */
+	long jwksRefreshInterval = 300000;
+	/**
+	 * Minimum interval in milliseconds between fetches of the signing keys of an issuer for tokens with an unknown key id
+	 */
+	long jwksMinRefreshInterval = 10000;
 
 }
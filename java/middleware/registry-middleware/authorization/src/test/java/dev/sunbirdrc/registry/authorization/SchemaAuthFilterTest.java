@@ -0,0 +1,127 @@
+package dev.sunbirdrc.registry.authorization;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SchemaAuthFilterTest {
+	private SchemaAuthFilter schemaAuthFilter;
+
+	@Before
+	public void setUp() {
+		schemaAuthFilter = new SchemaAuthFilter();
+		schemaAuthFilter.appendAnonymousInviteSchema(Arrays.asList("Student", "Institute"));
+		schemaAuthFilter.appendAnonymousSchema("Course");
+	}
+
+	@Test
+	public void shouldAllowAnonymousInvite() {
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Student/invite"));
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Institute/invite/"));
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v1/Teacher/invite"));
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v1/Course/invite"));
+	}
+
+	@Test
+	public void shouldNotAllowOtherOperationsOfAnonymousInviteSchema() {
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v1/Student"));
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v1/Student/1-2-3"));
+	}
+
+	@Test
+	public void shouldAllowEveryOperationOfAnonymousSchema() {
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Course"));
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Course/"));
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Course/search"));
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Course/1-2-3/attestation/name/4"));
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Course%3Fid=1"));
+	}
+
+	@Test
+	public void shouldMatchWholeEntityName() {
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v1/CourseMaterial"));
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v1/StudentRecord/invite"));
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v2/Course"));
+		assertFalse(schemaAuthFilter.isAnonymous("/health"));
+	}
+
+	@Test
+	public void shouldApplySchemaChanges() {
+		schemaAuthFilter.appendAnonymousSchema("Teacher");
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Teacher"));
+
+		schemaAuthFilter.removeSchema("Student");
+		schemaAuthFilter.removeSchema("Course");
+
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v1/Student/invite"));
+		assertFalse(schemaAuthFilter.isAnonymous("/api/v1/Course"));
+		assertTrue(schemaAuthFilter.isAnonymous("/api/v1/Institute/invite"));
+	}
+
+	@Test
+	public void shouldForwardAnonymousRequestsAndPassOthersDown() throws Exception {
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		HttpServletRequest anonymousRequest = request("/api/v1/Course");
+		RequestDispatcher dispatcher = mock(RequestDispatcher.class);
+		when(anonymousRequest.getRequestDispatcher(anyString())).thenReturn(dispatcher);
+		FilterChain filterChain = mock(FilterChain.class);
+
+		schemaAuthFilter.doFilter(anonymousRequest, response, filterChain);
+		verify(dispatcher).forward(anonymousRequest, response);
+		verify(filterChain, never()).doFilter(any(), any());
+
+		HttpServletRequest securedRequest = request("/api/v1/Teacher");
+		schemaAuthFilter.doFilter(securedRequest, response, filterChain);
+		verify(filterChain).doFilter(securedRequest, response);
+	}
+
+	/**
+	 * The decision is the one of the regex per schema it replaces, for 100 schemas
+	 */
+	@Test
+	public void shouldDecideLikeRegexPerSchema() {
+		List<String> schemas = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			schemas.add("Schema" + i);
+		}
+		schemaAuthFilter.appendAnonymousInviteSchema(schemas);
+		schemaAuthFilter.appendAnonymousSchema(schemas);
+
+		for (String uri : Arrays.asList("/api/v1/Schema99/invite", "/api/v1/Schema50/1-2-3", "/api/v1/Secured/1-2-3",
+				"/api/v1/Schema7", "/api/v1/Secured/invite")) {
+			assertEquals(uri, regexDecision(schemas, uri), schemaAuthFilter.isAnonymous(uri));
+		}
+	}
+
+	private static boolean regexDecision(List<String> schemas, String requestUri) {
+		String invitePattern = "/api/v1/([A-Za-z0-9_])+/invite(/)?";
+		if (requestUri.matches(invitePattern)) {
+			return schemas.stream().map(d -> String.format("/api/v1/%s/invite(/)?(\\\\?.*)?", d)).anyMatch(requestUri::matches);
+		}
+		return schemas.stream().map(d -> String.format("/api/v1/%s(/.*)?(((\\\\?)|(\\\\%s)).*)?", d, "%3F")).anyMatch(requestUri::matches);
+	}
+
+	private static HttpServletRequest request(String uri) {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getRequestURI()).thenReturn(uri);
+		when(request.getServletPath()).thenReturn(uri);
+		return request;
+	}
+}
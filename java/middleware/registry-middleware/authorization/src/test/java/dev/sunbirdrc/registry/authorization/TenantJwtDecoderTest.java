@@ -0,0 +1,221 @@
+package dev.sunbirdrc.registry.authorization;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.sunbirdrc.registry.authorization.pojos.OAuth2Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TenantJwtDecoderTest {
+	private final AtomicInteger jwksFetches = new AtomicInteger();
+	private HttpServer server;
+	private String issuer;
+	private volatile JWKSet servedKeys;
+	private RSAKey firstKey;
+	private RSAKey secondKey;
+
+	@Before
+	public void setUp() throws Exception {
+		firstKey = new RSAKeyGenerator(2048).keyID("first").generate();
+		secondKey = new RSAKeyGenerator(2048).keyID("second").generate();
+		servedKeys = new JWKSet(firstKey.toPublicJWK());
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		issuer = "http://localhost:" + server.getAddress().getPort();
+		server.createContext("/.well-known/openid-configuration", exchange ->
+				respond(exchange, "{\"issuer\":\"" + issuer + "\",\"jwks_uri\":\"" + issuer + "/certs\"}"));
+		server.createContext("/certs", exchange -> {
+			jwksFetches.incrementAndGet();
+			respond(exchange, servedKeys.toString());
+		});
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void shouldDecodeTokenOnceUntilItExpires() {
+		JwtDecoder delegate = mock(JwtDecoder.class);
+		Jwt jwt = jwt(Instant.now().plusSeconds(300));
+		when(delegate.decode(anyString())).thenReturn(jwt);
+		TenantJwtDecoder decoder = TenantJwtDecoder.from(delegate, issuer, 10);
+
+		assertSame(jwt, decoder.decode("token"));
+		assertSame(jwt, decoder.decode("token"));
+
+		verify(delegate, times(1)).decode("token");
+	}
+
+	@Test
+	public void shouldDecodeExpiredTokenAgain() {
+		JwtDecoder delegate = mock(JwtDecoder.class);
+		when(delegate.decode(anyString())).thenReturn(jwt(Instant.now().minusSeconds(1)));
+		TenantJwtDecoder decoder = TenantJwtDecoder.from(delegate, issuer, 10);
+
+		decoder.decode("token");
+		decoder.decode("token");
+
+		verify(delegate, times(2)).decode("token");
+	}
+
+	@Test
+	public void shouldNotCacheBeyondMaxSize() {
+		JwtDecoder delegate = mock(JwtDecoder.class);
+		when(delegate.decode(anyString())).thenReturn(jwt(Instant.now().plusSeconds(300)));
+		TenantJwtDecoder decoder = TenantJwtDecoder.from(delegate, issuer, 2);
+
+		decoder.decode("first");
+		decoder.decode("second");
+		decoder.decode("third");
+		decoder.decode("third");
+
+		assertEquals(2, decoder.getCacheSize());
+		verify(delegate, times(2)).decode("third");
+	}
+
+	@Test
+	public void shouldDecodeTokenSignedWithLocalKey() throws Exception {
+		TenantJwtDecoder decoder = CustomJwtDecoders.fromOidcIssuerLocation(issuer, configuration(0, 60000));
+
+		Jwt jwt = decoder.decode(sign(firstKey, "user-1"));
+
+		assertEquals("user-1", jwt.getSubject());
+		assertEquals(issuer, decoder.getIssuer());
+		assertEquals(1, jwksFetches.get());
+	}
+
+	@Test
+	public void shouldFetchRotatedKeysOnceForConcurrentRequests() throws Exception {
+		TenantJwtDecoder decoder = CustomJwtDecoders.fromOidcIssuerLocation(issuer, configuration(0, 200));
+		decoder.decode(sign(firstKey, "user-1"));
+		Thread.sleep(300);
+
+		servedKeys = new JWKSet(secondKey.toPublicJWK());
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Jwt>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				String token = sign(secondKey, "user-" + i);
+				futures.add(executorService.submit(() -> decoder.decode(token)));
+			}
+			for (Future<Jwt> future : futures) {
+				future.get();
+			}
+		} finally {
+			executorService.shutdown();
+		}
+
+		assertEquals(2, jwksFetches.get());
+	}
+
+	@Test
+	public void shouldNotFetchKeysForEveryUnknownKeyId() throws Exception {
+		TenantJwtDecoder decoder = CustomJwtDecoders.fromOidcIssuerLocation(issuer, configuration(0, 60000));
+		decoder.decode(sign(firstKey, "user-1"));
+		RSAKey unknownKey = new RSAKeyGenerator(2048).keyID("unknown").generate();
+
+		for (int i = 0; i < 5; i++) {
+			try {
+				decoder.decode(sign(unknownKey, "user-" + i));
+				fail("decoded a token signed with an unknown key");
+			} catch (JwtException e) {
+				// expected
+			}
+		}
+
+		assertEquals(1, jwksFetches.get());
+	}
+
+	@Test
+	public void shouldRefreshKeysInBackground() throws Exception {
+		TenantJwtDecoder decoder = CustomJwtDecoders.fromOidcIssuerLocation(issuer, configuration(50, 60000));
+		decoder.decode(sign(firstKey, "user-1"));
+		servedKeys = new JWKSet(secondKey.toPublicJWK());
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (jwksFetches.get() < 3 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		int fetches = jwksFetches.get();
+		decoder.decode(sign(secondKey, "user-2"));
+
+		assertTrue(fetches >= 3);
+		assertTrue(jwksFetches.get() - fetches <= 1);
+	}
+
+	private OAuth2Configuration configuration(long refreshInterval, long minRefreshInterval) {
+		OAuth2Configuration configuration = new OAuth2Configuration();
+		configuration.setTokenCacheSize(100);
+		configuration.setJwksRefreshInterval(refreshInterval);
+		configuration.setJwksMinRefreshInterval(minRefreshInterval);
+		return configuration;
+	}
+
+	private String sign(RSAKey key, String subject) throws JOSEException {
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+				.issuer(issuer)
+				.subject(subject)
+				.issueTime(new Date())
+				.expirationTime(new Date(System.currentTimeMillis() + 300000))
+				.build();
+		SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+		signedJWT.sign(new RSASSASigner(key));
+		return signedJWT.serialize();
+	}
+
+	private static Jwt jwt(Instant expiresAt) {
+		return Jwt.withTokenValue("token")
+				.header("alg", "RS256")
+				.subject("user")
+				.issuedAt(expiresAt.minusSeconds(600))
+				.expiresAt(expiresAt)
+				.build();
+	}
+
+	private static void respond(HttpExchange exchange, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(bytes);
+		}
+	}
+}
@@ -2,6 +2,20 @@ package dev.sunbirdrc.registry.identity_providers.pojos;
 
 import dev.sunbirdrc.pojos.HealthIndicator;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface IdentityManager extends HealthIndicator {
 	String createUser(CreateUserRequest createUserRequest) throws IdentityException;
+
+	/**
+	 * Creates the users of a bulk invite, the returned user ids are in the order of the requests
+	 */
+	default List<String> createUsers(List<CreateUserRequest> createUserRequests) throws IdentityException {
+		List<String> userIds = new ArrayList<>(createUserRequests.size());
+		for (CreateUserRequest createUserRequest : createUserRequests) {
+			userIds.add(createUser(createUserRequest));
+		}
+		return userIds;
+	}
 }
@@ -16,6 +16,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.core.Response;
 
@@ -30,6 +32,11 @@ public class KeycloakAdminUtil implements IdentityManager {
     private static final String MOBILE_NUMBER = "mobile_number";
     private static final String PASSWORD = "password";
     private final Keycloak keycloak;
+    /**
+     * Realm group id of every entity type, the group is created and mapped to the realm role of the entity once.
+     * An entry is dropped and resolved again when keycloak no longer knows the group.
+     */
+    private final ConcurrentMap<String, String> entityGroupIds = new ConcurrentHashMap<>();
 
     private final IdentityProviderConfiguration providerConfiguration;
     public KeycloakAdminUtil(IdentityProviderConfiguration identityProviderConfiguration) {
@@ -53,10 +60,29 @@ public class KeycloakAdminUtil implements IdentityManager {
 
     @Override
     public String createUser(CreateUserRequest createUserRequest) throws IdentityException {
+        return createUser(keycloak.realm(providerConfiguration.getRealm()).users(), createUserRequest,
+                getEntityGroupId(createUserRequest.getEntity()));
+    }
+
+    /**
+     * Invites the users one after the other through the same users resource, the group and role of an entity type
+     * are resolved only once for the batch.
+     */
+    @Override
+    public List<String> createUsers(List<CreateUserRequest> createUserRequests) throws IdentityException {
+        UsersResource usersResource = keycloak.realm(providerConfiguration.getRealm()).users();
+        Map<String, String> groupIds = new HashMap<>();
+        List<String> userIds = new ArrayList<>(createUserRequests.size());
+        for (CreateUserRequest createUserRequest : createUserRequests) {
+            String groupId = groupIds.computeIfAbsent(createUserRequest.getEntity(), this::getEntityGroupId);
+            userIds.add(createUser(usersResource, createUserRequest, groupId));
+        }
+        return userIds;
+    }
+
+    private String createUser(UsersResource usersResource, CreateUserRequest createUserRequest, String groupId) throws IdentityException {
         logger.info("Creating user with mobile_number : " + createUserRequest.getUserName());
-        String groupId = createOrUpdateRealmGroup(createUserRequest.getEntity());
         UserRepresentation newUser = createUserRepresentation(createUserRequest);
-        UsersResource usersResource = keycloak.realm(providerConfiguration.getRealm()).users();
         try (Response response = usersResource.create(newUser)) {
             if (response.getStatus() == 201) {
                 logger.info("Response |  Status: {} | Status Info: {}", response.getStatus(), response.getStatusInfo());
@@ -69,7 +95,13 @@ public class KeycloakAdminUtil implements IdentityManager {
                 return userID;
             } else if (response.getStatus() == 409) {
                 logger.info("UserID: {} exists", createUserRequest.getUserName());
-                return updateExistingUserAttributes(createUserRequest, groupId);
+                try {
+                    return updateExistingUserAttributes(createUserRequest, groupId);
+                } catch (NotFoundException e) {
+                    logger.info("Group {} of entity {} not found, resolving it again", groupId, createUserRequest.getEntity());
+                    entityGroupIds.remove(createUserRequest.getEntity(), groupId);
+                    return updateExistingUserAttributes(createUserRequest, getEntityGroupId(createUserRequest.getEntity()));
+                }
             } else if (response.getStatus() == 500) {
                 throw new IdentityException("Keycloak user creation error");
             } else {
@@ -78,6 +110,17 @@ public class KeycloakAdminUtil implements IdentityManager {
         }
     }
 
+    private String getEntityGroupId(String entityName) {
+        String groupId = entityGroupIds.get(entityName);
+        if (groupId == null) {
+            groupId = createOrUpdateRealmGroup(entityName);
+            if (!groupId.isEmpty()) {
+                entityGroupIds.put(entityName, groupId);
+            }
+        }
+        return groupId;
+    }
+
     private String createOrUpdateRealmGroup(String entityName) {
         RoleRepresentation roleRepresentation = createOrGetRealmRole(entityName);
         GroupsResource groupsResource = keycloak.realm(providerConfiguration.getRealm()).groups();
@@ -86,13 +129,15 @@ public class KeycloakAdminUtil implements IdentityManager {
         Response groupAddResponse = groupsResource.add(groupRepresentation);
         String groupId = "";
         if (groupAddResponse.getStatus() == 409) {
-            Optional<GroupRepresentation> groupRepresentationOptional = groupsResource.groups().stream().filter(gp -> gp.getName().equalsIgnoreCase(entityName)).findFirst();
+            // search by name instead of listing every group of the realm
+            Optional<GroupRepresentation> groupRepresentationOptional = groupsResource.groups(entityName, 0, 100).stream().filter(gp -> gp.getName().equalsIgnoreCase(entityName)).findFirst();
             if (groupRepresentationOptional.isPresent()) {
                 groupId = groupRepresentationOptional.get().getId();
             }
         } else {
             groupId = groupAddResponse.getLocation().getPath().replaceAll(".*/([^/]+)$", "$1");
         }
+        groupAddResponse.close();
         groupsResource.group(groupId)
                 .roles().realmLevel().add(Collections.singletonList(roleRepresentation));
         return groupId;
@@ -0,0 +1,134 @@
+package dev.sunbirdrc.auth.keycloak;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.sunbirdrc.registry.identity_providers.pojos.CreateUserRequest;
+import dev.sunbirdrc.registry.identity_providers.pojos.IdentityProviderConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeycloakAdminUtilTest {
+    private static final String REALM = "sunbird-rc";
+    private static final String ADMIN_PATH = "/admin/realms/" + REALM;
+
+    private final List<String> adminCalls = new CopyOnWriteArrayList<>();
+    private final AtomicInteger userCount = new AtomicInteger();
+    private HttpServer server;
+    private String baseUrl;
+    private KeycloakAdminUtil keycloakAdminUtil;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        keycloakAdminUtil = new KeycloakAdminUtil(configuration());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldResolveGroupAndRoleOnlyForFirstInvite() throws Exception {
+        keycloakAdminUtil.createUser(request("Student", "user0"));
+        assertEquals(4, adminCalls.size());
+
+        adminCalls.clear();
+        keycloakAdminUtil.createUser(request("Student", "user1"));
+        assertEquals(Collections.singletonList("POST " + ADMIN_PATH + "/users"), adminCalls);
+    }
+
+    @Test
+    void shouldCreateUsersOfBulkInviteWithOneCallEach() throws Exception {
+        List<CreateUserRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(request(i % 2 == 0 ? "Student" : "Teacher", "user" + i));
+        }
+
+        List<String> userIds = keycloakAdminUtil.createUsers(requests);
+
+        assertEquals(10, userIds.size());
+        assertEquals("u1", userIds.get(0));
+        // role lookup, group create and role mapping per entity type, then one call per user
+        assertEquals(2 * 3 + 10, adminCalls.size());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        drain(exchange.getRequestBody());
+        if (path.endsWith("/protocol/openid-connect/token")) {
+            respond(exchange, 200, "{\"access_token\":\"token\",\"expires_in\":300,\"token_type\":\"bearer\"}");
+            return;
+        }
+        adminCalls.add(method + " " + path);
+        if (method.equals("GET") && path.startsWith(ADMIN_PATH + "/roles/")) {
+            String role = path.substring(path.lastIndexOf('/') + 1);
+            respond(exchange, 200, "{\"id\":\"role-" + role + "\",\"name\":\"" + role + "\"}");
+        } else if (method.equals("POST") && path.equals(ADMIN_PATH + "/groups")) {
+            exchange.getResponseHeaders().add("Location", baseUrl + ADMIN_PATH + "/groups/g" + adminCalls.size());
+            respond(exchange, 201, null);
+        } else if (method.equals("POST") && path.equals(ADMIN_PATH + "/users")) {
+            exchange.getResponseHeaders().add("Location", baseUrl + ADMIN_PATH + "/users/u" + userCount.incrementAndGet());
+            respond(exchange, 201, null);
+        } else {
+            respond(exchange, 204, null);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    private static void drain(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[1024];
+        while (inputStream.read(buffer) != -1) {
+            // the stub only looks at the method and path
+        }
+    }
+
+    private CreateUserRequest request(String entity, String userName) {
+        return new CreateUserRequest(entity, userName, userName + "@example.com", "9999999999", "");
+    }
+
+    private IdentityProviderConfiguration configuration() {
+        IdentityProviderConfiguration configuration = new IdentityProviderConfiguration();
+        ReflectionTestUtils.setField(configuration, "url", baseUrl);
+        ReflectionTestUtils.setField(configuration, "realm", REALM);
+        ReflectionTestUtils.setField(configuration, "clientId", "admin-api");
+        ReflectionTestUtils.setField(configuration, "clientSecret", "secret");
+        ReflectionTestUtils.setField(configuration, "setDefaultPassword", false);
+        ReflectionTestUtils.setField(configuration, "userActions", Collections.emptyList());
+        ReflectionTestUtils.setField(configuration, "httpMaxConnections", 5);
+        ReflectionTestUtils.setField(configuration, "authenticationEnabled", true);
+        return configuration;
+    }
+}
@@ -9,6 +9,16 @@ public interface IValidate {
 
     void validate(String entityType, String payload, boolean ignoreRequiredFields) throws MiddlewareHaltException;
 
+    /**
+     * Validates the payload without serializing it to a string first
+     */
+    void validate(String entityType, JsonNode payload, boolean ignoreRequiredFields) throws MiddlewareHaltException;
+
+    /**
+     * Compiles every known definition up front. Definitions added afterwards are compiled as they are added.
+     */
+    void compileDefinitions();
+
     /**
      * Store all list of known definitions as definitionMap.
      * Must get populated before creating the schema.
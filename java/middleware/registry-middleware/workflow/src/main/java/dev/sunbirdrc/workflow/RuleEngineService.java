@@ -11,9 +11,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import dev.sunbirdrc.registry.identity_providers.pojos.IdentityException;
 import dev.sunbirdrc.registry.identity_providers.pojos.IdentityManager;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static dev.sunbirdrc.registry.middleware.util.Constants.*;
 
@@ -31,18 +35,46 @@ public class RuleEngineService {
         this.authenticationEnabled = authenticationEnabled;
     }
 
-    public void doTransition(List<StateContext> stateContexts) {
+    public void doTransition(List<StateContext> stateContexts) throws IdentityException {
         StatelessKieSession kieSession = kieContainer.newStatelessKieSession();
-        if(authenticationEnabled) kieSession.setGlobal("identityManager", identityManager);
         kieSession.setGlobal("ruleEngineService", this);
         kieSession.execute(stateContexts);
+        createOwners(stateContexts);
     }
 
-    public void doTransition(StateContext stateContext) {
+    public void doTransition(StateContext stateContext) throws IdentityException {
         StatelessKieSession kieSession = kieContainer.newStatelessKieSession();
-        if(authenticationEnabled) kieSession.setGlobal("identityManager", identityManager);
         kieSession.setGlobal("ruleEngineService", this);
         kieSession.execute(stateContext);
+        createOwners(Collections.singletonList(stateContext));
+    }
+
+    /**
+     * Creates the owners requested by the rules in one call to the identity provider, so that an invite with several
+     * owners resolves the groups and roles of the entity once
+     */
+    private void createOwners(List<StateContext> stateContexts) throws IdentityException {
+        if (!authenticationEnabled) {
+            return;
+        }
+        List<StateContext> owned = stateContexts.stream()
+                .filter(stateContext -> stateContext.getOwnerRequest() != null)
+                .collect(Collectors.toList());
+        if (owned.isEmpty()) {
+            return;
+        }
+        List<String> owners = identityManager.createUsers(owned.stream()
+                .map(StateContext::getOwnerRequest).collect(Collectors.toList()));
+        if (owners.size() != owned.size()) {
+            throw new IdentityException("Creating users failed");
+        }
+        try {
+            for (int i = 0; i < owned.size(); i++) {
+                owned.get(i).addOwner(owners.get(i));
+            }
+        } catch (IOException e) {
+            throw new IdentityException(e.getMessage());
+        }
     }
 
     public void revertOwnershipDetails(StateContext stateContext) {
@@ -12,6 +12,7 @@ import dev.sunbirdrc.pojos.attestation.States;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.identity_providers.pojos.CreateUserRequest;
 import lombok.Builder;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
@@ -47,6 +48,10 @@ public class StateContext {
     private List<String> ignoredFields = new ArrayList<>();
     @Builder.Default
     private ObjectNode metaData = JsonNodeFactory.instance.objectNode();
+    /**
+     * Owner the rules asked to create, created together with the owners of the other contexts of the transition
+     */
+    private CreateUserRequest ownerRequest;
 
 
     private void setMetadata(String fieldName, JsonNode fieldValue) throws Exception {
@@ -111,6 +116,10 @@ public class StateContext {
         return jsonNode == null || jsonNode.get(key) == null ? null : jsonNode.get(key).textValue();
     }
 
+    public void requestOwner(CreateUserRequest createUserRequest) {
+        this.ownerRequest = createUserRequest;
+    }
+
     public void addOwner(String owner) throws IOException {
         ArrayNode arrayNode = (ArrayNode) metadataNode.get(OSSystemFields.osOwner.toString());
         if (arrayNode == null) {
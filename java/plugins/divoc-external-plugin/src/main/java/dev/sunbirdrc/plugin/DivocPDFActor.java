@@ -16,7 +16,6 @@ import dev.sunbirdrc.pojos.attestation.Action;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
-import org.sunbird.akka.core.ActorCache;
 import org.sunbird.akka.core.BaseActor;
 import org.sunbird.akka.core.MessageProtos;
 import org.sunbird.akka.core.Router;
@@ -63,7 +62,7 @@ public class DivocPDFActor extends BaseActor {
 		}
 		logger.info("{}", pluginRequestMessage);
 		MessageProtos.Message esProtoMessage = MessageFactory.instance().createPluginResponseMessage(pluginResponseMessage);
-		ActorCache.instance().get(Router.ROUTER_NAME).tell(esProtoMessage, null);
+		Router.sendAndForget(esProtoMessage);
 	}
 
 	@Override
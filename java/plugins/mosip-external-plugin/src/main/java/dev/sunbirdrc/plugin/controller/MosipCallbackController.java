@@ -19,7 +19,6 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.sunbird.akka.core.ActorCache;
 import org.sunbird.akka.core.MessageProtos;
 import org.sunbird.akka.core.Router;
 
@@ -64,7 +63,7 @@ public class MosipCallbackController {
                 pluginResponseMessage.setResponse(requestBody.get("event").get("data").toString());
                 LOGGER.info("{}", pluginResponseMessage);
                 MessageProtos.Message esProtoMessage = MessageFactory.instance().createPluginResponseMessage(pluginResponseMessage);
-                ActorCache.instance().get(Router.ROUTER_NAME).tell(esProtoMessage, null);
+                Router.sendAndForget(esProtoMessage);
                 return ResponseEntity.ok(queryParams.get(Constants.HUB_CHALLENGE));
             } else {
                 LOGGER.error("Failed fetching mosip pdf");
@@ -13,7 +13,6 @@ import dev.sunbirdrc.pojos.PluginResponseMessageCreator;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.DigestUtils;
 import org.springframework.web.client.RestTemplate;
-import org.sunbird.akka.core.ActorCache;
 import org.sunbird.akka.core.BaseActor;
 import org.sunbird.akka.core.MessageProtos;
 import org.sunbird.akka.core.Router;
@@ -54,7 +53,7 @@ public class DocumentUploadActor extends BaseActor {
         md5Response.set("md5", signedMd5s);
         pluginResponseMessage.setResponse(objectMapper.writeValueAsString(md5Response));
         MessageProtos.Message esProtoMessage = MessageFactory.instance().createPluginResponseMessage(pluginResponseMessage);
-        ActorCache.instance().get(Router.ROUTER_NAME).tell(esProtoMessage, null);
+        Router.sendAndForget(esProtoMessage);
     }
 
     @Override
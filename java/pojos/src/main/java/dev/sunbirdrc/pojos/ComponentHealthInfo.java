@@ -6,6 +6,8 @@ public class ComponentHealthInfo {
 	private boolean healthy;
 	private String err;
 	private String errmsg;
+	// milliseconds since the component was checked, set only by the registry health check
+	private Long age;
 
 	public ComponentHealthInfo(String name, boolean healthy) {
 		this.name = name;
@@ -52,4 +54,12 @@ public class ComponentHealthInfo {
 	public void setErrmsg(String errmsg) {
 		this.errmsg = errmsg;
 	}
+
+	public Long getAge() {
+		return age;
+	}
+
+	public void setAge(Long age) {
+		this.age = age;
+	}
 }
@@ -99,6 +99,7 @@ public class Response {
 		DECRYPT(getApiName() + ".utils.decrypt"),
         SEND(getApiName() + ".registry.send"),
 		REVOKE(getApiName() + ".utils.revoke"),
+		METRICS(getApiName() + ".utils.metrics"),
 		NONE("");
         private String id;
 
@@ -18,6 +18,7 @@ public class Constants {
     public static final String USER_ANONYMOUS = "anonymous";
     public static final String ATTESTATION_POLICY = "AttestationPolicy";
     public static final String REVOKED_CREDENTIAL = "RevokedCredential";
+    public static final String ISSUER = "Issuer";
     public static final String Schema = "Schema";
     public static final String SchemaName = "name";
     public static final String Template = "template";
@@ -1,8 +1,15 @@
 package dev.sunbirdrc.registry.app;
 
+import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
 import dev.sunbirdrc.registry.service.CredentialSchemaService;
+import dev.sunbirdrc.registry.service.RevokedCredentialFilter;
 import dev.sunbirdrc.registry.service.impl.SignatureV2ServiceImpl;
 import dev.sunbirdrc.registry.util.EntityParenter;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import dev.sunbirdrc.registry.util.IndexReconciler;
+import dev.sunbirdrc.validators.IValidate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +18,12 @@ import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.sunbirdrc.registry.Constants.ATTESTATION_POLICY;
 
 @Component
 public class AppStartupRunner implements ApplicationRunner {
@@ -20,26 +32,85 @@ public class AppStartupRunner implements ApplicationRunner {
 
 	@Autowired
 	EntityParenter entityParenter;
+	@Autowired
+	IndexReconciler indexReconciler;
+	@Autowired
+	DBConnectionInfoMgr dbConnectionInfoMgr;
+	@Autowired
+	IDefinitionsManager definitionsManager;
+	@Autowired
+	StartupReadiness startupReadiness;
+	@Autowired
+	RevokedCredentialFilter revokedCredentialFilter;
 
 	@Value("${signature.enabled}")
 	private boolean signatureEnabled;
 	@Value("${signature.provider}")
 	private String signatureProvider;
+	@Value("${startup.maxConcurrency:4}")
+	private int maxConcurrency;
+	@Value("${startup.timeout:600000}")
+	private long timeoutMillis;
 	@Autowired(required = false)
 	CredentialSchemaService credentialSchemaService;
+	@Autowired(required = false)
+	IElasticService elasticService;
+	@Autowired
+	private boolean isElasticSearchEnabled;
+	@Autowired
+	IValidate validator;
 
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
-    	logger.info("On Boot starts loading: parent vertex and shard records");
-    	entityParenter.ensureKnownParenters();
-    	entityParenter.loadDefinitionIndex();
-		entityParenter.ensureIndexExists();
-		entityParenter.saveIdFormat();
-		if(signatureEnabled && Objects.equals(signatureProvider, SignatureV2ServiceImpl.class.getName())) {
-			logger.info("On Boot starts loading: credential schemas");
-			credentialSchemaService.ensureCredentialSchemas();
+		logger.info("On Boot starts loading: parent vertex and shard records");
+		long start = System.currentTimeMillis();
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrency), runnable -> {
+			Thread thread = new Thread(runnable, "startup-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			startupTasks().run(executor, timeoutMillis);
+		} catch (Exception e) {
+			startupReadiness.markFailed(e);
+			throw e;
+		} finally {
+			executor.shutdownNow();
 		}
+		startupReadiness.markReady(System.currentTimeMillis() - start);
 		logger.info("Startup completed!");
     }
+
+	/**
+	 * Shards and elastic search indices are initialized side by side, and the revoked credential filter once every
+	 * shard is ready. The owner index of a shard is only started once its parents exist: it is verified in the
+	 * background, owner lookups scan the records until it is.
+	 */
+	StartupTaskGraph startupTasks() {
+		StartupTaskGraph startupTasks = new StartupTaskGraph();
+		List<String> parentTasks = new ArrayList<>();
+		for (DBConnectionInfo dbConnectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+			String parentTask = "parents:" + dbConnectionInfo.getShardId();
+			startupTasks.add(parentTask, () -> entityParenter.ensureKnownParenters(dbConnectionInfo));
+			startupTasks.add("ownerIndex:" + dbConnectionInfo.getShardId(), () -> entityParenter.ensureOwnerIndexInBackground(dbConnectionInfo), parentTask);
+			parentTasks.add(parentTask);
+		}
+		startupTasks.add("indices", () -> indexReconciler.reconcileAll().join(), parentTasks);
+		startupTasks.add("idFormat", entityParenter::saveIdFormat);
+		startupTasks.add("validators", validator::compileDefinitions);
+		startupTasks.add("revokedCredentialFilter", revokedCredentialFilter::rebuild, parentTasks);
+		if (isElasticSearchEnabled && elasticService != null) {
+			Set<String> indices = new TreeSet<>(definitionsManager.getAllKnownDefinitions());
+			indices.add(ATTESTATION_POLICY);
+			for (String index : indices) {
+				startupTasks.add("elasticIndex:" + index, () -> elasticService.ensureIndex(index));
+			}
+		}
+		if(signatureEnabled && Objects.equals(signatureProvider, SignatureV2ServiceImpl.class.getName())) {
+			startupTasks.add("credentialSchemas", credentialSchemaService::ensureCredentialSchemas);
+		}
+		return startupTasks;
+	}
 }
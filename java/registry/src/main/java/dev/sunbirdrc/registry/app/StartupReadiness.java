@@ -0,0 +1,43 @@
+package dev.sunbirdrc.registry.app;
+
+import dev.sunbirdrc.pojos.ComponentHealthInfo;
+import dev.sunbirdrc.pojos.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import static dev.sunbirdrc.registry.middleware.util.Constants.SUNBIRDRC_REGISTRY_STARTUP;
+
+/**
+ * Reports the registry unhealthy until every startup task has completed, so that a pod gets traffic only once its
+ * shards, indices and schemas are initialized
+ */
+@Component
+public class StartupReadiness implements HealthIndicator {
+    private volatile boolean ready;
+    private volatile String status = "starting";
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady(long startupMillis) {
+        status = String.format("started in %d ms", startupMillis);
+        ready = true;
+    }
+
+    public void markFailed(Exception e) {
+        status = "startup failed: " + e.getMessage();
+    }
+
+    @Override
+    public String getServiceName() {
+        return SUNBIRDRC_REGISTRY_STARTUP;
+    }
+
+    @Override
+    public ComponentHealthInfo getHealthInfo() {
+        if (!ready) {
+            return new ComponentHealthInfo(getServiceName(), false, "NOT_READY", status);
+        }
+        return new ComponentHealthInfo(getServiceName(), true, "", status);
+    }
+}
@@ -0,0 +1,111 @@
+package dev.sunbirdrc.registry.app;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tasks run on start, each as soon as the tasks it depends on are done, so independent tasks run side by side on
+ * the given executor. A task can only depend on tasks added before it, which keeps the graph free of cycles.
+ */
+public class StartupTaskGraph {
+    private static final Logger logger = LoggerFactory.getLogger(StartupTaskGraph.class);
+
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public interface StartupTask {
+        void run() throws Exception;
+    }
+
+    public StartupTaskGraph add(String name, StartupTask task, String... dependsOn) {
+        return add(name, task, Arrays.asList(dependsOn));
+    }
+
+    public StartupTaskGraph add(String name, StartupTask task, List<String> dependsOn) {
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("Startup task " + name + " is added twice");
+        }
+        for (String dependency : dependsOn) {
+            if (!tasks.containsKey(dependency)) {
+                throw new IllegalArgumentException("Startup task " + name + " depends on " + dependency + " which isn't added before it");
+            }
+        }
+        tasks.put(name, new Task(name, task, new ArrayList<>(dependsOn)));
+        return this;
+    }
+
+    /**
+     * Runs all the tasks and waits for them, a task fails the run and its dependants are skipped
+     *
+     * @param executor      - runs the tasks
+     * @param timeoutMillis - time allowed for all the tasks
+     */
+    public void run(Executor executor, long timeoutMillis) throws Exception {
+        long start = System.currentTimeMillis();
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (Task task : tasks.values()) {
+            CompletableFuture<?>[] dependencies = task.dependsOn.stream().map(futures::get).toArray(CompletableFuture[]::new);
+            futures.put(task.name, CompletableFuture.allOf(dependencies).thenRunAsync(() -> run(task), executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (TimeoutException e) {
+            List<String> pending = new ArrayList<>();
+            futures.forEach((name, future) -> {
+                if (!future.isDone()) {
+                    pending.add(name);
+                }
+            });
+            throw new TimeoutException("Startup tasks didn't complete in " + timeoutMillis + " ms: " + pending);
+        }
+        logger.info("Startup tasks completed in {} ms: {}", System.currentTimeMillis() - start, timings);
+    }
+
+    /**
+     * @return time taken by each completed task in milliseconds
+     */
+    public Map<String, Long> getTimings() {
+        return timings;
+    }
+
+    private void run(Task task) {
+        long start = System.currentTimeMillis();
+        logger.info("Startup task {} started", task.name);
+        try {
+            task.task.run();
+        } catch (Exception e) {
+            logger.error("Startup task {} failed after {} ms", task.name, System.currentTimeMillis() - start);
+            throw new CompletionException(e);
+        }
+        long took = System.currentTimeMillis() - start;
+        timings.put(task.name, took);
+        logger.info("Startup task {} completed in {} ms", task.name, took);
+    }
+
+    private static final class Task {
+        private final String name;
+        private final StartupTask task;
+        private final List<String> dependsOn;
+
+        Task(String name, StartupTask task, List<String> dependsOn) {
+            this.name = name;
+            this.task = task;
+            this.dependsOn = dependsOn;
+        }
+    }
+}
@@ -66,8 +66,9 @@ import dev.sunbirdrc.registry.identity_providers.providers.IdentityProvider;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-import static dev.sunbirdrc.registry.Constants.ATTESTATION_POLICY;
 
 @Configuration
 @EnableRetry
@@ -132,6 +133,14 @@ public class GenericConfiguration implements WebMvcConfigurer {
 	private int auditMaxPoolSize;
 	@Value("${auditTaskExecutor.queueCapacity}")
 	private int auditQueueCapacity;
+	@Value("${outboundTaskExecutor.threadPoolName:OutboundThread-}")
+	private String outboundThreadName;
+	@Value("${outboundTaskExecutor.poolSize:20}")
+	private int outboundPoolSize;
+	@Value("${outboundTaskExecutor.queueCapacity:500}")
+	private int outboundQueueCapacity;
+	@Value("${outboundTaskExecutor.taskPoolSize:10}")
+	private int outboundTaskPoolSize;
 	@Value("${elastic.search.connection_url}")
 	private String elasticConnInfo;
 	@Value("${elastic.search.auth_enabled}")
@@ -156,6 +165,8 @@ public class GenericConfiguration implements WebMvcConfigurer {
 	private String schemaUrl;
 	@Value("${httpConnection.maxConnections:5}")
 	private int httpMaxConnections;
+	@Value("${httpConnection.idleTimeout:30000}")
+	private long httpIdleTimeout;
 	@Value("${elastic.search.scheme}")
 	private String scheme;
 
@@ -284,7 +295,12 @@ public class GenericConfiguration implements WebMvcConfigurer {
 
 	@Bean
 	public RestTemplate restTemplateProvider() throws IOException {
-		HttpClient httpClient = HttpClientBuilder.create().setMaxConnPerRoute(httpMaxConnections).setMaxConnTotal(httpMaxConnections * 2).build();
+		HttpClient httpClient = HttpClientBuilder.create()
+				.setMaxConnPerRoute(httpMaxConnections)
+				.setMaxConnTotal(httpMaxConnections * 2)
+				.evictExpiredConnections()
+				.evictIdleConnections(httpIdleTimeout, TimeUnit.MILLISECONDS)
+				.build();
 		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
 		requestFactory.setConnectTimeout(connectionTimeout);
 		requestFactory.setConnectionRequestTimeout(connectionRequestTimeout);
@@ -351,6 +367,7 @@ public class GenericConfiguration implements WebMvcConfigurer {
 		requestIdMap.put(Constants.REGISTRY_SEARCH_ENDPOINT, Response.API_ID.SEARCH.getId());
 		requestIdMap.put(Constants.REGISTRY_UPDATE_ENDPOINT, Response.API_ID.UPDATE.getId());
 		requestIdMap.put(Constants.SIGNATURE_SIGN_ENDPOINT, Response.API_ID.SIGN.getId());
+		requestIdMap.put(Constants.SIGNATURE_SIGN_BATCH_ENDPOINT, Response.API_ID.SIGN.getId());
 		requestIdMap.put(Constants.SIGNATURE_VERIFY_ENDPOINT, Response.API_ID.VERIFY.getId());
 		requestIdMap.put(Constants.REGISTRY_AUDT_READ_ENDPOINT, Response.API_ID.AUDIT.getId());
 		return requestIdMap;
@@ -436,7 +453,44 @@ public class GenericConfiguration implements WebMvcConfigurer {
 	}
 
 	/**
-	 * creates elastic-service bean and instanstiates the indices
+	 * This method creates ThreadPool task-executor for asynchronous calls to other services. When the queue is full
+	 * the caller runs the call itself, which slows down the callers instead of failing them.
+	 *
+	 * @return - TaskExecutor
+	 */
+	@Bean(name = "outboundExecutor")
+	public ThreadPoolTaskExecutor outboundTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(outboundPoolSize);
+		executor.setMaxPoolSize(outboundPoolSize);
+		executor.setQueueCapacity(outboundQueueCapacity);
+		executor.setThreadNamePrefix(outboundThreadName);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * Runs the tasks that make outbound calls of their own and wait for them, kept apart from the pool the calls run
+	 * on so that waiting tasks can't take every thread of it. Same as for the calls, the caller runs the task when
+	 * the queue is full.
+	 *
+	 * @return - TaskExecutor
+	 */
+	@Bean(name = "outboundTaskExecutor")
+	public ThreadPoolTaskExecutor outboundTaskRunner() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(outboundTaskPoolSize);
+		executor.setMaxPoolSize(outboundTaskPoolSize);
+		executor.setQueueCapacity(outboundQueueCapacity);
+		executor.setThreadNamePrefix(outboundThreadName + "Task-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * creates elastic-service bean, the indices are created by the startup tasks
 	 *
 	 * @return - IElasticService
 	 * @throws IOException
@@ -454,9 +508,6 @@ public class GenericConfiguration implements WebMvcConfigurer {
 			elasticService.setUserName(username);
 			elasticService.setPassword(password);
 			elasticService.setScheme(scheme);
-			Set<String> indices = new HashSet<>(iDefinitionsManager.getAllKnownDefinitions());
-			indices.add(ATTESTATION_POLICY);
-			elasticService.init(indices);
 			elasticService.setIsHardDeleteEnabled(isHardDeleteEnabled);
 		}
 		return elasticService;
@@ -13,6 +13,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.annotation.KafkaListeners;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
@@ -37,12 +38,28 @@ public class KafkaConfiguration {
 	String createEntityTopic;
 	@Value("${kafka.postCreateEntityTopic:post_create_entity}")
 	String postCreateEntityTopic;
+	@Value("${kafka.createEntityDeadLetterTopic:create_entity_dlt}")
+	String createEntityDeadLetterTopic;
+	@Value("${kafka.createEntityPartitions:1}")
+	int createEntityPartitions;
+	@Value("${kafka.createEntityBatch.concurrency:1}")
+	int createEntityBatchConcurrency;
+	@Value("${kafka.createEntityBatch.maxPollRecords:500}")
+	int createEntityBatchMaxPollRecords;
 	@Value(value = "${kafka.bootstrapAddress}")
 	private String bootstrapAddress;
 	@Value(value = "${event.topic}")
 	private String eventTopic;
 	@Value(value = "${notification.topic}")
 	private String notificationTopic;
+	@Value("${kafka.producer.lingerMs:20}")
+	private int producerLingerMs;
+	@Value("${kafka.producer.batchSize:65536}")
+	private int producerBatchSize;
+	@Value("${kafka.producer.compressionType:lz4}")
+	private String producerCompressionType;
+	@Value("${kafka.producer.idempotence:true}")
+	private boolean producerIdempotence;
 
 	@Bean
 	public KafkaAdmin kafkaAdmin() {
@@ -72,7 +89,13 @@ public class KafkaConfiguration {
 	@Bean
 	@ConditionalOnProperty("async.enabled")
 	public NewTopic createEntityTopic() {
-		return new NewTopic(createEntityTopic, 1, (short) 1);
+		return new NewTopic(createEntityTopic, createEntityPartitions, (short) 1);
+	}
+
+	@Bean
+	@ConditionalOnProperty("async.enabled")
+	public NewTopic createEntityDeadLetterTopic() {
+		return new NewTopic(createEntityDeadLetterTopic, 1, (short) 1);
 	}
 
 	@Bean
@@ -91,10 +114,32 @@ public class KafkaConfiguration {
 	}
 
 	@Bean
+	@Primary
 	public KafkaTemplate<String, String> kafkaTemplate() {
 		return new KafkaTemplate<>(producerFactory());
 	}
 
+	/**
+	 * Producer of the telemetry events only, the other topics keep the defaults of producerFactory
+	 */
+	@Bean
+	@ConditionalOnProperty("event.enabled")
+	public ProducerFactory<String, String> eventProducerFactory() {
+		Map<String, Object> configProps = new HashMap<>(producerFactory().getConfigurationProperties());
+		// wait briefly so that events sent together go out as one compressed batch
+		configProps.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+		configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+		configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+		configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, producerIdempotence);
+		return new DefaultKafkaProducerFactory<>(configProps);
+	}
+
+	@Bean
+	@ConditionalOnProperty("event.enabled")
+	public KafkaTemplate<String, String> eventKafkaTemplate() {
+		return new KafkaTemplate<>(eventProducerFactory());
+	}
+
 	@Bean
 	public ConsumerFactory<String, String> consumerFactory() {
 		Map<String, Object> props = new HashMap<>();
@@ -115,4 +160,18 @@ public class KafkaConfiguration {
 		return factory;
 	}
 
+	@Bean
+	@ConditionalOnProperty("kafka.createEntityBatch.enabled")
+	public ConcurrentKafkaListenerContainerFactory<String, String> batchKafkaListenerContainerFactory() {
+		Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+		props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, createEntityBatchMaxPollRecords);
+		ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+		factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+		factory.setBatchListener(true);
+		factory.setConcurrency(createEntityBatchConcurrency);
+		// offsets of a batch are committed only once the listener acknowledges it
+		factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+		return factory;
+	}
+
 }
@@ -0,0 +1,251 @@
+package dev.sunbirdrc.registry.consumers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.helper.RegistryHelper;
+import dev.sunbirdrc.registry.model.dto.CreateEntityMessage;
+import dev.sunbirdrc.registry.model.dto.CreateEntityResult;
+import dev.sunbirdrc.registry.model.dto.CreateEntityStatus;
+import dev.sunbirdrc.registry.model.dto.PostCreateEntityMessage;
+import dev.sunbirdrc.registry.model.dto.WebhookEvent;
+import dev.sunbirdrc.registry.service.RegistryService;
+import dev.sunbirdrc.registry.service.WebhookService;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static dev.sunbirdrc.registry.Constants.SUNBIRD_RC;
+import static dev.sunbirdrc.registry.Constants.createEntityGroupId;
+
+/**
+ * Batch alternative of {@link CreateEntityConsumer}. The records of a poll are grouped per entity type and shard and
+ * each group is added with {@link RegistryService#addEntities}, in a single db transaction that falls back to one
+ * transaction per record, so only the records that fail on their own are published to the dead letter topic.
+ * Offsets are acknowledged once every group is written and every dead letter is sent. A dead letter that can't be sent
+ * is sent again, with a backoff, until it is: redelivering the batch instead would create the records after it again.
+ * Only when the consumer is stopped meanwhile is the batch acknowledged without it, its failure having been notified.
+ */
+@Component
+@ConditionalOnExpression("${async.enabled} and ${kafka.createEntityBatch.enabled:false}")
+public class BatchCreateEntityConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(BatchCreateEntityConsumer.class);
+    private static final long MAX_DEAD_LETTER_RETRY_DELAY_MS = 60000;
+    private final ObjectMapper objectMapper;
+    private final ShardManager shardManager;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final RegistryService registryService;
+    private final RegistryHelper registryHelper;
+    private final WebhookService webhookService;
+
+    @Value("${kafka.postCreateEntityTopic:post_create_entity}")
+    String postCreateEntityTopic;
+
+    @Value("${kafka.createEntityDeadLetterTopic:create_entity_dlt}")
+    String deadLetterTopic;
+
+    @Value("${kafka.createEntityBatch.deadLetterRetryDelayMs:1000}")
+    long deadLetterRetryDelayMs;
+
+    @Value("${webhook.url}")
+    private String webhookUrl;
+
+    @Autowired
+    public BatchCreateEntityConsumer(ObjectMapper objectMapper, ShardManager shardManager, KafkaTemplate<String, String> kafkaTemplate,
+                                     @Qualifier("sync") RegistryService registryService, RegistryHelper registryHelper,
+                                     WebhookService webhookService) {
+        this.objectMapper = objectMapper;
+        this.shardManager = shardManager;
+        this.kafkaTemplate = kafkaTemplate;
+        this.registryService = registryService;
+        this.registryHelper = registryHelper;
+        this.webhookService = webhookService;
+    }
+
+    @KafkaListener(topics = "#{'${kafka.createEntityTopic}'}", groupId = createEntityGroupId, autoStartup = "${async.enabled}",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void createEntitiesConsumer(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) throws Exception {
+        logger.debug("Received {} create entity records", records.size());
+        List<DeadLetter> deadLetters = new ArrayList<>();
+        Map<String, List<PendingEntity>> groups = new LinkedHashMap<>();
+        Map<String, String> groupOfKey = new HashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                CreateEntityMessage createEntityMessage = objectMapper.readValue(record.value(), CreateEntityMessage.class);
+                JsonNode inputJson = createEntityMessage.getInputJson();
+                String entityType = inputJson.fields().next().getKey();
+                Shard shard = shardManager.getShard(inputJson.get(entityType).get(shardManager.getShardProperty()));
+                String group = entityType + "/" + shard.getShardId();
+                String previousGroup = record.key() == null ? null : groupOfKey.get(record.key());
+                if (previousGroup != null && !previousGroup.equals(group)) {
+                    // records of a key are created in the order they were produced, even across groups
+                    createEntities(groups, deadLetters);
+                    groups.clear();
+                    groupOfKey.clear();
+                }
+                groups.computeIfAbsent(group, k -> new ArrayList<>()).add(new PendingEntity(record, createEntityMessage, entityType, shard));
+                if (record.key() != null) {
+                    groupOfKey.put(record.key(), group);
+                }
+            } catch (Exception e) {
+                deadLetters.add(new DeadLetter(onFailure(record, null, e)));
+            }
+        }
+        createEntities(groups, deadLetters);
+        for (DeadLetter deadLetter : deadLetters) {
+            awaitDeadLetter(deadLetter.record, deadLetter.sent);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Waits for the dead letter to be sent, sending it again until it is or the consumer is stopped
+     */
+    private void awaitDeadLetter(ProducerRecord<String, String> deadLetter, ListenableFuture<SendResult<String, String>> sent) {
+        long delay = deadLetterRetryDelayMs;
+        try {
+            while (true) {
+                try {
+                    sent.get();
+                    return;
+                } catch (ExecutionException e) {
+                    logger.error("Sending {} to the dead letter topic failed, sending it again in {} ms: {}", deadLetter.key(),
+                            delay, ExceptionUtils.getRootCauseMessage(e));
+                }
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, MAX_DEAD_LETTER_RETRY_DELAY_MS);
+                sent = send(deadLetter);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Stopped before sending {} to the dead letter topic, its failure was only notified: {}",
+                    deadLetter.key(), deadLetter.value());
+        }
+    }
+
+    private ListenableFuture<SendResult<String, String>> send(ProducerRecord<String, String> deadLetter) {
+        try {
+            return kafkaTemplate.send(deadLetter);
+        } catch (Exception e) {
+            SettableListenableFuture<SendResult<String, String>> failed = new SettableListenableFuture<>();
+            failed.setException(e);
+            return failed;
+        }
+    }
+
+    private void createEntities(Map<String, List<PendingEntity>> groups, List<DeadLetter> deadLetters) {
+        for (List<PendingEntity> group : groups.values()) {
+            createEntities(group, deadLetters);
+        }
+    }
+
+    private void createEntities(List<PendingEntity> group, List<DeadLetter> deadLetters) {
+        List<CreateEntityMessage> messages = new ArrayList<>(group.size());
+        for (PendingEntity pendingEntity : group) {
+            messages.add(pendingEntity.createEntityMessage);
+        }
+        List<CreateEntityResult> results = registryService.addEntities(group.get(0).shard, messages);
+        for (int i = 0; i < group.size(); i++) {
+            PendingEntity pendingEntity = group.get(i);
+            CreateEntityResult result = results.get(i);
+            if (result.isCreated()) {
+                onCreated(pendingEntity, pendingEntity.createEntityMessage.getInputJson(), result.getEntityId());
+            } else {
+                deadLetters.add(new DeadLetter(onFailure(pendingEntity.record, pendingEntity.createEntityMessage, result.getError())));
+            }
+        }
+    }
+
+    private void onCreated(PendingEntity pendingEntity, JsonNode inputJson, String entityUuid) {
+        CreateEntityMessage message = pendingEntity.createEntityMessage;
+        String key = pendingEntity.record.key();
+        PostCreateEntityMessage postCreateEntityMessage;
+        try {
+            registryHelper.autoRaiseClaim(pendingEntity.entityType, entityUuid, message.getUserId(), null, inputJson, message.getEmailId());
+            postCreateEntityMessage = PostCreateEntityMessage.builder().entityType(pendingEntity.entityType).uuid(entityUuid)
+                    .transactionId(key).userId(message.getUserId()).status(CreateEntityStatus.SUCCESSFUL).message("").build();
+        } catch (Exception e) {
+            // the entity is already committed, so the record is not dead lettered
+            logger.error("Raising claim for {} failed: {}", entityUuid, ExceptionUtils.getStackTrace(e));
+            postCreateEntityMessage = PostCreateEntityMessage.builder().status(CreateEntityStatus.FAILED).transactionId(key).message(e.getMessage()).build();
+        }
+        notify(postCreateEntityMessage, key, message);
+    }
+
+    /**
+     * @return the dead letter of the record
+     */
+    private ProducerRecord<String, String> onFailure(ConsumerRecord<String, String> record, CreateEntityMessage message, Exception e) {
+        logger.error("Creating entity failed: {}", ExceptionUtils.getStackTrace(e));
+        notify(PostCreateEntityMessage.builder().status(CreateEntityStatus.FAILED).transactionId(record.key()).message(e.getMessage()).build(),
+                record.key(), message);
+        ProducerRecord<String, String> deadLetter = new ProducerRecord<>(deadLetterTopic, record.key(), record.value());
+        deadLetter.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, record.topic().getBytes(StandardCharsets.UTF_8));
+        deadLetter.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN, e.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        deadLetter.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        return deadLetter;
+    }
+
+    private void notify(PostCreateEntityMessage postCreateEntityMessage, String key, CreateEntityMessage message) {
+        String url = message != null && !StringUtils.isEmpty(message.getWebhookUrl()) ? message.getWebhookUrl() : webhookUrl;
+        try {
+            kafkaTemplate.send(postCreateEntityTopic, key, objectMapper.writeValueAsString(postCreateEntityMessage));
+        } catch (Exception e) {
+            logger.error("Sending message to {} topic failed: {}", postCreateEntityMessage, ExceptionUtils.getStackTrace(e));
+        }
+        webhookService.postEvent(WebhookEvent.builder().event(String.format("%s-create", SUNBIRD_RC))
+                .data(postCreateEntityMessage)
+                .webhookUrl(url)
+                .timestamp(Timestamp.from(Instant.now())).build());
+    }
+
+    private class DeadLetter {
+        private final ProducerRecord<String, String> record;
+        private final ListenableFuture<SendResult<String, String>> sent;
+
+        DeadLetter(ProducerRecord<String, String> record) {
+            this.record = record;
+            this.sent = send(record);
+        }
+    }
+
+    private static class PendingEntity {
+        private final ConsumerRecord<String, String> record;
+        private final CreateEntityMessage createEntityMessage;
+        private final String entityType;
+        private final Shard shard;
+
+        PendingEntity(ConsumerRecord<String, String> record, CreateEntityMessage createEntityMessage, String entityType, Shard shard) {
+            this.record = record;
+            this.createEntityMessage = createEntityMessage;
+            this.entityType = entityType;
+            this.shard = shard;
+        }
+    }
+}
@@ -34,7 +34,7 @@ import static dev.sunbirdrc.registry.Constants.SUNBIRD_RC;
 import static dev.sunbirdrc.registry.Constants.createEntityGroupId;
 
 @Component
-@ConditionalOnExpression("${async.enabled}")
+@ConditionalOnExpression("${async.enabled} and !${kafka.createEntityBatch.enabled:false}")
 public class CreateEntityConsumer {
     private static final Logger logger = LoggerFactory.getLogger(CreateEntityConsumer.class);
     private final ObjectMapper objectMapper;
@@ -65,11 +65,12 @@ public class CreateEntityConsumer {
     @KafkaListener(topics = "#{'${kafka.createEntityTopic}'}", groupId = createEntityGroupId, autoStartup = "${async.enabled}")
     public void createEntityConsumer(@Payload String message, @Header(KafkaHeaders.RECEIVED_MESSAGE_KEY) String key, Acknowledgment acknowledgment) {
         PostCreateEntityMessage postCreateEntityMessage = PostCreateEntityMessage.builder().build();
+        String url = webhookUrl;
         try {
             logger.debug("Received message: {}, key: {}", message, key);
             CreateEntityMessage createEntityMessage = objectMapper.readValue(message, CreateEntityMessage.class);
             if (!StringUtils.isEmpty(createEntityMessage.getWebhookUrl())) {
-                webhookUrl = createEntityMessage.getWebhookUrl();
+                url = createEntityMessage.getWebhookUrl();
             }
             JsonNode inputJson = createEntityMessage.getInputJson();
             String entityType = inputJson.fields().next().getKey();
@@ -86,7 +87,7 @@ public class CreateEntityConsumer {
                 kafkaTemplate.send(postCreateEntityTopic, key, objectMapper.writeValueAsString(postCreateEntityMessage));
                 webhookService.postEvent(WebhookEvent.builder().event(String.format("%s-create", SUNBIRD_RC))
                         .data(postCreateEntityMessage)
-                        .webhookUrl(webhookUrl)
+                        .webhookUrl(url)
                         .timestamp(Timestamp.from(Instant.now())).build());
             } catch (Exception e) {
                 logger.error("Sending message to {} topic failed: {}", postCreateEntityMessage, ExceptionUtils.getStackTrace(e));
@@ -3,15 +3,22 @@ package dev.sunbirdrc.registry.controller;
 import dev.sunbirdrc.registry.helper.RegistryHelper;
 import dev.sunbirdrc.registry.model.dto.DocumentsResponse;
 import dev.sunbirdrc.registry.service.FileStorageService;
+import io.minio.StatObjectResponse;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletRequest;
@@ -111,12 +118,17 @@ public class FileStorageController {
         return ResponseEntity.ok(HttpStatus.OK);
     }
 
+    /**
+     * Streams the document from the object store, a single byte range is served when asked for with the Range header
+     * and a document which the client already has, going by If-None-Match or If-Modified-Since, is not sent again.
+     */
     @GetMapping(value = "/api/v1/{entity}/{entityId}/{property}/documents/{documentId}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<byte[]> get(@PathVariable String entity,
-                                      @PathVariable String entityId,
-                                      @PathVariable String property,
-                                      @PathVariable String documentId,
-                                      HttpServletRequest httpServletRequest) {
+    public ResponseEntity<Resource> get(@PathVariable String entity,
+                                        @PathVariable String entityId,
+                                        @PathVariable String property,
+                                        @PathVariable String documentId,
+                                        HttpServletRequest httpServletRequest,
+                                        ServletWebRequest webRequest) {
         try {
             registryHelper.authorize(entity, entityId, httpServletRequest);
         } catch (Exception e) {
@@ -127,13 +139,68 @@ public class FileStorageController {
             }
         }
         String objectName = getDirectoryPath(httpServletRequest.getRequestURI());
-        byte[] document;
+        StatObjectResponse documentInfo;
         try {
-            document = fileStorageService.getDocument(objectName);
+            documentInfo = fileStorageService.getDocumentInfo(objectName);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed fetching the document".getBytes(StandardCharsets.UTF_8));
+            return documentFetchFailed();
         }
-        return ResponseEntity.ok().body(document);
+        long size = documentInfo.size();
+        String eTag = "\"" + documentInfo.etag() + "\"";
+        long lastModified = documentInfo.lastModified().toInstant().toEpochMilli();
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).lastModified(lastModified).build();
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(httpServletRequest.getHeader(HttpHeaders.RANGE));
+        } catch (IllegalArgumentException e) {
+            return rangeNotSatisfiable(size);
+        }
+        // multipart/byteranges responses are not supported, clients ask for a single range to resume or seek
+        if (ranges.size() > 1) {
+            return rangeNotSatisfiable(size);
+        }
+        try {
+            if (ranges.isEmpty()) {
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                        .eTag(eTag).lastModified(lastModified)
+                        .contentLength(size)
+                        .body(new InputStreamResource(fileStorageService.getDocument(objectName, 0, null)));
+            }
+            long start;
+            long end;
+            try {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                return rangeNotSatisfiable(size);
+            }
+            if (start > end) {
+                return rangeNotSatisfiable(size);
+            }
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end, size))
+                    .eTag(eTag).lastModified(lastModified)
+                    .contentLength(end - start + 1)
+                    .body(new InputStreamResource(fileStorageService.getDocument(objectName, start, end - start + 1)));
+        } catch (Exception e) {
+            return documentFetchFailed();
+        }
+    }
+
+    private ResponseEntity<Resource> documentFetchFailed() {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ByteArrayResource("Failed fetching the document".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ResponseEntity<Resource> rangeNotSatisfiable(long size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                .build();
     }
 
     private String getDirectoryPath(String requestedURI) {
@@ -1,39 +1,60 @@
 package dev.sunbirdrc.registry.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.pojos.ResponseParams;
+import dev.sunbirdrc.registry.entities.BatchResult;
+import dev.sunbirdrc.registry.entities.BatchVerificationRequest;
 import dev.sunbirdrc.registry.entities.VerificationRequest;
 import dev.sunbirdrc.registry.helper.RegistryHelper;
 import dev.sunbirdrc.registry.helper.SignatureHelper;
+import dev.sunbirdrc.registry.service.RevocationListCache;
+import dev.sunbirdrc.registry.service.impl.SignatureV2ServiceImpl;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.*;
+
 @Controller
 public class RegistryCertificateController {
     private static final Logger logger = LoggerFactory.getLogger(RegistryCertificateController.class);
 
     private static final String VERIFIED = "verified";
     private static final String RESULTS = "results";
+    private static final String ERROR = "error";
+    private static final String REVOKED_MESSAGE = "Credential is revoked";
+    private static final String COMPACT = "compact";
     @Autowired(required = false)
     private SignatureHelper signatureHelper;
     @Autowired
     private RegistryHelper registryHelper;
+    @Autowired(required = false)
+    private SignatureV2ServiceImpl signatureV2Service;
+    @Value("${signature.batch.maxItems:1000}")
+    private int batchMaxItems;
 
     @RequestMapping(value = "/api/v1/verify", method = RequestMethod.POST)
     public ResponseEntity<Object> verifyCertificate(@RequestBody VerificationRequest verificationRequest) {
         try {
             if (registryHelper.checkIfCredentialIsRevoked(verificationRequest.getSignedCredentials().toString(), null)) {
                 return new ResponseEntity<>(JsonNodeFactory.instance.objectNode().put(VERIFIED, false)
-                        .put(RESULTS, "Credential is revoked"), HttpStatus.BAD_REQUEST);
+                        .put(RESULTS, REVOKED_MESSAGE), HttpStatus.BAD_REQUEST);
             } else {
                 Object response = signatureHelper.verify(verificationRequest);
                 return new ResponseEntity<>(response, HttpStatus.OK);
@@ -43,4 +64,90 @@ public class RegistryCertificateController {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
+
+    /**
+     * Verifies each of the signed credentials, looking up the revocation of all of them at once. The result holds the
+     * outcome of every credential in the order they were sent. Unlike /api/v1/verify it requires authentication, as a
+     * single request costs up to maxItems verifications.
+     */
+    @RequestMapping(value = "/api/v1/verify/batch", method = RequestMethod.POST)
+    public ResponseEntity<Object> verifyCertificates(@RequestBody BatchVerificationRequest verificationRequest) {
+        List<JsonNode> signedCredentials = verificationRequest.getSignedCredentials();
+        if (signedCredentials == null || signedCredentials.isEmpty() || signedCredentials.size() > batchMaxItems) {
+            return new ResponseEntity<>(JsonNodeFactory.instance.objectNode().put(ERROR,
+                    String.format("signedCredentials should hold 1 to %d credentials", batchMaxItems)), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Set<String> signedData = new LinkedHashSet<>();
+            signedCredentials.forEach(signedCredential -> signedData.add(String.valueOf(signedCredential)));
+            Set<String> revoked = registryHelper.getRevokedCredentials(signedData, null);
+            List<VerificationRequest> toVerify = new ArrayList<>();
+            for (JsonNode signedCredential : signedCredentials) {
+                if (!revoked.contains(String.valueOf(signedCredential))) {
+                    VerificationRequest request = new VerificationRequest();
+                    request.setSignedCredentials(signedCredential);
+                    toVerify.add(request);
+                }
+            }
+            Iterator<BatchResult> verified = signatureHelper.verifyEach(toVerify).iterator();
+            ArrayNode results = JsonNodeFactory.instance.arrayNode();
+            for (JsonNode signedCredential : signedCredentials) {
+                ObjectNode result = results.addObject();
+                if (revoked.contains(String.valueOf(signedCredential))) {
+                    result.put(VERIFIED, false).put(RESULTS, REVOKED_MESSAGE);
+                    continue;
+                }
+                BatchResult verification = verified.next();
+                if (verification.getError() == null) {
+                    result.put(VERIFIED, (Boolean) verification.getResult());
+                } else {
+                    result.put(VERIFIED, false).put(ERROR, verification.getError());
+                }
+            }
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Exception occurred while verifying certificates: {}", ExceptionUtils.getStackTrace(e));
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Serves the revocation list of an issuer from memory, a page of it as the credential service does, the
+     * credentials revoked since a version, or with format=compact the ids of all of them in a single string
+     */
+    @RequestMapping(value = "/api/v1/credentials/revocation-list", method = RequestMethod.GET)
+    public ResponseEntity<Object> getRevocationList(@RequestParam("issuerId") String issuerId,
+                                                    @RequestParam(value = "page", required = false) Integer page,
+                                                    @RequestParam(value = "limit", required = false) Integer limit,
+                                                    @RequestParam(value = "since", required = false) Long since,
+                                                    @RequestParam(value = "format", required = false) String format,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (signatureV2Service == null) {
+            return RegistryHelper.ServiceNotEnabledResponse("Credential service", null, new ResponseParams());
+        }
+        try {
+            RevocationListCache.Snapshot revocationList = signatureV2Service.getRevocationList(issuerId);
+            String variant;
+            if (COMPACT.equals(format)) {
+                variant = COMPACT;
+            } else if (since != null) {
+                variant = "since:" + since;
+            } else {
+                page = page == null || page < 1 ? 1 : page;
+                limit = limit == null || limit < 1 ? 1000 : limit;
+                variant = "page:" + page + ":" + limit;
+            }
+            String eTag = revocationList.eTag(variant);
+            CacheControl cacheControl = CacheControl.noCache().cachePublic();
+            if (RegistryEntityController.isNotModified(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+            }
+            Object body = COMPACT.equals(format) ? revocationList.compact()
+                    : since != null ? revocationList.since(since) : revocationList.page(page, limit);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body);
+        } catch (Exception e) {
+            logger.error("Exception occurred while reading the revocation list of {}: {}", issuerId, ExceptionUtils.getStackTrace(e));
+            return new ResponseEntity<>(HttpStatus.BAD_GATEWAY);
+        }
+    }
 }
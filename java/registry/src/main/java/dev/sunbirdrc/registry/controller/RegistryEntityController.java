@@ -22,12 +22,17 @@ import dev.sunbirdrc.registry.middleware.MiddlewareHaltException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.service.CertificateCache;
 import dev.sunbirdrc.registry.service.FileStorageService;
 import dev.sunbirdrc.registry.service.ICertificateService;
 import dev.sunbirdrc.registry.service.impl.SignatureV2ServiceImpl;
+import dev.sunbirdrc.registry.service.issuance.CredentialIssuer;
+import dev.sunbirdrc.registry.service.issuance.IssuanceJob;
 import dev.sunbirdrc.registry.transform.Configuration;
 import dev.sunbirdrc.registry.transform.Data;
 import dev.sunbirdrc.registry.transform.ITransformer;
+import dev.sunbirdrc.registry.util.RecordExportWriter;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
 import dev.sunbirdrc.registry.util.ViewTemplateManager;
 import dev.sunbirdrc.validators.ValidationException;
 import org.agrona.Strings;
@@ -40,15 +45,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.BadRequestException;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
@@ -77,6 +85,12 @@ public class RegistryEntityController extends AbstractController {
     @Autowired
     private AsyncRequest asyncRequest;
 
+    @Autowired
+    private CredentialIssuer credentialIssuer;
+
+    @Autowired
+    private CertificateCache certificateCache;
+
     @Autowired
     private ViewTemplateManager viewTemplateManager;
 
@@ -244,6 +258,66 @@ public class RegistryEntityController extends AbstractController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @RequestMapping(value = "/api/v1/{entityName}/search/export", method = {RequestMethod.POST, RequestMethod.GET})
+    public ResponseEntity<Object> exportEntity(@PathVariable String entityName,
+                                               @RequestBody(required = false) ObjectNode searchNode,
+                                               @RequestParam(value = "search", required = false) String searchQueryString,
+                                               @RequestParam(value = "format", defaultValue = RecordExportWriter.NDJSON) String format) {
+
+        ResponseParams responseParams = new ResponseParams();
+        Response response = new Response(Response.API_ID.SEARCH, "OK", responseParams);
+
+        try {
+            checkEntityNameInDefinitionManager(entityName);
+            if (!RecordExportWriter.isSupported(format)) {
+                return badRequestException(responseParams, response, String.format("Export format %s not supported", format));
+            }
+            if (!definitionsManager.getDefinition(entityName).getOsSchemaConfiguration().getEnableSearch()) {
+                logger.error("Searching on entity {} not allowed", entityName);
+                response.setResult("");
+                responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+                responseParams.setErrmsg(String.format("Searching on entity %s not allowed", entityName));
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            }
+            if (searchNode == null) {
+                searchNode = JsonNodeFactory.instance.objectNode();
+                registryHelper.addSearchTokenToQuery(searchQueryString, searchNode);
+            }
+            if (!searchNode.has(FILTERS)) {
+                searchNode.set(FILTERS, JsonNodeFactory.instance.objectNode());
+            }
+            searchNode.set(ENTITY_TYPE, JsonNodeFactory.instance.arrayNode().add(entityName));
+            String userId = registryHelper.getUserId(entityName);
+            final ObjectNode exportQuery = searchNode;
+            StreamingResponseBody body = outputStream -> {
+                RecordExportWriter exportWriter = RecordExportWriter.getInstance(format, outputStream, objectMapper);
+                try {
+                    registryHelper.exportEntity(exportQuery, userId, exportWriter);
+                    exportWriter.close();
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    logger.error("Exception while exporting entities !, {}", ExceptionUtils.getStackTrace(e));
+                    throw new IOException(e);
+                }
+            };
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(RecordExportWriter.getMediaType(format)))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=\"%s.%s\"", entityName, format.toLowerCase()))
+                    .body(body);
+        } catch (RecordNotFoundException e) {
+            createSchemaNotFoundResponse(e.getMessage(), responseParams);
+            response = new Response(Response.API_ID.SEARCH, "ERROR", responseParams);
+            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            logger.error("Exception in controller while exporting entities !, {}", ExceptionUtils.getStackTrace(e));
+            response.setResult("");
+            responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+            responseParams.setErrmsg(e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @RequestMapping(value = "/api/v1/{entityName}/{entityId}", method = RequestMethod.PUT)
     public ResponseEntity<Object> putEntity(
             @PathVariable String entityName,
@@ -561,14 +635,29 @@ public class RegistryEntityController extends AbstractController {
                             viewTemplateManager.getViewTemplateById(viewTemplateId), false)
                     .get(entityName);
             JsonNode credentialData = OSSystemFields.credentials.getCredential(GenericConfiguration.getSignatureProvider(), node);
-            return new ResponseEntity<>(certificateService.getCertificate(credentialData,
-                    entityName,
-                    entityId,
-                    request.getHeader(HttpHeaders.ACCEPT),
-                    getTemplateUrlFromRequest(request, entityName),
-                    request.getHeader(TemplateId),
-                    JSONUtil.removeNodesByPath(node, definitionsManager.getExcludingFieldsForEntity(entityName))
-            ), HttpStatus.OK);
+            String mediaType = request.getHeader(HttpHeaders.ACCEPT);
+            String templateUrl = getTemplateUrlFromRequest(request, entityName);
+            String templateId = request.getHeader(TemplateId);
+            JsonNode entity = JSONUtil.removeNodesByPath(node, definitionsManager.getExcludingFieldsForEntity(entityName));
+            CertificateCache.Renderer renderer = () -> certificateService.getCertificate(credentialData, entityName, entityId,
+                    mediaType, templateUrl, templateId, entity);
+            String templateVersion = certificateService.getTemplateVersion(entityName, mediaType, templateUrl, templateId);
+            if (templateVersion == null) {
+                return new ResponseEntity<>(renderer.render(), HttpStatus.OK);
+            }
+            String uuid = RecordIdentifier.parse(entityId).getUuid();
+            JsonNode recordVersion = node.get(OSSystemFields.osUpdatedAt.name());
+            // a credential can be revoked without its record changing
+            boolean revoked = credentialData != null && !credentialData.asText().isEmpty()
+                    && registryHelper.checkIfCredentialIsRevoked(credentialData.asText(), readerUserId);
+            String key = CertificateCache.key(entityName, uuid, recordVersion == null ? null : recordVersion.asText(),
+                    revoked, templateVersion, mediaType, credentialData, entity);
+            String eTag = CertificateCache.eTag(key);
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+            if (isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(certificateCache.get(uuid, key, renderer));
         } catch (Exception e) {
             logger.error("Exception occurred while producing entity certificate: {}", ExceptionUtils.getStackTrace(e));
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
@@ -576,6 +665,19 @@ public class RegistryEntityController extends AbstractController {
     }
 
 
+    static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (StringUtils.isEmpty(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String getTemplateUrlFromRequest(HttpServletRequest request, String entityName) throws UnreachableException {
         if (externalTemplatesEnabled && !StringUtils.isEmpty(request.getHeader(Template))) {
             return request.getHeader(Template);
@@ -958,4 +1060,31 @@ public class RegistryEntityController extends AbstractController {
             return new ResponseEntity<>(response,HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    @RequestMapping(value = "/api/v1/{entityName}/{entityId}/credential/status", method = RequestMethod.GET)
+    public ResponseEntity<Object> getCredentialStatus(
+            HttpServletRequest request,
+            @PathVariable String entityName,
+            @PathVariable String entityId
+    ) {
+        if (registryHelper.doesEntityOperationRequireAuthorization(entityName)) {
+            try {
+                registryHelper.authorize(entityName, entityId, request);
+            } catch (Exception e) {
+                return createUnauthorizedExceptionResponse(e);
+            }
+        }
+        ResponseParams responseParams = new ResponseParams();
+        Response response = new Response(Response.API_ID.READ, "OK", responseParams);
+        IssuanceJob job = credentialIssuer.getJob(RecordIdentifier.parse(entityId).getUuid());
+        if (job == null || !job.getEntityName().equals(entityName)) {
+            responseParams.setErrmsg("No credential issuance found for " + entityId);
+            responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        }
+        // the record itself is served by the read api, with its private fields handled
+        response.setResult(job.toBuilder().data(null).credential(null).build());
+        responseParams.setStatus(Response.Status.SUCCESSFUL);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -20,6 +20,7 @@ import dev.sunbirdrc.registry.helper.SignatureHelper;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.service.HealthCheckService;
+import dev.sunbirdrc.registry.service.MetricsSource;
 import dev.sunbirdrc.registry.sink.shard.Shard;
 import dev.sunbirdrc.registry.sink.shard.ShardManager;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -37,9 +38,11 @@ import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static dev.sunbirdrc.registry.middleware.util.Constants.TOTAL_COUNT;
 
@@ -58,6 +61,8 @@ public class RegistryUtilsController {
 	private boolean signatureEnabled;
 	@Autowired(required = false)
 	private SignatureHelper signatureHelper;
+	@Value("${signature.batch.maxItems:1000}")
+	private int batchMaxItems;
 
 	@Autowired
 	private APIMessage apiMessage;
@@ -74,6 +79,9 @@ public class RegistryUtilsController {
 	@Autowired
 	private HealthCheckService healthCheckService;
 
+	@Autowired(required = false)
+	private List<MetricsSource> metricsSources = Collections.emptyList();
+
 	@Value("${frame.file}")
 	private String frameFile;
 
@@ -120,6 +128,48 @@ public class RegistryUtilsController {
 		return new ResponseEntity<>(response, HttpStatus.OK);
 	}
 
+	@RequestMapping(value = "/utils/sign/batch", method = RequestMethod.POST)
+	public ResponseEntity<Response> generateSignatures(HttpServletRequest requestModel) {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.SIGN, "OK", responseParams);
+		if (!signatureEnabled) {
+			return getSignatureNotEnabledResponse(response, responseParams);
+		}
+		try {
+			watch.start("RegistryUtilsController.generateSignatures");
+			Map<String, Object> requestBodyMap = apiMessage.getRequest().getRequestMap();
+			Object items = requestBodyMap == null ? null : requestBodyMap.get(Constants.SIGN_ITEMS);
+			if (!(items instanceof List) || ((List<?>) items).isEmpty() || ((List<?>) items).size() > batchMaxItems) {
+				responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+				responseParams.setErrmsg(String.format("%s should hold 1 to %d items", Constants.SIGN_ITEMS, batchMaxItems));
+				return new ResponseEntity<>(response, HttpStatus.OK);
+			}
+			List<Map<String, Object>> signRequests = new ArrayList<>();
+			for (Object item : (List<?>) items) {
+				if (!(item instanceof Map) || !((Map<?, ?>) item).containsKey(Constants.SIGN_DATA)
+						|| !((Map<?, ?>) item).containsKey(Constants.SIGN_CREDENTIAL_TEMPLATE)) {
+					responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+					responseParams.setErrmsg(String.format("every item should have %s and %s", Constants.SIGN_DATA,
+							Constants.SIGN_CREDENTIAL_TEMPLATE));
+					return new ResponseEntity<>(response, HttpStatus.OK);
+				}
+				signRequests.add((Map<String, Object>) item);
+			}
+			response.setResult(signatureHelper.signEach(signRequests));
+			responseParams.setErrmsg("");
+			responseParams.setStatus(Response.Status.SUCCESSFUL);
+		} catch (Exception e) {
+			logger.error("Error in generating signatures, {}", ExceptionUtils.getStackTrace(e));
+			response.setResult(null);
+			responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+			responseParams.setErrmsg(Constants.SIGN_ERROR_MESSAGE);
+		}
+		finally {
+			watch.stop("RegistryUtilsController.generateSignatures");
+		}
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
 	@Deprecated
 	@RequestMapping(value = "/utils/verify", method = RequestMethod.POST)
 	public ResponseEntity<Response> verifySignature(HttpServletRequest request) {
@@ -276,6 +326,56 @@ public class RegistryUtilsController {
 		return new ResponseEntity<>(response, HttpStatus.OK);
 	}
 
+	/**
+	 * Answers as long as the registry runs, for restarting it when it doesn't
+	 */
+	@RequestMapping(value = "/health/live", method = RequestMethod.GET)
+	public ResponseEntity<Response> liveness() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(JSONUtil.convertObjectJsonMap(healthCheckService.liveness()));
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	/**
+	 * Answers 503 while the registry can't serve requests, for sending it traffic only when it can
+	 */
+	@RequestMapping(value = "/health/ready", method = RequestMethod.GET)
+	public ResponseEntity<Response> readiness() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		HealthCheckResponse readiness = healthCheckService.readiness(shardManager.getDefaultShard());
+		response.setResult(JSONUtil.convertObjectJsonMap(readiness));
+		if (readiness.isHealthy()) {
+			responseParams.setErrmsg("");
+			responseParams.setStatus(Response.Status.SUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.OK);
+		}
+		responseParams.setErrmsg("Registry is not ready");
+		responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+		response.setResponseCode("SERVICE_UNAVAILABLE");
+		return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
+	/**
+	 * Counters of the registry components, by component name
+	 */
+	@RequestMapping(value = "/utils/metrics", method = RequestMethod.GET)
+	public ResponseEntity<Response> metrics() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.METRICS, "OK", responseParams);
+		Map<String, Object> metrics = new TreeMap<>();
+		for (MetricsSource metricsSource : metricsSources) {
+			metrics.put(metricsSource.getMetricsName(), metricsSource.getMetrics());
+		}
+		response.setResult(metrics);
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
 	@ResponseBody
 	@RequestMapping(value = "/audit", method = {RequestMethod.POST, RequestMethod.GET})
 	public ResponseEntity<Response> fetchAudit(HttpServletRequest request, @RequestParam(value = "search", required = false) String searchQueryString) {
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import dev.sunbirdrc.registry.util.ReadConfigurator;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.List;
+
 public interface IRegistryDao {
 
 	String addEntity(Graph graph, JsonNode rootNode);
@@ -13,4 +16,6 @@ public interface IRegistryDao {
     void deleteEntity(Vertex uuid);
 
 	void hardDeleteEntity(Vertex vertex);
+
+	List<String> getEntityIdsByOwner(Graph graph, String entityType, String owner);
 }
@@ -157,4 +157,17 @@ public class RegistryDaoImpl implements IRegistryDao {
             logger.error("Can't delete - Null vertex passed");
         }
     }
+
+    /**
+     * Looks up the uuids of the records owned by the given user in the owner index
+     */
+    @Override
+    public List<String> getEntityIdsByOwner(Graph graph, String entityType, String owner) {
+        return graph.traversal().V().hasLabel(Constants.OWNER_INDEX_LABEL)
+                .has(Constants.OWNER_INDEX_OWNER, owner)
+                .has(Constants.OWNER_INDEX_ENTITY_TYPE, entityType)
+                .<String>values(Constants.OWNER_INDEX_ENTITY_ID)
+                .dedup()
+                .toList();
+    }
 }
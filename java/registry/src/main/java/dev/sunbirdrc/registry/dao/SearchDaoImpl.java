@@ -8,6 +8,7 @@ import dev.sunbirdrc.pojos.Filter;
 import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.pojos.SearchQuery;
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
 import dev.sunbirdrc.registry.util.ReadConfigurator;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -32,19 +33,52 @@ import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.hasNot
 public class SearchDaoImpl implements SearchDao {
     private static final Logger logger = LoggerFactory.getLogger(SearchDaoImpl.class);
     private IRegistryDao registryDao;
+    private String uuidPropertyName;
+    private boolean ownerIndexReady;
 
     public SearchDaoImpl(IRegistryDao registryDaoImpl) {
         registryDao = registryDaoImpl;
     }
 
+    /**
+     * @param ownerIndexReady - whether every record of the shard is in the owner index, only then osOwner eq filters
+     *                        are answered from the index
+     */
+    public SearchDaoImpl(IRegistryDao registryDaoImpl, String uuidPropertyName, boolean ownerIndexReady) {
+        this(registryDaoImpl);
+        this.uuidPropertyName = uuidPropertyName;
+        this.ownerIndexReady = ownerIndexReady;
+    }
+
     public JsonNode search(Graph graphFromStore, SearchQuery searchQuery, boolean expandInternal) {
 
         GraphTraversalSource dbGraphTraversalSource = graphFromStore.traversal().clone();
         List<Filter> filterList = searchQuery.getFilters();
         int offset = searchQuery.getOffset();
         ObjectNode resultNode = JsonNodeFactory.instance.objectNode();
+        Filter ownerFilter = getOwnerFilter(filterList);
+        if (ownerFilter != null) {
+            filterList = new ArrayList<>(filterList);
+            filterList.remove(ownerFilter);
+        }
         for (String entity : searchQuery.getEntityTypes()) {
             GraphTraversal<Vertex, Vertex> resultGraphTraversal = dbGraphTraversalSource.V().hasLabel(entity);
+            if (ownerFilter != null && !ownerIndexReady) {
+                // osOwner is stored as a stringified array of quoted owners
+                String quotedOwner = "\"" + ownerFilter.getValue() + "\"";
+                resultGraphTraversal = resultGraphTraversal.has(OSSystemFields.osOwner.toString(),
+                        new P<String>(String::contains, quotedOwner));
+            } else if (ownerFilter != null) {
+                List<String> ownedIds = registryDao.getEntityIdsByOwner(graphFromStore, entity, ownerFilter.getValue().toString());
+                if (ownedIds.isEmpty()) {
+                    ObjectNode response = JsonNodeFactory.instance.objectNode();
+                    response.set(ENTITY_LIST, JsonNodeFactory.instance.arrayNode());
+                    response.set(TOTAL_COUNT, JsonNodeFactory.instance.numberNode(0L));
+                    resultNode.set(entity, response);
+                    continue;
+                }
+                resultGraphTraversal = resultGraphTraversal.has(uuidPropertyName, P.within(ownedIds));
+            }
 
             GraphTraversal<Vertex, Vertex> parentTraversal = resultGraphTraversal.asAdmin();
 
@@ -63,6 +97,24 @@ public class SearchDaoImpl implements SearchDao {
         return resultNode;
     }
     
+    /**
+     * Returns the root level osOwner eq filter, matched exactly against the owners of the record. It is answered from
+     * the owner index once the index is ready and by scanning the owners otherwise. Other osOwner filters, contains
+     * included, are applied to the stringified owners as they are.
+     */
+    private Filter getOwnerFilter(List<Filter> filterList) {
+        if (filterList == null) {
+            return null;
+        }
+        for (Filter filter : filterList) {
+            if (OSSystemFields.osOwner.toString().equals(filter.getProperty()) && filter.getPath() == null
+                    && filter.getOperator() == FilterOperators.eq && filter.getValue() != null) {
+                return filter;
+            }
+        }
+        return null;
+    }
+
     private GraphTraversal<Vertex, Vertex> getFilteredResultTraversal(
             GraphTraversal<Vertex, Vertex> resultGraphTraversal, List<Filter> filterList) {
 
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
 import dev.sunbirdrc.registry.util.ArrayHelper;
 import dev.sunbirdrc.registry.util.RefLabelHelper;
@@ -19,8 +20,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Helps in writing a vertex, edge into the database
@@ -260,9 +263,53 @@ public class VertexWriter {
                 resultVertex = processNode(entry.getKey(), entry.getValue());
                 rootUuidPropertyValue = databaseProvider.getId(resultVertex);
                 entryObject.put(uuidPropertyName,rootUuidPropertyValue);
+                addOwnerIndex(entry.getKey(), rootUuidPropertyValue, entryObject.get(OSSystemFields.osOwner.toString()));
             }
         }
         return rootUuidPropertyValue;
     }
     
-}
\ No newline at end of file
+    /**
+     * Replaces the owner index entries of a record with one entry per owner.
+     * The osOwner property is stored as a stringified array, so the owner index is what lets the records of an owner
+     * be looked up by exact match instead of a contains scan over every record.
+     *
+     * @param entityType
+     * @param entityId - uuid of the root record
+     * @param owners - the osOwner array of the record
+     */
+    public void updateOwnerIndex(String entityType, String entityId, JsonNode owners) {
+        deleteOwnerIndex(entityId);
+        addOwnerIndex(entityType, entityId, owners);
+    }
+
+    /**
+     * Removes the owner index entries of a record
+     *
+     * @param entityId - uuid of the root record
+     */
+    public void deleteOwnerIndex(String entityId) {
+        graph.traversal().V().hasLabel(Constants.OWNER_INDEX_LABEL)
+                .has(Constants.OWNER_INDEX_ENTITY_ID, entityId)
+                .drop().iterate();
+    }
+
+    private void addOwnerIndex(String entityType, String entityId, JsonNode owners) {
+        if (owners == null || !owners.isArray()) {
+            return;
+        }
+        Set<String> uniqueOwners = new LinkedHashSet<>();
+        owners.forEach(owner -> {
+            if (owner.isTextual() && !owner.textValue().isEmpty()) {
+                uniqueOwners.add(owner.textValue());
+            }
+        });
+        for (String owner : uniqueOwners) {
+            Vertex entry = graph.addVertex(Constants.OWNER_INDEX_LABEL);
+            entry.property(Constants.OWNER_INDEX_OWNER, owner);
+            entry.property(Constants.OWNER_INDEX_ENTITY_TYPE, entityType);
+            entry.property(Constants.OWNER_INDEX_ENTITY_ID, entityId);
+        }
+    }
+
+}
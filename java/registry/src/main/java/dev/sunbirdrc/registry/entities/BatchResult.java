@@ -0,0 +1,24 @@
+package dev.sunbirdrc.registry.entities;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one item of a batch, either its result or why it failed
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+	private Object result;
+	private String error;
+
+	public static BatchResult success(Object result) {
+		return new BatchResult(result, null);
+	}
+
+	public static BatchResult failure(String error) {
+		return new BatchResult(null, error);
+	}
+}
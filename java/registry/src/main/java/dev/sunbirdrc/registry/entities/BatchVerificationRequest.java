@@ -0,0 +1,11 @@
+package dev.sunbirdrc.registry.entities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchVerificationRequest {
+	List<JsonNode> signedCredentials;
+}
@@ -12,6 +12,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.flipkart.zjsonpatch.JsonPatch;
 import com.jayway.jsonpath.PathNotFoundException;
 import dev.sunbirdrc.actors.factory.PluginRouter;
+import dev.sunbirdrc.elastic.SearchBatchHandler;
 import dev.sunbirdrc.pojos.*;
 import dev.sunbirdrc.pojos.attestation.Action;
 import dev.sunbirdrc.pojos.attestation.States;
@@ -63,7 +64,6 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import javax.servlet.http.HttpServletRequest;
@@ -122,6 +122,12 @@ public class RegistryHelper {
     @Autowired
     private NativeSearchService nativeSearchService;
 
+    @Autowired
+    private AttestationPolicyRegistry attestationPolicyRegistry;
+
+    @Autowired
+    private RevokedCredentialFilter revokedCredentialFilter;
+
     @Autowired
     private ViewTemplateManager viewTemplateManager;
 
@@ -169,6 +175,9 @@ public class RegistryHelper {
     @Value("${signature.enabled}")
     private boolean signatureEnabled;
 
+    @Value("${search.export.batchSize:500}")
+    private int exportBatchSize;
+
     @Value("${workflow.enabled:true}")
     private boolean workflowEnabled;
 
@@ -232,7 +241,7 @@ public class RegistryHelper {
 
     private String addEntityHandler(JsonNode inputJson, String userId, boolean skipRequiredValidation, boolean skipSignature, boolean checkAsync) throws Exception {
         String entityType = inputJson.fields().next().getKey();
-        validationService.validate(entityType, objectMapper.writeValueAsString(inputJson), skipRequiredValidation);
+        validationService.validate(entityType, inputJson, skipRequiredValidation);
         String entityName = inputJson.fields().next().getKey();
         if (workflowEnabled) {
             List<AttestationPolicy> attestationPolicies = getAttestationPolicies(entityName);
@@ -379,6 +388,57 @@ public class RegistryHelper {
         return resultNode;
     }
 
+    /**
+     * Streams every record matching the search request to the batchHandler, applying the public fields filtering
+     * and the view template of the request on each batch, so that the whole result set is never held in memory.
+     * Elastic search pages with search_after, the native search pages with offset and limit
+     *
+     * @param inputJson
+     * @param userId
+     * @param batchHandler
+     * @throws Exception
+     */
+    public void exportEntity(JsonNode inputJson, String userId, SearchBatchHandler batchHandler) throws Exception {
+        String entityName = inputJson.get(ENTITY_TYPE).get(0).asText();
+        Set<String> excludingFields = definitionsManager.getExcludingFieldsForEntity(entityName);
+        ViewTemplate viewTemplate = viewTemplateManager.getViewTemplate(inputJson);
+        ViewTransformer vTransformer = new ViewTransformer();
+        SearchBatchHandler exportHandler = batch -> {
+            ArrayNode records = JsonNodeFactory.instance.arrayNode();
+            for (JsonNode record : batch) {
+                records.add(JSONUtil.removeNodesByPath(record, excludingFields));
+            }
+            if (viewTemplate != null) {
+                try {
+                    ObjectNode transformerInput = JsonNodeFactory.instance.objectNode().set(entityName, records);
+                    records = (ArrayNode) vTransformer.transform(viewTemplate, transformerInput).get(entityName);
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+            batchHandler.handle(records);
+        };
+        if (searchService instanceof ElasticSearchService) {
+            ((ElasticSearchService) searchService).export(inputJson, userId, exportHandler);
+        } else {
+            exportByPages(inputJson, userId, entityName, exportHandler);
+        }
+    }
+
+    private void exportByPages(JsonNode inputJson, String userId, String entityName, SearchBatchHandler batchHandler) throws IOException {
+        ObjectNode pageQuery = inputJson.deepCopy();
+        pageQuery.put("limit", exportBatchSize);
+        for (int offset = 0; ; offset += exportBatchSize) {
+            pageQuery.put("offset", offset);
+            JsonNode page = searchService.search(pageQuery, userId).path(entityName).path(ENTITY_LIST);
+            // with many shards a page holds up to a batch of every shard, so only an empty page ends the export
+            if (page.size() == 0) {
+                return;
+            }
+            batchHandler.handle((ArrayNode) page);
+        }
+    }
+
     /**
      * Updates the input entity, external api's can use this method to update the entity
      *
@@ -525,7 +585,7 @@ public class RegistryHelper {
         ArrayNode newPropertyNode = objectMapper.createArrayNode().add(inputJson);
         parentNode.set(propertyName, newPropertyNode);
         try {
-            validationService.validate(entityName, objectMapper.writeValueAsString(updateNode), false);
+            validationService.validate(entityName, updateNode, false);
         } catch (MiddlewareHaltException me) {
             // try a field node since array validation failed
             parentNode.set(propertyName, inputJson);
@@ -720,7 +780,7 @@ public class RegistryHelper {
                 String propertyURI = String.format("%s/%s/%s/documents/%s", pluginResponseMessage.getSourceEntity(),
                         pluginResponseMessage.getSourceUUID(), pluginResponseMessage.getPolicyName(), file.getFileName());
                 try {
-                    fileStorageService.save(new ByteArrayInputStream(file.getFile()), propertyURI);
+                    fileStorageService.save(new ByteArrayInputStream(file.getFile()), file.getFile().length, null, propertyURI);
                 } catch (Exception e) {
                     logger.error("Failed persisting file: {}", ExceptionUtils.getStackTrace(e));
                 }
@@ -862,7 +922,7 @@ public class RegistryHelper {
         ObjectNode payload = JsonNodeFactory.instance.objectNode();
         payload.set(ENTITY_TYPE, JsonNodeFactory.instance.arrayNode().add(entityName));
         ObjectNode filters = JsonNodeFactory.instance.objectNode();
-        filters.set(OSSystemFields.osOwner.toString(), JsonNodeFactory.instance.objectNode().put("contains", userId));
+        filters.set(OSSystemFields.osOwner.toString(), JsonNodeFactory.instance.objectNode().put("eq", userId));
         payload.set(FILTERS, filters);
         return payload;
     }
@@ -1178,35 +1238,27 @@ public class RegistryHelper {
         return currentJsonNode;
     }
 
-    //TODO: add cache
     public List<AttestationPolicy> getAttestationPolicies(String entityName) {
-        List<AttestationPolicy> dbAttestationPolicies = getAttestationsFromRegistry(entityName);
+        List<AttestationPolicy> dbAttestationPolicies = attestationPolicyRegistry.getPolicies(entityName, this::getAttestationsFromRegistry);
         List<AttestationPolicy> schemaAttestationPolicies = definitionsManager.getDefinition(entityName).getOsSchemaConfiguration().getAttestationPolicies();
         return ListUtils.union(dbAttestationPolicies, schemaAttestationPolicies);
     }
 
-    private List<AttestationPolicy> getAttestationsFromRegistry(String entityName) {
-        if (attestationPolicySearchEnabled) {
-            try {
-                JsonNode searchRequest = objectMapper.readTree("{\n" +
-                        "    \"entityType\": [\n" +
-                        "        \"" + ATTESTATION_POLICY + "\"\n" +
-                        "    ],\n" +
-                        "    \"filters\": {\n" +
-                        "       \"entity\": {\n" +
-                        "           \"eq\": \"" + entityName + "\"\n" +
-                        "       }\n" +
-                        "    }\n" +
-                        "}");
-                JsonNode searchResponse = searchEntity(searchRequest, "");
-                return convertJsonNodeToAttestationList(searchResponse);
-            } catch (Exception e) {
-                logger.error("Error fetching attestation policy: {}", ExceptionUtils.getStackTrace(e));
-                return Collections.emptyList();
-            }
-        } else {
+    /**
+     * Reads the policies from the database rather than elastic search, it is done once per change of the policies and
+     * has to see the change even before it is indexed
+     */
+    private List<AttestationPolicy> getAttestationsFromRegistry(String entityName) throws Exception {
+        if (!attestationPolicySearchEnabled) {
             return Collections.emptyList();
         }
+        ObjectNode searchRequest = JsonNodeFactory.instance.objectNode();
+        searchRequest.set(ENTITY_TYPE, JsonNodeFactory.instance.arrayNode().add(ATTESTATION_POLICY));
+        ObjectNode filter = JsonNodeFactory.instance.objectNode();
+        filter.set("entity", JsonNodeFactory.instance.objectNode().put("eq", entityName));
+        searchRequest.set(FILTERS, filter);
+        JsonNode searchResponse = nativeSearchService.search(searchRequest, "");
+        return convertJsonNodeToAttestationList(searchResponse);
     }
 
     private List<AttestationPolicy> convertJsonNodeToAttestationList(JsonNode searchResponse) throws java.io.IOException {
@@ -1217,22 +1269,29 @@ public class RegistryHelper {
         if (searchResponse.isEmpty()) {
             return Collections.emptyList();
         }
-        return reader.readValue(searchResponse.get(ATTESTATION_POLICY));
+        JsonNode policies = searchResponse.get(ATTESTATION_POLICY);
+        return reader.readValue(policies.has(ENTITY_LIST) ? policies.get(ENTITY_LIST) : policies);
     }
 
     public boolean isAttestationPolicyNameAlreadyUsed(String entityName, String policyName) {
-        List<AttestationPolicy> schemaAttestationPolicies = getAttestationPolicies(entityName);
-        return schemaAttestationPolicies.stream().anyMatch(policy -> policy.getName().equals(policyName));
+        return findAttestationPolicy(entityName, policyName).isPresent();
     }
 
     public AttestationPolicy getAttestationPolicy(String entityName, String policyName) {
-        List<AttestationPolicy> attestationPolicies = getAttestationPolicies(entityName);
-        return attestationPolicies.stream()
-                .filter(policy -> policy.getName().equals(policyName))
-                .findFirst()
+        return findAttestationPolicy(entityName, policyName)
                 .orElseThrow(() -> new PolicyNotFoundException("Policy " + policyName + " is not found"));
     }
 
+    private Optional<AttestationPolicy> findAttestationPolicy(String entityName, String policyName) {
+        Optional<AttestationPolicy> dbAttestationPolicy = attestationPolicyRegistry.getPolicy(entityName, policyName, this::getAttestationsFromRegistry);
+        if (dbAttestationPolicy.isPresent()) {
+            return dbAttestationPolicy;
+        }
+        return definitionsManager.getDefinition(entityName).getOsSchemaConfiguration().getAttestationPolicies().stream()
+                .filter(policy -> policy.getName().equals(policyName))
+                .findFirst();
+    }
+
     public String createAttestationPolicy(AttestationPolicy attestationPolicy, String userId, boolean checkAsync) throws Exception {
         ObjectNode entity = createJsonNodeForAttestationPolicy(attestationPolicy);
         return addEntityWithoutValidation(entity, userId, ATTESTATION_POLICY, checkAsync);
@@ -1345,19 +1404,70 @@ public class RegistryHelper {
     }
 
     private String generateHash(String signedData) {
-        return DigestUtils.md5DigestAsHex(signedData.getBytes()).toUpperCase();
+        return RevokedCredentialFilter.hash(signedData);
     }
 
+    /**
+     * Searches the revoked credentials only if the revoked credential filter may contain the credential
+     */
     public boolean checkIfCredentialIsRevoked(String signedData, String userId) throws Exception {
+        String signedHash = generateHash(signedData);
+        if (!revokedCredentialFilter.mightBeRevoked(signedHash)) {
+            return false;
+        }
         ObjectNode searchNode = JsonNodeFactory.instance.objectNode();
         searchNode.set(ENTITY_TYPE, JsonNodeFactory.instance.arrayNode().add(REVOKED_CREDENTIAL));
         searchNode.set(FILTERS,
                 JsonNodeFactory.instance.objectNode().set(SIGNED_HASH,
-                        JsonNodeFactory.instance.objectNode().put("eq", generateHash(signedData))));
+                        JsonNodeFactory.instance.objectNode().put("eq", signedHash)));
         JsonNode searchResponse = searchEntity(searchNode, userId);
         return searchResponse.get(REVOKED_CREDENTIAL) != null && !searchResponse.get(REVOKED_CREDENTIAL).get(ENTITY_LIST).isEmpty();
     }
 
+    /**
+     * Looks up the revocation of all the credentials in a single search, of only those the revoked credential filter
+     * may contain. A credential revoked more than once has several records, so pages are read until one comes back
+     * short or every credential is found revoked.
+     *
+     * @return the signed data that is revoked
+     */
+    public Set<String> getRevokedCredentials(Collection<String> signedData, String userId) throws Exception {
+        Map<String, String> signedDataByHash = new HashMap<>();
+        for (String data : signedData) {
+            String signedHash = generateHash(data);
+            if (revokedCredentialFilter.mightBeRevoked(signedHash)) {
+                signedDataByHash.put(signedHash, data);
+            }
+        }
+        Set<String> revoked = new HashSet<>();
+        if (signedDataByHash.isEmpty()) {
+            return revoked;
+        }
+        ArrayNode signedHashes = JsonNodeFactory.instance.arrayNode();
+        signedDataByHash.keySet().forEach(signedHashes::add);
+        ObjectNode searchNode = JsonNodeFactory.instance.objectNode();
+        searchNode.set(ENTITY_TYPE, JsonNodeFactory.instance.arrayNode().add(REVOKED_CREDENTIAL));
+        searchNode.set(FILTERS,
+                JsonNodeFactory.instance.objectNode().set(SIGNED_HASH,
+                        JsonNodeFactory.instance.objectNode().set("or", signedHashes)));
+        int limit = signedHashes.size();
+        for (int offset = 0; revoked.size() < signedDataByHash.size(); offset += limit) {
+            searchNode.put("limit", limit);
+            searchNode.put("offset", offset);
+            JsonNode revokedCredentials = searchEntity(searchNode, userId).path(REVOKED_CREDENTIAL).path(ENTITY_LIST);
+            for (JsonNode revokedCredential : revokedCredentials) {
+                String data = signedDataByHash.get(revokedCredential.path(SIGNED_HASH).asText());
+                if (data != null) {
+                    revoked.add(data);
+                }
+            }
+            if (revokedCredentials.size() < limit) {
+                break;
+            }
+        }
+        return revoked;
+    }
+
     public static ResponseEntity<Object> ServiceNotEnabledResponse(String message, Response response, ResponseParams responseParams) {
         responseParams.setErrmsg(message + " not enabled!");
         responseParams.setStatus(Response.Status.UNSUCCESSFUL);
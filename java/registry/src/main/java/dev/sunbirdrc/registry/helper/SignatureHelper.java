@@ -1,5 +1,6 @@
 package dev.sunbirdrc.registry.helper;
 
+import dev.sunbirdrc.registry.entities.BatchResult;
 import dev.sunbirdrc.registry.exception.SignatureException;
 import dev.sunbirdrc.registry.service.FileStorageService;
 import dev.sunbirdrc.registry.service.SignatureService;
@@ -13,7 +14,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static dev.sunbirdrc.registry.Constants.CREDENTIAL_TEMPLATE;
 import static dev.sunbirdrc.registry.Constants.MINIO_URI_PREFIX;
@@ -31,6 +41,30 @@ public class SignatureHelper {
 	@Autowired(required = false)
 	private FileStorageService fileStorageService;
 
+	@Value("${signature.batch.concurrency:8}")
+	private int batchConcurrency;
+	private ExecutorService batchExecutor;
+
+	private interface Call<T> {
+		Object call(T value) throws Exception;
+	}
+
+	@PostConstruct
+	public void init() {
+		batchExecutor = Executors.newFixedThreadPool(Math.max(1, batchConcurrency), runnable -> {
+			Thread thread = new Thread(runnable, "signature-batch");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (batchExecutor != null) {
+			batchExecutor.shutdownNow();
+		}
+	}
+
 	private void replaceMinioURIWithSignedURL(Map<String, Object> signRequestObject) throws Exception {
 		if (signRequestObject.containsKey(CREDENTIAL_TEMPLATE) &&  signRequestObject.get(CREDENTIAL_TEMPLATE) instanceof String
 				&& ((String) signRequestObject.get(CREDENTIAL_TEMPLATE)).startsWith(MINIO_URI_PREFIX)) {
@@ -68,6 +102,81 @@ public class SignatureHelper {
 		return result;
 	}
 
+	/** Signs the objects through the signature service, in a single call if the provider supports it
+	 * @param propertyValues - inputs to be signed
+	 * @return - signed data in the order of propertyValues
+	 * @throws SignatureException.UnreachableException
+	 * @throws SignatureException.CreationException
+	 */
+	public List<Object> signAll(List<Map<String, Object>> propertyValues)
+			throws SignatureException.UnreachableException, SignatureException.CreationException {
+		List<Object> result;
+		try {
+			for (Map<String, Object> propertyValue : propertyValues) {
+				replaceMinioURIWithSignedURL(propertyValue);
+			}
+			result = signatureService.signAll(propertyValues);
+			logger.info("Successfully generated {} signed credentials", result.size());
+		} catch (SignatureException.UnreachableException e) {
+			logger.error("SignatureException when signing: {}", ExceptionUtils.getStackTrace(e));
+			throw e;
+		} catch (RestClientException e) {
+			logger.error("RestClientException when signing: {}", ExceptionUtils.getStackTrace(e));
+			throw new SignatureException().new UnreachableException(e.getMessage());
+		} catch (Exception e) {
+			logger.error("SignatureException when signing: {}", ExceptionUtils.getStackTrace(e));
+			throw new SignatureException.CreationException(e.getMessage());
+		}
+		return result;
+	}
+
+	/** Signs each of the objects, identical objects once, at most signature.batch.concurrency at a time across all batches
+	 * @param propertyValues - inputs to be signed
+	 * @return - signed data or why signing failed, in the order of propertyValues
+	 */
+	public List<BatchResult> signEach(List<Map<String, Object>> propertyValues) {
+		return callEach(propertyValues, this::sign);
+	}
+
+	/** Verifies each of the objects, identical objects once, at most signature.batch.concurrency at a time across all
+	 * batches
+	 * @param propertyValues - inputs along with signed values
+	 * @return - true/false or why verifying failed, in the order of propertyValues
+	 */
+	public List<BatchResult> verifyEach(List<?> propertyValues) {
+		return callEach(propertyValues, this::verify);
+	}
+
+	private <T> List<BatchResult> callEach(List<T> values, Call<T> call) {
+		// identical values are found before any call, as signing may change the value
+		Map<T, Integer> distinct = new LinkedHashMap<>();
+		int[] distinctIndex = new int[values.size()];
+		for (int i = 0; i < values.size(); i++) {
+			distinctIndex[i] = distinct.computeIfAbsent(values.get(i), value -> distinct.size());
+		}
+		List<Future<Object>> calls = new ArrayList<>(distinct.size());
+		for (T value : distinct.keySet()) {
+			calls.add(batchExecutor.submit(() -> call.call(value)));
+		}
+		List<BatchResult> results = new ArrayList<>(values.size());
+		for (int index : distinctIndex) {
+			results.add(result(calls.get(index)));
+		}
+		return results;
+	}
+
+	private static BatchResult result(Future<Object> call) {
+		try {
+			return BatchResult.success(call.get());
+		} catch (ExecutionException e) {
+			return BatchResult.failure(e.getCause().getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			call.cancel(true);
+			return BatchResult.failure(e.getMessage());
+		}
+	}
+
 	/** This method verifies the sign value with request input object
 	 * @param propertyValue - contains input along with signed value
 	 * @return true/false
@@ -0,0 +1,26 @@
+package dev.sunbirdrc.registry.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one of the entities added together, either the id of the created entity or the reason it failed
+ */
+@Getter
+@AllArgsConstructor
+public class CreateEntityResult {
+    private final String entityId;
+    private final Exception error;
+
+    public static CreateEntityResult created(String entityId) {
+        return new CreateEntityResult(entityId, null);
+    }
+
+    public static CreateEntityResult failed(Exception error) {
+        return new CreateEntityResult(null, error);
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+}
@@ -0,0 +1,117 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.registry.entities.AttestationPolicy;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Attestation policies created through the api, kept in memory per entity and indexed by policy name. The policies
+ * of an entity are loaded on first use and dropped whenever one of them is created, updated or deleted, so lookups
+ * don't search the registry. Policies older than refreshAfter milliseconds are loaded again on next use, so that a
+ * change missed by this instance is seen in time; if that load fails the policies loaded before are kept.
+ * <p>
+ * When the registry runs as several instances sharing redis, a change is published on the InvalidationBus and
+ * every other instance drops the policies of the entity too.
+ */
+@Component
+public class AttestationPolicyRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(AttestationPolicyRegistry.class);
+    static final String INVALIDATION_TOPIC = "attestation-policy";
+    private static final String ALL_ENTITIES = "*";
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+    @Value("${registry.attestationPolicy.refreshAfter:300000}")
+    private long refreshAfter;
+
+    private final Map<String, EntityPolicies> policies = new ConcurrentHashMap<>();
+    // bumped on every invalidation, a load that overlaps one isn't kept as it may have read the old policies
+    private final AtomicLong generation = new AtomicLong();
+
+    public interface PolicyLoader {
+        List<AttestationPolicy> load(String entityName) throws Exception;
+    }
+
+    @PostConstruct
+    public void init() {
+        // changes published while not subscribed are lost, so nothing loaded before is trusted
+        invalidationBus.listen(INVALIDATION_TOPIC, this::evict, () -> evict(ALL_ENTITIES));
+    }
+
+    /**
+     * @return policies of the entity, loaded with the loader if they aren't known yet
+     */
+    public List<AttestationPolicy> getPolicies(String entityName, PolicyLoader loader) {
+        return get(entityName, loader).policies;
+    }
+
+    public Optional<AttestationPolicy> getPolicy(String entityName, String policyName, PolicyLoader loader) {
+        return Optional.ofNullable(get(entityName, loader).policiesByName.get(policyName));
+    }
+
+    /**
+     * Drops the policies of the entity here and in the other instances, they are loaded again on next use
+     */
+    public void invalidate(String entityName) {
+        evict(entityName == null ? ALL_ENTITIES : entityName);
+        invalidationBus.publish(INVALIDATION_TOPIC, entityName == null ? ALL_ENTITIES : entityName);
+    }
+
+    void evict(String entityName) {
+        generation.incrementAndGet();
+        if (ALL_ENTITIES.equals(entityName)) {
+            policies.clear();
+        } else {
+            policies.remove(entityName);
+        }
+    }
+
+    private EntityPolicies get(String entityName, PolicyLoader loader) {
+        EntityPolicies cached = policies.get(entityName);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < refreshAfter) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        EntityPolicies entityPolicies;
+        try {
+            entityPolicies = new EntityPolicies(loader.load(entityName));
+        } catch (Exception e) {
+            logger.error("Error fetching attestation policy: {}", ExceptionUtils.getStackTrace(e));
+            return cached != null ? cached : EntityPolicies.EMPTY;
+        }
+        if (generation.get() == loadGeneration) {
+            if (cached == null) {
+                policies.putIfAbsent(entityName, entityPolicies);
+            } else {
+                policies.replace(entityName, cached, entityPolicies);
+            }
+        }
+        return entityPolicies;
+    }
+
+    private static final class EntityPolicies {
+        private static final EntityPolicies EMPTY = new EntityPolicies(Collections.emptyList());
+
+        private final List<AttestationPolicy> policies;
+        private final Map<String, AttestationPolicy> policiesByName;
+        private final long loadedAt = System.currentTimeMillis();
+
+        EntityPolicies(List<AttestationPolicy> policies) {
+            Map<String, AttestationPolicy> byName = new HashMap<>();
+            for (AttestationPolicy policy : policies) {
+                byName.putIfAbsent(policy.getName(), policy);
+            }
+            this.policies = Collections.unmodifiableList(new ArrayList<>(policies));
+            this.policiesByName = Collections.unmodifiableMap(byName);
+        }
+    }
+}
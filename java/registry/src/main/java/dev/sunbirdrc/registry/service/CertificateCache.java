@@ -0,0 +1,293 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rendered certificates by the record, its version and revocation, the template and the media type they were rendered from, so that
+ * downloading the certificate of a record that hasn't changed doesn't call the rendering service again. Certificates
+ * are kept in memory up to memory.maxBytes and, when disk.path is set, in that directory up to disk.maxBytes, the
+ * least recently used going first.
+ * <p>
+ * The key changes with the record, the revocation of its credential and the template, so a stale certificate is
+ * never returned even by an instance that didn't see the change. The certificates of a record are dropped when it is updated, revoked or deleted to
+ * free the space sooner. Concurrent downloads of a certificate that isn't cached wait for a single rendering.
+ */
+@Component
+public class CertificateCache {
+    private static final Logger logger = LoggerFactory.getLogger(CertificateCache.class);
+    private static final String SEPARATOR = "\u0000";
+
+    @Value("${certificate.cache.enabled:true}")
+    private boolean enabled;
+    @Value("${certificate.cache.memory.maxBytes:67108864}")
+    private long memoryMaxBytes;
+    @Value("${certificate.cache.disk.path:}")
+    private String diskPath;
+    @Value("${certificate.cache.disk.maxBytes:536870912}")
+    private long diskMaxBytes;
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private Path directory;
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final Map<String, CompletableFuture<Object>> rendering = new ConcurrentHashMap<>();
+
+    public interface Renderer {
+        Object render() throws Exception;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled || StringUtils.isEmpty(diskPath)) {
+            return;
+        }
+        directory = Files.createDirectories(Paths.get(diskPath));
+        try (Stream<Path> files = Files.walk(directory)) {
+            diskBytes.set(files.filter(CertificateCache::isCertificate).mapToLong(CertificateCache::size).sum());
+        }
+        logger.info("Certificate cache at {} holds {} bytes", directory, diskBytes.get());
+    }
+
+    /**
+     * @return identifies the certificate rendered from the given inputs
+     */
+    public static String key(String entityName, String entityId, String recordVersion, boolean revoked, String templateVersion,
+                             String mediaType, JsonNode certificateData, JsonNode entity) {
+        String inputs = String.join(SEPARATOR, entityName, entityId, String.valueOf(recordVersion), String.valueOf(revoked), templateVersion,
+                String.valueOf(mediaType), String.valueOf(certificateData), String.valueOf(entity));
+        return Hashing.sha256().hashString(inputs, StandardCharsets.UTF_8).toString();
+    }
+
+    public static String eTag(String key) {
+        return "\"" + key + "\"";
+    }
+
+    /**
+     * @return the cached certificate of the record with the key, rendered and cached if there isn't one
+     */
+    public Object get(String entityId, String key, Renderer renderer) throws Exception {
+        if (!enabled) {
+            return renderer.render();
+        }
+        String name = name(entityId, key);
+        byte[] certificate = fromMemory(name);
+        if (certificate == null) {
+            certificate = fromDisk(entityId, key);
+            if (certificate != null) {
+                toMemory(name, certificate);
+            }
+        }
+        if (certificate != null) {
+            return certificate;
+        }
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = rendering.putIfAbsent(name, loading);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            Object rendered = renderer.render();
+            if (rendered instanceof byte[]) {
+                toMemory(name, (byte[]) rendered);
+                toDisk(entityId, key, (byte[]) rendered);
+            }
+            loading.complete(rendered);
+            return rendered;
+        } catch (Exception e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(name, loading);
+        }
+    }
+
+    /**
+     * Drops every certificate of the record
+     */
+    public void invalidate(String entityId) {
+        if (!enabled) {
+            return;
+        }
+        String prefix = name(entityId, "");
+        synchronized (memory) {
+            Iterator<Map.Entry<String, byte[]>> entries = memory.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, byte[]> entry = entries.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryBytes -= entry.getValue().length;
+                    entries.remove();
+                }
+            }
+        }
+        if (directory == null) {
+            return;
+        }
+        Path entityDirectory = directory.resolve(fileName(entityId));
+        if (!Files.isDirectory(entityDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(entityDirectory)) {
+            files.forEach(this::delete);
+            Files.deleteIfExists(entityDirectory);
+        } catch (IOException e) {
+            logger.warn("Removing cached certificates of {} failed: {}", entityId, e.getMessage());
+        }
+    }
+
+    long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    long getDiskBytes() {
+        return diskBytes.get();
+    }
+
+    private byte[] fromMemory(String name) {
+        synchronized (memory) {
+            return memory.get(name);
+        }
+    }
+
+    private void toMemory(String name, byte[] certificate) {
+        if (certificate.length > memoryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            byte[] replaced = memory.put(name, certificate);
+            memoryBytes += certificate.length - (replaced == null ? 0 : replaced.length);
+            Iterator<byte[]> eldest = memory.values().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private byte[] fromDisk(String entityId, String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(fileName(entityId)).resolve(key);
+        try {
+            byte[] certificate = Files.readAllBytes(file);
+            // the modification time orders the files for eviction
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return certificate;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Reading cached certificate {} failed: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void toDisk(String entityId, String key, byte[] certificate) {
+        if (directory == null || certificate.length > diskMaxBytes) {
+            return;
+        }
+        try {
+            Path entityDirectory = Files.createDirectories(directory.resolve(fileName(entityId)));
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, certificate);
+            Path file = entityDirectory.resolve(key);
+            long replaced = Files.exists(file) ? size(file) : 0;
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskBytes.addAndGet(certificate.length - replaced) > diskMaxBytes) {
+                evictFromDisk();
+            }
+        } catch (IOException e) {
+            logger.error("Caching certificate of {} failed: {}", entityId, ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    /**
+     * Removes the least recently used certificates until the directory is within 90% of disk.maxBytes
+     */
+    private synchronized void evictFromDisk() throws IOException {
+        if (diskBytes.get() <= diskMaxBytes) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(CertificateCache::isCertificate)
+                    .sorted(Comparator.comparingLong(CertificateCache::lastModified))
+                    .collect(Collectors.toList());
+        }
+        long target = diskMaxBytes / 10 * 9;
+        for (Path file : files) {
+            if (diskBytes.get() <= target) {
+                break;
+            }
+            delete(file);
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            long size = size(file);
+            if (Files.deleteIfExists(file)) {
+                diskBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            logger.warn("Removing cached certificate {} failed: {}", file, e.getMessage());
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private static String name(String entityId, String key) {
+        return entityId + "/" + key;
+    }
+
+    private static String fileName(String entityId) {
+        return entityId.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private static boolean isCertificate(Path path) {
+        return Files.isRegularFile(path) && !path.getFileName().toString().endsWith(".tmp");
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 
 import java.io.IOException;
@@ -54,16 +55,36 @@ public class DIDService implements HealthIndicator {
     private RegistryHelper registryHelper;
     @Autowired
     private Gson gson;
+    @Autowired
+    private DidCache didCache;
 
     public String getDid(String name) throws Exception {
+        String did = didCache.getIssuerDid(name, () -> searchDid(name));
+        if (did == null) {
+            throw new RuntimeException(notFoundMessage(didPropertyName, name));
+        }
+        return did;
+    }
+
+    public String findDidForProperty(String propertyName, String value) throws Exception {
+        String did = searchDidForProperty(propertyName, value);
+        if (did == null) {
+            throw new RuntimeException(notFoundMessage(propertyName, value));
+        }
+        return did;
+    }
+
+    private String searchDid(String name) throws Exception {
+        String did = null;
         try {
-            return findDidForProperty("name", name);
+            did = searchDidForProperty("name", name);
         } catch (Exception e) {
-            return findDidForProperty(didPropertyName, name);
+            logger.debug("Searching issuer {} by name failed, searching by {}: {}", name, didPropertyName, e.getMessage());
         }
+        return did != null ? did : searchDidForProperty(didPropertyName, name);
     }
 
-    public String findDidForProperty(String propertyName, String value) throws Exception {
+    private String searchDidForProperty(String propertyName, String value) throws Exception {
         ObjectNode payload = JsonNodeFactory.instance.objectNode();
         payload.set(ENTITY_TYPE, JsonNodeFactory.instance.arrayNode().add(authorSchemaName));
         ObjectNode filters = JsonNodeFactory.instance.objectNode();
@@ -71,14 +92,20 @@ public class DIDService implements HealthIndicator {
         payload.set(FILTERS, filters);
         JsonNode results = searchService.search(payload, "");
         if(results.get(authorSchemaName).get(ENTITY_LIST).isEmpty()) {
-            throw new RuntimeException(String.format("%s %s not found in schema %s for property %s", propertyName, value, authorSchemaName, propertyName));
+            return null;
         }
         return results.get(authorSchemaName).get(ENTITY_LIST).get(0).get(didPropertyName).asText();
     }
 
+    private static String notFoundMessage(String propertyName, String value) {
+        return String.format("%s %s not found in schema %s for property %s", propertyName, value, authorSchemaName, propertyName);
+    }
+
     public String ensureDidForName(String name, String method) throws Exception {
         String did;
         try {
+            // an issuer remembered as missing may have been added since, it is searched again before a DID is generated
+            didCache.evictMissingIssuer(name);
             did = this.getDid(name);
         } catch (Exception e) {
             did = this.generateDid(method, null);
@@ -88,6 +115,8 @@ public class DIDService implements HealthIndicator {
             ObjectNode newRootNode = objectMapper.createObjectNode();
             newRootNode.set(authorSchemaName, rootNode);
             registryHelper.addEntity(newRootNode, "", false);
+            // the search may not find the issuer until it is indexed
+            didCache.putIssuerDid(name, did);
         }
         return did;
     }
@@ -122,13 +151,27 @@ public class DIDService implements HealthIndicator {
     }
 
     public JsonNode resolveDid(String didId) {
+        try {
+            JsonNode didDocument = didCache.getDidDocument(didId, () -> fetchDidDocument(didId));
+            return didDocument == null ? null : didDocument.deepCopy();
+        } catch (Exception e) {
+            logger.error("Exception when resolving the did {}: {}", didId, ExceptionUtils.getStackTrace(e));
+        }
+        return null;
+    }
+
+    /**
+     * @return the document of the did, null when the did service doesn't know the did
+     */
+    private JsonNode fetchDidDocument(String didId) throws IOException {
         try {
             ResponseEntity<String> response = retryRestTemplate.getForEntity(resolveIdUrl, didId);
             if (response.getStatusCode().is2xxSuccessful()) {
                 return JSONUtil.convertStringJsonNode(response.getBody());
             }
-        } catch (RestClientException | IOException e) {
-            logger.error("Exception when checking the health of the Sunbird {} service: {}", getServiceName(), ExceptionUtils.getStackTrace(e));
+            logger.error("Did {} couldn't be resolved: {}", didId, response.getStatusCode());
+        } catch (HttpClientErrorException e) {
+            logger.error("Did {} couldn't be resolved: {}", didId, e.getStatusCode());
         }
         return null;
     }
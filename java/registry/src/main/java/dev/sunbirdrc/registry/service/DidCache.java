@@ -0,0 +1,169 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * DIDs of issuers by name and resolved DID documents by DID, kept for ttl milliseconds so that issuing and verifying
+ * credentials of the same few issuers doesn't search the registry or call the DID service every time. An issuer or
+ * document that isn't found is kept for negativeTtl milliseconds, a lookup that fails isn't kept at all.
+ * <p>
+ * Concurrent lookups of a key that isn't known wait for a single load. Issuer DIDs are dropped whenever an Issuer
+ * record is added, updated or deleted. A ttl of 0 turns the cache off.
+ * <p>
+ * When the registry runs as several instances sharing redis, a change of the issuers is published on the
+ * InvalidationBus and every other instance drops its issuer DIDs too.
+ */
+@Component
+public class DidCache {
+    static final String INVALIDATION_TOPIC = "did";
+    private static final String ISSUERS = "issuers";
+
+    @Value("${did.cache.ttl:300000}")
+    private long ttl;
+    @Value("${did.cache.negativeTtl:30000}")
+    private long negativeTtl;
+    @Value("${did.cache.maxSize:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry<String>> issuerDids = new ConcurrentHashMap<>();
+    private final Map<String, Entry<JsonNode>> didDocuments = new ConcurrentHashMap<>();
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    public interface Loader<V> {
+        /**
+         * @return the value, null when it doesn't exist
+         */
+        V load() throws Exception;
+    }
+
+    @PostConstruct
+    public void init() {
+        // changes published while not subscribed are lost, so nothing cached before is trusted
+        invalidationBus.listen(INVALIDATION_TOPIC, change -> evictIssuers(), this::evictIssuers);
+    }
+
+    public String getIssuerDid(String name, Loader<String> loader) throws Exception {
+        return get(issuerDids, name, loader);
+    }
+
+    /**
+     * Drops the issuer if it is remembered as missing, so that the next lookup searches the registry again
+     */
+    public void evictMissingIssuer(String name) {
+        Entry<String> entry = issuerDids.get(name);
+        if (entry != null && entry.isMissing()) {
+            issuerDids.remove(name, entry);
+        }
+    }
+
+    public void putIssuerDid(String name, String did) {
+        if (ttl > 0 && did != null) {
+            issuerDids.put(name, Entry.loaded(did, System.currentTimeMillis() + ttl));
+        }
+    }
+
+    public JsonNode getDidDocument(String did, Loader<JsonNode> loader) throws Exception {
+        return get(didDocuments, did, loader);
+    }
+
+    /**
+     * Drops the DIDs of all the issuers along with the resolved documents here and in the other instances, they are
+     * looked up again on next use
+     */
+    public void invalidateIssuers() {
+        evictIssuers();
+        invalidationBus.publish(INVALIDATION_TOPIC, ISSUERS);
+    }
+
+    void evictIssuers() {
+        issuerDids.clear();
+        didDocuments.clear();
+    }
+
+    private <V> V get(Map<String, Entry<V>> entries, String key, Loader<V> loader) throws Exception {
+        if (ttl <= 0) {
+            return loader.load();
+        }
+        while (true) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !entry.isExpired()) {
+                return entry.await();
+            }
+            Entry<V> loading = new Entry<>();
+            boolean claimed = entry == null ? entries.putIfAbsent(key, loading) == null : entries.replace(key, entry, loading);
+            if (!claimed) {
+                continue;
+            }
+            evictIfFull(entries);
+            return load(entries, key, loading, loader);
+        }
+    }
+
+    private <V> V load(Map<String, Entry<V>> entries, String key, Entry<V> loading, Loader<V> loader) throws Exception {
+        V value;
+        try {
+            value = loader.load();
+        } catch (Exception e) {
+            entries.remove(key, loading);
+            loading.future.completeExceptionally(e);
+            throw e;
+        }
+        if (value == null && negativeTtl <= 0) {
+            entries.remove(key, loading);
+        } else {
+            loading.expiresAt = System.currentTimeMillis() + (value == null ? negativeTtl : ttl);
+        }
+        loading.future.complete(value);
+        return value;
+    }
+
+    private <V> void evictIfFull(Map<String, Entry<V>> entries) {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        entries.values().removeIf(Entry::isExpired);
+        if (entries.size() > maxSize) {
+            entries.values().removeIf(entry -> entry.future.isDone());
+        }
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        // kept until loaded, so that lookups meanwhile wait for the load
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        static <V> Entry<V> loaded(V value, long expiresAt) {
+            Entry<V> entry = new Entry<>();
+            entry.future.complete(value);
+            entry.expiresAt = expiresAt;
+            return entry;
+        }
+
+        boolean isMissing() {
+            return future.isDone() && !future.isCompletedExceptionally() && future.getNow(null) == null;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+
+        V await() throws Exception {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+    }
+}
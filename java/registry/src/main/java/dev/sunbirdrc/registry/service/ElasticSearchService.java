@@ -2,10 +2,10 @@ package dev.sunbirdrc.registry.service;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
 import java.util.List;
@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.elastic.SearchBatchHandler;
 import dev.sunbirdrc.pojos.APIMessage;
 import dev.sunbirdrc.pojos.AuditRecord;
 import dev.sunbirdrc.pojos.Filter;
@@ -42,6 +43,7 @@ import static dev.sunbirdrc.registry.middleware.util.Constants.*;
 @ConditionalOnProperty(name = "search.providerName", havingValue = "dev.sunbirdrc.registry.service.ElasticSearchService")
 public class ElasticSearchService implements ISearchService {
     private static Logger logger = LoggerFactory.getLogger(ElasticSearchService.class);
+    private static final Pattern DID_REFERENCE_PATTERN = Pattern.compile(DID_TYPE + ":([^:]+):([^:]+)");
 
     @Autowired
     private IElasticService elasticService;
@@ -70,6 +72,9 @@ public class ElasticSearchService implements ISearchService {
     @Value("${registry.expandReference}")
     private boolean expandReferenceObj;
 
+    @Value("${search.export.batchSize:500}")
+    private int exportBatchSize;
+
     @Autowired
     ObjectMapper objectMapper;
 
@@ -99,7 +104,7 @@ public class ElasticSearchService implements ISearchService {
             try{
                 JsonNode searchedNode =  elasticService.search(indexName.toLowerCase(), searchQuery);
                 if(expandReferenceObj) {
-                    searchedNode = expandReference(searchedNode);
+                    expandReference(searchedNode);
                 }
                 resultNode.set(indexName, searchedNode);
             }
@@ -120,75 +125,94 @@ public class ElasticSearchService implements ISearchService {
 
     }
 
-    private ArrayNode expandReference(JsonNode searchedNode) {
-        ArrayNode arrayNode = (ArrayNode) searchedNode;
-        ArrayNode nodeWithExpandedReference = JsonNodeFactory.instance.arrayNode();
-        HashMap<String, List<String>> indexUuidsMap = new HashMap<>();
-        for (JsonNode node : arrayNode) {
-            ObjectNode objectNode = (ObjectNode) node;
-            objectNode.fields().forEachRemaining(objectField -> {
-                String pattern = "^"+ DID_TYPE+":[^:]+:[^:]+";
-                if(objectField.getValue().asText().matches(pattern)) {
-                    String[] referenceStrSplit = objectField.getValue().asText().split(":");
-                    String indexName = referenceStrSplit[1].toLowerCase();
-                    String uuidPropertyValue = referenceStrSplit[2];
-                    List<String> uuidPropertyValues;
-                    if(indexUuidsMap.get(indexName) == null) {
-                        uuidPropertyValues = new ArrayList();
-                    } else {
-                        uuidPropertyValues = indexUuidsMap.get(indexName);
-                    }
-                    uuidPropertyValues.add(uuidPropertyValue);
-                    indexUuidsMap.put(indexName, uuidPropertyValues);
-                }
-            });
+    /**
+     * Streams every record matching the search request to the handler, batch by batch.
+     * Unlike search, limit and offset are ignored and the result is not capped by max_result_window.
+     *
+     * @param inputQueryNode request search json, only the first entityType is exported
+     * @param userId         user requesting the export, used for audit
+     * @param batchHandler   receives the records of each batch
+     * @throws IOException
+     */
+    public void export(JsonNode inputQueryNode, String userId, SearchBatchHandler batchHandler) throws IOException {
+        logger.debug("export request body = " + inputQueryNode);
+
+        SearchQuery searchQuery = getSearchQuery(inputQueryNode, offset, limit);
+
+        Filter uuidFilter = getUUIDFilter(searchQuery, uuidPropertyName);
+        if (uuidFilter != null) {
+            RecordIdentifier recordIdentifier = RecordIdentifier.parse(uuidFilter.getValue().toString());
+            uuidFilter.setValue(recordIdentifier.getUuid());
         }
-        SearchQuery searchQuery = null;
-        ArrayNode referenceNodes = JsonNodeFactory.instance.arrayNode();
-        for (Map.Entry<String, List<String>> indexUuidPropertyEntry: indexUuidsMap.entrySet()) {
-            try {
-                searchQuery = getSearchQuery(indexUuidPropertyEntry.getKey(), indexUuidPropertyEntry.getValue());
-                referenceNodes.addAll((ArrayNode) elasticService.search(indexUuidPropertyEntry.getKey(), searchQuery));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        updateStatusFilter(searchQuery);
+
+        String indexName = searchQuery.getEntityTypes().get(0);
+        elasticService.searchAfter(indexName.toLowerCase(), searchQuery, uuidPropertyName, exportBatchSize, batch -> {
+            if (expandReferenceObj) {
+                expandReference(batch);
             }
+            batchHandler.handle(batch);
+        });
+
+        try {
+            if(userId == null) userId = apiMessage.getUserID();
+            auditService.auditElasticSearch( new AuditRecord().setUserId(userId),
+                    searchQuery.getEntityTypes(), inputQueryNode);
+        } catch (Exception e) {
+            logger.error("Exception while auditing: {}", ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    /**
+     * Replaces every did reference (did:entity:osid) in the records with the referenced record.
+     * The references of the whole page are collected first and fetched with one multi get per referenced index,
+     * then joined back by id, so the cost grows with the number of references and not with hits x references.
+     */
+    private void expandReference(JsonNode searchedNode) throws IOException {
+        JsonNode records = searchedNode.isArray() ? searchedNode : searchedNode.get(ENTITY_LIST);
+        if (records == null || !records.isArray()) {
+            return;
         }
-        for (JsonNode node : arrayNode) {
-            ObjectNode objectNode = (ObjectNode) node;
-            ArrayNode finalReferenceNodes = referenceNodes;
-            objectNode.fields().forEachRemaining(objectField -> {
-                if (objectField.getValue().asText().startsWith("did:")) {
-                    String[] referenceStrSplit = objectField.getValue().asText().split(":");
-                    String uuidPropertyValue = referenceStrSplit[2];
-                    for(JsonNode referenceNode: finalReferenceNodes) {
-                        if(referenceNode.get(uuidPropertyName).textValue().contains(uuidPropertyValue)) {
-                            objectNode.set(objectField.getKey(), referenceNode);
-                        }
-                    }
+        List<Reference> references = new ArrayList<>();
+        Map<String, Set<String>> indexUuidsMap = new HashMap<>();
+        for (JsonNode node : records) {
+            node.fields().forEachRemaining(objectField -> {
+                if (!objectField.getValue().isTextual()) {
+                    return;
+                }
+                Matcher matcher = DID_REFERENCE_PATTERN.matcher(objectField.getValue().textValue());
+                if (matcher.matches()) {
+                    Reference reference = new Reference((ObjectNode) node, objectField.getKey(),
+                            matcher.group(1).toLowerCase(), RecordIdentifier.parse(matcher.group(2)).getUuid());
+                    references.add(reference);
+                    indexUuidsMap.computeIfAbsent(reference.indexName, k -> new HashSet<>()).add(reference.uuidPropertyValue);
                 }
             });
-            nodeWithExpandedReference.add(objectNode);
         }
-        return nodeWithExpandedReference;
+        Map<String, Map<String, JsonNode>> referencedNodes = new HashMap<>();
+        for (Map.Entry<String, Set<String>> indexUuidsEntry : indexUuidsMap.entrySet()) {
+            referencedNodes.put(indexUuidsEntry.getKey(), elasticService.multiGet(indexUuidsEntry.getKey(), indexUuidsEntry.getValue()));
+        }
+        for (Reference reference : references) {
+            JsonNode referencedNode = referencedNodes.get(reference.indexName).get(reference.uuidPropertyValue);
+            if (referencedNode != null) {
+                reference.node.set(reference.fieldName, referencedNode);
+            }
+        }
     }
 
-    private SearchQuery getSearchQuery(String entityName, List<String> uuidPropertyValues) throws JsonProcessingException {
-        ArrayNode uuidPropertyValuesArrayNode = JsonNodeFactory.instance.arrayNode();
-        for (String uuidPropertyValue: uuidPropertyValues) {
-            uuidPropertyValuesArrayNode.add("1-"+uuidPropertyValue);
+    private static class Reference {
+        private final ObjectNode node;
+        private final String fieldName;
+        private final String indexName;
+        private final String uuidPropertyValue;
+
+        Reference(ObjectNode node, String fieldName, String indexName, String uuidPropertyValue) {
+            this.node = node;
+            this.fieldName = fieldName;
+            this.indexName = indexName;
+            this.uuidPropertyValue = uuidPropertyValue;
         }
-        ObjectNode objectNode = JsonNodeFactory.instance.objectNode();
-        ObjectNode conditionNode = JsonNodeFactory.instance.objectNode();
-        conditionNode.set("or", uuidPropertyValuesArrayNode);
-        ObjectNode uuidPropertyValueFilterNode = JsonNodeFactory.instance.objectNode();
-        uuidPropertyValueFilterNode.set(uuidPropertyName, conditionNode);
-        objectNode.set(FILTERS, uuidPropertyValueFilterNode);
-        ArrayNode entity = JsonNodeFactory.instance.arrayNode();
-        entity.add(entityName);
-        objectNode.set(ENTITY_TYPE, entity);
-        return getSearchQuery(objectNode, offset, limit);
     }
 
     private void updateStatusFilter(SearchQuery searchQuery) {
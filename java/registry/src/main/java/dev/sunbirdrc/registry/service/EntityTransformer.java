@@ -2,10 +2,12 @@ package dev.sunbirdrc.registry.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 import dev.sunbirdrc.registry.model.EventConfig;
 import dev.sunbirdrc.registry.service.mask.*;
 import dev.sunbirdrc.registry.util.OSSchemaConfiguration;
@@ -15,17 +17,23 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 
-import static dev.sunbirdrc.registry.middleware.util.JSONUtil.convertObjectJsonString;
-
 @Service
 public class EntityTransformer {
     private static Logger logger = LoggerFactory.getLogger(EntityTransformer.class);
-    private JsonNode updateFields(JsonNode jsonNode, List<String> fields, EventConfig eventConfig) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        DocumentContext documentContext = JsonPath.parse(convertObjectJsonString(jsonNode));
+    // works on the JsonNode tree directly instead of serializing the record to a string and parsing it back
+    private static final Configuration jsonNodeConfiguration = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider())
+            .mappingProvider(new JacksonMappingProvider())
+            .build();
+
+    private void updateFields(DocumentContext documentContext, List<String> fields, EventConfig eventConfig) {
+        if (fields == null || fields.isEmpty()) {
+            return;
+        }
+        IEmitStrategy emitStrategy = EmitStrategyFactory.getMaskConfig(eventConfig);
         for(String str : fields) {
             try {
-                String value = updateValue(documentContext.read(str), eventConfig);
+                String value = emitStrategy.updateValue(documentContext.read(str, String.class));
                 if(value == null) {
                     documentContext.delete(str);
                     continue;
@@ -35,16 +43,12 @@ public class EntityTransformer {
                 logger.error(e.toString());
             }
         }
-        return objectMapper.readTree(documentContext.jsonString());
-    }
-
-    private String updateValue(String value, EventConfig config) {
-        IEmitStrategy maskConfig = EmitStrategyFactory.getMaskConfig(config);
-        return maskConfig.updateValue(value);
     }
 
     public JsonNode updatePrivateAndInternalFields(JsonNode jsonNode, OSSchemaConfiguration osSchemaConfiguration) throws JsonProcessingException {
-        JsonNode maskedPrivateFields = updateFields(jsonNode, osSchemaConfiguration.getPrivateFields(), osSchemaConfiguration.getPrivateFieldConfig());
-        return updateFields(maskedPrivateFields, osSchemaConfiguration.getInternalFields(), osSchemaConfiguration.getInternalFieldConfig());
+        DocumentContext documentContext = JsonPath.using(jsonNodeConfiguration).parse(jsonNode.deepCopy());
+        updateFields(documentContext, osSchemaConfiguration.getPrivateFields(), osSchemaConfiguration.getPrivateFieldConfig());
+        updateFields(documentContext, osSchemaConfiguration.getInternalFields(), osSchemaConfiguration.getInternalFieldConfig());
+        return documentContext.json();
     }
 }
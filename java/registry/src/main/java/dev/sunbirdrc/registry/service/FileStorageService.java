@@ -10,7 +10,6 @@ import io.minio.messages.Bucket;
 import io.minio.messages.DeleteError;
 import io.minio.messages.DeleteObject;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.poi.util.IOUtils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,16 +40,35 @@ public class FileStorageService implements HealthIndicator {
 	private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 	private final MinioClient minioClient;
 	private final String bucketName;
+	private final long partSize;
 	private static final String CONTENT_TYPE_TEXT = "text/plain";
 
-	public FileStorageService(MinioClient minioClient, @Value("${filestorage.bucketname}") String bucketName) {
+	public FileStorageService(MinioClient minioClient, @Value("${filestorage.bucketname}") String bucketName,
+							  @Value("${filestorage.partSize:10485760}") long partSize) {
 		this.bucketName = bucketName;
 		this.minioClient = minioClient;
+		this.partSize = partSize;
 	}
 
 	public void save(InputStream inputStream, String objectName) throws Exception {
+		save(inputStream, -1, null, objectName);
+	}
+
+	/**
+	 * Streams the file to the object store, files larger than the part size are uploaded in parts so that at most one
+	 * part is held in memory
+	 *
+	 * @param size        - size of the file in bytes, -1 when not known
+	 * @param contentType - content type of the file, null for the default of the object store
+	 */
+	public void save(InputStream inputStream, long size, String contentType, String objectName) throws Exception {
 		logger.info("Saving the file in the location {}", objectName);
-		minioClient.putObject(PutObjectArgs.builder().bucket(bucketName).object(objectName).stream(inputStream, -1, 10485760).build());
+		PutObjectArgs.Builder putObjectArgs = PutObjectArgs.builder().bucket(bucketName).object(objectName)
+				.stream(inputStream, size, partSize);
+		if (contentType != null) {
+			putObjectArgs.contentType(contentType);
+		}
+		minioClient.putObject(putObjectArgs.build());
 		logger.info("File has successfully saved");
 	}
 
@@ -60,7 +78,9 @@ public class FileStorageService implements HealthIndicator {
 		for (MultipartFile file: files) {
 			String objectName = objectPath +  "/" + getFileName(Objects.requireNonNull(file.getOriginalFilename()));
 			try {
-				save(file.getInputStream(), objectName);
+				try (InputStream inputStream = file.getInputStream()) {
+					save(inputStream, file.getSize(), file.getContentType(), objectName);
+				}
 				documentsResponse.addDocumentLocation(objectName);
 			} catch (Exception e) {
 				documentsResponse.addError(file.getOriginalFilename());
@@ -100,10 +120,34 @@ public class FileStorageService implements HealthIndicator {
 		return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder().method(Method.GET).bucket(bucketName).object(objectName).expiry(2, TimeUnit.HOURS).build());
 	}
 
-	public byte[] getDocument(String objectName) throws Exception {
+	/**
+	 * Gets the size, etag and last modified time of the document without reading it
+	 */
+	public StatObjectResponse getDocumentInfo(String objectName) throws Exception {
 		try {
-			InputStream inputStream = minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(objectName).build());
-			return IOUtils.toByteArray(inputStream);
+			return minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+		} catch (Exception e) {
+			logger.error("Error has occurred while fetching the document info {} {}", objectName, ExceptionUtils.getStackTrace(e));
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens the document, or the given range of it, as a stream from the object store. The caller has to close it.
+	 *
+	 * @param offset - position of the first byte to read
+	 * @param length - number of bytes to read, null to read till the end
+	 */
+	public InputStream getDocument(String objectName, long offset, Long length) throws Exception {
+		try {
+			GetObjectArgs.Builder getObjectArgs = GetObjectArgs.builder().bucket(bucketName).object(objectName);
+			if (offset > 0) {
+				getObjectArgs.offset(offset);
+			}
+			if (length != null) {
+				getObjectArgs.length(length);
+			}
+			return minioClient.getObject(getObjectArgs.build());
 		} catch (Exception e) {
 			logger.error("Error has occurred while fetching the document {} {}", objectName, ExceptionUtils.getStackTrace(e));
 			throw e;
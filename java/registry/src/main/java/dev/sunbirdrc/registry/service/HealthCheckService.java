@@ -9,46 +9,230 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestClientException;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
-import static dev.sunbirdrc.registry.middleware.util.Constants.CONNECTION_FAILURE;
+import static dev.sunbirdrc.registry.middleware.util.Constants.*;
 
+/**
+ * Health of the registry and the services it depends on. Every component is checked on its own schedule, every
+ * interval milliseconds and within timeout milliseconds, at most maxConcurrency at a time, and its latest result is
+ * kept. Asking for the health returns the kept results along with their age, so that polling /health doesn't call
+ * any of the components. A result older than maxAge, a check that timed out, and a component not checked yet count
+ * as unhealthy.
+ * <p>
+ * The registry is live as long as it answers. It is ready when the readiness components, by default the startup
+ * tasks and the database, are healthy. With an interval of 0 the components are checked on every request instead,
+ * on the same maxConcurrency threads, with a timeout of 0 checks aren't given up on.
+ */
 @Component
 public class HealthCheckService {
     private static final Logger logger = LoggerFactory.getLogger(HealthCheckService.class);
+    private static final String TIMEOUT = "TIMEOUT";
+    private static final String NOT_CHECKED = "NOT_CHECKED";
+    private static final String STALE = "STALE";
 
     @Autowired(required = false)
     private List<HealthIndicator> healthIndicators;
 
+    @Value("${health.check.interval:15000}")
+    private long interval;
+    @Value("${health.check.timeout:5000}")
+    private long timeout;
+    @Value("${health.check.maxConcurrency:4}")
+    private int maxConcurrency;
+    @Value("${health.check.maxAge:60000}")
+    private long maxAge;
+    @Value("${health.readiness.components:" + SUNBIRDRC_REGISTRY_STARTUP + "," + SUNBIRDRC_DATABASE_NAME + "}")
+    private String[] readinessComponents;
+
+    private final Map<HealthIndicator, Result> results = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService checks;
+
+    private static final class Result {
+        private final ComponentHealthInfo healthInfo;
+        private final long checkedAt;
+
+        Result(ComponentHealthInfo healthInfo, long checkedAt) {
+            this.healthInfo = healthInfo;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // its threads are started on first use
+        checks = Executors.newFixedThreadPool(Math.max(1, maxConcurrency), daemon("health-check"));
+        if (interval <= 0 || healthIndicators == null || healthIndicators.isEmpty()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemon("health-check-scheduler"));
+        // every component is checked right away, then the checks are spread over the interval so that they don't all
+        // run at once
+        long stagger = interval / healthIndicators.size();
+        for (int i = 0; i < healthIndicators.size(); i++) {
+            HealthIndicator healthIndicator = healthIndicators.get(i);
+            AtomicBoolean checking = new AtomicBoolean();
+            scheduler.execute(() -> startCheck(healthIndicator, checking));
+            scheduler.scheduleWithFixedDelay(() -> startCheck(healthIndicator, checking), interval + i * stagger,
+                    interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (checks != null) {
+            checks.shutdownNow();
+        }
+    }
+
+    private void startCheck(HealthIndicator healthIndicator, AtomicBoolean checking) {
+        // a component still being checked isn't checked again
+        if (!checking.compareAndSet(false, true)) {
+            return;
+        }
+        // either the check or the watchdog keeps its result, a check answering after it timed out is ignored. The
+        // component is checked again only once the check returns, so a check that hangs isn't piled up on
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicBoolean started = new AtomicBoolean();
+        Future<?> check = checks.submit(() -> {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                ComponentHealthInfo healthInfo = check(healthIndicator);
+                if (settled.compareAndSet(false, true)) {
+                    results.put(healthIndicator, new Result(healthInfo, System.currentTimeMillis()));
+                }
+            } finally {
+                checking.set(false);
+            }
+        });
+        if (timeout > 0) {
+            scheduler.schedule(() -> {
+                if (settled.compareAndSet(false, true)) {
+                    check.cancel(true);
+                    results.put(healthIndicator, timedOut(healthIndicator));
+                    // a check given up before it started never returns
+                    if (started.compareAndSet(false, true)) {
+                        checking.set(false);
+                    }
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return the latest result of every component
+     */
     public HealthCheckResponse health(Shard shard) {
-        HealthCheckResponse healthCheck;
-        AtomicBoolean overallHealthStatus = new AtomicBoolean(true);
-        List<ComponentHealthInfo> checks = new ArrayList<>();
+        List<ComponentHealthInfo> componentChecks = new ArrayList<>();
         if (healthIndicators != null) {
-            healthIndicators.parallelStream().forEach(healthIndicator -> {
-                ComponentHealthInfo healthInfo = null;
+            if (scheduler == null) {
+                checkAll();
+            }
+            long now = System.currentTimeMillis();
+            for (HealthIndicator healthIndicator : healthIndicators) {
+                componentChecks.add(current(healthIndicator, now));
+            }
+        }
+        boolean healthy = componentChecks.stream().allMatch(ComponentHealthInfo::isHealthy);
+        logger.debug("Heath Check : {}", componentChecks.stream().map(ComponentHealthInfo::getName).collect(Collectors.toList()));
+        return new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, healthy, componentChecks);
+    }
+
+    /**
+     * @return healthy while the registry answers, no component is checked
+     */
+    public HealthCheckResponse liveness() {
+        return new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, true, Collections.emptyList());
+    }
+
+    /**
+     * @return healthy when every readiness component is, only those are listed
+     */
+    public HealthCheckResponse readiness(Shard shard) {
+        Set<String> names = new HashSet<>(Arrays.asList(readinessComponents));
+        List<ComponentHealthInfo> componentChecks = health(shard).getChecks().stream()
+                .filter(healthInfo -> names.contains(healthInfo.getName()))
+                .collect(Collectors.toList());
+        boolean ready = componentChecks.stream().allMatch(ComponentHealthInfo::isHealthy);
+        return new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, ready, componentChecks);
+    }
+
+    /**
+     * Checks every component now, at most maxConcurrency at a time across requests
+     */
+    private void checkAll() {
+        Map<HealthIndicator, Future<ComponentHealthInfo>> futures = new LinkedHashMap<>();
+        try {
+            for (HealthIndicator healthIndicator : healthIndicators) {
+                futures.put(healthIndicator, checks.submit(() -> check(healthIndicator)));
+            }
+            long deadline = System.currentTimeMillis() + timeout;
+            for (Map.Entry<HealthIndicator, Future<ComponentHealthInfo>> future : futures.entrySet()) {
                 try {
-                    healthInfo = healthIndicator.getHealthInfo();
-                } catch (RestClientException e) {
-                    logger.error("RestClientException when checking the health of the {}: {}",healthIndicator.getServiceName(), ExceptionUtils.getStackTrace(e));
-                    healthInfo = new ComponentHealthInfo(healthIndicator.getServiceName(), false, CONNECTION_FAILURE, e.getMessage());
+                    long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                    ComponentHealthInfo healthInfo = timeout > 0 ? future.getValue().get(remaining, TimeUnit.MILLISECONDS)
+                            : future.getValue().get();
+                    results.put(future.getKey(), new Result(healthInfo, System.currentTimeMillis()));
+                } catch (TimeoutException | ExecutionException e) {
+                    results.put(future.getKey(), timedOut(future.getKey()));
                 }
-                checks.add(healthInfo);
-                overallHealthStatus.set(overallHealthStatus.get() & (healthInfo.isHealthy()));
-            });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // checks left over don't hold the shared threads
+            futures.values().forEach(future -> future.cancel(true));
         }
+    }
+
+    private static ComponentHealthInfo check(HealthIndicator healthIndicator) {
+        try {
+            return healthIndicator.getHealthInfo();
+        } catch (Exception e) {
+            logger.error("Exception when checking the health of the {}: {}", healthIndicator.getServiceName(), ExceptionUtils.getStackTrace(e));
+            return new ComponentHealthInfo(healthIndicator.getServiceName(), false, CONNECTION_FAILURE, e.getMessage());
+        }
+    }
+
+    private Result timedOut(HealthIndicator healthIndicator) {
+        logger.warn("Health check of {} timed out after {} ms", healthIndicator.getServiceName(), timeout);
+        return new Result(new ComponentHealthInfo(healthIndicator.getServiceName(), false, TIMEOUT,
+                String.format("no answer in %d ms", timeout)), System.currentTimeMillis());
+    }
+
+    private ComponentHealthInfo current(HealthIndicator healthIndicator, long now) {
+        Result result = results.get(healthIndicator);
+        if (result == null) {
+            return new ComponentHealthInfo(healthIndicator.getServiceName(), false, NOT_CHECKED, "not checked yet");
+        }
+        ComponentHealthInfo checked = result.healthInfo;
+        long age = Math.max(0, now - result.checkedAt);
+        ComponentHealthInfo healthInfo = age > maxAge && scheduler != null
+                ? new ComponentHealthInfo(checked.getName(), false, STALE, String.format("last checked %d ms ago", age))
+                : new ComponentHealthInfo(checked.getName(), checked.isHealthy(), checked.getErr(), checked.getErrmsg());
+        healthInfo.setAge(age);
+        return healthInfo;
+    }
 
-        healthCheck = new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, overallHealthStatus.get(), checks);
-        logger.info("Heath Check : {}", checks.stream().map(ComponentHealthInfo::getName).collect(Collectors.toList()));
-        return healthCheck;
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 }
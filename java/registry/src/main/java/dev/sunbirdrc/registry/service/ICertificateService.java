@@ -5,4 +5,12 @@ import dev.sunbirdrc.pojos.HealthIndicator;
 
 public interface ICertificateService extends HealthIndicator {
     Object getCertificate(JsonNode certificateData, String entityName, String entityId, String mediaType, String templateUrl, String templateId, JsonNode entity) throws Exception;
+
+    /**
+     * @return identifies the template the certificate would be rendered with, it changes when the template does;
+     * null when it can't be told, the certificate isn't cached then
+     */
+    default String getTemplateVersion(String entityName, String mediaType, String templateUrl, String templateId) throws Exception {
+        return null;
+    }
 }
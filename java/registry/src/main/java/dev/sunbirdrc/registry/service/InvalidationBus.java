@@ -0,0 +1,159 @@
+package dev.sunbirdrc.registry.service;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Carries the changes made in one instance of the registry to the other instances sharing redis, so that each drops
+ * what it cached of them. A change is published on a single redis channel with its topic and the id of the instance
+ * that made it, and handed to the listener of the topic in every other instance. One subscriber thread serves every
+ * topic, it subscribes again when the connection is lost and tells every listener, since changes published meanwhile
+ * are lost. Without redis nothing is published or received.
+ */
+@Component
+public class InvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+    static final String CHANNEL = "sunbirdrc-invalidation";
+    private static final String MESSAGE_SEPARATOR = "|";
+    private static final long RESUBSCRIBE_DELAY = 1000;
+
+    @Autowired(required = false)
+    private JedisPool jedisPool;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, Listener> listeners = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private volatile JedisPubSub subscription;
+
+    private static final class Listener {
+        private final Consumer<String> onChange;
+        private final Runnable onSubscribed;
+
+        Listener(Consumer<String> onChange, Runnable onSubscribed) {
+            this.onChange = onChange;
+            this.onSubscribed = onSubscribed;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (jedisPool == null) {
+            return;
+        }
+        running = true;
+        Thread subscriber = new Thread(this::subscribe, "invalidation-bus");
+        subscriber.setDaemon(true);
+        subscriber.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        JedisPubSub current = subscription;
+        if (current != null && current.isSubscribed()) {
+            current.unsubscribe();
+        }
+    }
+
+    /**
+     * Hands the changes of the topic made in other instances to onChange. onSubscribed is run whenever the bus
+     * subscribes, changes published before may have been missed.
+     */
+    public void listen(String topic, Consumer<String> onChange, Runnable onSubscribed) {
+        listeners.put(topic, new Listener(onChange, onSubscribed));
+    }
+
+    /**
+     * @return true when changes are carried to the other instances
+     */
+    public boolean isEnabled() {
+        return jedisPool != null;
+    }
+
+    /**
+     * @return true while the changes of the other instances are received
+     */
+    public boolean isSubscribed() {
+        JedisPubSub current = subscription;
+        return current != null && current.isSubscribed();
+    }
+
+    /**
+     * @return false when the change couldn't be published, the other instances don't know of it
+     */
+    public boolean publish(String topic, String change) {
+        if (jedisPool == null) {
+            return false;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.publish(CHANNEL, instanceId + MESSAGE_SEPARATOR + topic + MESSAGE_SEPARATOR + change);
+            return true;
+        } catch (Exception e) {
+            logger.error("Can't publish {} change {}: {}", topic, change, ExceptionUtils.getStackTrace(e));
+            return false;
+        }
+    }
+
+    private void subscribe() {
+        while (running) {
+            subscription = new JedisPubSub() {
+                @Override
+                public void onSubscribe(String channel, int subscribedChannels) {
+                    listeners.values().forEach(listener -> listener.onSubscribed.run());
+                }
+
+                @Override
+                public void onMessage(String channel, String message) {
+                    receive(message);
+                }
+            };
+            try (Jedis jedis = jedisPool.getResource()) {
+                jedis.subscribe(subscription, CHANNEL);
+            } catch (Exception e) {
+                if (running) {
+                    logger.warn("Invalidation subscription lost, subscribing again: {}", e.getMessage());
+                    try {
+                        Thread.sleep(RESUBSCRIBE_DELAY);
+                    } catch (InterruptedException interruptedException) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    void receive(String message) {
+        String[] parts = message.split("\\" + MESSAGE_SEPARATOR, 3);
+        if (parts.length < 3 || parts[0].equals(instanceId)) {
+            return;
+        }
+        Listener listener = listeners.get(parts[1]);
+        if (listener == null) {
+            return;
+        }
+        logger.debug("{} changed in another instance: {}", parts[1], parts[2]);
+        try {
+            listener.onChange.accept(parts[2]);
+        } catch (Exception e) {
+            logger.error("Handling {} change {} failed: {}", parts[1], parts[2], ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    String getInstanceId() {
+        return instanceId;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.sunbirdrc.registry.service;
+
+/**
+ * A component whose counters are served under its name by /utils/metrics.
+ * Unlike a HealthIndicator it never marks the registry unhealthy, it only reports.
+ */
+public interface MetricsSource {
+	String getMetricsName();
+
+	Object getMetrics();
+}
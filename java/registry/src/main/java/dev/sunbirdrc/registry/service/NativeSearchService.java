@@ -125,7 +125,7 @@ public class NativeSearchService implements ISearchService {
 
 				Shard shard = shardManager.activateShard(dbConnection.getShardId());
 				IRegistryDao registryDao = new RegistryDaoImpl(shard.getDatabaseProvider(), definitionsManager, uuidPropertyName, expandReferenceObj);
-				SearchDaoImpl searchDao = new SearchDaoImpl(registryDao);
+				SearchDaoImpl searchDao = new SearchDaoImpl(registryDao, uuidPropertyName, shard.getDatabaseProvider().isOwnerIndexReady());
 				try (OSGraph osGraph = shard.getDatabaseProvider().getOSGraph()) {
 					Graph graph = osGraph.getGraphStore();
 					try (Transaction tx = shard.getDatabaseProvider().startTransaction(graph)) {
@@ -4,18 +4,29 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import dev.sunbirdrc.pojos.HealthCheckResponse;
 import dev.sunbirdrc.registry.model.EventType;
+import dev.sunbirdrc.registry.model.dto.CreateEntityMessage;
+import dev.sunbirdrc.registry.model.dto.CreateEntityResult;
+import dev.sunbirdrc.registry.service.postcommit.PostCommitJob;
 import dev.sunbirdrc.registry.sink.shard.Shard;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.List;
+
 public interface RegistryService {
 
 	Vertex deleteEntityById(Shard shard, String entityName, String userId, String id) throws Exception;
 
 	String addEntity(Shard shard, String userId, JsonNode inputJson, boolean skipSignature) throws Exception;
 
+	List<CreateEntityResult> addEntities(Shard shard, List<CreateEntityMessage> messages);
+
 	void updateEntity(Shard shard, String userId, String id, String jsonString, boolean skipSignature) throws Exception;
 
+	boolean setCredential(Shard shard, String entityName, String id, JsonNode signedData, JsonNode credential) throws Exception;
+
+	void runPostCommit(Shard shard, PostCommitJob job) throws Exception;
+
 	void callESActors(JsonNode rootNode, String operation, String parentEntityType, String entityRootId, Transaction tx) throws Exception;
 
 	void callNotificationActors(String operation, String to, String subject, String message) throws Exception;
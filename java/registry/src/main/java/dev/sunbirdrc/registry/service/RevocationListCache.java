@@ -0,0 +1,338 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Revocation lists of issuers, read from every page of the credential service once and served from memory, so that
+ * relying parties polling the list don't call the credential service on every poll.
+ * <p>
+ * A list is read again once it is older than refreshAfter milliseconds, the request that finds it stale reads it
+ * while the others are served the current list. A credential revoked through this instance is added to its issuer's
+ * list right away. Every change moves the list to a new version, the time of the change in milliseconds, so that a
+ * relying party can ask for the credentials revoked since the version it has.
+ * <p>
+ * Lists of at most maxIssuers issuers are kept. When there are more, the lists with no revoked credentials go first
+ * and then the least recently used, so that issuer ids that don't exist can't push out the lists being polled. A list
+ * that can't be read isn't read again for negativeTtl milliseconds, the failure or the current list is served
+ * meanwhile.
+ */
+@Component
+public class RevocationListCache {
+    private static final Logger logger = LoggerFactory.getLogger(RevocationListCache.class);
+    private static final String ID = "id";
+    private static final String ISSUANCE_DATE = "issuanceDate";
+
+    @Value("${signature.v2.revocationList.refreshAfter:300000}")
+    private long refreshAfter;
+    @Value("${signature.v2.revocationList.pageSize:1000}")
+    private int pageSize;
+    @Value("${signature.v2.revocationList.maxEntries:1000000}")
+    private int maxEntries;
+    @Value("${signature.v2.revocationList.maxIssuers:1000}")
+    private int maxIssuers;
+    @Value("${signature.v2.revocationList.negativeTtl:60000}")
+    private long negativeTtl;
+
+    private final Map<String, Holder> holders = new ConcurrentHashMap<>();
+
+    public interface PageLoader {
+        /**
+         * @return the revoked credentials on the page, counted from 1
+         */
+        ArrayNode load(int page, int limit) throws Exception;
+    }
+
+    /**
+     * @return the revocation list of the issuer, read through the loader if it isn't known or is stale
+     */
+    public Snapshot get(String issuerDid, PageLoader loader) throws Exception {
+        Holder holder = holders.get(issuerDid);
+        if (holder == null) {
+            Holder created = new Holder();
+            holder = holders.putIfAbsent(issuerDid, created);
+            if (holder == null) {
+                holder = created;
+                evictIfFull();
+            }
+        }
+        holder.usedAt = System.currentTimeMillis();
+        Snapshot snapshot = holder.snapshot;
+        if (snapshot == null) {
+            synchronized (holder.loading) {
+                if (holder.snapshot == null) {
+                    if (holder.failure != null && isFailedRecently(holder)) {
+                        throw holder.failure;
+                    }
+                    try {
+                        refresh(issuerDid, holder, loader);
+                    } catch (Exception e) {
+                        holder.failure = e;
+                        holder.failedAt = System.currentTimeMillis();
+                        throw e;
+                    }
+                }
+            }
+            return holder.snapshot;
+        }
+        if (System.currentTimeMillis() - snapshot.loadedAt >= refreshAfter && !isFailedRecently(holder)
+                && holder.refreshing.compareAndSet(false, true)) {
+            try {
+                refresh(issuerDid, holder, loader);
+            } catch (Exception e) {
+                holder.failedAt = System.currentTimeMillis();
+                logger.warn("Refreshing the revocation list of {} failed, serving version {}: {}", issuerDid,
+                        snapshot.version, e.getMessage());
+            } finally {
+                holder.refreshing.set(false);
+            }
+        }
+        return holder.snapshot;
+    }
+
+    private boolean isFailedRecently(Holder holder) {
+        return System.currentTimeMillis() - holder.failedAt < negativeTtl;
+    }
+
+    private void evictIfFull() {
+        if (holders.size() <= maxIssuers) {
+            return;
+        }
+        holders.values().removeIf(holder -> holder.snapshot != null ? holder.snapshot.size() == 0 : holder.failure != null);
+        if (holders.size() <= maxIssuers) {
+            return;
+        }
+        List<Map.Entry<String, Holder>> byUse = new ArrayList<>(holders.entrySet());
+        byUse.sort(Comparator.comparingLong(entry -> entry.getValue().usedAt));
+        for (int i = 0; i < byUse.size() - maxIssuers; i++) {
+            holders.remove(byUse.get(i).getKey(), byUse.get(i).getValue());
+        }
+    }
+
+    public boolean hasSnapshots() {
+        return !holders.isEmpty();
+    }
+
+    /**
+     * Adds a credential revoked through this instance to the list of its issuer, if the list is kept
+     */
+    public void revoked(String issuerDid, JsonNode revokedCredential) {
+        Holder holder = holders.get(issuerDid);
+        if (holder == null) {
+            return;
+        }
+        synchronized (holder) {
+            Snapshot current = holder.snapshot;
+            if (current == null || current.ids.contains(revokedCredential.path(ID).asText())) {
+                return;
+            }
+            long version = nextVersion(current.version);
+            List<Entry> entries = new ArrayList<>(current.entries);
+            entries.add(insertionPoint(entries, revokedCredential), new Entry(revokedCredential, version));
+            holder.snapshot = new Snapshot(issuerDid, entries, version, current.completeBefore, current.loadedAt);
+        }
+    }
+
+    private void refresh(String issuerDid, Holder holder, PageLoader loader) throws Exception {
+        long start = System.currentTimeMillis();
+        Snapshot before = holder.snapshot;
+        Map<String, JsonNode> loaded = load(loader);
+        synchronized (holder) {
+            Snapshot current = holder.snapshot;
+            Map<String, Entry> known = new HashMap<>();
+            if (current != null) {
+                current.entries.forEach(entry -> known.put(entry.id, entry));
+            }
+            long version = current == null ? nextVersion(0) : nextVersion(current.version);
+            boolean changed = current == null;
+            List<Entry> entries = new ArrayList<>(loaded.size());
+            for (JsonNode item : loaded.values()) {
+                Entry entry = known.remove(item.path(ID).asText());
+                changed |= entry == null;
+                entries.add(entry != null ? new Entry(item, entry.version) : new Entry(item, version));
+            }
+            long completeBefore = current == null ? version : current.completeBefore;
+            for (Entry entry : known.values()) {
+                if (before != null && entry.version > before.version) {
+                    // revoked through this instance while the pages were read
+                    entries.add(insertionPoint(entries, entry.item), entry);
+                } else {
+                    // no longer revoked, a delta can't express that
+                    changed = true;
+                    completeBefore = version;
+                }
+            }
+            if (!changed) {
+                version = current.version;
+            }
+            holder.snapshot = new Snapshot(issuerDid, entries, version, completeBefore, System.currentTimeMillis());
+        }
+        logger.info("Revocation list of {} read with {} credentials in {} ms", issuerDid, loaded.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    private Map<String, JsonNode> load(PageLoader loader) throws Exception {
+        Map<String, JsonNode> loaded = new LinkedHashMap<>();
+        for (int page = 1; loaded.size() < maxEntries; page++) {
+            ArrayNode items = loader.load(page, pageSize);
+            int before = loaded.size();
+            items.forEach(item -> loaded.putIfAbsent(item.path(ID).asText(), item));
+            // a short page is the last, a page of credentials already read means paging isn't honoured
+            if (items.size() < pageSize || loaded.size() == before) {
+                break;
+            }
+        }
+        return loaded;
+    }
+
+    private static long nextVersion(long version) {
+        return Math.max(version + 1, System.currentTimeMillis());
+    }
+
+    /**
+     * @return where the credential goes in a list ordered from the latest issued
+     */
+    private static int insertionPoint(List<Entry> entries, JsonNode item) {
+        String issuanceDate = item.path(ISSUANCE_DATE).asText();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).item.path(ISSUANCE_DATE).asText().compareTo(issuanceDate) < 0) {
+                return i;
+            }
+        }
+        return entries.size();
+    }
+
+    private static final class Holder {
+        private final Object loading = new Object();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile Snapshot snapshot;
+        private volatile long usedAt = System.currentTimeMillis();
+        // the last read failed at, the failure is kept only while there is no list to serve
+        private volatile long failedAt;
+        private volatile Exception failure;
+    }
+
+    private static final class Entry {
+        private final JsonNode item;
+        private final String id;
+        private final long version;
+
+        Entry(JsonNode item, long version) {
+            this.item = item;
+            this.id = item.path(ID).asText();
+            this.version = version;
+        }
+    }
+
+    /**
+     * Revocation list of an issuer at a version, it doesn't change once built
+     */
+    public static final class Snapshot {
+        private final String issuerDid;
+        private final List<Entry> entries;
+        private final Set<String> ids = new HashSet<>();
+        private final long version;
+        // deltas since a version before this one aren't known, the whole list is sent instead
+        private final long completeBefore;
+        private final long loadedAt;
+        private final String eTag;
+
+        Snapshot(String issuerDid, List<Entry> entries, long version, long completeBefore, long loadedAt) {
+            this.issuerDid = issuerDid;
+            this.entries = Collections.unmodifiableList(entries);
+            this.version = version;
+            this.completeBefore = completeBefore;
+            this.loadedAt = loadedAt;
+            Hasher hasher = Hashing.sha256().newHasher().putString(issuerDid, StandardCharsets.UTF_8);
+            for (Entry entry : entries) {
+                ids.add(entry.id);
+                hasher.putChar('\n').putString(entry.id, StandardCharsets.UTF_8);
+            }
+            this.eTag = hasher.hash().toString();
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return entries.size();
+        }
+
+        /**
+         * @return identifies the response of the given kind built from the list, it depends only on the revoked
+         * credentials so that every instance gives the same one
+         */
+        public String eTag(String variant) {
+            return "\"" + Hashing.sha256().hashString(eTag + "\u0000" + variant, StandardCharsets.UTF_8) + "\"";
+        }
+
+        /**
+         * @return the page of the list the credential service would return, pages are counted from 1
+         */
+        public ArrayNode page(int page, int limit) {
+            ArrayNode items = JsonNodeFactory.instance.arrayNode();
+            long from = (long) (page - 1) * limit;
+            for (long i = from; i < Math.min(entries.size(), from + limit); i++) {
+                items.add(entries.get((int) i).item);
+            }
+            return items;
+        }
+
+        /**
+         * @return the credentials revoked after the given version, or all of them when that isn't known
+         */
+        public ObjectNode since(long since) {
+            boolean complete = since < completeBefore;
+            ArrayNode revoked = JsonNodeFactory.instance.arrayNode();
+            for (Entry entry : entries) {
+                if (complete || entry.version > since) {
+                    revoked.add(entry.item);
+                }
+            }
+            ObjectNode delta = JsonNodeFactory.instance.objectNode();
+            delta.put("issuer", issuerDid);
+            delta.put("version", version);
+            delta.put("complete", complete);
+            delta.set("revoked", revoked);
+            return delta;
+        }
+
+        /**
+         * @return the ids of the revoked credentials one per line, gzipped and base64url encoded
+         */
+        public ObjectNode compact() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                for (int i = 0; i < entries.size(); i++) {
+                    if (i > 0) {
+                        gzip.write('\n');
+                    }
+                    gzip.write(entries.get(i).id.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            ObjectNode compact = JsonNodeFactory.instance.objectNode();
+            compact.put("issuer", issuerDid);
+            compact.put("version", version);
+            compact.put("count", entries.size());
+            compact.put("encodedList", Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray()));
+            return compact;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package dev.sunbirdrc.registry.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static dev.sunbirdrc.registry.Constants.REVOKED_CREDENTIAL;
+
+/**
+ * Bloom filter of the hashes of revoked credentials, so that verifying a credential that isn't revoked, which is
+ * almost every verification, doesn't search the registry. Only a hash the filter may contain needs the exact lookup.
+ * <p>
+ * The filter is built from the RevokedCredential records of every shard on start and built again every
+ * rebuildInterval milliseconds, which resizes it as revocations grow. Until it is built every hash may be revoked.
+ * A revoked credential is added once its record is written, and when the registry runs as several instances
+ * sharing redis it is published on the InvalidationBus so that every other instance adds it too.
+ * <p>
+ * As a publish may fail or not reach an instance, and there may be no redis at all, the credentials revoked since
+ * the last build or poll are also read from the store every pollInterval milliseconds. The filter only rules out a
+ * credential while it has been brought up to date within two poll intervals, otherwise every hash may be revoked.
+ */
+@Component
+public class RevokedCredentialFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RevokedCredentialFilter.class);
+    static final String REVOCATION_TOPIC = "credential-revocation";
+    public static final String SIGNED_HASH = "signedHash";
+    // read again on every poll, covers the clocks of the instances differing and revocations committed a while after
+    // they were stamped
+    private static final long POLL_OVERLAP = 60000;
+
+    @Autowired
+    private DBConnectionInfoMgr dbConnectionInfoMgr;
+    @Autowired
+    private DBProviderFactory dbProviderFactory;
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${registry.revocation.filter.expectedInsertions:1000000}")
+    private long expectedInsertions;
+    @Value("${registry.revocation.filter.falsePositiveProbability:0.01}")
+    private double falsePositiveProbability;
+    @Value("${registry.revocation.filter.rebuildInterval:3600000}")
+    private long rebuildInterval;
+    @Value("${registry.revocation.filter.pollInterval:10000}")
+    private long pollInterval;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter<CharSequence> filter;
+    // hashes revoked while the filter is being built, they are added to the new filter before it replaces the old one
+    private Set<String> revokedWhileBuilding;
+    private ScheduledExecutorService scheduler;
+    // time from which revocations written to the store may be missing from the filter
+    private volatile long syncedAt;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revoked-credential-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (rebuildInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::rebuildQuietly, rebuildInterval, rebuildInterval, TimeUnit.MILLISECONDS);
+        }
+        if (pollInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::pollQuietly, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+        }
+        invalidationBus.listen(REVOCATION_TOPIC, this::add, () -> {
+            // revocations published while not subscribed are lost, they are read from the store instead
+            if (isLoaded()) {
+                scheduler.execute(this::rebuildQuietly);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public static String hash(String signedData) {
+        return DigestUtils.md5DigestAsHex(signedData.getBytes()).toUpperCase();
+    }
+
+    /**
+     * @return false only if the credential with the hash is surely not revoked
+     */
+    public boolean mightBeRevoked(String signedHash) {
+        BloomFilter<CharSequence> current = filter;
+        return current == null || !isCurrent() || current.mightContain(signedHash);
+    }
+
+    private boolean isCurrent() {
+        return pollInterval <= 0 || System.currentTimeMillis() - syncedAt <= 2 * pollInterval;
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    /**
+     * Adds the hash of a credential whose revocation was written, here and in the other instances
+     */
+    public void revoked(String signedHash) {
+        add(signedHash);
+        invalidationBus.publish(REVOCATION_TOPIC, signedHash);
+    }
+
+    void add(String signedHash) {
+        synchronized (lock) {
+            if (filter != null) {
+                filter.put(signedHash);
+            }
+            if (revokedWhileBuilding != null) {
+                revokedWhileBuilding.add(signedHash);
+            }
+        }
+    }
+
+    /**
+     * Builds the filter from the revoked credentials in the store and replaces the current one with it
+     */
+    public synchronized void rebuild() throws Exception {
+        long start = System.currentTimeMillis();
+        synchronized (lock) {
+            revokedWhileBuilding = new HashSet<>();
+        }
+        try {
+            long count = countRevokedHashes();
+            BloomFilter<CharSequence> built = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                    Math.max(expectedInsertions, count * 2), falsePositiveProbability);
+            loadRevokedHashes(built::put);
+            synchronized (lock) {
+                revokedWhileBuilding.forEach(built::put);
+                filter = built;
+            }
+            syncedAt = start;
+            logger.info("Revoked credential filter built with {} hashes in {} ms", count, System.currentTimeMillis() - start);
+        } finally {
+            synchronized (lock) {
+                revokedWhileBuilding = null;
+            }
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Can't build the revoked credential filter, keeping the current one: {}", ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    /**
+     * Adds the credentials revoked in the store since the filter was last brought up to date
+     */
+    public synchronized void poll() throws Exception {
+        if (filter == null) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        loadRevokedHashesSince(Instant.ofEpochMilli(syncedAt - POLL_OVERLAP).toString(), this::add);
+        syncedAt = start;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (Exception e) {
+            logger.error("Can't read the recently revoked credentials, the filter is trusted until {}: {}",
+                    Instant.ofEpochMilli(syncedAt + 2 * pollInterval), ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    long countRevokedHashes() throws Exception {
+        long count = 0;
+        for (DBConnectionInfo dbConnectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+            DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
+            try (OSGraph osGraph = dbProvider.getOSGraph()) {
+                Graph graph = osGraph.getGraphStore();
+                count += graph.traversal().V().hasLabel(REVOKED_CREDENTIAL).has(SIGNED_HASH).count().next();
+            }
+        }
+        return count;
+    }
+
+    void loadRevokedHashes(Consumer<String> consumer) throws Exception {
+        loadRevokedHashesSince(null, consumer);
+    }
+
+    /**
+     * @param since revocations created at or after this instant are loaded, all of them when null
+     */
+    void loadRevokedHashesSince(String since, Consumer<String> consumer) throws Exception {
+        for (DBConnectionInfo dbConnectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+            DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
+            try (OSGraph osGraph = dbProvider.getOSGraph()) {
+                Graph graph = osGraph.getGraphStore();
+                GraphTraversal<?, ?> revocations = graph.traversal().V().hasLabel(REVOKED_CREDENTIAL);
+                if (since != null) {
+                    revocations = revocations.has(OSSystemFields.osCreatedAt.name(), P.gte(since));
+                }
+                Iterator<Object> hashes = revocations.values(SIGNED_HASH);
+                while (hashes.hasNext()) {
+                    consumer.accept(hashes.next().toString());
+                }
+            }
+        }
+    }
+}
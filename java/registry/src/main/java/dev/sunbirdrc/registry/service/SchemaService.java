@@ -15,6 +15,7 @@ import dev.sunbirdrc.registry.service.impl.SignatureV2ServiceImpl;
 import dev.sunbirdrc.registry.util.Definition;
 import dev.sunbirdrc.registry.util.EntityParenter;
 import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import dev.sunbirdrc.registry.util.IndexReconciler;
 import dev.sunbirdrc.validators.IValidate;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,6 +57,9 @@ public class SchemaService {
 	@Autowired
 	private SchemaAuthFilter schemaAuthFilter;
 
+	@Autowired
+	private IndexReconciler indexReconciler;
+
 	public void deleteSchemaIfExists(Vertex vertex) throws SchemaException {
 		if (vertex.property(STATUS) != null && vertex.property(STATUS).value().equals(SchemaStatus.PUBLISHED.toString())) {
 			throw new SchemaException(NOT_ALLOWED_FOR_PUBLISHED_SCHEMA);
@@ -90,6 +94,7 @@ public class SchemaService {
 				validator.addDefinitions(schema);
 				addAnonymousSchemaToFilter(definition);
 				this.ensureCredentialSchema(definition.getTitle(), definitionsManager.getCredentialTemplate(definition.getTitle()), SchemaStatus.PUBLISHED.toString());
+				indexReconciler.reconcile(definition.getTitle());
 			} else {
 				throw new SchemaException("Duplicate Error: Schema already exists");
 			}
@@ -115,6 +120,7 @@ public class SchemaService {
 			validator.addDefinitions(schema);
 			saveIdFormat(definition.getTitle());
 			ensureCredentialSchema(definition.getTitle(), definitionsManager.getCredentialTemplate(definition.getTitle()), SchemaStatus.PUBLISHED.toString());
+			indexReconciler.reconcile(definition.getTitle());
 		}
 	}
 
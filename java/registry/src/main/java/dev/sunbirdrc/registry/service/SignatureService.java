@@ -3,6 +3,8 @@ package dev.sunbirdrc.registry.service;
 import dev.sunbirdrc.pojos.HealthIndicator;
 import dev.sunbirdrc.registry.exception.SignatureException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public interface SignatureService extends HealthIndicator {
@@ -10,6 +12,20 @@ public interface SignatureService extends HealthIndicator {
 	Object sign(Map<String, Object> propertyValue)
 			throws SignatureException.UnreachableException, SignatureException.CreationException;
 
+	/**
+	 * Signs the values in order, one at a time unless the provider can sign them in a single call
+	 *
+	 * @return signed values in the order of propertyValues
+	 */
+	default List<Object> signAll(List<Map<String, Object>> propertyValues)
+			throws SignatureException.UnreachableException, SignatureException.CreationException {
+		List<Object> signed = new ArrayList<>(propertyValues.size());
+		for (Map<String, Object> propertyValue : propertyValues) {
+			signed.add(sign(propertyValue));
+		}
+		return signed;
+	}
+
 	boolean verify(Object propertyValue)
 			throws SignatureException.UnreachableException, SignatureException.VerificationException;
 
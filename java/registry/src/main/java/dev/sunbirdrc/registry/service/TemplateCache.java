@@ -0,0 +1,86 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.registry.service.impl.RetryRestTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Certificate templates by url. A template fetched within revalidateAfter milliseconds is used as it is, after that
+ * it is fetched again with If-None-Match and If-Modified-Since, so an unchanged template costs a 304 instead of its
+ * body. The version of a template is the hash of its body and changes only when the template does.
+ */
+@Component
+public class TemplateCache {
+    @Value("${certificate.cache.template.revalidateAfter:60000}")
+    private long revalidateAfter;
+    @Value("${certificate.cache.template.maxEntries:1000}")
+    private int maxEntries;
+
+    @Autowired
+    private RetryRestTemplate retryRestTemplate;
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    public String getTemplate(String url) {
+        return fetch(url).body;
+    }
+
+    public String getVersion(String url) {
+        return fetch(url).version;
+    }
+
+    private Template fetch(String url) {
+        long now = System.currentTimeMillis();
+        Template cached = templates.get(url);
+        if (cached != null && now - cached.checkedAt < revalidateAfter) {
+            return cached;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null && cached.eTag != null) {
+            headers.setIfNoneMatch(cached.eTag);
+        }
+        if (cached != null && cached.lastModified > 0) {
+            headers.setIfModifiedSince(cached.lastModified);
+        }
+        ResponseEntity<String> response = retryRestTemplate.getForObject(url, headers, String.class);
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            cached.checkedAt = now;
+            return cached;
+        }
+        String body = response.getBody() == null ? "" : response.getBody();
+        Template template = new Template(body, response.getHeaders().getETag(), response.getHeaders().getLastModified(), now);
+        if (templates.size() >= maxEntries && !templates.containsKey(url)) {
+            templates.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().checkedAt))
+                    .ifPresent(eldest -> templates.remove(eldest.getKey(), eldest.getValue()));
+        }
+        templates.put(url, template);
+        return template;
+    }
+
+    private static final class Template {
+        private final String body;
+        private final String version;
+        private final String eTag;
+        private final long lastModified;
+        private volatile long checkedAt;
+
+        Template(String body, String eTag, long lastModified, long checkedAt) {
+            this.body = body;
+            this.version = DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8));
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
@@ -1,18 +1,13 @@
 package dev.sunbirdrc.registry.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.sunbirdrc.registry.model.dto.WebhookEvent;
-import dev.sunbirdrc.registry.service.impl.RetryRestTemplate;
+import dev.sunbirdrc.registry.service.webhook.WebhookDispatcher;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -21,19 +16,16 @@ public class WebhookService {
     @Value("${webhook.enabled}")
     private Boolean webhookEnabled;
     @Autowired
-    private RetryRestTemplate retryRestTemplate;
-    @Autowired
-    private ObjectMapper objectMapper;
+    private WebhookDispatcher webhookDispatcher;
 
+    /**
+     * Queues the event for delivery, the caller is not blocked by the subscriber
+     */
     public void postEvent(WebhookEvent event) {
         if (webhookEnabled) {
             logger.debug("Post event {}", event);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
             try {
-                HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(event), headers);
-                ResponseEntity<String> response = retryRestTemplate.postForEntity(event.getWebhookUrl(), entity);
-
+                webhookDispatcher.dispatch(event);
             } catch (JsonProcessingException e) {
                 logger.error("Failed calling webhook event: {}", ExceptionUtils.getStackTrace(e));
             }
@@ -0,0 +1,22 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import dev.sunbirdrc.registry.service.MetricsSource;
+import org.springframework.stereotype.Component;
+import org.sunbird.akka.core.ActorMetrics;
+
+/**
+ * Serves the mailbox depth, processing time, drops and dead letters of every actor, by actor type, under
+ * /utils/metrics
+ */
+@Component
+public class ActorMetricsSource implements MetricsSource {
+    @Override
+    public String getMetricsName() {
+        return "actors";
+    }
+
+    @Override
+    public Object getMetrics() {
+        return ActorMetrics.instance().snapshot();
+    }
+}
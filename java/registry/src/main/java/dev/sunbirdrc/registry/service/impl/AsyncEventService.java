@@ -0,0 +1,200 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.sunbirdrc.registry.model.event.Event;
+import dev.sunbirdrc.registry.service.IEventService;
+import dev.sunbirdrc.registry.service.MetricsSource;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.sunbirdrc.registry.middleware.util.Constants.SUNBIRD_EVENT_SERVICE_NAME;
+
+/**
+ * Takes events off the request thread. pushEvents only puts the event on a bounded queue, a single worker thread
+ * drains the queue in batches, serializes the events with a shared compact writer and hands them to publish.
+ * When the queue is full the caller waits up to enqueueTimeout before the event is dropped, the queue depth and the
+ * dropped and failed counts are reported as metrics. Nothing is queued or started unless event.enabled is set.
+ */
+public abstract class AsyncEventService implements IEventService, MetricsSource {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncEventService.class);
+    private static final ObjectWriter eventWriter = new ObjectMapper().writerFor(Event.class);
+
+    @Value("${event.enabled:false}")
+    boolean enabled;
+    @Value("${event.queueCapacity:10000}")
+    int queueCapacity;
+    @Value("${event.batchSize:500}")
+    int batchSize;
+    @Value("${event.enqueueTimeout:0}")
+    long enqueueTimeoutMillis;
+    @Value("${event.drainTimeout:10000}")
+    long drainTimeoutMillis;
+
+    private BlockingQueue<Event> queue;
+    private Thread worker;
+    private volatile boolean running;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        open();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::drain, getClass().getSimpleName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Waits up to drainTimeout for the queued events to be published, then interrupts the worker and drops the rest.
+     * The publisher is closed only once the worker has exited.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.join(drainTimeoutMillis);
+        if (worker.isAlive()) {
+            logger.warn("Events were not published within {} ms, dropping {} queued events", drainTimeoutMillis, queue.size());
+            worker.interrupt();
+            worker.join();
+        }
+        close();
+    }
+
+    @Override
+    public void pushEvents(Event event) throws JsonProcessingException {
+        if (queue == null) {
+            // events are not enabled
+            return;
+        }
+        boolean queued;
+        try {
+            queued = queue.offer(event, enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            dropped.incrementAndGet();
+            logger.warn("Event queue is full, dropping event {}", event.getObject().getId());
+        }
+    }
+
+    /**
+     * Publishes a batch of events, messages holds the serialized form of the event at the same position
+     */
+    protected abstract void publish(List<Event> events, List<String> messages) throws Exception;
+
+    /**
+     * Acquires the resources of the publisher before the worker starts
+     */
+    protected void open() {
+    }
+
+    /**
+     * Releases the resources of the publisher once the worker has exited
+     */
+    protected void close() {
+    }
+
+    protected void onPublished(int count) {
+        published.addAndGet(count);
+    }
+
+    protected void onFailed(int count, Throwable e) {
+        failed.addAndGet(count);
+        logger.error("Publishing {} events failed: {}", count, ExceptionUtils.getRootCauseMessage(e));
+    }
+
+    private void drain() {
+        List<Event> events = new ArrayList<>(batchSize);
+        List<String> messages = new ArrayList<>(batchSize);
+        while ((running || !queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+            try {
+                Event event = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                events.add(event);
+                queue.drainTo(events, batchSize - 1);
+            } catch (InterruptedException e) {
+                // stop gave up waiting for the queue to drain
+                break;
+            }
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                try {
+                    messages.add(eventWriter.writeValueAsString(iterator.next()));
+                } catch (JsonProcessingException e) {
+                    onFailed(1, e);
+                    iterator.remove();
+                }
+            }
+            try {
+                publish(events, messages);
+            } catch (Exception e) {
+                onFailed(events.size(), e);
+            }
+            events.clear();
+            messages.clear();
+        }
+        dropped.addAndGet(queue.size());
+        queue.clear();
+    }
+
+    public int getQueueSize() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return SUNBIRD_EVENT_SERVICE_NAME;
+    }
+
+    @Override
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("queued", (long) getQueueSize());
+        metrics.put("queueCapacity", (long) queueCapacity);
+        metrics.put("published", getPublishedCount());
+        metrics.put("dropped", getDroppedCount());
+        metrics.put("failed", getFailedCount());
+        return metrics;
+    }
+}
@@ -3,7 +3,6 @@ package dev.sunbirdrc.registry.service.impl;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,9 +17,7 @@ import dev.sunbirdrc.registry.exception.AuditFailedException;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
 import dev.sunbirdrc.registry.sink.OSGraph;
 import dev.sunbirdrc.registry.sink.shard.Shard;
-import dev.sunbirdrc.registry.util.Definition;
 import dev.sunbirdrc.registry.util.IDefinitionsManager;
-import dev.sunbirdrc.registry.util.EntityParenter;
 
 /**
  *
@@ -40,8 +37,6 @@ public class AuditDBWriter {
     @Autowired
     private IDefinitionsManager definitionsManager;
 
-    @Autowired
-    private EntityParenter entityParenter;
     @Value("${registry.expandReference}")
     private boolean expandReferenceObj;
 
@@ -68,11 +63,6 @@ public class AuditDBWriter {
                 tx.close();
             }
         }
-        // Add indices: executes only once.
-        String shardId = shard.getShardId();
-        Vertex parentVertex = entityParenter.getKnownParentVertex(entityType, shardId);
-        Definition definition = definitionsManager.getDefinition(entityType);
-        entityParenter.ensureIndexExists(dbProvider, parentVertex, definition, shardId);
         return entityId;
 	}
 }
@@ -16,8 +16,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
-import org.sunbird.akka.core.ActorCache;
-import org.sunbird.akka.core.MessageProtos;
 import org.sunbird.akka.core.Router;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -127,9 +125,8 @@ public class AuditServiceImpl implements IAuditService {
     public void sendAuditToESActor(JsonNode inputNode, String entityType, String entityId) throws JsonProcessingException{
     	boolean elasticSearchEnabled = ("dev.sunbirdrc.registry.service.ElasticSearchService".equals(searchProvider));
 		
-        MessageProtos.Message message = MessageFactory.instance().createOSActorMessage(elasticSearchEnabled, "ADD",
-                entityType.toLowerCase(), entityId, inputNode.get(entityType), null);
-        ActorCache.instance().get(Router.ROUTER_NAME).tell(message, null);
+        Router.sendAndForget(MessageFactory.instance().createOSActorLocalMessage(elasticSearchEnabled, "ADD",
+                entityType.toLowerCase(), entityId, inputNode.get(entityType), null));
     }
 
     public JsonNode convertAuditRecordToJson(AuditRecord auditRecord, String vertexLabel) throws IOException {
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.sunbirdrc.pojos.ComponentHealthInfo;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.service.ICertificateService;
+import dev.sunbirdrc.registry.service.TemplateCache;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -38,6 +39,8 @@ public class CertificateServiceImpl implements ICertificateService {
     private final String certificateUrl;
     private final String certificateHealthCheckURL;
     private final RestTemplate restTemplate;
+    private final OutboundHttpClient outboundHttpClient;
+    private final TemplateCache templateCache;
 
     private boolean signatureEnabled;
     private static Logger logger = LoggerFactory.getLogger(CertificateServiceImpl.class);
@@ -46,10 +49,14 @@ public class CertificateServiceImpl implements ICertificateService {
                                   @Value("${certificate.apiUrl}") String certificateUrl,
                                   @Value("${signature.enabled}") boolean signatureEnabled,
                                   @Value("${certificate.healthCheckURL}") String certificateHealthCheckURL,
-                                  RestTemplate restTemplate) {
+                                  RestTemplate restTemplate,
+                                  OutboundHttpClient outboundHttpClient,
+                                  TemplateCache templateCache) {
         this.templateBaseUrl = templateBaseUrl;
         this.certificateUrl = certificateUrl;
         this.restTemplate = restTemplate;
+        this.outboundHttpClient = outboundHttpClient;
+        this.templateCache = templateCache;
         this.certificateHealthCheckURL = certificateHealthCheckURL;
         this.signatureEnabled = signatureEnabled;
     }
@@ -75,7 +82,18 @@ public class CertificateServiceImpl implements ICertificateService {
         HttpHeaders headers = new HttpHeaders();
         headers.set("Accept", mediaType);
         HttpEntity<Map<String, Object>> httpEntity = new HttpEntity<>(requestBody, headers);
-        return restTemplate.postForObject(certificateUrl, httpEntity, byte[].class);
+        return outboundHttpClient.execute(certificateUrl, () -> restTemplate.postForObject(certificateUrl, httpEntity, byte[].class));
+    }
+
+    /**
+     * The certificate service fetches the template itself, the template is fetched here only to tell its version
+     */
+    @Override
+    public String getTemplateVersion(String entityName, String mediaType, String templateUrl, String templateId) {
+        if (Objects.equals(mediaType, MediaType.APPLICATION_JSON_VALUE)) {
+            return null;
+        }
+        return templateCache.getVersion(inferTemplateUrl(entityName, mediaType, templateUrl));
     }
 
     @NotNull
@@ -103,7 +121,8 @@ public class CertificateServiceImpl implements ICertificateService {
     public ComponentHealthInfo getHealthInfo() {
         if (signatureEnabled) {
             try {
-                ResponseEntity<String> response = restTemplate.getForEntity(URI.create(certificateHealthCheckURL), String.class);
+                ResponseEntity<String> response = outboundHttpClient.executeOnce(certificateHealthCheckURL,
+                        () -> restTemplate.getForEntity(URI.create(certificateHealthCheckURL), String.class));
                 if (!StringUtils.isEmpty(response.getBody()) && Arrays.asList("UP", "OK").contains(response.getBody().toUpperCase())) {
                     logger.debug("Certificate service running !");
                     return new ComponentHealthInfo(getServiceName(), true);
@@ -1,24 +1,64 @@
 package dev.sunbirdrc.registry.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import dev.sunbirdrc.registry.model.event.Event;
-import dev.sunbirdrc.registry.service.IEventService;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the events to a local file, one json document per line
+ */
 @Service
 @ConditionalOnProperty(name = "event.providerName", havingValue = "dev.sunbirdrc.registry.service.impl.FileEventService")
-public class FileEventService implements IEventService {
+public class FileEventService extends AsyncEventService {
 
     private static Logger logger = LoggerFactory.getLogger(FileEventService.class);
+
+    @Value("${event.file.path:events.ndjson}")
+    String filePath;
+    private BufferedWriter writer;
+
+    @Override
+    protected void open() {
+        try {
+            Path path = Paths.get(filePath).toAbsolutePath();
+            Files.createDirectories(path.getParent());
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logger.info("Writing events to {}", path);
+        } catch (IOException e) {
+            throw new IllegalStateException("Opening event file " + filePath + " failed", e);
+        }
+    }
+
+    @Override
+    protected void publish(List<Event> events, List<String> messages) throws IOException {
+        for (String message : messages) {
+            writer.write(message);
+            writer.write('\n');
+        }
+        // one flush per batch instead of per event
+        writer.flush();
+        onPublished(messages.size());
+    }
+
     @Override
-    public void pushEvents(Event event) throws JsonProcessingException {
-        ObjectWriter objectWriter = new ObjectMapper().writer();
-        String message = objectWriter.writeValueAsString(event);
-        logger.info("{}", message);
+    protected void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.error("Closing event file failed: {}", ExceptionUtils.getStackTrace(e));
+        }
     }
 }
@@ -1,28 +1,37 @@
 package dev.sunbirdrc.registry.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import dev.sunbirdrc.registry.model.event.Event;
-import dev.sunbirdrc.registry.service.IEventService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @ConditionalOnProperty(name = "event.providerName", havingValue = "dev.sunbirdrc.registry.service.impl.KafkaEventService", matchIfMissing = true)
-public class KafkaEventService implements IEventService {
+public class KafkaEventService extends AsyncEventService {
 
     @Value("${event.topic:events}")
     String metricsTopic;
-    @Autowired
+    // only defined when events are enabled
+    @Autowired(required = false)
+    @Qualifier("eventKafkaTemplate")
     private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Override
+    protected void publish(List<Event> events, List<String> messages) {
+        // the producer groups the records into batches per partition, see kafka.producer in application.yml
+        for (int i = 0; i < events.size(); i++) {
+            kafkaTemplate.send(metricsTopic, events.get(i).getObject().getId(), messages.get(i))
+                    .addCallback(result -> onPublished(1), e -> onFailed(1, e));
+        }
+    }
+
     @Override
-    public void pushEvents(Event event) throws JsonProcessingException {
-        ObjectWriter objectMapper = new ObjectMapper().writer().withDefaultPrettyPrinter();
-        String message = objectMapper.writeValueAsString(event);
-        kafkaTemplate.send(metricsTopic, event.getObject().getId(), message);
+    protected void close() {
+        kafkaTemplate.flush();
     }
 }
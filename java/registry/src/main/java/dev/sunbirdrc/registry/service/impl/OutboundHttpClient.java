@@ -0,0 +1,206 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import dev.sunbirdrc.registry.exception.SignatureException;
+import dev.sunbirdrc.registry.service.MetricsSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs the calls the registry makes to the services it depends on: signing, encryption, id-gen, DID, credential
+ * schema, certificates and claims. Connections are pooled per route by the RestTemplate; on top of that every
+ * destination, the scheme, host and port of the url, gets
+ * <ul>
+ *     <li>a bulkhead bounding its concurrent calls, so a slow service can't hold every request thread,</li>
+ *     <li>retries with an exponential backoff when the service couldn't be reached or was unavailable,</li>
+ *     <li>counters of its calls, retries, failures, rejections and time spent.</li>
+ * </ul>
+ * Calls can be made blocking or as a CompletableFuture run on the outbound executor, so independent calls overlap.
+ * Tasks that make outbound calls of their own run on a separate task executor: a task waiting for its calls never
+ * holds a thread the calls need. The counters are served by /utils/metrics.
+ */
+@Component
+public class OutboundHttpClient implements MetricsSource {
+    private static final Logger logger = LoggerFactory.getLogger(OutboundHttpClient.class);
+
+    private final Executor executor;
+    private final Executor taskExecutor;
+    private final int maxAttempts;
+    private final long backoffDelay;
+    private final double backoffMultiplier;
+    private final long maxBackoffDelay;
+    private final int maxConcurrentCalls;
+    private final long maxWaitMillis;
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OutboundHttpClient(@Qualifier("outboundExecutor") Executor executor,
+                              @Qualifier("outboundTaskExecutor") Executor taskExecutor,
+                              @Value("${service.retry.maxAttempts:5}") int maxAttempts,
+                              @Value("${service.retry.backoff.delay:1000}") long backoffDelay,
+                              @Value("${service.retry.backoff.multiplier:2}") double backoffMultiplier,
+                              @Value("${service.retry.backoff.maxDelay:4000}") long maxBackoffDelay,
+                              @Value("${service.bulkhead.maxConcurrentCalls:50}") int maxConcurrentCalls,
+                              @Value("${service.bulkhead.maxWait:1000}") long maxWaitMillis) {
+        this.executor = executor;
+        this.taskExecutor = taskExecutor;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffDelay = backoffDelay;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxBackoffDelay = maxBackoffDelay;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public <T> T execute(String url, Supplier<T> call) {
+        return execute(url, call, maxAttempts);
+    }
+
+    /**
+     * Calls without retrying, for requests that must not be repeated when their outcome is unknown
+     */
+    public <T> T executeOnce(String url, Supplier<T> call) {
+        return execute(url, call, 1);
+    }
+
+    private <T> T execute(String url, Supplier<T> call, int maxAttempts) {
+        Destination destination = destinations.computeIfAbsent(destinationOf(url), name -> new Destination(maxConcurrentCalls));
+        for (int attempt = 1; ; attempt++) {
+            acquire(destination, url);
+            long start = System.nanoTime();
+            try {
+                destination.calls.increment();
+                return call.get();
+            } catch (RuntimeException e) {
+                if (!isRetryable(e) || attempt >= maxAttempts) {
+                    destination.failures.increment();
+                    throw e;
+                }
+                destination.retries.increment();
+                logger.warn("Attempt {} of {} to call {} failed, retrying: {}", attempt, maxAttempts, url, e.getMessage());
+            } finally {
+                destination.timeNanos.add(System.nanoTime() - start);
+                destination.permits.release();
+            }
+            backoff(attempt);
+        }
+    }
+
+    public <T> CompletableFuture<T> executeAsync(String url, Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> execute(url, call), executor);
+    }
+
+    /**
+     * Runs a task that makes outbound calls of its own on the outbound task executor, so that it can wait for calls
+     * made async without taking a thread from them
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, taskExecutor);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "outbound";
+    }
+
+    /**
+     * @return the counters of each destination called so far
+     */
+    @Override
+    public Map<String, Map<String, Long>> getMetrics() {
+        Map<String, Map<String, Long>> metrics = new LinkedHashMap<>();
+        destinations.forEach((name, destination) -> {
+            Map<String, Long> counters = new LinkedHashMap<>();
+            counters.put("calls", destination.calls.sum());
+            counters.put("retries", destination.retries.sum());
+            counters.put("failures", destination.failures.sum());
+            counters.put("rejected", destination.rejected.sum());
+            counters.put("inFlight", (long) (maxConcurrentCalls - destination.permits.availablePermits()));
+            counters.put("timeMillis", TimeUnit.NANOSECONDS.toMillis(destination.timeNanos.sum()));
+            metrics.put(name, counters);
+        });
+        return metrics;
+    }
+
+    private void acquire(Destination destination, String url) {
+        boolean acquired;
+        try {
+            acquired = destination.permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            destination.rejected.increment();
+            throw new BulkheadFullException(String.format("Too many concurrent calls to %s, rejected %s", destinationOf(url), url));
+        }
+    }
+
+    private void backoff(int attempt) {
+        long delay = (long) Math.min(maxBackoffDelay, backoffDelay * Math.pow(backoffMultiplier, attempt - 1));
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting to retry");
+        }
+    }
+
+    /**
+     * Retries when the service couldn't be reached or was unavailable, also when that is the cause of the exception
+     */
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof ResourceAccessException || cause instanceof HttpServerErrorException.ServiceUnavailable
+                    || cause instanceof SignatureException.UnreachableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String destinationOf(String url) {
+        int hostStart = url.indexOf("://");
+        hostStart = hostStart < 0 ? 0 : hostStart + 3;
+        int hostEnd = hostStart;
+        while (hostEnd < url.length() && "/?#".indexOf(url.charAt(hostEnd)) < 0) {
+            hostEnd++;
+        }
+        return url.substring(0, hostEnd);
+    }
+
+    private static final class Destination {
+        private final Semaphore permits;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder timeNanos = new LongAdder();
+
+        Destination(int maxConcurrentCalls) {
+            this.permits = new Semaphore(maxConcurrentCalls);
+        }
+    }
+
+    public static class BulkheadFullException extends RestClientException {
+        public BulkheadFullException(String msg) {
+            super(msg);
+        }
+    }
+}
@@ -10,6 +10,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import dev.sunbirdrc.actors.factory.MessageFactory;
+import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.pojos.SunbirdRCInstrumentation;
 import dev.sunbirdrc.pojos.UniqueIdentifierField;
 import dev.sunbirdrc.pojos.attestation.States;
 import dev.sunbirdrc.registry.config.GenericConfiguration;
@@ -24,8 +26,14 @@ import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
 import dev.sunbirdrc.registry.model.EventType;
+import dev.sunbirdrc.registry.model.dto.CreateEntityMessage;
+import dev.sunbirdrc.registry.model.dto.CreateEntityResult;
 import dev.sunbirdrc.registry.model.event.Event;
 import dev.sunbirdrc.registry.service.*;
+import dev.sunbirdrc.registry.service.issuance.CredentialIssuer;
+import dev.sunbirdrc.registry.service.issuance.IssuanceJob;
+import dev.sunbirdrc.registry.service.postcommit.PostCommitDispatcher;
+import dev.sunbirdrc.registry.service.postcommit.PostCommitJob;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
 import dev.sunbirdrc.registry.sink.OSGraph;
 import dev.sunbirdrc.registry.sink.shard.Shard;
@@ -34,6 +42,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.elasticsearch.rest.RestStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,12 +51,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.sunbird.akka.core.ActorCache;
-import org.sunbird.akka.core.MessageProtos;
 import org.sunbird.akka.core.Router;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static dev.sunbirdrc.registry.Constants.*;
 import static dev.sunbirdrc.registry.exception.ErrorMessages.INVALID_ID_MESSAGE;
@@ -99,9 +112,6 @@ public class RegistryServiceImpl implements RegistryService {
     @Value("${audit.enabled}")
     private boolean auditEnabled;
 
-    @Value("${registry.perRequest.indexCreation.enabled:false}")
-    private boolean perRequestIndexCreation;
-
     @Value("${elastic.search.add_shard_prefix:true}")
     private boolean addShardPrefixForESRecord;
 
@@ -132,6 +142,21 @@ public class RegistryServiceImpl implements RegistryService {
     @Autowired
     private SchemaService schemaService;
 
+    @Autowired
+    private AttestationPolicyRegistry attestationPolicyRegistry;
+
+    @Autowired
+    private RevokedCredentialFilter revokedCredentialFilter;
+
+    @Autowired
+    private DidCache didCache;
+
+    @Autowired
+    private CredentialIssuer credentialIssuer;
+
+    @Autowired
+    private CertificateCache certificateCache;
+
     @Autowired(required = false)
     private IIdGenService idGenService;
     @Value("${idgen.enabled:false}")
@@ -140,6 +165,18 @@ public class RegistryServiceImpl implements RegistryService {
     @Value("${registry.expandReference}")
     private boolean expandReferenceObj;
 
+    @Value("${perf.monitoring.enabled:false}")
+    private boolean performanceMonitoringEnabled;
+
+    @Autowired
+    private OutboundHttpClient outboundHttpClient;
+
+    @Autowired
+    private PostCommitDispatcher postCommitDispatcher;
+
+    @Autowired(required = false)
+    private IElasticService elasticService;
+
     /**
      * delete the vertex and changes the status
      *
@@ -164,23 +201,36 @@ public class RegistryServiceImpl implements RegistryService {
                 if (!StringUtils.isEmpty(index) && index.equals(Schema)) {
                     schemaService.deleteSchemaIfExists(vertex);
                 }
+                String policyEntity = ATTESTATION_POLICY.equals(index) && vertex.property("entity").isPresent()
+                        ? vertex.property("entity").value().toString() : null;
                 if (isHardDeleteEnabled || !(vertex.property(Constants.STATUS_KEYWORD).isPresent()
                         && vertex.property(Constants.STATUS_KEYWORD).value().equals(Constants.STATUS_INACTIVE))) {
                     if (isHardDeleteEnabled) {
                         registryDao.hardDeleteEntity(vertex);
+                        new VertexWriter(graph, databaseProvider, uuidPropertyName).deleteOwnerIndex(uuid);
                     } else {
                         registryDao.deleteEntity(vertex);
                     }
-                    databaseProvider.commitTransaction(graph, tx);
-                    auditService.auditDelete(
-                            auditService.createAuditRecord(userId, uuid, tx, index),
-                            shard);
-                    if (isElasticSearchEnabled()) {
-                        callESActors(null, "DELETE", index, uuid, tx);
-                    }
+                    PostCommitJob postCommitJob = new PostCommitJob(PostCommitJob.Operation.DELETE, shard.getShardId(),
+                            userId, index, uuid, uuid, Objects.hashCode(tx));
                     if (isEventsEnabled) {
-                        maskAndEmitEvent(vertexReader.constructObject(vertex), index, EventType.DELETE, userId, uuid);
+                        postCommitJob.setEvent(vertexReader.constructObject(vertex));
+                    }
+                    postCommitDispatcher.prepare(postCommitJob);
+                    try {
+                        databaseProvider.commitTransaction(graph, tx);
+                    } catch (Exception e) {
+                        postCommitDispatcher.discard(postCommitJob);
+                        throw e;
                     }
+                    certificateCache.invalidate(uuid);
+                    if (ATTESTATION_POLICY.equals(index)) {
+                        attestationPolicyRegistry.invalidate(policyEntity);
+                    }
+                    if (ISSUER.equals(index)) {
+                        didCache.invalidateIssuers();
+                    }
+                    dispatch(shard, postCommitJob);
                 }
                 logger.info("Entity {} marked deleted", uuid);
                 return vertex;
@@ -208,86 +258,460 @@ public class RegistryServiceImpl implements RegistryService {
         Transaction tx = null;
         String entityId = "entityPlaceholderId";
         String vertexLabel = rootNode.fieldNames().next();
-        Definition definition = null;
-        List<UniqueIdentifierField> uniqueIdentifierFields = definitionsManager.getUniqueIdentifierFields(vertexLabel);
-
-        if(idGenEnabled && uniqueIdentifierFields != null && !uniqueIdentifierFields.isEmpty()) {
-            try {
-                Map<String, String> uid = idGenService.generateId(uniqueIdentifierFields);
-                DocumentContext doc = JsonPath.parse(JSONUtil.convertObjectJsonString(rootNode.get(vertexLabel)));
-                for(Map.Entry<String, String> entry: uid.entrySet()) {
-                    String path = String.format("$%s", entry.getKey().replaceAll("/", "."));
-                    int fieldStartIndex = path.lastIndexOf(".");
-                    doc.put(path.substring(0, fieldStartIndex), path.substring(fieldStartIndex + 1), entry.getValue());
-                }
-                ((ObjectNode) rootNode).set(vertexLabel, JSONUtil.convertStringJsonNode(doc.jsonString()));
-            } catch (CustomException e) {
-                throw new UniqueIdentifierException(e);
-            }
-        }
-
-        systemFieldsHelper.ensureCreateAuditFields(vertexLabel, rootNode.get(vertexLabel), userId);
-
-        if (!skipSignature) {
-            generateCredentials(rootNode, null, vertexLabel);
-        }
-        if (encryptionEnabled) {
-            rootNode = encryptionHelper.getEncryptedJson(rootNode);
-        }
-        if (vertexLabel.equals(Schema)) {
-            schemaService.validateNewSchema(rootNode);
-        }
+        boolean issueLater = !skipSignature && persistenceEnabled && credentialIssuer.issuesLater(vertexLabel);
+        JsonNode entity = prepareEntity(userId, rootNode, skipSignature || issueLater);
+        rootNode = entity;
 
         if (persistenceEnabled) {
             DatabaseProvider dbProvider = shard.getDatabaseProvider();
             IRegistryDao registryDao = new RegistryDaoImpl(dbProvider, definitionsManager, uuidPropertyName, expandReferenceObj);
+            IssuanceJob issuanceJob = null;
+            PostCommitJob postCommitJob = null;
             try (OSGraph osGraph = dbProvider.getOSGraph()) {
                 Graph graph = osGraph.getGraphStore();
                 tx = dbProvider.startTransaction(graph);
-                entityId = registryDao.addEntity(graph, rootNode);
-                if (vertexLabel.equals(Schema)) {
-                    String definitionName = rootNode.get(Schema).get(SchemaName).asText();
-                    entityParenter.ensureKnownParenter(definitionName, graph, dbProvider, shard.getShardId());
+                // writing sets the ids into the entity, the credential is signed without them
+                JsonNode issuanceData = issueLater ? entity.get(vertexLabel).deepCopy() : null;
+                entityId = timed("write", () -> writeEntity(shard, dbProvider, registryDao, graph, entity));
+                if (issueLater) {
+                    issuanceJob = credentialIssuer.prepare(shard.getShardId(), vertexLabel, entityId, userId, issuanceData);
                 }
+                postCommitJob = addedJob(shard, userId, entity, entityId, tx);
+                postCommitDispatcher.prepare(postCommitJob);
                 if (commitEnabled) {
                     dbProvider.commitTransaction(graph, tx);
                 }
+            } catch (Exception e) {
+                if (issuanceJob != null) {
+                    credentialIssuer.discard(issuanceJob);
+                }
+                postCommitDispatcher.discard(postCommitJob);
+                throw e;
             } finally {
                 if (tx != null) {
                     tx.close();
                 }
             }
-            // Add indices: executes only once.
-            if (perRequestIndexCreation) {
-                String shardId = shard.getShardId();
-                Vertex parentVertex = entityParenter.getKnownParentVertex(vertexLabel, shardId);
-                definition = definitionsManager.getDefinition(vertexLabel);
-                entityParenter.ensureIndexExists(dbProvider, parentVertex, definition, shardId);
+            if (issuanceJob != null) {
+                credentialIssuer.submit(issuanceJob);
             }
+            PostCommitJob addedJob = postCommitJob;
+            timed("postCommit", () -> {
+                dispatch(shard, addedJob);
+                return null;
+            });
+        }
+        if (vertexLabel.equals(Schema)) {
+            schemaService.addSchema(rootNode);
+        }
+        if (vertexLabel.equals(ATTESTATION_POLICY)) {
+            attestationPolicyRegistry.invalidate(getPolicyEntity(rootNode));
+        }
+        if (vertexLabel.equals(REVOKED_CREDENTIAL)) {
+            onCredentialRevoked(rootNode);
+        }
+        if (vertexLabel.equals(ISSUER)) {
+            didCache.invalidateIssuers();
+        }
+        return entityId;
+    }
 
-            if (isElasticSearchEnabled()) {
-                if (addShardPrefixForESRecord && !shard.getShardLabel().isEmpty()) {
-                    // Replace uuid property value with shard details
-                    String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
-                    JSONUtil.addPrefix((ObjectNode) rootNode, prefix, new ArrayList<>(Collections.singletonList(uuidPropertyName)));
+    /**
+     * Adds the entities to the shard in a single db transaction. Each entity is prepared once - ids generated, signed
+     * and validated - so an entity that can't be prepared fails on its own. When the transaction fails as a whole,
+     * the prepared entities are written again one by one, without generating their ids or signing them again.
+     * Elastic search, audit and events are triggered per entity once its transaction is committed.
+     *
+     * @param shard    - shard all the entities belong to
+     * @param messages - entities to be added along with the user and signature option of each
+     * @return outcome of each entity, in the order of messages
+     */
+    @Override
+    public List<CreateEntityResult> addEntities(Shard shard, List<CreateEntityMessage> messages) {
+        CreateEntityResult[] results = new CreateEntityResult[messages.size()];
+        List<Integer> prepared = new ArrayList<>(messages.size());
+        List<JsonNode> rootNodes = new ArrayList<>(messages.size());
+        List<Boolean> issueLater = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            CreateEntityMessage message = messages.get(i);
+            try {
+                String vertexLabel = message.getInputJson().fieldNames().next();
+                boolean issueCredentialLater = !message.isSkipSignature() && persistenceEnabled && credentialIssuer.issuesLater(vertexLabel);
+                rootNodes.add(prepareEntity(message.getUserId(), message.getInputJson(), message.isSkipSignature() || issueCredentialLater));
+                issueLater.add(issueCredentialLater);
+                prepared.add(i);
+            } catch (Exception e) {
+                results[i] = CreateEntityResult.failed(e);
+            }
+        }
+        if (!persistenceEnabled) {
+            prepared.forEach(i -> results[i] = CreateEntityResult.created("entityPlaceholderId"));
+            return Arrays.asList(results);
+        }
+        List<String> userIds = new ArrayList<>(prepared.size());
+        prepared.forEach(i -> userIds.add(messages.get(i).getUserId()));
+        try {
+            List<String> entityIds = writeEntities(shard, userIds, rootNodes, issueLater);
+            for (int k = 0; k < prepared.size(); k++) {
+                results[prepared.get(k)] = CreateEntityResult.created(entityIds.get(k));
+            }
+            return Arrays.asList(results);
+        } catch (Exception e) {
+            if (prepared.size() == 1) {
+                results[prepared.get(0)] = CreateEntityResult.failed(e);
+                return Arrays.asList(results);
+            }
+            logger.error("Writing {} entities together failed, writing them one by one", prepared.size(), e);
+        }
+        for (int k = 0; k < prepared.size(); k++) {
+            try {
+                String entityId = writeEntities(shard, Collections.singletonList(userIds.get(k)),
+                        Collections.singletonList(rootNodes.get(k)), Collections.singletonList(issueLater.get(k))).get(0);
+                results[prepared.get(k)] = CreateEntityResult.created(entityId);
+            } catch (Exception e) {
+                results[prepared.get(k)] = CreateEntityResult.failed(e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Writes prepared entities in a single db transaction and triggers the post commit work of each.
+     * The entities are written as copies, since writing sets the ids into them, so that they can be written again
+     * when the transaction fails.
+     *
+     * @return entity ids in the order of rootNodes
+     */
+    private List<String> writeEntities(Shard shard, List<String> userIds, List<JsonNode> rootNodes, List<Boolean> issueLater) throws Exception {
+        List<JsonNode> entities = new ArrayList<>(rootNodes.size());
+        List<String> entityIds = new ArrayList<>(rootNodes.size());
+        Transaction tx = null;
+        DatabaseProvider dbProvider = shard.getDatabaseProvider();
+        IRegistryDao registryDao = new RegistryDaoImpl(dbProvider, definitionsManager, uuidPropertyName, expandReferenceObj);
+        List<IssuanceJob> issuanceJobs = new ArrayList<>();
+        List<PostCommitJob> postCommitJobs = new ArrayList<>(rootNodes.size());
+        try (OSGraph osGraph = dbProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            tx = dbProvider.startTransaction(graph);
+            for (int i = 0; i < rootNodes.size(); i++) {
+                JsonNode entity = rootNodes.get(i).deepCopy();
+                String entityId = writeEntity(shard, dbProvider, registryDao, graph, entity);
+                entities.add(entity);
+                entityIds.add(entityId);
+                if (issueLater.get(i)) {
+                    String vertexLabel = entity.fieldNames().next();
+                    issuanceJobs.add(credentialIssuer.prepare(shard.getShardId(), vertexLabel, entityId, userIds.get(i),
+                            rootNodes.get(i).get(vertexLabel).deepCopy()));
                 }
-                JsonNode nodeWithPublicData = JsonNodeFactory.instance.objectNode().set(vertexLabel,
-                        JSONUtil.removeNodesByPath(rootNode.get(vertexLabel), definitionsManager.getExcludingFieldsForEntity(vertexLabel)));
-                callESActors(nodeWithPublicData, "ADD", vertexLabel, entityId, tx);
+                PostCommitJob postCommitJob = addedJob(shard, userIds.get(i), entity, entityId, tx);
+                postCommitDispatcher.prepare(postCommitJob);
+                postCommitJobs.add(postCommitJob);
             }
-            auditService.auditAdd(
-                    auditService.createAuditRecord(userId, entityId, tx, vertexLabel),
-                    shard, rootNode);
-            if(isEventsEnabled) {
-                maskAndEmitEvent(rootNode.get(vertexLabel), vertexLabel, EventType.ADD, userId, entityId);
+            if (commitEnabled) {
+                dbProvider.commitTransaction(graph, tx);
+            }
+        } catch (Exception e) {
+            issuanceJobs.forEach(credentialIssuer::discard);
+            postCommitJobs.forEach(postCommitDispatcher::discard);
+            throw e;
+        } finally {
+            if (tx != null) {
+                tx.close();
+            }
+        }
+        issuanceJobs.forEach(credentialIssuer::submit);
+        for (int i = 0; i < entities.size(); i++) {
+            JsonNode entity = entities.get(i);
+            String vertexLabel = entity.fieldNames().next();
+            try {
+                dispatch(shard, postCommitJobs.get(i));
+                if (vertexLabel.equals(Schema)) {
+                    schemaService.addSchema(entity);
+                }
+                if (vertexLabel.equals(ATTESTATION_POLICY)) {
+                    attestationPolicyRegistry.invalidate(getPolicyEntity(entity));
+                }
+                if (vertexLabel.equals(REVOKED_CREDENTIAL)) {
+                    onCredentialRevoked(entity);
+                }
+                if (vertexLabel.equals(ISSUER)) {
+                    didCache.invalidateIssuers();
+                }
+            } catch (Exception e) {
+                // the entity is already committed, failing it here would have it written again
+                logger.error("Post commit work of {} {} failed", vertexLabel, entityIds.get(i), e);
             }
         }
+        return entityIds;
+    }
+
+    /**
+     * Generates ids, system fields and credentials and validates the entity before it is written.
+     * The stages run in this order, except for encryption: it only needs the input, so unless generated ids are
+     * private fields it encrypts a copy of the input while the ids are generated and the entity is signed, and the
+     * encrypted values are put into the entity afterwards. Each stage is timed separately.
+     *
+     * @return entity to be persisted, encrypted when encryption is enabled
+     */
+    private JsonNode prepareEntity(String userId, JsonNode rootNode, boolean skipSignature) throws Exception {
+        String vertexLabel = rootNode.fieldNames().next();
+        List<UniqueIdentifierField> uniqueIdentifierFields = definitionsManager.getUniqueIdentifierFields(vertexLabel);
+        boolean generateIds = idGenEnabled && uniqueIdentifierFields != null && !uniqueIdentifierFields.isEmpty();
+
+        JsonNode plainNode = null;
+        CompletableFuture<JsonNode> encryptedNode = null;
+        if (encryptionEnabled && !(generateIds && generatesPrivateFields(vertexLabel, uniqueIdentifierFields))) {
+            plainNode = rootNode.deepCopy();
+            JsonNode input = rootNode.deepCopy();
+            encryptedNode = outboundHttpClient.supplyAsync(() -> {
+                try {
+                    return timed("encrypt", () -> encryptionHelper.getEncryptedJson(input));
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+
+        if (generateIds) {
+            JsonNode entity = rootNode;
+            timed("idGen", () -> {
+                generateIds(entity, vertexLabel, uniqueIdentifierFields);
+                return null;
+            });
+        }
+
+        systemFieldsHelper.ensureCreateAuditFields(vertexLabel, rootNode.get(vertexLabel), userId);
+
+        if (!skipSignature) {
+            JsonNode entity = rootNode;
+            timed("sign", () -> {
+                generateCredentials(entity, null, vertexLabel);
+                return null;
+            });
+        }
+        if (encryptedNode != null) {
+            rootNode = applyChanges(plainNode, await(encryptedNode), rootNode);
+        } else if (encryptionEnabled) {
+            JsonNode entity = rootNode;
+            rootNode = timed("encrypt", () -> encryptionHelper.getEncryptedJson(entity));
+        }
         if (vertexLabel.equals(Schema)) {
-            schemaService.addSchema(rootNode);
+            schemaService.validateNewSchema(rootNode);
+        }
+        return rootNode;
+    }
+
+    private void generateIds(JsonNode rootNode, String vertexLabel, List<UniqueIdentifierField> uniqueIdentifierFields) throws Exception {
+        try {
+            Map<String, String> uid = idGenService.generateId(uniqueIdentifierFields);
+            DocumentContext doc = JsonPath.parse(JSONUtil.convertObjectJsonString(rootNode.get(vertexLabel)));
+            for(Map.Entry<String, String> entry: uid.entrySet()) {
+                String path = String.format("$%s", entry.getKey().replaceAll("/", "."));
+                int fieldStartIndex = path.lastIndexOf(".");
+                doc.put(path.substring(0, fieldStartIndex), path.substring(fieldStartIndex + 1), entry.getValue());
+            }
+            ((ObjectNode) rootNode).set(vertexLabel, JSONUtil.convertStringJsonNode(doc.jsonString()));
+        } catch (CustomException e) {
+            throw new UniqueIdentifierException(e);
+        }
+    }
+
+    /**
+     * Generated ids nested in the entity may be private fields of a child definition, so only top level ids that
+     * aren't private fields of the entity are known not to need encryption
+     */
+    private boolean generatesPrivateFields(String vertexLabel, List<UniqueIdentifierField> uniqueIdentifierFields) {
+        Set<String> privateFields = definitionsManager.getDefinition(vertexLabel).getOsSchemaConfiguration().getPrivateFields()
+                .stream()
+                .map(d -> d.startsWith("$.") ? d : String.format("$.%s", d.replaceAll("/", ".")))
+                .collect(Collectors.toSet());
+        for (UniqueIdentifierField uniqueIdentifierField : uniqueIdentifierFields) {
+            String path = String.format("$.%s", StringUtils.removeStart(uniqueIdentifierField.getField(), "/").replaceAll("/", "."));
+            if (path.indexOf('.', 2) >= 0 || privateFields.contains(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the values that differ between before and after into target, target having the same layout as before
+     * with fields added to it
+     *
+     * @return target, or after when the value itself changed
+     */
+    static JsonNode applyChanges(JsonNode before, JsonNode after, JsonNode target) {
+        if (after.equals(before)) {
+            return target;
+        }
+        if (before == null || target == null || before.getNodeType() != after.getNodeType() || target.getNodeType() != after.getNodeType()) {
+            return after;
+        }
+        if (after.isObject()) {
+            after.fields().forEachRemaining(field -> ((ObjectNode) target).set(field.getKey(),
+                    applyChanges(before.get(field.getKey()), field.getValue(), target.get(field.getKey()))));
+            return target;
+        }
+        if (after.isArray() && after.size() == before.size() && after.size() == target.size()) {
+            for (int i = 0; i < after.size(); i++) {
+                ((ArrayNode) target).set(i, applyChanges(before.get(i), after.get(i), target.get(i)));
+            }
+            return target;
+        }
+        return after;
+    }
+
+    private <T> T timed(String stage, Callable<T> call) throws Exception {
+        SunbirdRCInstrumentation watch = new SunbirdRCInstrumentation(performanceMonitoringEnabled);
+        String tag = "RegistryServiceImpl.addEntity." + stage;
+        watch.start(tag);
+        try {
+            return call.call();
+        } finally {
+            watch.stop(tag);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private String writeEntity(Shard shard, DatabaseProvider dbProvider, IRegistryDao registryDao, Graph graph, JsonNode rootNode) throws Exception {
+        String entityId = registryDao.addEntity(graph, rootNode);
+        String vertexLabel = rootNode.fieldNames().next();
+        if (vertexLabel.equals(Schema)) {
+            String definitionName = rootNode.get(Schema).get(SchemaName).asText();
+            entityParenter.ensureKnownParenter(definitionName, graph, dbProvider, shard.getShardId());
         }
         return entityId;
     }
 
+    private static PostCommitJob addedJob(Shard shard, String userId, JsonNode rootNode, String entityId, Transaction tx) {
+        PostCommitJob job = new PostCommitJob(PostCommitJob.Operation.ADD, shard.getShardId(), userId,
+                rootNode.fieldNames().next(), entityId, entityId, Objects.hashCode(tx));
+        job.setEntity(rootNode);
+        return job;
+    }
+
+    /**
+     * Runs the post commit work of a change right away, or hands it to the dispatcher when that runs it in the
+     * background
+     */
+    private void dispatch(Shard shard, PostCommitJob job) throws Exception {
+        if (postCommitDispatcher.isAsync()) {
+            postCommitDispatcher.submit(job);
+        } else {
+            runPostCommit(shard, job);
+        }
+    }
+
+    /**
+     * Indexes, audits and emits the event of a committed change. The entity of the job is left as is, so that the
+     * job can be run again when it fails.
+     */
+    @Override
+    public void runPostCommit(Shard shard, PostCommitJob job) throws Exception {
+        String entityType = job.getEntityType();
+        String entityId = job.getEntityId();
+        List<Object> transactionId = new LinkedList<>(Collections.singletonList(job.getTransactionId()));
+        switch (job.getOperation()) {
+            case ADD: {
+                JsonNode rootNode = withShardPrefix(shard, job.getEntity());
+                if (isElasticSearchEnabled()) {
+                    index("ADD", entityType, entityId, publicData(rootNode, entityType));
+                }
+                auditService.auditAdd(
+                        auditService.createAuditRecord(job.getUserId(), entityId, transactionId, entityType),
+                        shard, rootNode);
+                if (isEventsEnabled) {
+                    maskAndEmitEvent(rootNode.get(entityType), entityType, EventType.ADD, job.getUserId(), entityId);
+                }
+                break;
+            }
+            case UPDATE: {
+                JsonNode mergedNode = withShardPrefix(shard, job.getEntity());
+                if (isInternalRegistry(entityType) && isElasticSearchEnabled()) {
+                    index("UPDATE", entityType, entityId, publicData(mergedNode, entityType));
+                }
+                auditService.auditUpdate(
+                        auditService.createAuditRecord(job.getUserId(), job.getRootId(), transactionId, entityType),
+                        shard, mergedNode, job.getPrevious());
+                if (isEventsEnabled) {
+                    maskAndEmitEvent(job.getEvent(), entityType, EventType.UPDATE, job.getUserId(), entityId);
+                }
+                break;
+            }
+            case DELETE:
+                auditService.auditDelete(
+                        auditService.createAuditRecord(job.getUserId(), entityId, transactionId, entityType),
+                        shard);
+                if (isElasticSearchEnabled()) {
+                    index("DELETE", entityType, entityId, null);
+                }
+                if (isEventsEnabled) {
+                    maskAndEmitEvent(job.getEvent(), entityType, EventType.DELETE, job.getUserId(), entityId);
+                }
+                break;
+            case INDEX:
+                index("UPDATE", entityType, entityId, publicData(withShardPrefix(shard, job.getEntity()), entityType));
+                break;
+        }
+    }
+
+    /**
+     * @return copy of the entity with the uuid property value prefixed with the shard label, the entity itself when
+     * records aren't prefixed
+     */
+    private JsonNode withShardPrefix(Shard shard, JsonNode entity) {
+        if (!addShardPrefixForESRecord || shard.getShardLabel().isEmpty()) {
+            return entity;
+        }
+        JsonNode prefixed = entity.deepCopy();
+        String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
+        JSONUtil.addPrefix((ObjectNode) prefixed, prefix, new ArrayList<>(Collections.singletonList(uuidPropertyName)));
+        return prefixed;
+    }
+
+    private JsonNode publicData(JsonNode entity, String entityType) throws IOException {
+        return JsonNodeFactory.instance.objectNode().set(entityType,
+                JSONUtil.removeNodesByPath(entity.get(entityType), definitionsManager.getExcludingFieldsForEntity(entityType)));
+    }
+
+    /**
+     * Sends the change to the elastic search actors, or writes it to elastic search when the post commit work is run
+     * by the dispatcher: the dispatcher retries a job until the write succeeds, while a write handed to the actors is
+     * gone once sent.
+     */
+    private void index(String operation, String entityType, String entityId, JsonNode document) throws Exception {
+        if (!postCommitDispatcher.isAsync() || elasticService == null) {
+            callESActors(document, operation, entityType, entityId, null);
+            return;
+        }
+        String indexName = entityType.toLowerCase();
+        RestStatus status;
+        switch (operation) {
+            case "ADD":
+                status = elasticService.addEntity(indexName, entityId, document.get(entityType));
+                break;
+            case "UPDATE":
+                status = elasticService.updateEntity(indexName, entityId, document.get(entityType));
+                break;
+            default:
+                status = elasticService.deleteEntity(indexName, entityId);
+                // a record that was never indexed has nothing to delete
+                if (status == RestStatus.NOT_FOUND) {
+                    return;
+                }
+        }
+        if (status == null || status.getStatus() >= 300) {
+            throw new IOException("Elastic search " + operation + " of " + entityId + " failed with " + status);
+        }
+    }
+
 
     private void generateCredentials(JsonNode rootNode, JsonNode inputNode, String vertexLabel) throws SignatureException.UnreachableException, SignatureException.CreationException {
         Object credentialTemplate = definitionsManager.getCredentialTemplate(vertexLabel);
@@ -375,33 +799,130 @@ public class RegistryServiceImpl implements RegistryService {
 
                 // The entity type is a child and so could be different from parent entity type.
                 doUpdate(shard, graph, registryDao, vr, inputNode.get(entityType), entityType, null);
+                JsonNode owners = inputNode.get(entityType).get(OSSystemFields.osOwner.toString());
+                if (rootId.equals(id) && owners != null) {
+                    new VertexWriter(graph, databaseProvider, uuidPropertyName).updateOwnerIndex(entityType, rootId, owners);
+                }
 
                 if (entityType.equals(Schema)) {
                     schemaService.updateSchema(mergedNode);
                 }
 
-                databaseProvider.commitTransaction(graph, tx);
-
-                if (isInternalRegistry(entityType) && isElasticSearchEnabled()) {
-                    if (addShardPrefixForESRecord && !shard.getShardLabel().isEmpty()) {
-                        // Replace uuid property value with shard details
-                        String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
-                        JSONUtil.addPrefix((ObjectNode) mergedNode, prefix, new ArrayList<>(Collections.singletonList(uuidPropertyName)));
+                PostCommitJob postCommitJob = new PostCommitJob(PostCommitJob.Operation.UPDATE, shard.getShardId(), userId,
+                        entityType, id, rootId, Objects.hashCode(tx));
+                postCommitJob.setEntity(mergedNode);
+                postCommitJob.setPrevious(readNode);
+                postCommitJob.setEvent(inputNode.get(entityType));
+                postCommitJob.setVersion(PostCommitDispatcher.version(vr.getVertex(entityType, id)));
+                postCommitDispatcher.prepare(postCommitJob);
+                try {
+                    databaseProvider.commitTransaction(graph, tx);
+                } catch (Exception e) {
+                    postCommitDispatcher.discard(postCommitJob);
+                    throw e;
+                }
+                certificateCache.invalidate(id);
+                if (parentEntityType.equals(ATTESTATION_POLICY)) {
+                    // a policy moved to another entity is gone from the policies of the entity it was for
+                    String policyEntity = getPolicyEntity(mergedNode);
+                    String previousPolicyEntity = getPolicyEntity(readNode);
+                    attestationPolicyRegistry.invalidate(policyEntity);
+                    if (!Objects.equals(policyEntity, previousPolicyEntity)) {
+                        attestationPolicyRegistry.invalidate(previousPolicyEntity);
                     }
-                    JsonNode nodeWithPublicData = JsonNodeFactory.instance.objectNode().set(entityType,
-                            JSONUtil.removeNodesByPath(mergedNode.get(entityType), definitionsManager.getExcludingFieldsForEntity(entityType)));
-                    callESActors(nodeWithPublicData, "UPDATE", entityType, id, tx);
                 }
-                auditService.auditUpdate(
-                        auditService.createAuditRecord(userId, rootId, tx, entityType),
-                        shard, mergedNode, readNode);
-                if(isEventsEnabled) {
-                    maskAndEmitEvent(inputNode.get(entityType), entityType, EventType.UPDATE, userId, id);
+                if (parentEntityType.equals(ISSUER)) {
+                    didCache.invalidateIssuers();
                 }
+                dispatch(shard, postCommitJob);
             }
         }
     }
 
+    /**
+     * @return entity the attestation policy is for, null when the policy doesn't have it
+     */
+    private static String getPolicyEntity(JsonNode policyNode) {
+        JsonNode entity = policyNode.get(ATTESTATION_POLICY).get("entity");
+        return entity == null || !entity.isTextual() ? null : entity.asText();
+    }
+
+    /**
+     * Writes the credential of an entity signed after it was added. Only the credential property of the entity
+     * vertex is written, and elastic search gets the entity with its credential. The credential isn't written when
+     * the entity changed since signedData was read from it: it was updated after signedData, or it has another
+     * credential than signedData.
+     *
+     * @param credential credential properties as set by OSSystemFields.credentials
+     * @return false when the entity changed and the credential wasn't written
+     */
+    @Override
+    public boolean setCredential(Shard shard, String entityName, String id, JsonNode signedData, JsonNode credential) throws Exception {
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                VertexReader vertexReader = new VertexReader(databaseProvider, graph, ReadConfiguratorFactory.getForUpdateValidation(),
+                        uuidPropertyName, definitionsManager, expandReferenceObj);
+                Vertex vertex = vertexReader.getVertex(entityName, id);
+                if (vertex == null) {
+                    throw new RecordNotFoundException(INVALID_ID_MESSAGE);
+                }
+                if (isChangedSince(vertex, signedData)) {
+                    databaseProvider.commitTransaction(graph, tx);
+                    return false;
+                }
+                credential.fields().forEachRemaining(field -> vertex.property(field.getKey(), field.getValue().asText()));
+                PostCommitJob postCommitJob = null;
+                if (isInternalRegistry(entityName) && isElasticSearchEnabled()) {
+                    postCommitJob = new PostCommitJob(PostCommitJob.Operation.INDEX, shard.getShardId(), null, entityName,
+                            id, id, Objects.hashCode(tx));
+                    postCommitJob.setEntity(vertexReader.read(entityName, id));
+                    postCommitDispatcher.prepare(postCommitJob);
+                }
+                try {
+                    databaseProvider.commitTransaction(graph, tx);
+                } catch (Exception e) {
+                    postCommitDispatcher.discard(postCommitJob);
+                    throw e;
+                }
+                certificateCache.invalidate(id);
+                if (postCommitJob != null) {
+                    dispatch(shard, postCommitJob);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isChangedSince(Vertex vertex, JsonNode data) {
+        ObjectNode current = JsonNodeFactory.instance.objectNode();
+        for (String property : Arrays.asList(OSSystemFields.osUpdatedAt.name(), OSSystemFields._osSignedData.name(),
+                OSSystemFields._osCredentialId.name())) {
+            if (vertex.property(property).isPresent()) {
+                current.put(property, String.valueOf(vertex.<Object>value(property)));
+            }
+        }
+        return !current.path(OSSystemFields.osUpdatedAt.name()).asText().equals(data.path(OSSystemFields.osUpdatedAt.name()).asText())
+                || !credentialOf(current).equals(credentialOf(data));
+    }
+
+    private static String credentialOf(JsonNode node) {
+        JsonNode credential = OSSystemFields.credentials.getCredential(GenericConfiguration.getSignatureProvider(), node);
+        return credential == null ? "" : credential.asText();
+    }
+
+    private void onCredentialRevoked(JsonNode revokedNode) {
+        JsonNode signedHash = revokedNode.get(REVOKED_CREDENTIAL).get(RevokedCredentialFilter.SIGNED_HASH);
+        if (signedHash != null && signedHash.isTextual()) {
+            revokedCredentialFilter.revoked(signedHash.asText());
+        }
+        JsonNode entityId = revokedNode.get(REVOKED_CREDENTIAL).get("entityId");
+        if (entityId != null && entityId.isTextual()) {
+            certificateCache.invalidate(RecordIdentifier.parse(entityId.asText()).getUuid());
+        }
+    }
+
     private boolean isInternalRegistry(String entityType) {
         return definitionsManager.getAllKnownDefinitions().contains(entityType);
     }
@@ -412,9 +933,8 @@ public class RegistryServiceImpl implements RegistryService {
         logger.debug("callESActors started");
         rootNode = rootNode != null ? rootNode.get(parentEntityType) : rootNode;
         boolean elasticSearchEnabled = isElasticSearchEnabled();
-        MessageProtos.Message message = MessageFactory.instance().createOSActorMessage(elasticSearchEnabled, operation,
-                parentEntityType.toLowerCase(), entityRootId, rootNode, null);
-        ActorCache.instance().get(Router.ROUTER_NAME).tell(message, null);
+        Router.sendAndForget(MessageFactory.instance().createOSActorLocalMessage(elasticSearchEnabled, operation,
+                parentEntityType.toLowerCase(), entityRootId, rootNode, null));
         logger.debug("callESActors ends");
     }
 
@@ -431,8 +951,7 @@ public class RegistryServiceImpl implements RegistryService {
             return;
         }
         logger.debug("callNotificationActors started");
-        MessageProtos.Message messageProto = MessageFactory.instance().createNotificationActorMessage(operation, to, subject, message);
-        ActorCache.instance().get(Router.ROUTER_NAME).tell(messageProto, null);
+        Router.sendAndForget(MessageFactory.instance().createNotificationActorLocalMessage(operation, to, subject, message));
         logger.debug("callNotificationActors ends");
     }
 
@@ -1,63 +1,71 @@
 package dev.sunbirdrc.registry.service.impl;
 
-import dev.sunbirdrc.registry.exception.SignatureException;
-import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.net.URI;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Calls other services through the pooled RestTemplate. Retries, bulkheads and metrics are applied by the
+ * OutboundHttpClient; the *Async variants run the call on the outbound executor.
+ */
 @Component
 public class RetryRestTemplate {
+    // expands and encodes uri variables without changing the handler of the shared RestTemplate
+    private final DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory();
 
     @Autowired
     private RestTemplate restTemplate;
 
-    @Retryable(value ={SignatureException.UnreachableException.class,ResourceAccessException.class,ServiceUnavailableException.class }, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
-            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
+    @Autowired
+    private OutboundHttpClient outboundHttpClient;
+
     public ResponseEntity<String> postForEntity(String url, Object propertyValue){
-        return restTemplate.postForEntity(url, propertyValue, String.class);
+        return outboundHttpClient.execute(url, () -> restTemplate.postForEntity(url, propertyValue, String.class));
+    }
+
+    public CompletableFuture<ResponseEntity<String>> postForEntityAsync(String url, Object propertyValue) {
+        return outboundHttpClient.executeAsync(url, () -> restTemplate.postForEntity(url, propertyValue, String.class));
     }
 
-    @Retryable(value ={SignatureException.UnreachableException.class,ResourceAccessException.class,ServiceUnavailableException.class }, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
-            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
     public ResponseEntity<String> putForEntity(String url, HttpEntity<?> propertyValue, Object... uriVariables){
-        return restTemplate.exchange(url, HttpMethod.PUT, propertyValue, String.class, uriVariables);
+        return outboundHttpClient.execute(url, () -> restTemplate.exchange(url, HttpMethod.PUT, propertyValue, String.class, uriVariables));
     }
-    
-    @Retryable(value ={SignatureException.UnreachableException.class,ResourceAccessException.class,ServiceUnavailableException.class }, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
-            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
+
     public ResponseEntity<String> getForEntity(String url){
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(null, headers), String.class);
+        return outboundHttpClient.execute(url, () -> restTemplate.exchange(url, HttpMethod.GET, jsonRequest(), String.class));
     }
 
-    @Retryable(value ={SignatureException.UnreachableException.class,ResourceAccessException.class,ServiceUnavailableException.class }, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
-            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
     public ResponseEntity<String> getForEntity(String url, Object... uriVariables){
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-        restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory());
-        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(null, headers), String.class, uriVariables);
+        URI uri = uriBuilderFactory.expand(url, uriVariables);
+        return outboundHttpClient.execute(url, () -> restTemplate.exchange(uri, HttpMethod.GET, jsonRequest(), String.class));
+    }
+
+    public CompletableFuture<ResponseEntity<String>> getForEntityAsync(String url, Object... uriVariables) {
+        URI uri = uriBuilderFactory.expand(url, uriVariables);
+        return outboundHttpClient.executeAsync(url, () -> restTemplate.exchange(uri, HttpMethod.GET, jsonRequest(), String.class));
     }
 
-    @Retryable(value ={SignatureException.UnreachableException.class,ResourceAccessException.class,ServiceUnavailableException.class }, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
-            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
     public void deleteForEntity(String url, Object... uriVariables){
-        restTemplate.delete(url, uriVariables);
+        outboundHttpClient.execute(url, () -> {
+            restTemplate.delete(url, uriVariables);
+            return null;
+        });
     }
 
-    @Retryable(value ={SignatureException.UnreachableException.class,ResourceAccessException.class,ServiceUnavailableException.class }, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
-            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
     public <T> ResponseEntity<T> getForObject(String url, HttpHeaders headers, Class<T> tClass, Object... uriVariables){
-        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(null, headers), tClass, uriVariables);
+        return outboundHttpClient.execute(url, () -> restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(null, headers), tClass, uriVariables));
+    }
+
+    private static HttpEntity<Void> jsonRequest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        return new HttpEntity<>(null, headers);
     }
 
 }
@@ -15,7 +15,10 @@ import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.service.CredentialSchemaService;
 import dev.sunbirdrc.registry.service.DIDService;
 import dev.sunbirdrc.registry.service.ICertificateService;
+import dev.sunbirdrc.registry.service.RevocationListCache;
 import dev.sunbirdrc.registry.service.SignatureService;
+import dev.sunbirdrc.registry.service.TemplateCache;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,12 +30,17 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClientException;
 
 import java.io.IOException;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
@@ -75,6 +83,12 @@ public class SignatureV2ServiceImpl implements SignatureService, ICertificateSer
     @Autowired
     private DIDService didService;
     @Autowired
+    private TemplateCache templateCache;
+    @Autowired
+    private RevocationListCache revocationListCache;
+    @Autowired
+    private OutboundHttpClient outboundHttpClient;
+    @Autowired
     private Gson gson;
 
     @Override
@@ -147,6 +161,30 @@ public class SignatureV2ServiceImpl implements SignatureService, ICertificateSer
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        if (revocationListCache.hasSnapshots()) {
+            addToRevocationList(entityName, entityId, signed);
+        }
+    }
+
+    /**
+     * Adds the revoked credential to the revocation list of its issuer as the credential service lists it, the list is
+     * read again from the credential service later if this fails
+     */
+    private void addToRevocationList(String entityName, String entityId, String credentialId) {
+        try {
+            JsonNode credential = getCredentialById(credentialId);
+            JsonNode issuer = credential.path("issuer");
+            String issuerDid = issuer.isObject() ? issuer.path("id").asText() : issuer.asText();
+            ObjectNode revokedCredential = JsonNodeFactory.instance.objectNode();
+            revokedCredential.put("id", credentialId);
+            revokedCredential.set("tags", JsonNodeFactory.instance.arrayNode().add(entityName)
+                    .add(RecordIdentifier.parse(entityId).getUuid()));
+            revokedCredential.put("issuer", issuerDid);
+            revokedCredential.set("issuanceDate", credential.path("issuanceDate"));
+            revocationListCache.revoked(issuerDid, revokedCredential);
+        } catch (Exception e) {
+            logger.warn("Can't add credential {} to the revocation list: {}", credentialId, e.getMessage());
+        }
     }
 
     @Override
@@ -154,9 +192,8 @@ public class SignatureV2ServiceImpl implements SignatureService, ICertificateSer
         if (Objects.equals(mediaType, MediaType.APPLICATION_JSON.toString())) {
             return getCredentialById(credentialId.asText());
         }
-        if(template != null && (template.startsWith(HTTP_URI_PREFIX) || template.startsWith(HTTPS_URI_PREFIX))) {
-            ResponseEntity<String> response = this.retryRestTemplate.getForEntity(URLDecoder.decode(template, "UTF-8"));
-            template = response.getBody();
+        if(isTemplateUrl(template)) {
+            template = templateCache.getTemplate(URLDecoder.decode(template, "UTF-8"));
         }
         if (template != null) {
             template = template.replaceAll("\n", "");
@@ -164,6 +201,22 @@ public class SignatureV2ServiceImpl implements SignatureService, ICertificateSer
         return getCredentialById(credentialId.asText(), mediaType, templateId, template);
     }
 
+    @Override
+    public String getTemplateVersion(String entityName, String mediaType, String template, String templateId) throws Exception {
+        if (Objects.equals(mediaType, MediaType.APPLICATION_JSON.toString())) {
+            return null;
+        }
+        if (isTemplateUrl(template)) {
+            return templateCache.getVersion(URLDecoder.decode(template, "UTF-8"));
+        }
+        // a template id names a template kept by the credential service
+        return template != null ? DigestUtils.md5DigestAsHex(template.getBytes(StandardCharsets.UTF_8)) : String.valueOf(templateId);
+    }
+
+    private static boolean isTemplateUrl(String template) {
+        return template != null && (template.startsWith(HTTP_URI_PREFIX) || template.startsWith(HTTPS_URI_PREFIX));
+    }
+
     public JsonNode issueCredential(String title, Object credentialTemplate, JsonNode input) throws Exception {
         // Render the credential using credential template
         Handlebars hb = new Handlebars();
@@ -177,17 +230,29 @@ public class SignatureV2ServiceImpl implements SignatureService, ICertificateSer
         String credString = template.apply(JSONUtil.convertJsonNodeToMap(input));
         ObjectNode credential = (ObjectNode) objectMapper.readTree(credString);
 
-        // Fetch the credentials schema to get credential schema id and version
-        JsonNode credSchema = credentialSchemaService.getLatestSchemaByTags(Collections.singletonList(title));
-        if (credSchema == null) throw new NotFoundException("CredentialSchema", title);
-        JsonNode credSchemaDid = credSchema.get("schema").get("id");
-        JsonNode credSchemaVersion = credSchema.get("schema").get("version");
-
+        // Fetch the credentials schema to get credential schema id and version, while the issuer did is ensured
+        CompletableFuture<JsonNode> credSchemaFuture = outboundHttpClient.supplyAsync(() -> {
+            try {
+                return credentialSchemaService.getLatestSchemaByTags(Collections.singletonList(title));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
 
         // ensure issuer did
         String issuerDid = didService.ensureDidForName(credential.get("issuer").asText(), credentialIssuerMethod);
         credential.set("issuer", JsonNodeFactory.instance.textNode(issuerDid));
 
+        JsonNode credSchema;
+        try {
+            credSchema = credSchemaFuture.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        if (credSchema == null) throw new NotFoundException("CredentialSchema", title);
+        JsonNode credSchemaDid = credSchema.get("schema").get("id");
+        JsonNode credSchemaVersion = credSchema.get("schema").get("version");
+
         // Wire the create credential request payload
         ObjectNode node = JsonNodeFactory.instance.objectNode();
         node.set("credential", credential);
@@ -233,14 +298,18 @@ public class SignatureV2ServiceImpl implements SignatureService, ICertificateSer
         retryRestTemplate.deleteForEntity(deleteCredentialByIdURL, credentialId);
     }
 
-    public ArrayNode revocationList(String issuerDid, Integer page, Integer limit) throws IOException {
-        if(page != null && page < 1) page = 1;
-        if(limit != null && limit < 1) limit = 1000;
-        ResponseEntity<String> response = retryRestTemplate.getForEntity(getRevocationListURL, issuerDid, page, limit);
-        if (response.getStatusCode().is2xxSuccessful()) {
+    /**
+     * @return the revocation list of the issuer kept in memory, read from the credential service when it isn't kept
+     */
+    public RevocationListCache.Snapshot getRevocationList(String issuerDid) throws Exception {
+        return revocationListCache.get(issuerDid, (page, limit) -> {
+            ResponseEntity<String> response = retryRestTemplate.getForEntity(getRevocationListURL, issuerDid, page, limit);
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                // an empty page would read as every credential being reinstated
+                throw new IOException("Unable to read the revocation list of " + issuerDid + ": " + response.getStatusCode());
+            }
             return (ArrayNode) JSONUtil.convertStringJsonNode(response.getBody());
-        }
-        return JsonNodeFactory.instance.arrayNode();
+        });
     }
 
     public JsonNode verifyCredential(Object vc, Object options) {
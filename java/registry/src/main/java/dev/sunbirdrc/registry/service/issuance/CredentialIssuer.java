@@ -0,0 +1,378 @@
+package dev.sunbirdrc.registry.service.issuance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.registry.config.GenericConfiguration;
+import dev.sunbirdrc.registry.exception.RecordNotFoundException;
+import dev.sunbirdrc.registry.helper.SignatureHelper;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.service.DecryptionHelper;
+import dev.sunbirdrc.registry.service.RegistryService;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signs the credentials of added records in the background, so that adding a record returns once it is stored
+ * instead of waiting for the signature service. Every job is written to a local directory along with the record as
+ * it was written, before the record is committed, and resumed on the next start, so no record is left unsigned by a
+ * restart.
+ * <p>
+ * Workers take up to batchSize jobs at a time and sign them in one call where the signature provider supports it,
+ * one at a time if the batch fails, and write each credential back as an update of only the credential property.
+ * A record updated meanwhile isn't given the credential of what it was when added, the credential is revoked and
+ * the job superseded. Failed jobs are retried with exponential backoff up to maxAttempts, a job whose credential
+ * was signed keeps it and retries only the write. A job given up stays in the directory as failed, the credential
+ * signed for it is revoked. Jobs are looked up by record id while pending or failed, and for the last finishedJobs
+ * that were issued or superseded.
+ */
+@Component
+public class CredentialIssuer {
+    private static final Logger logger = LoggerFactory.getLogger(CredentialIssuer.class);
+    private static final String TITLE = "title";
+    private static final String DATA = "data";
+    private static final String CREDENTIAL_TEMPLATE = "credentialTemplate";
+
+    @Value("${signature.enabled:false}")
+    private boolean signatureEnabled;
+    @Value("${signature.issuance.async:false}")
+    private boolean asyncEnabled;
+    @Value("${signature.issuance.queuePath:issuance-queue}")
+    private String queuePath;
+    @Value("${signature.issuance.workers:2}")
+    private int workers;
+    @Value("${signature.issuance.batchSize:20}")
+    private int batchSize;
+    @Value("${signature.issuance.maxAttempts:5}")
+    private int maxAttempts;
+    @Value("${signature.issuance.backoff.initialDelay:1000}")
+    private long initialBackoffMillis;
+    @Value("${signature.issuance.backoff.maxDelay:60000}")
+    private long maxBackoffMillis;
+    @Value("${signature.issuance.finishedJobs:10000}")
+    private int finishedJobs;
+
+    @Autowired(required = false)
+    private SignatureHelper signatureHelper;
+    @Autowired(required = false)
+    private DecryptionHelper decryptionHelper;
+    @Autowired
+    private IDefinitionsManager definitionsManager;
+    @Autowired
+    private ShardManager shardManager;
+    @Lazy
+    @Autowired
+    private RegistryService registryService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final BlockingQueue<IssuanceJob> queue = new LinkedBlockingQueue<>();
+    private final Map<String, IssuanceJob> pendingJobs = new ConcurrentHashMap<>();
+    private final Map<String, IssuanceJob> failedJobs = new ConcurrentHashMap<>();
+    private Map<String, IssuanceJob> finished;
+    private IssuanceJobStore store;
+    private ExecutorService workerPool;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() throws IOException {
+        int capacity = finishedJobs;
+        finished = Collections.synchronizedMap(new LinkedHashMap<String, IssuanceJob>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IssuanceJob> eldest) {
+                return size() > capacity;
+            }
+        });
+        if (!asyncEnabled) {
+            return;
+        }
+        store = new IssuanceJobStore(Paths.get(queuePath), objectMapper);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credential-issuance-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger count = new AtomicInteger();
+        workerPool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "credential-issuer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        List<IssuanceJob> pending = new ArrayList<>();
+        for (IssuanceJob job : store.loadAll()) {
+            if (job.getStatus() == IssuanceJob.Status.FAILED) {
+                failedJobs.put(job.getEntityId(), job);
+            } else {
+                pending.add(job);
+            }
+        }
+        logger.info("Resuming {} pending credential issuances, {} failed", pending.size(), failedJobs.size());
+        for (IssuanceJob job : pending) {
+            job.setStatus(IssuanceJob.Status.PENDING);
+            pendingJobs.put(job.getEntityId(), job);
+            queue.offer(job);
+        }
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true when records of the entity are added without a credential and signed afterwards
+     */
+    public boolean issuesLater(String entityName) {
+        return asyncEnabled && signatureEnabled && signatureHelper != null
+                && definitionsManager.getCredentialTemplate(entityName) != null;
+    }
+
+    /**
+     * Persists the job of a record that is about to be committed, it is signed once {@link #submit} is called
+     *
+     * @param data record as it is written, without its id
+     */
+    public IssuanceJob prepare(String shardId, String entityName, String entityId, String userId, JsonNode data) throws IOException {
+        long now = System.currentTimeMillis();
+        IssuanceJob job = IssuanceJob.builder().entityId(entityId).entityName(entityName).shardId(shardId).userId(userId)
+                .status(IssuanceJob.Status.PENDING).createdAt(now).updatedAt(now).data(data).build();
+        store.save(job);
+        pendingJobs.put(entityId, job);
+        return job;
+    }
+
+    /**
+     * Queues the job of a committed record for signing
+     */
+    public void submit(IssuanceJob job) {
+        queue.offer(job);
+    }
+
+    /**
+     * Drops the job of a record whose commit failed
+     */
+    public void discard(IssuanceJob job) {
+        pendingJobs.remove(job.getEntityId(), job);
+        store.delete(job);
+    }
+
+    /**
+     * @return the job of the record while it is pending or failed and for a while once finished, null otherwise
+     */
+    public IssuanceJob getJob(String entityId) {
+        IssuanceJob job = pendingJobs.get(entityId);
+        if (job == null) {
+            job = failedJobs.get(entityId);
+        }
+        return job != null || finished == null ? job : finished.get(entityId);
+    }
+
+    int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                List<IssuanceJob> batch = new ArrayList<>(batchSize);
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                issue(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Credential issuance failed: {}", ExceptionUtils.getStackTrace(e));
+            }
+        }
+    }
+
+    void issue(List<IssuanceJob> batch) {
+        List<IssuanceJob> jobs = new ArrayList<>(batch.size());
+        List<Map<String, Object>> requests = new ArrayList<>(batch.size());
+        for (IssuanceJob job : batch) {
+            if (job.getCredential() != null) {
+                // signed on an earlier attempt whose write failed
+                write(job);
+                continue;
+            }
+            update(job, IssuanceJob.Status.SIGNING, null);
+            try {
+                requests.add(signRequest(job));
+                jobs.add(job);
+            } catch (Exception e) {
+                retry(job, e);
+            }
+        }
+        if (jobs.isEmpty()) {
+            return;
+        }
+        List<Object> credentials;
+        try {
+            credentials = signatureHelper.signAll(requests);
+        } catch (Exception e) {
+            if (jobs.size() == 1) {
+                retry(jobs.get(0), e);
+                return;
+            }
+            logger.warn("Signing {} credentials at once failed, signing them one at a time: {}", jobs.size(), e.getMessage());
+            for (int i = 0; i < jobs.size(); i++) {
+                try {
+                    jobs.get(i).setCredential(credential(signatureHelper.sign(requests.get(i))));
+                } catch (Exception signException) {
+                    retry(jobs.get(i), signException);
+                    continue;
+                }
+                write(jobs.get(i));
+            }
+            return;
+        }
+        for (int i = 0; i < jobs.size(); i++) {
+            jobs.get(i).setCredential(credential(credentials.get(i)));
+            write(jobs.get(i));
+        }
+    }
+
+    private static JsonNode credential(Object signedCredential) {
+        ObjectNode credential = JsonNodeFactory.instance.objectNode();
+        OSSystemFields.credentials.setCredential(GenericConfiguration.getSignatureProvider(), credential, signedCredential);
+        return credential;
+    }
+
+    /**
+     * Signs the record as it would have been signed when added, revoking the credential it came with
+     */
+    private Map<String, Object> signRequest(IssuanceJob job) throws Exception {
+        String entityName = job.getEntityName();
+        JsonNode data = decryptionHelper != null ? decryptionHelper.getDecryptedJson(entityName, job.getData().deepCopy()) : job.getData();
+        if (OSSystemFields.credentials.hasCredential(GenericConfiguration.getSignatureProvider(), data)) {
+            signatureHelper.revoke(entityName, null,
+                    OSSystemFields.credentials.getCredential(GenericConfiguration.getSignatureProvider(), data).asText());
+        }
+        Map<String, Object> request = new HashMap<>();
+        request.put(TITLE, entityName);
+        request.put(DATA, data);
+        request.put(CREDENTIAL_TEMPLATE, definitionsManager.getCredentialTemplate(entityName));
+        return request;
+    }
+
+    /**
+     * Writes the credential signed for the job, a failed write is retried without signing again
+     */
+    private void write(IssuanceJob job) {
+        try {
+            if (registryService.setCredential(shard(job), job.getEntityName(), job.getEntityId(), job.getData(), job.getCredential())) {
+                finish(job, IssuanceJob.Status.ISSUED, null);
+            } else {
+                logger.info("Record {} changed since it was added, revoking the credential signed for it", job.getEntityId());
+                revoke(job);
+                finish(job, IssuanceJob.Status.SUPERSEDED, null);
+            }
+        } catch (RecordNotFoundException e) {
+            revoke(job);
+            finish(job, IssuanceJob.Status.FAILED, e.getMessage());
+        } catch (Exception e) {
+            retry(job, e);
+        }
+    }
+
+    /**
+     * Revokes the credential signed for the job that won't be written
+     */
+    private void revoke(IssuanceJob job) {
+        if (job.getCredential() == null) {
+            return;
+        }
+        try {
+            signatureHelper.revoke(job.getEntityName(), null,
+                    OSSystemFields.credentials.getCredential(GenericConfiguration.getSignatureProvider(), job.getCredential()).asText());
+        } catch (Exception e) {
+            logger.error("Revoking the unused credential of {} failed: {}", job.getEntityId(), ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    private Shard shard(IssuanceJob job) {
+        return job.getShardId() != null ? shardManager.getShardInstance(job.getShardId()) : shardManager.getDefaultShard();
+    }
+
+    private void retry(IssuanceJob job, Exception e) {
+        job.setAttempts(job.getAttempts() + 1);
+        if (job.getAttempts() >= maxAttempts) {
+            logger.error("Giving up issuing the credential of {} after {} attempts: {}", job.getEntityId(), job.getAttempts(),
+                    ExceptionUtils.getStackTrace(e));
+            revoke(job);
+            finish(job, IssuanceJob.Status.FAILED, e.getMessage());
+            return;
+        }
+        logger.warn("Issuing the credential of {} failed, attempt {}: {}", job.getEntityId(), job.getAttempts(), e.getMessage());
+        update(job, IssuanceJob.Status.PENDING, e.getMessage());
+        try {
+            store.save(job);
+        } catch (IOException ioException) {
+            logger.error("Persisting issuance job of {} failed: {}", job.getEntityId(), ExceptionUtils.getStackTrace(ioException));
+        }
+        scheduler.schedule(() -> {
+            queue.offer(job);
+        }, backoff(job.getAttempts()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The finished job replaces the pending one only once it is stored, so that its status is never ahead of the
+     * directory
+     */
+    private void finish(IssuanceJob job, IssuanceJob.Status status, String error) {
+        IssuanceJob done = job.toBuilder().build();
+        update(done, status, error);
+        if (status == IssuanceJob.Status.FAILED) {
+            try {
+                store.save(done);
+            } catch (IOException e) {
+                logger.error("Persisting failed issuance job of {} failed: {}", job.getEntityId(), ExceptionUtils.getStackTrace(e));
+            }
+            failedJobs.put(done.getEntityId(), done);
+        } else {
+            store.delete(done);
+            finished.put(done.getEntityId(), done);
+        }
+        pendingJobs.remove(job.getEntityId(), job);
+    }
+
+    private static void update(IssuanceJob job, IssuanceJob.Status status, String error) {
+        job.setStatus(status);
+        job.setError(error);
+        job.setUpdatedAt(System.currentTimeMillis());
+    }
+
+    long backoff(int attempts) {
+        long delay = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+}
@@ -0,0 +1,45 @@
+package dev.sunbirdrc.registry.service.issuance;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Signing of the credential of a record added without one, kept until the credential is written or given up
+ */
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class IssuanceJob {
+    public enum Status {
+        PENDING, SIGNING, ISSUED, FAILED,
+        /**
+         * The record changed after it was added, the credential signed for it wasn't written
+         */
+        SUPERSEDED
+    }
+
+    private String entityId;
+    private String entityName;
+    private String shardId;
+    private String userId;
+    private Status status;
+    private int attempts;
+    private String error;
+    private long createdAt;
+    private long updatedAt;
+    /**
+     * Record as it was written when added, encrypted when encryption is enabled, it is what gets signed
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private JsonNode data;
+    /**
+     * Credential properties signed for the record, kept until they are written so that a retry doesn't sign again
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private JsonNode credential;
+}
@@ -0,0 +1,72 @@
+package dev.sunbirdrc.registry.service.issuance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every issuance job that isn't done as a json file in a local directory, so that signing survives a restart.
+ * A file is written before the record is committed and rewritten on every failed attempt. It is removed once the
+ * credential is written, a job given up is kept with its failed status.
+ */
+class IssuanceJobStore {
+    private static final Logger logger = LoggerFactory.getLogger(IssuanceJobStore.class);
+    private static final String EXTENSION = ".json";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    IssuanceJobStore(Path directory, ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Unlike the other operations a failed write is thrown, a job that isn't durable mustn't be acknowledged
+     */
+    void save(IssuanceJob job) throws IOException {
+        Path temp = directory.resolve(job.getEntityId() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(objectMapper.writeValueAsBytes(job));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(job.getEntityId() + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void delete(IssuanceJob job) {
+        try {
+            Files.deleteIfExists(directory.resolve(job.getEntityId() + EXTENSION));
+        } catch (IOException e) {
+            logger.error("Removing issuance job of {} failed: {}", job.getEntityId(), e.getMessage());
+        }
+    }
+
+    List<IssuanceJob> loadAll() throws IOException {
+        List<IssuanceJob> jobs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                try {
+                    jobs.add(objectMapper.readValue(file.toFile(), IssuanceJob.class));
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable issuance job {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        return jobs;
+    }
+}
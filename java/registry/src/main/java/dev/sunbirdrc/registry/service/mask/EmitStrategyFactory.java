@@ -2,21 +2,26 @@ package dev.sunbirdrc.registry.service.mask;
 
 import dev.sunbirdrc.registry.model.EventConfig;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 public class EmitStrategyFactory {
+    // strategies are stateless, so one instance per config is shared by all events
+    private static final Map<EventConfig, IEmitStrategy> strategies = new EnumMap<>(EventConfig.class);
+
+    static {
+        strategies.put(EventConfig.MASK, new MaskEmitStrategy());
+        strategies.put(EventConfig.NONE, new NoneEmitStrategy());
+        strategies.put(EventConfig.FULL, new FullEmitStrategy());
+        strategies.put(EventConfig.HASH, new HashEmitStrategy());
+        strategies.put(EventConfig.HASH_MASK, new HashMaskEmitStrategy());
+    }
+
     public static IEmitStrategy getMaskConfig(EventConfig config) {
-        switch (config) {
-            case MASK:
-                return new MaskEmitStrategy();
-            case NONE:
-                return new NoneEmitStrategy();
-            case FULL:
-                return new FullEmitStrategy();
-            case HASH:
-                return new HashEmitStrategy();
-            case HASH_MASK:
-                return new HashMaskEmitStrategy();
-            default:
-                throw new IllegalArgumentException(config.name() + " not supported type of emit config");
+        IEmitStrategy strategy = strategies.get(config);
+        if (strategy == null) {
+            throw new IllegalArgumentException(config.name() + " not supported type of emit config");
         }
+        return strategy;
     }
 }
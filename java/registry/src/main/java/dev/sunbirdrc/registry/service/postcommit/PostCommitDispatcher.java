@@ -0,0 +1,274 @@
+package dev.sunbirdrc.registry.service.postcommit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.dao.VertexReader;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.service.MetricsSource;
+import dev.sunbirdrc.registry.service.RegistryService;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import dev.sunbirdrc.registry.util.ReadConfiguratorFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the indexing, audit and events of committed changes in the background when async is enabled, so that a
+ * write returns once it is committed. Every job is written to a local directory before its record is committed and
+ * removed only once it is done, jobs left by a restart are resumed on the next start.
+ * <p>
+ * A job is retried with exponential backoff up to maxAttempts, a job given up stays in the directory as failed. The
+ * jobs of a root record always go to the same worker, which runs them in the order they were prepared and doesn't
+ * move past a failing job until it is given up, so that a record is never indexed or audited out of order.
+ */
+@Component
+public class PostCommitDispatcher implements MetricsSource {
+    private static final Logger logger = LoggerFactory.getLogger(PostCommitDispatcher.class);
+
+    @Value("${registry.postCommit.async:false}")
+    private boolean asyncEnabled;
+    @Value("${registry.postCommit.queuePath:post-commit-queue}")
+    private String queuePath;
+    @Value("${registry.postCommit.workers:4}")
+    private int workers;
+    @Value("${registry.postCommit.maxAttempts:10}")
+    private int maxAttempts;
+    @Value("${registry.postCommit.backoff.initialDelay:1000}")
+    private long initialBackoffMillis;
+    @Value("${registry.postCommit.backoff.maxDelay:60000}")
+    private long maxBackoffMillis;
+    @Value("${database.uuidPropertyName}")
+    private String uuidPropertyName;
+    @Value("${registry.expandReference}")
+    private boolean expandReferenceObj;
+
+    @Autowired
+    private ShardManager shardManager;
+    @Autowired
+    private IDefinitionsManager definitionsManager;
+    @Lazy
+    @Autowired
+    private RegistryService registryService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder done = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private List<BlockingQueue<PostCommitJob>> queues;
+    private PostCommitJobStore store;
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!asyncEnabled) {
+            return;
+        }
+        store = new PostCommitJobStore(Paths.get(queuePath), objectMapper);
+        queues = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            queues.add(new LinkedBlockingQueue<>());
+        }
+        AtomicInteger count = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "post-commit-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        List<PostCommitJob> pending = store.loadAll();
+        logger.info("Resuming {} pending post commit jobs", pending.size());
+        pending.forEach(job -> queue(job).offer(job));
+        queues.forEach(queue -> workerPool.execute(() -> work(queue)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true when the post commit work is handed to {@link #submit}, it is run by the caller otherwise
+     */
+    public boolean isAsync() {
+        return asyncEnabled;
+    }
+
+    /**
+     * Persists the job of a record that is about to be committed, it is run once {@link #submit} is called
+     */
+    public void prepare(PostCommitJob job) throws IOException {
+        if (!asyncEnabled) {
+            return;
+        }
+        job.setId(String.format("%013d-%09d", job.getCreatedAt(), sequence.incrementAndGet() % 1000000000));
+        store.save(job);
+    }
+
+    /**
+     * Queues the job of a committed record
+     */
+    public void submit(PostCommitJob job) {
+        store.commit(job);
+        queue(job).offer(job);
+    }
+
+    /**
+     * Drops the job of a record whose commit failed
+     */
+    public void discard(PostCommitJob job) {
+        if (asyncEnabled && job != null && job.getId() != null) {
+            store.delete(job);
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "postCommit";
+    }
+
+    @Override
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("queued", queues == null ? 0L : queues.stream().mapToLong(BlockingQueue::size).sum());
+        metrics.put("done", done.sum());
+        metrics.put("retries", retries.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("failed", failed.sum());
+        return metrics;
+    }
+
+    private BlockingQueue<PostCommitJob> queue(PostCommitJob job) {
+        return queues.get(Math.floorMod(job.getRootId().hashCode(), queues.size()));
+    }
+
+    private void work(BlockingQueue<PostCommitJob> queue) {
+        while (running) {
+            try {
+                run(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the job until it succeeds or is given up, the job is left in the store when interrupted and run again on
+     * the next start
+     */
+    void run(PostCommitJob job) throws InterruptedException {
+        while (true) {
+            try {
+                Shard shard = shard(job);
+                if (job.isCommitted() || wasCommitted(shard, job)) {
+                    registryService.runPostCommit(shard, job);
+                    done.increment();
+                } else {
+                    logger.info("Dropping post commit job {} of {}, its change wasn't committed", job.getId(), job.getEntityId());
+                    dropped.increment();
+                }
+                store.delete(job);
+                return;
+            } catch (Exception e) {
+                job.setAttempts(job.getAttempts() + 1);
+                retries.increment();
+                logger.error("Post commit {} of {} failed, attempt {}: {}", job.getOperation(), job.getEntityId(),
+                        job.getAttempts(), ExceptionUtils.getStackTrace(e));
+                if (job.getAttempts() >= maxAttempts) {
+                    logger.error("Giving up post commit job {} of {} after {} attempts", job.getId(), job.getEntityId(),
+                            job.getAttempts());
+                    job.setError(e.getMessage());
+                    store.fail(job);
+                    failed.increment();
+                    return;
+                }
+            }
+            if (!running) {
+                throw new InterruptedException();
+            }
+            Thread.sleep(backoff(job.getAttempts()));
+        }
+    }
+
+    /**
+     * Tells whether the change of a job that was pending when the registry stopped made it to the database: added
+     * records exist, deleted records don't or are inactive, and updated records still have the properties they were
+     * written with. An update that left the properties of its record as they were can't be told apart and is taken
+     * as committed.
+     */
+    boolean wasCommitted(Shard shard, PostCommitJob job) throws Exception {
+        DatabaseProvider dbProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = dbProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = dbProvider.startTransaction(graph)) {
+                Vertex vertex = new VertexReader(dbProvider, graph, ReadConfiguratorFactory.getOne(false), uuidPropertyName,
+                        definitionsManager, expandReferenceObj).getVertex(job.getEntityType(), job.getEntityId());
+                boolean deleted = vertex == null || (vertex.property(Constants.STATUS_KEYWORD).isPresent()
+                        && Constants.STATUS_INACTIVE.equals(vertex.property(Constants.STATUS_KEYWORD).value()));
+                dbProvider.commitTransaction(graph, tx);
+                switch (job.getOperation()) {
+                    case DELETE:
+                        job.setCommitted(deleted);
+                        break;
+                    case UPDATE:
+                        job.setCommitted(vertex != null && (job.getVersion() == null || job.getVersion().equals(version(vertex))));
+                        break;
+                    default:
+                        job.setCommitted(vertex != null);
+                }
+                return job.isCommitted();
+            }
+        }
+    }
+
+    /**
+     * @return digest of the properties of the vertex, it changes with every write that changes one of them
+     */
+    public static String version(Vertex vertex) {
+        Map<String, String> properties = new TreeMap<>();
+        vertex.properties().forEachRemaining(property -> properties.put(property.key(), String.valueOf(property.value())));
+        return DigestUtils.md5DigestAsHex(properties.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Shard shard(PostCommitJob job) {
+        return job.getShardId() != null ? shardManager.getShardInstance(job.getShardId()) : shardManager.getDefaultShard();
+    }
+
+    long backoff(int attempts) {
+        long delay = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+}
@@ -0,0 +1,72 @@
+package dev.sunbirdrc.registry.service.postcommit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Indexing, audit and events of a committed change to a record, kept until all of them are done
+ */
+@Data
+@NoArgsConstructor
+public class PostCommitJob {
+    public enum Operation {
+        ADD, UPDATE, DELETE,
+        /**
+         * Only indexes the record again, its credential was written after it was added
+         */
+        INDEX
+    }
+
+    private String id;
+    private Operation operation;
+    private String shardId;
+    private String userId;
+    private String entityType;
+    /**
+     * Record that changed, it is the one indexed and in the event
+     */
+    private String entityId;
+    /**
+     * Record audited, jobs of the same root record run in the order they were prepared
+     */
+    private String rootId;
+    private int transactionId;
+    private JsonNode entity;
+    /**
+     * Record before an update
+     */
+    private JsonNode previous;
+    /**
+     * Payload of the event, when it isn't the entity
+     */
+    private JsonNode event;
+    /**
+     * Properties of the updated record as they were committed, see {@link PostCommitDispatcher#version}
+     */
+    private String version;
+    private int attempts;
+    /**
+     * Why the job was given up
+     */
+    private String error;
+    private long createdAt;
+    /**
+     * False for a job read back after a restart whose record may not have been committed
+     */
+    @JsonIgnore
+    private boolean committed = true;
+
+    public PostCommitJob(Operation operation, String shardId, String userId, String entityType, String entityId,
+                         String rootId, int transactionId) {
+        this.operation = operation;
+        this.shardId = shardId;
+        this.userId = userId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.rootId = rootId;
+        this.transactionId = transactionId;
+        this.createdAt = System.currentTimeMillis();
+    }
+}
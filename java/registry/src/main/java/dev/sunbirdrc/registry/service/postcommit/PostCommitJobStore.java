@@ -0,0 +1,110 @@
+package dev.sunbirdrc.registry.service.postcommit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps every post commit job that isn't done as a json file in a local directory, so that it survives a restart.
+ * A job is written as pending before its record is committed, renamed once the commit succeeded and removed once
+ * it is done. A job given up is kept as failed and isn't resumed.
+ */
+class PostCommitJobStore {
+    private static final Logger logger = LoggerFactory.getLogger(PostCommitJobStore.class);
+    private static final String PENDING = ".pending";
+    private static final String COMMITTED = ".json";
+    private static final String FAILED = ".failed";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    PostCommitJobStore(Path directory, ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Unlike the other operations a failed write is thrown, a job that isn't durable mustn't be acknowledged
+     */
+    void save(PostCommitJob job) throws IOException {
+        write(job, PENDING);
+    }
+
+    /**
+     * Keeps the job given up along with its error, in place of the pending or committed one
+     */
+    void fail(PostCommitJob job) {
+        try {
+            write(job, FAILED);
+            delete(job);
+        } catch (IOException e) {
+            logger.error("Keeping given up post commit job {} of {} failed: {}", job.getId(), job.getEntityId(), e.getMessage());
+        }
+    }
+
+    private void write(PostCommitJob job, String extension) throws IOException {
+        Path temp = directory.resolve(job.getId() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(objectMapper.writeValueAsBytes(job));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(job.getId() + extension), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Marks the job of a committed record, a job still pending after a restart is checked against its record
+     */
+    void commit(PostCommitJob job) {
+        try {
+            Files.move(directory.resolve(job.getId() + PENDING), directory.resolve(job.getId() + COMMITTED),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Marking post commit job {} of {} committed failed: {}", job.getId(), job.getEntityId(), e.getMessage());
+        }
+    }
+
+    void delete(PostCommitJob job) {
+        try {
+            Files.deleteIfExists(directory.resolve(job.getId() + COMMITTED));
+            Files.deleteIfExists(directory.resolve(job.getId() + PENDING));
+        } catch (IOException e) {
+            logger.error("Removing post commit job {} of {} failed: {}", job.getId(), job.getEntityId(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return jobs in the order they were prepared
+     */
+    List<PostCommitJob> loadAll() throws IOException {
+        List<PostCommitJob> jobs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*{" + PENDING + "," + COMMITTED + "}")) {
+            for (Path file : files) {
+                try {
+                    PostCommitJob job = objectMapper.readValue(file.toFile(), PostCommitJob.class);
+                    job.setCommitted(file.getFileName().toString().endsWith(COMMITTED));
+                    jobs.add(job);
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable post commit job {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        jobs.sort(Comparator.comparing(PostCommitJob::getId));
+        return jobs;
+    }
+}
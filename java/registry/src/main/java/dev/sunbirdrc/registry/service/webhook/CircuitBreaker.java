@@ -0,0 +1,50 @@
+package dev.sunbirdrc.registry.service.webhook;
+
+/**
+ * Opens after failureThreshold consecutive failures and rejects requests for openDurationMillis.
+ * Once that elapses a single trial request is let through, which closes the circuit on success or opens it again on failure.
+ */
+class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openDurationMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    synchronized boolean allowRequest(long now) {
+        if (consecutiveFailures < failureThreshold) {
+            return true;
+        }
+        if (now < openUntil || trialInFlight) {
+            return false;
+        }
+        trialInFlight = true;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure(long now) {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (consecutiveFailures >= failureThreshold) {
+            openUntil = now + openDurationMillis;
+        }
+    }
+
+    synchronized boolean isOpen(long now) {
+        return consecutiveFailures >= failureThreshold && now < openUntil;
+    }
+
+    synchronized long getOpenUntil() {
+        return openUntil;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.sunbirdrc.registry.service.webhook;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A serialized webhook event pending delivery to its endpoint
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WebhookDelivery {
+    private String id;
+    private String url;
+    private String body;
+    private int attempts;
+}
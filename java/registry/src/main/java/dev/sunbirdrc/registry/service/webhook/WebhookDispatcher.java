@@ -0,0 +1,341 @@
+package dev.sunbirdrc.registry.service.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.model.dto.WebhookEvent;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers webhook events without blocking the caller. Every endpoint gets a bounded queue, a limit on concurrent
+ * requests and a circuit breaker, so a slow or failing subscriber only delays its own events.
+ * Failed deliveries are retried with exponential backoff and jitter up to maxAttempts. When retryStorePath is set
+ * pending deliveries are kept on disk and resumed on the next start. A delivery is stored before it is queued, the
+ * updates once it is sent are written by a thread of their own, as the completion of a request runs on the I/O thread
+ * of the http client.
+ */
+@Component
+public class WebhookDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    @Value("${webhook.enabled:false}")
+    private boolean webhookEnabled;
+    @Value("${webhook.dispatcher.queueCapacity:10000}")
+    private int queueCapacity;
+    @Value("${webhook.dispatcher.maxConcurrency:4}")
+    private int maxConcurrency;
+    @Value("${webhook.dispatcher.batchSize:1}")
+    private int batchSize;
+    @Value("${webhook.dispatcher.maxAttempts:8}")
+    private int maxAttempts;
+    @Value("${webhook.dispatcher.backoff.initialDelay:500}")
+    private long initialBackoffMillis;
+    @Value("${webhook.dispatcher.backoff.maxDelay:60000}")
+    private long maxBackoffMillis;
+    @Value("${webhook.dispatcher.circuitBreaker.failureThreshold:5}")
+    private int failureThreshold;
+    @Value("${webhook.dispatcher.circuitBreaker.openDuration:30000}")
+    private long openDurationMillis;
+    @Value("${webhook.dispatcher.timeout:10000}")
+    private int timeoutMillis;
+    @Value("${webhook.dispatcher.retryStorePath:}")
+    private String retryStorePath;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private CloseableHttpAsyncClient httpClient;
+    private ScheduledExecutorService scheduler;
+    private WebhookRetryStore retryStore;
+    private ExecutorService retryStoreWriter;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!webhookEnabled) {
+            return;
+        }
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .build();
+        httpClient = HttpAsyncClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setMaxConnPerRoute(maxConcurrency)
+                .setMaxConnTotal(Math.max(maxConcurrency, 100))
+                .build();
+        httpClient.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (StringUtils.isNotEmpty(retryStorePath)) {
+            retryStore = new WebhookRetryStore(Paths.get(retryStorePath), objectMapper);
+            retryStoreWriter = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "webhook-retry-store");
+                thread.setDaemon(true);
+                return thread;
+            });
+            List<WebhookDelivery> pending = retryStore.loadAll();
+            logger.info("Resuming {} pending webhook deliveries", pending.size());
+            for (WebhookDelivery delivery : pending) {
+                enqueue(delivery);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        if (retryStoreWriter != null) {
+            // an update that isn't written is safe, the delivery is sent again or with an older count of attempts
+            retryStoreWriter.shutdown();
+            try {
+                retryStoreWriter.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues the event for delivery to its webhookUrl
+     *
+     * @return false when the event is dropped because the queue of the endpoint is full
+     */
+    public boolean dispatch(WebhookEvent event) throws JsonProcessingException {
+        if (httpClient == null) {
+            logger.info("Webhook service is disabled");
+            return false;
+        }
+        if (StringUtils.isEmpty(event.getWebhookUrl())) {
+            logger.error("Dropping webhook event {} without url", event.getEvent());
+            return false;
+        }
+        WebhookDelivery delivery = new WebhookDelivery(UUID.randomUUID().toString(), event.getWebhookUrl(),
+                objectMapper.writeValueAsString(event), 0);
+        if (retryStore != null) {
+            retryStore.save(delivery);
+        }
+        return enqueue(delivery);
+    }
+
+    private boolean enqueue(WebhookDelivery delivery) {
+        Endpoint endpoint = endpoints.computeIfAbsent(delivery.getUrl(), Endpoint::new);
+        if (!endpoint.queue.offer(delivery)) {
+            logger.error("Webhook queue of {} is full, dropping event {}", delivery.getUrl(), delivery.getId());
+            forget(delivery);
+            return false;
+        }
+        endpoint.drain();
+        return true;
+    }
+
+    private void forget(WebhookDelivery delivery) {
+        updateRetryStore(() -> retryStore.delete(delivery));
+    }
+
+    /**
+     * Writes the update on the thread of the store, in the order updates are made
+     */
+    private void updateRetryStore(Runnable update) {
+        if (retryStore == null) {
+            return;
+        }
+        try {
+            retryStoreWriter.execute(update);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Webhook retry store is closed, skipping an update");
+        }
+    }
+
+    long backoff(int attempts) {
+        long delay = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    int getPendingCount(String url) {
+        Endpoint endpoint = endpoints.get(url);
+        return endpoint == null ? 0 : endpoint.pendingCount();
+    }
+
+    boolean isCircuitOpen(String url) {
+        Endpoint endpoint = endpoints.get(url);
+        return endpoint != null && endpoint.circuitBreaker.isOpen(System.currentTimeMillis());
+    }
+
+    private class Endpoint {
+        private final String url;
+        private final BlockingQueue<WebhookDelivery> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Deque<List<WebhookDelivery>> retries = new ArrayDeque<>();
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMillis);
+        private int inFlight;
+        private int scheduledRetries;
+        private boolean drainScheduled;
+
+        Endpoint(String url) {
+            this.url = url;
+        }
+
+        synchronized void drain() {
+            while (inFlight < maxConcurrency && (!retries.isEmpty() || !queue.isEmpty())) {
+                long now = System.currentTimeMillis();
+                if (!circuitBreaker.allowRequest(now)) {
+                    // while the trial request of a half open circuit is in flight its completion drains again
+                    if (circuitBreaker.isOpen(now) && !drainScheduled) {
+                        drainScheduled = true;
+                        schedule(() -> {
+                            synchronized (this) {
+                                drainScheduled = false;
+                            }
+                            drain();
+                        }, circuitBreaker.getOpenUntil() - now);
+                    }
+                    return;
+                }
+                List<WebhookDelivery> batch = retries.poll();
+                if (batch == null) {
+                    batch = new ArrayList<>(batchSize);
+                    queue.drainTo(batch, batchSize);
+                }
+                send(batch);
+            }
+        }
+
+        synchronized int pendingCount() {
+            int count = queue.size() + inFlight + scheduledRetries;
+            for (List<WebhookDelivery> batch : retries) {
+                count += batch.size();
+            }
+            return count;
+        }
+
+        private void send(List<WebhookDelivery> batch) {
+            String body;
+            if (batchSize > 1) {
+                List<String> bodies = new ArrayList<>(batch.size());
+                batch.forEach(delivery -> bodies.add(delivery.getBody()));
+                body = "[" + String.join(",", bodies) + "]";
+            } else {
+                body = batch.get(0).getBody();
+            }
+            HttpPost post;
+            try {
+                post = new HttpPost(url);
+            } catch (IllegalArgumentException e) {
+                logger.error("Dropping webhook events for invalid url {}: {}", url, e.getMessage());
+                batch.forEach(WebhookDispatcher.this::forget);
+                return;
+            }
+            post.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+            inFlight++;
+            httpClient.execute(post, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    int status = response.getStatusLine().getStatusCode();
+                    if (status >= 200 && status < 300) {
+                        onDelivered(batch);
+                    } else {
+                        onFailed(batch, "status " + status);
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    onFailed(batch, ExceptionUtils.getRootCauseMessage(e));
+                }
+
+                @Override
+                public void cancelled() {
+                    onFailed(batch, "cancelled");
+                }
+            });
+        }
+
+        private void onDelivered(List<WebhookDelivery> batch) {
+            synchronized (this) {
+                inFlight--;
+                circuitBreaker.onSuccess();
+            }
+            batch.forEach(WebhookDispatcher.this::forget);
+            drain();
+        }
+
+        private void onFailed(List<WebhookDelivery> batch, String reason) {
+            List<WebhookDelivery> retry = new ArrayList<>(batch.size());
+            for (WebhookDelivery delivery : batch) {
+                delivery.setAttempts(delivery.getAttempts() + 1);
+                if (delivery.getAttempts() >= maxAttempts) {
+                    logger.error("Giving up webhook event {} to {} after {} attempts: {}", delivery.getId(), url, delivery.getAttempts(), reason);
+                    forget(delivery);
+                } else {
+                    updateRetryStore(() -> retryStore.save(delivery));
+                    retry.add(delivery);
+                }
+            }
+            synchronized (this) {
+                inFlight--;
+                scheduledRetries += retry.size();
+                circuitBreaker.onFailure(System.currentTimeMillis());
+            }
+            if (!retry.isEmpty()) {
+                long delay = backoff(retry.get(0).getAttempts());
+                logger.warn("Webhook delivery to {} failed ({}), retrying {} events in {} ms", url, reason, retry.size(), delay);
+                schedule(() -> {
+                    synchronized (this) {
+                        scheduledRetries -= retry.size();
+                        retries.add(retry);
+                    }
+                    drain();
+                }, delay);
+            }
+            drain();
+        }
+
+        private void schedule(Runnable task, long delayMillis) {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(task, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.sunbirdrc.registry.service.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every pending delivery as a json file in a local directory, so that deliveries survive a restart.
+ * A file is written when the event is dispatched, rewritten on every failed attempt and removed once the event is
+ * delivered or given up.
+ */
+class WebhookRetryStore {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookRetryStore.class);
+    private static final String EXTENSION = ".json";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    WebhookRetryStore(Path directory, ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.objectMapper = objectMapper;
+    }
+
+    void save(WebhookDelivery delivery) {
+        try {
+            Path temp = directory.resolve(delivery.getId() + ".tmp");
+            Files.write(temp, objectMapper.writeValueAsBytes(delivery));
+            Files.move(temp, directory.resolve(delivery.getId() + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Persisting webhook delivery {} failed: {}", delivery.getId(), ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    void delete(WebhookDelivery delivery) {
+        try {
+            Files.deleteIfExists(directory.resolve(delivery.getId() + EXTENSION));
+        } catch (IOException e) {
+            logger.error("Removing webhook delivery {} failed: {}", delivery.getId(), ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    List<WebhookDelivery> loadAll() throws IOException {
+        List<WebhookDelivery> deliveries = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                try {
+                    deliveries.add(objectMapper.readValue(file.toFile(), WebhookDelivery.class));
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable webhook delivery {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        return deliveries;
+    }
+}
@@ -24,6 +24,7 @@ public abstract class DatabaseProvider implements HealthIndicator {
     private Constants.GraphDatabaseProvider provider;
     private String uuidPropertyName;
     private Optional<Boolean> supportsTransaction = Optional.empty();
+    private volatile boolean ownerIndexReady;
 
     private static Logger logger = LoggerFactory.getLogger(DatabaseProvider.class);
 
@@ -159,6 +160,25 @@ public abstract class DatabaseProvider implements HealthIndicator {
         //Does nothing, suppose to be overridden by extended classes.
     }
 
+    /**
+     * Creates the label with the given string properties and a non unique index on each of them, unlike createIndex
+     * the label need not have any vertex yet
+     */
+    public void ensureIndexedLabel(Graph graph, String label, List<String> propertyNames) {
+        //Does nothing, suppose to be overridden by extended classes.
+    }
+
+    /**
+     * Whether every record of this database is in the owner index, so that owner lookups can use it
+     */
+    public boolean isOwnerIndexReady() {
+        return ownerIndexReady;
+    }
+
+    public void setOwnerIndexReady(boolean ownerIndexReady) {
+        this.ownerIndexReady = ownerIndexReady;
+    }
+
     public Constants.GraphDatabaseProvider getProvider() {
         return this.provider;
     }
@@ -9,6 +9,7 @@ import org.apache.tinkerpop.gremlin.structure.*;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.structure.PropertyType;
 import org.umlg.sqlg.structure.SqlgGraph;
 import org.umlg.sqlg.structure.topology.*;
 
@@ -97,6 +98,16 @@ public class SqlgProvider extends DatabaseProvider {
 		}
     }
 
+    @Override
+    public void ensureIndexedLabel(Graph graph, String label, List<String> propertyNames) {
+        Map<String, PropertyType> columns = new LinkedHashMap<>();
+        propertyNames.forEach(propertyName -> columns.put(propertyName, PropertyType.STRING));
+        VertexLabel vertexLabel = ((SqlgGraph) graph).getTopology().ensureVertexLabelExist(label, columns);
+        for (String propertyName : propertyNames) {
+            ensureIndex(vertexLabel, IndexType.NON_UNIQUE, Collections.singletonList(vertexLabel.getProperty(propertyName).get()));
+        }
+    }
+
     /**
      * creates sqlg index for a given index type(unique/non-unique)
      *
@@ -1,6 +1,8 @@
 package dev.sunbirdrc.registry.sink;
 
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,6 +10,7 @@ import org.springframework.core.env.Environment;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.util.List;
 
 public class TinkerGraphProvider extends DatabaseProvider {
 
@@ -43,6 +46,14 @@ public class TinkerGraphProvider extends DatabaseProvider {
 		return osGraph;
 	}
 
+	@Override
+	public void ensureIndexedLabel(Graph graph, String label, List<String> propertyNames) {
+		// tinkergraph indices are per property key across all labels
+		for (String propertyName : propertyNames) {
+			((TinkerGraph) graph).createIndex(propertyName, Vertex.class);
+		}
+	}
+
 	@Override
 	public Constants.GraphDatabaseProvider getProvider() {
 		return super.getProvider();
@@ -36,12 +36,14 @@ public class ShardManager {
 	private Shard activateDbShard(Object attributeValue) {
 		DBConnectionInfo connectionInfo = shardAdvisor.getShard(attributeValue);
 		DatabaseProvider databaseProvider = dbProviderFactory.getInstance(connectionInfo);
-		shard = new Shard();
-		shard.setShardId(connectionInfo.getShardId());
-		shard.setShardLabel(connectionInfo.getShardLabel());
-		shard.setDatabaseProvider(databaseProvider);
+		Shard activatedShard = new Shard();
+		activatedShard.setShardId(connectionInfo.getShardId());
+		activatedShard.setShardLabel(connectionInfo.getShardLabel());
+		activatedShard.setDatabaseProvider(databaseProvider);
+		shard = activatedShard;
 		logger.info("Activated shard "+connectionInfo.getShardId()+" for attribute value "+attributeValue);
-		return shard;
+		// return the local instance, the field may already be replaced by a concurrent consumer
+		return activatedShard;
 	}
 
 	public String getShardProperty() {
@@ -56,11 +58,10 @@ public class ShardManager {
 	public Shard getShard(Object attributeValue) {
 
 		if(attributeValue != null){
-			activateDbShard(attributeValue);
+			return activateDbShard(attributeValue);
 		}else{
-			activateDbShard(null);
+			return activateDbShard(null);
 		}
-		return shard;
 	}
 	/**
 	 * Default shard return first shard.
@@ -102,6 +103,7 @@ public class ShardManager {
 			DBConnectionInfo connectionInfo = dbConnectionInfoMgr.getDBConnectionInfo(shardId);
 			DatabaseProvider databaseProvider = dbProviderFactory.getInstance(connectionInfo);
 			thisShard.setShardId(connectionInfo.getShardId());
+			thisShard.setShardLabel(connectionInfo.getShardLabel());
 			thisShard.setDatabaseProvider(databaseProvider);
 		}
 
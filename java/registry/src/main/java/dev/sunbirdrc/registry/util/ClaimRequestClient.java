@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.sunbirdrc.pojos.dto.ClaimDTO;
 import dev.sunbirdrc.registry.controller.RegistryController;
+import dev.sunbirdrc.registry.service.impl.OutboundHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,16 +25,19 @@ public class ClaimRequestClient {
     private static Logger logger = LoggerFactory.getLogger(RegistryController.class);
     private final String claimRequestUrl;
     private final RestTemplate restTemplate;
+    private final OutboundHttpClient outboundHttpClient;
     private static final String CLAIMS_PATH = "/api/v1/claims";
     private static final String FETCH_CLAIMS_PATH = "/api/v1/getClaims";
 
-    ClaimRequestClient(@Value("${claims.url}") String claimRequestUrl, RestTemplate restTemplate) {
+    ClaimRequestClient(@Value("${claims.url}") String claimRequestUrl, RestTemplate restTemplate, OutboundHttpClient outboundHttpClient) {
         this.claimRequestUrl = claimRequestUrl;
         this.restTemplate = restTemplate;
+        this.outboundHttpClient = outboundHttpClient;
     }
 
     public HashMap<String, Object> riseClaimRequest(ClaimDTO claimDTO) {
-        HashMap<String, Object> hashMap = restTemplate.postForObject(claimRequestUrl + CLAIMS_PATH, claimDTO, HashMap.class);
+        HashMap<String, Object> hashMap = outboundHttpClient.executeOnce(claimRequestUrl,
+                () -> restTemplate.postForObject(claimRequestUrl + CLAIMS_PATH, claimDTO, HashMap.class));
         logger.info("Claim has successfully risen {}", hashMap.toString());
         return hashMap;
     }
@@ -43,22 +47,24 @@ public class ClaimRequestClient {
         ObjectNode requestBody = JsonNodeFactory.instance.objectNode();
         requestBody.set("attestorInfo", jsonNode);
         requestBody.put("entity", entityName);
-        return restTemplate.postForObject(claimRequestUrl + FETCH_CLAIMS_PATH + QUERY_PARAMS, requestBody, JsonNode.class);
+        return outboundHttpClient.execute(claimRequestUrl,
+                () -> restTemplate.postForObject(claimRequestUrl + FETCH_CLAIMS_PATH + QUERY_PARAMS, requestBody, JsonNode.class));
     }
 
     public JsonNode getClaim(JsonNode jsonNode, String entityName, String claimId) {
         ObjectNode requestBody = JsonNodeFactory.instance.objectNode();
         requestBody.set("attestorInfo", jsonNode);
         requestBody.put("entity", entityName);
-        return restTemplate.postForObject(claimRequestUrl + FETCH_CLAIMS_PATH + "/" + claimId, requestBody, JsonNode.class);
+        return outboundHttpClient.execute(claimRequestUrl,
+                () -> restTemplate.postForObject(claimRequestUrl + FETCH_CLAIMS_PATH + "/" + claimId, requestBody, JsonNode.class));
     }
 
     public ResponseEntity<Object> attestClaim(JsonNode attestationRequest, String claimId) {
-        return restTemplate.exchange(
+        return outboundHttpClient.executeOnce(claimRequestUrl, () -> restTemplate.exchange(
                 claimRequestUrl + CLAIMS_PATH + "/" + claimId,
                 HttpMethod.POST,
                 new HttpEntity<>(attestationRequest),
                 Object.class
-        );
+        ));
     }
 }
@@ -44,16 +44,16 @@ public class DistributedDefinitionsManager implements IDefinitionsManager {
         OSResourceLoader osResourceLoader = new OSResourceLoader(resourceLoader);
         osResourceLoader.loadResource(resourceLocation);
 
+        // the schemas are written to redis together in one round trip once all of them are parsed
+        List<String> keysAndSchemas = new ArrayList<>();
         for (Map.Entry<String, String> entry : osResourceLoader.getNameContent().entrySet()) {
             String filename = entry.getKey();
             String filenameWithoutExtn = filename.substring(0, filename.indexOf('.'));
             String schemaAsText = entry.getValue();
             JsonNode schemaJson = objectMapper.readTree(schemaAsText);
             Definition definition = new Definition(schemaJson);
-            try(Jedis jedis = jedisPool.getResource()) {
-                jedis.set(SCHEMA + definition.getTitle(), schemaAsText);
-                jedis.set(SCHEMA + filenameWithoutExtn, schemaAsText);
-            }
+            Collections.addAll(keysAndSchemas, SCHEMA + definition.getTitle(), schemaAsText,
+                    SCHEMA + filenameWithoutExtn, schemaAsText);
 
             logger.info("loading resource:" + entry.getKey() + " with private field size:"
                     + definition.getOsSchemaConfiguration().getPrivateFields().size() + " & signed fields size:"
@@ -61,6 +61,11 @@ public class DistributedDefinitionsManager implements IDefinitionsManager {
             internalSchemas.add(definition.getTitle());
             internalSchemas.add(filenameWithoutExtn);
         }
+        if (!keysAndSchemas.isEmpty()) {
+            try(Jedis jedis = jedisPool.getResource()) {
+                jedis.mset(keysAndSchemas.toArray(new String[0]));
+            }
+        }
     }
 
     @Override
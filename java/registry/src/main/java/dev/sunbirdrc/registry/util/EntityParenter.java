@@ -1,19 +1,22 @@
 package dev.sunbirdrc.registry.util;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import dev.sunbirdrc.pojos.UniqueIdentifierField;
 import dev.sunbirdrc.registry.dao.VertexWriter;
 import dev.sunbirdrc.registry.exception.CustomException;
-import dev.sunbirdrc.registry.exception.IndexException;
 import dev.sunbirdrc.registry.exception.SchemaException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
 import dev.sunbirdrc.registry.model.DBConnectionInfo;
 import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
-import dev.sunbirdrc.registry.model.IndexFields;
 import dev.sunbirdrc.registry.service.IIdGenService;
 import dev.sunbirdrc.registry.sink.DBProviderFactory;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
 import dev.sunbirdrc.registry.sink.OSGraph;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -21,19 +24,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component("entityParenter")
 public class EntityParenter {
     private static Logger logger = LoggerFactory.getLogger(EntityParenter.class);
-
-    @Autowired
-    private IndexHelper indexHelper;
+    private static final int OWNER_INDEX_BACKFILL_BATCH_SIZE = 1000;
 
     @Value("${database.uuidPropertyName}")
     public String uuidPropertyName;
@@ -52,14 +56,18 @@ public class EntityParenter {
     private Set<String> defintionNames;
     private List<DBConnectionInfo> dbConnectionInfoList;
 
+    @Value("${database.ownerIndex.verifyDelay:300000}")
+    private long ownerIndexVerifyDelay;
+    private final ScheduledExecutorService ownerIndexVerifier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "owner-index-verifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * Holds information about a shard and a list of definitionParents
      */
-    private HashMap<String, ShardParentInfoList> shardParentMap = new HashMap<>();
-    /**
-     * Holds information for all definitions and it's indices
-     */
-    private Map<String, IndexFields> definitionIndexFields = new ConcurrentHashMap<String, IndexFields>();
+    private Map<String, ShardParentInfoList> shardParentMap = new ConcurrentHashMap<>();
 
 
     @Autowired
@@ -71,94 +79,6 @@ public class EntityParenter {
         dbConnectionInfoList = this.dbConnectionInfoMgr.getConnectionInfo();
     }
 
-    /**
-     * Loads all the definitions for each shard
-     */
-    public void loadDefinitionIndex() {
-        Map<String, Boolean> indexMap = new ConcurrentHashMap<String, Boolean>();
-
-
-        for (Map.Entry<String, ShardParentInfoList> entry : shardParentMap.entrySet()) {
-            String shardId = entry.getKey();
-            ShardParentInfoList shardParentInfoList = entry.getValue();
-            shardParentInfoList.getParentInfos().forEach(shardParentInfo -> {
-                Definition definition = definitionsManager.getDefinition(shardParentInfo.getName());
-                Vertex parentVertex = shardParentInfo.getVertex();
-                List<String> indexFields = definition.getOsSchemaConfiguration().getIndexFields();
-                if (!indexFields.contains(uuidPropertyName)) {
-                    indexFields.add(uuidPropertyName); // adds default field
-                    // (uuid)
-                }
-                List<String> compositeIndexFields = IndexHelper.getCompositeIndexFields(indexFields);
-                List<String> uniqueIndexFields = definition.getOsSchemaConfiguration().getUniqueIndexFields();
-                List<String> compositeUniqueIndexFields = IndexHelper.getCompositeIndexFields(uniqueIndexFields);
-                List<String> singleIndexFields = IndexHelper.getSingleIndexFields(indexFields);
-                List<String> indexUniqueFields = IndexHelper.getSingleIndexFields(uniqueIndexFields);
-
-                IndexFields indicesByDefinition = new IndexFields();
-                indicesByDefinition.setDefinitionName(definition.getTitle());
-                indicesByDefinition.setIndexFields(indexFields);
-                indicesByDefinition.setUniqueIndexFields(indexUniqueFields);
-                indicesByDefinition.setNewSingleIndexFields(indexHelper.getNewFields(parentVertex, singleIndexFields, false));
-                indicesByDefinition.setNewCompositeIndexFields(indexHelper.getNewFields(parentVertex, compositeIndexFields, false));
-                indicesByDefinition.setNewUniqueIndexFields(indexHelper.getNewFields(parentVertex, indexUniqueFields, true));
-                indicesByDefinition.setNewCompositeUniqueIndexFields(indexHelper.getNewFields(parentVertex, compositeUniqueIndexFields, true));
-
-                int nNewIndices = indicesByDefinition.getNewSingleIndexFields().size();
-                int nNewUniqIndices = indicesByDefinition.getNewUniqueIndexFields().size();
-                int nNewCompIndices = indicesByDefinition.getNewCompositeIndexFields().size();
-                int nNewCompUniqueIndices = indicesByDefinition.getNewCompositeUniqueIndexFields().size();
-
-                boolean indexingComplete = (nNewIndices == 0 && nNewUniqIndices == 0 && nNewCompIndices == 0 && nNewCompUniqueIndices == 0);
-                indexHelper.updateDefinitionIndex(shardId, definition.getTitle(), indexingComplete);
-                logger.info("On loadDefinitionIndex for Shard:" + shardId + " definition: {} updated index to {} ",
-                        definition.getTitle(), indexingComplete);
-
-                definitionIndexFields.put(indicesByDefinition.getDefinitionName(), indicesByDefinition);
-
-            });
-
-        }
-        indexHelper.setDefinitionIndexMap(indexMap);
-    }
-
-    public void loadDefinitionIndex(String label, String shardId) {
-        ShardParentInfo shardParentInfo = shardParentMap.get(shardId).getParentInfos().stream().filter(d -> Objects.equals(d.getName(), label)).findAny().get();
-        Definition definition = definitionsManager.getDefinition(shardParentInfo.getName());
-        Vertex parentVertex = shardParentInfo.getVertex();
-        List<String> indexFields = definition.getOsSchemaConfiguration().getIndexFields();
-        if (!indexFields.contains(uuidPropertyName)) {
-            indexFields.add(uuidPropertyName); // adds default field
-            // (uuid)
-        }
-        List<String> compositeIndexFields = IndexHelper.getCompositeIndexFields(indexFields);
-        List<String> uniqueIndexFields = definition.getOsSchemaConfiguration().getUniqueIndexFields();
-        List<String> compositeUniqueIndexFields = IndexHelper.getCompositeIndexFields(uniqueIndexFields);
-        List<String> singleIndexFields = IndexHelper.getSingleIndexFields(indexFields);
-        List<String> indexUniqueFields = IndexHelper.getSingleIndexFields(uniqueIndexFields);
-
-        IndexFields indicesByDefinition = new IndexFields();
-        indicesByDefinition.setDefinitionName(definition.getTitle());
-        indicesByDefinition.setIndexFields(indexFields);
-        indicesByDefinition.setUniqueIndexFields(indexUniqueFields);
-        indicesByDefinition.setNewSingleIndexFields(indexHelper.getNewFields(parentVertex, singleIndexFields, false));
-        indicesByDefinition.setNewCompositeIndexFields(indexHelper.getNewFields(parentVertex, compositeIndexFields, false));
-        indicesByDefinition.setNewUniqueIndexFields(indexHelper.getNewFields(parentVertex, indexUniqueFields, true));
-        indicesByDefinition.setNewCompositeUniqueIndexFields(indexHelper.getNewFields(parentVertex, compositeUniqueIndexFields, true));
-
-        int nNewIndices = indicesByDefinition.getNewSingleIndexFields().size();
-        int nNewUniqIndices = indicesByDefinition.getNewUniqueIndexFields().size();
-        int nNewCompIndices = indicesByDefinition.getNewCompositeIndexFields().size();
-        int nNewCompUniqueIndices = indicesByDefinition.getNewCompositeUniqueIndexFields().size();
-
-        boolean indexingComplete = (nNewIndices == 0 && nNewUniqIndices == 0 && nNewCompIndices == 0 && nNewCompUniqueIndices == 0);
-        indexHelper.updateDefinitionIndex(shardId, definition.getTitle(), indexingComplete);
-        logger.info("On loadDefinitionIndex for Shard:" + shardId + " definition: {} updated index to {} ",
-                definition.getTitle(), indexingComplete);
-
-        definitionIndexFields.put(indicesByDefinition.getDefinitionName(), indicesByDefinition);
-    }
-
     /**
      * Creates the parent vertex in all the shards for all default definitions
      *
@@ -166,49 +86,48 @@ public class EntityParenter {
      */
     public Optional<String> ensureKnownParenters() {
         logger.info("Start - ensure parent node for defined schema");
-        Optional<String> result;
-
-        dbConnectionInfoList.forEach(dbConnectionInfo -> {
-            logger.info("Starting to parents for {} definitions in shard {}", defintionNames.size(),
-                    dbConnectionInfo.getShardId());
-            DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
-            try {
-                try (OSGraph osGraph = dbProvider.getOSGraph()) {
-                    Graph graph = osGraph.getGraphStore();
-                    List<ShardParentInfo> shardParentInfoList = new ArrayList<>();
-                    try (Transaction tx = dbProvider.startTransaction(graph)) {
-
-                        List<String> parentLabels = new ArrayList<>();
-                        defintionNames.forEach(defintionName -> {
-                            String parentLabel = ParentLabelGenerator.getLabel(defintionName);
-                            parentLabels.add(parentLabel);
+        dbConnectionInfoList.forEach(this::ensureKnownParenters);
+        logger.info("End - ensure parent node for defined schema");
+        return Optional.empty();
+    }
 
-                            VertexWriter vertexWriter = new VertexWriter(graph, dbProvider, uuidPropertyName);
-                            Vertex v = vertexWriter.ensureParentVertex(parentLabel);
+    /**
+     * Creates the parent vertex in the shard for all default definitions, shards can be handled concurrently
+     *
+     * @param dbConnectionInfo
+     */
+    public void ensureKnownParenters(DBConnectionInfo dbConnectionInfo) {
+        logger.info("Starting to parents for {} definitions in shard {}", defintionNames.size(),
+                dbConnectionInfo.getShardId());
+        DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
+        try {
+            try (OSGraph osGraph = dbProvider.getOSGraph()) {
+                Graph graph = osGraph.getGraphStore();
+                List<ShardParentInfo> shardParentInfoList = new ArrayList<>();
+                try (Transaction tx = dbProvider.startTransaction(graph)) {
+                    VertexWriter vertexWriter = new VertexWriter(graph, dbProvider, uuidPropertyName);
+                    defintionNames.forEach(defintionName -> {
+                        String parentLabel = ParentLabelGenerator.getLabel(defintionName);
+                        Vertex v = vertexWriter.ensureParentVertex(parentLabel);
 
-                            ShardParentInfo shardParentInfo = new ShardParentInfo(defintionName, v);
-                            shardParentInfo.setUuid(dbProvider.getId(v));
-                            shardParentInfoList.add(shardParentInfo);
-                        });
+                        ShardParentInfo shardParentInfo = new ShardParentInfo(defintionName, v);
+                        shardParentInfo.setUuid(dbProvider.getId(v));
+                        shardParentInfoList.add(shardParentInfo);
+                    });
 
-                        ShardParentInfoList valList = new ShardParentInfoList();
-                        valList.setParentInfos(shardParentInfoList);
+                    ShardParentInfoList valList = new ShardParentInfoList();
+                    valList.setParentInfos(shardParentInfoList);
 
-                        shardParentMap.put(dbConnectionInfo.getShardId(), valList);
+                    shardParentMap.put(dbConnectionInfo.getShardId(), valList);
 
-                        dbProvider.commitTransaction(graph, tx);
-                    }
-                    logger.info("Ensured parents for {} definitions in shard {}", defintionNames.size(),
-                            dbConnectionInfo.getShardId());
+                    dbProvider.commitTransaction(graph, tx);
                 }
-            } catch (Exception e) {
-                logger.error("Can't ensure parents for definitions: {}", ExceptionUtils.getStackTrace(e));
+                logger.info("Ensured parents for {} definitions in shard {}", defintionNames.size(),
+                        dbConnectionInfo.getShardId());
             }
-        });
-
-        logger.info("End - ensure parent node for defined schema");
-        result = Optional.empty();
-        return result;
+        } catch (Exception e) {
+            logger.error("Can't ensure parents for definitions: {}", ExceptionUtils.getStackTrace(e));
+        }
     }
 
     public void ensureKnownParenter(String definitionName, Graph graph, DatabaseProvider dbProvider, String shardId) {
@@ -257,116 +176,115 @@ public class EntityParenter {
     }
 
     /**
-     * Indices gets added
+     * Creates the owner index in every shard and adds the records missing from it. Owner lookups of a shard use the
+     * index only once a pass over the records finds none missing, until then they scan the records. A pass that had
+     * to add records is repeated after a delay, since records written meanwhile by instances without the index (a
+     * rolling deploy) may still be missing.
      */
-    public void ensureIndexExists() {
-        dbConnectionInfoList.forEach(dbConnectionInfo -> {
-            DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
-
-            for (Map.Entry<String, ShardParentInfoList> entry : shardParentMap.entrySet()) {
-                List<ShardParentInfo> shardParentInfoList = entry.getValue().getParentInfos();
-                shardParentInfoList.forEach(shardParentInfo -> {
-                    Definition definition = definitionsManager.getDefinition(shardParentInfo.getName());
-                    Vertex v = shardParentInfo.getVertex();
-                    ensureIndexExists(dbProvider, v, definition, dbConnectionInfo.getShardId());
-
-                });
-            }
-        });
-
+    public void ensureOwnerIndex() {
+        dbConnectionInfoList.forEach(this::ensureOwnerIndex);
     }
 
-    /**
-     * Ensures index for a vertex exists Unique index and non-unique index is (executes in a async way when it is called from other bean)
-     * supported
-     *
-     * @param dbProvider
-     * @param parentVertex
-     * @param definition
-     */
-    @Async("taskExecutor")
-    public void ensureIndexExists(DatabaseProvider dbProvider, Vertex parentVertex, Definition definition, String shardId) {
-        try {
-            logger.info("Ensuring index for definition {}", definition.getTitle());
-            if (!indexHelper.isIndexPresent(definition, shardId)) {
-                logger.info("Adding index to shard: {} for definition: {}", shardId, definition.getTitle());
-                asyncAddIndex(dbProvider, shardId, parentVertex, definition);
+    public void ensureOwnerIndex(DBConnectionInfo dbConnectionInfo) {
+        DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
+        try (OSGraph osGraph = dbProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = dbProvider.startTransaction(graph)) {
+                dbProvider.ensureIndexedLabel(graph, Constants.OWNER_INDEX_LABEL,
+                        Arrays.asList(Constants.OWNER_INDEX_OWNER, Constants.OWNER_INDEX_ENTITY_ID));
+                dbProvider.commitTransaction(graph, tx);
+            }
+            int updated = backfillOwnerIndex(dbProvider, graph, dbConnectionInfo.getShardId());
+            if (updated == 0) {
+                logger.info("Owner index of shard {} is verified, owner lookups use it", dbConnectionInfo.getShardId());
+                dbProvider.setOwnerIndexReady(true);
+            } else {
+                logger.info("Updated {} records of shard {} in the owner index, verifying again in {} ms", updated,
+                        dbConnectionInfo.getShardId(), ownerIndexVerifyDelay);
+                scheduleOwnerIndexCheck(dbConnectionInfo);
             }
         } catch (Exception e) {
-            logger.error("ensureIndexExists: Can't create index on table {} for shardId {}: {}", definition.getTitle(),
-                    shardId, ExceptionUtils.getStackTrace(e));
+            logger.error("Can't ensure owner index in shard {}, owner lookups scan the records: {}",
+                    dbConnectionInfo.getShardId(), ExceptionUtils.getStackTrace(e));
+            scheduleOwnerIndexCheck(dbConnectionInfo);
         }
     }
 
     /**
-     * Adds indices to the given label(vertex/table) asynchronously
-     *
-     * @param dbProvider
-     * @param parentVertex
-     * @param definition
+     * Runs {@link #ensureOwnerIndex(DBConnectionInfo)} away from the caller, owner lookups scan the records meanwhile
      */
+    public void ensureOwnerIndexInBackground(DBConnectionInfo dbConnectionInfo) {
+        ownerIndexVerifier.execute(() -> ensureOwnerIndex(dbConnectionInfo));
+    }
 
-    private void asyncAddIndex(DatabaseProvider dbProvider, String shardId, Vertex parentVertex,
-            Definition definition) {
-        logger.debug("asyncAddIndex starts");
-        if (parentVertex != null && definition != null) {
-
-            IndexFields inxFields = definitionIndexFields.get(definition.getTitle());
-            if(inxFields == null) {
-                logger.info("Index Fields are null, reloading index fields for definition: {}", definition.getTitle());
-                this.loadDefinitionIndex(definition.getTitle(), shardId);
-                inxFields = definitionIndexFields.get(definition.getTitle());
-            }
-            try (OSGraph osGraph = dbProvider.getOSGraph()) {
-                Graph graph = osGraph.getGraphStore();
-                try (Transaction tx = dbProvider.startTransaction(graph)) {
+    private void scheduleOwnerIndexCheck(DBConnectionInfo dbConnectionInfo) {
+        if (!ownerIndexVerifier.isShutdown()) {
+            ownerIndexVerifier.schedule(() -> ensureOwnerIndex(dbConnectionInfo), ownerIndexVerifyDelay,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
 
-					Indexer indexer = new Indexer(dbProvider);
-					indexer.setSingleIndexFields(inxFields.getNewSingleIndexFields());
-					indexer.setCompositeIndexFields(inxFields.getNewCompositeIndexFields());
+    @PreDestroy
+    public void shutdown() {
+        ownerIndexVerifier.shutdownNow();
+    }
 
-					indexer.setUniqueIndexFields(inxFields.getNewUniqueIndexFields());
-					indexer.setCompositeUniqueIndexFields(inxFields.getNewCompositeUniqueIndexFields());
-                    indexer.createIndex(graph, definition.getTitle());
+    /**
+     * Pages through the records of every definition in uuid order and brings the owner index entries of each page in
+     * line with the osOwner of its records
+     *
+     * @return the number of records whose entries were missing or stale
+     */
+    private int backfillOwnerIndex(DatabaseProvider dbProvider, Graph graph, String shardId) {
+        String osOwner = OSSystemFields.osOwner.toString();
+        VertexWriter vertexWriter = new VertexWriter(graph, dbProvider, uuidPropertyName);
+        int updated = 0;
+        for (String definitionName : defintionNames) {
+            String cursor = "";
+            while (cursor != null) {
+                try (Transaction tx = dbProvider.startTransaction(graph)) {
+                    Map<String, Set<String>> owners = new LinkedHashMap<>();
+                    graph.traversal().V().hasLabel(definitionName).has(osOwner)
+                            .has(uuidPropertyName, P.gt(cursor)).order().by(uuidPropertyName)
+                            .limit(OWNER_INDEX_BACKFILL_BATCH_SIZE)
+                            .forEachRemaining(record -> owners.put(dbProvider.getId(record),
+                                    toOwners(record.value(osOwner))));
+                    cursor = owners.size() < OWNER_INDEX_BACKFILL_BATCH_SIZE ? null
+                            : new ArrayList<>(owners.keySet()).get(owners.size() - 1);
+                    if (owners.isEmpty()) {
+                        break;
+                    }
+                    Map<String, Set<String>> indexed = new HashMap<>();
+                    graph.traversal().V().hasLabel(Constants.OWNER_INDEX_LABEL)
+                            .has(Constants.OWNER_INDEX_ENTITY_ID, P.within(owners.keySet()))
+                            .forEachRemaining(entry -> indexed.computeIfAbsent(
+                                    entry.<String>value(Constants.OWNER_INDEX_ENTITY_ID), id -> new HashSet<>())
+                                    .add(entry.value(Constants.OWNER_INDEX_OWNER)));
+                    for (Map.Entry<String, Set<String>> record : owners.entrySet()) {
+                        if (!record.getValue().equals(indexed.getOrDefault(record.getKey(), Collections.emptySet()))) {
+                            ArrayNode ownersNode = JsonNodeFactory.instance.arrayNode();
+                            record.getValue().forEach(ownersNode::add);
+                            vertexWriter.updateOwnerIndex(definitionName, record.getKey(), ownersNode);
+                            updated++;
+                        }
+                    }
                     dbProvider.commitTransaction(graph, tx);
-
-                    updateParentVertexIndexProperties(dbProvider, parentVertex, inxFields.getIndexFields(), inxFields.getUniqueIndexFields());
-                    indexHelper.updateDefinitionIndex(shardId, definition.getTitle(), true);
                 }
-            } catch (IndexException.LabelNotFoundException ex) {
-                logger.warn(ex.getMessage());
-            } catch (Exception e) {
-                logger.error("Failed Transaction creating index {}: {}", definition.getTitle(), ExceptionUtils.getStackTrace(e));
             }
-
-        } else {
-            logger.info("No definition found for create index");
         }
-        logger.debug("asyncAddIndex ends");
+        logger.info("Checked the owner index of shard {}, updated {} records", shardId, updated);
+        return updated;
     }
 
-    /**
-     * Updates the group/parent vertex index properties.
-     *
-     * @param dbProvider
-     * @param indexFields
-     * @param indexUniqueFields
-     */
-    private void updateParentVertexIndexProperties(DatabaseProvider dbProvider, Vertex parentVertex,
-            List<String> indexFields, List<String> indexUniqueFields) throws Exception {
-
-        try (OSGraph osGraph = dbProvider.getOSGraph()) {
-            Graph graph = osGraph.getGraphStore();
-            try (Transaction tx = dbProvider.startTransaction(graph)) {
-
-                VertexWriter vertexWriter = new VertexWriter(graph, dbProvider, uuidPropertyName);
-                Vertex v = graph.vertices(parentVertex.id()).next();
-
-                vertexWriter.updateParentIndexProperty(v, Constants.INDEX_FIELDS, indexFields);
-                vertexWriter.updateParentIndexProperty(v, Constants.UNIQUE_INDEX_FIELDS, indexUniqueFields);
-                dbProvider.commitTransaction(graph, tx);
+    private static Set<String> toOwners(Object owners) {
+        JsonNode ownersNode = owners instanceof JsonNode ? (JsonNode) owners : ArrayHelper.constructArrayNode(owners.toString());
+        Set<String> uniqueOwners = new HashSet<>();
+        ownersNode.forEach(owner -> {
+            if (owner.isTextual() && !owner.textValue().isEmpty()) {
+                uniqueOwners.add(owner.textValue());
             }
-        }
+        });
+        return uniqueOwners;
     }
 
     public void saveIdFormat() throws SchemaException {
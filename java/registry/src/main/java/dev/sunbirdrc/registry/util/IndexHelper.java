@@ -1,126 +1,67 @@
 package dev.sunbirdrc.registry.util;
 
-import dev.sunbirdrc.registry.middleware.util.Constants;
-
-import org.apache.commons.lang3.StringUtils;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
-
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-@Component
+/**
+ * Computes the indices a definition asks for. Each index is named by a key of its type and fields, for example
+ * "index:name", "unique:email" or "index:name,city" for a composite index, and the keys are what the index catalog
+ * of a shard records once the index is created.
+ */
 public class IndexHelper {
-    private static Logger logger = LoggerFactory.getLogger(IndexHelper.class);
-
-    /**
-     * Holds mapping for each shard & each definitions and its index status 
-     * key = shardId+definitionName value = true/false
-     */
-    private Map<String, Boolean> definitionIndexMap = new ConcurrentHashMap<String, Boolean>();
-
-    public void setDefinitionIndexMap(Map<String, Boolean> definitionIndexMap) {
-        this.definitionIndexMap.putAll(definitionIndexMap);
-    }
-    
-    
+    static final String INDEX = "index";
+    static final String UNIQUE = "unique";
+    private static final String TYPE_SEPARATOR = ":";
+    private static final String FIELD_SEPARATOR = ",";
 
-    public void updateDefinitionIndex(String label, String definitionName, boolean flag) {
-        String key = label + definitionName;
-        definitionIndexMap.put(key, flag);
+    private IndexHelper() {
     }
 
     /**
-     * Checks any new index available for index creation
-     * 
-     * @param parentVertex
+     * Keys of the indices of the definition, the uuid property is always indexed
+     *
      * @param definition
+     * @param uuidPropertyName
      * @return
      */
-    public boolean isIndexPresent(Definition definition, String shardId) {
-        String defTitle = definition.getTitle();
-        boolean isIndexPresent = definitionIndexMap.getOrDefault(shardId + defTitle, false);
-        logger.debug("isIndexPresent flag for {}: {}", defTitle, isIndexPresent);
-        return isIndexPresent;
+    public static Set<String> getIndices(Definition definition, String uuidPropertyName) {
+        Set<String> indices = new LinkedHashSet<>();
+        indices.add(key(INDEX, Collections.singletonList(uuidPropertyName)));
+        definition.getOsSchemaConfiguration().getIndexFields()
+                .forEach(field -> indices.add(key(INDEX, getFields(field))));
+        definition.getOsSchemaConfiguration().getUniqueIndexFields()
+                .forEach(field -> indices.add(key(UNIQUE, getFields(field))));
+        return indices;
     }
 
-    /**
-     * Identifies new fields for creating index. Parent vertex are always have
-     * INDEX_FIELDS and UNIQUE_INDEX_FIELDS property
-     * 
-     * @param parentVertex
-     * @param fields
-     * @param isUnique
-     */
-    public List<String> getNewFields(Vertex parentVertex, List<String> fields, boolean isUnique) {
-        List<String> newFields = new ArrayList<>();
-        String propertyName = isUnique ? Constants.UNIQUE_INDEX_FIELDS : Constants.INDEX_FIELDS;
-        String values = "";
-        try {
-            values = (String) parentVertex.property(propertyName).value();
-        } catch (java.lang.IllegalStateException ise) {
-            // The property doesn't exist.
-            values = "";
-        }
-        for (String field : fields) {
-            if (!values.contains(field) && !newFields.contains(field))
-                newFields.add(field);
-        }
-        return newFields;
+    public static boolean isUnique(String index) {
+        return index.startsWith(UNIQUE + TYPE_SEPARATOR);
     }
 
-    /**
-     * extract values between "( values with comma separated )"
-     * @param fields
-     * @return
-     */
-    public static List<String> getCompositeIndexFields(List<String> fields) {
-		List<String> result = new ArrayList<String>();
-		if (fields.size() > 0) {
-
-			String[] commaSeparatedArr = null;
-			for (String field : fields) {
-
-				boolean containsCompositeValues = (field.indexOf("(") == 0)
-						&& (field.indexOf(")") == field.length() - 1);
-				if (containsCompositeValues) {
-					String commaSeperatedValues = field.substring(1, field.length() - 1);
-					commaSeparatedArr = commaSeperatedValues.split("\\s*,\\s*");
-
-				}
-			}
-			if (commaSeparatedArr != null) {
-				result = Arrays.stream(commaSeparatedArr).collect(Collectors.toList());
-			}
-		}
-		return result;
+    public static List<String> getIndexedFields(String index) {
+        return Arrays.asList(index.substring(index.indexOf(TYPE_SEPARATOR) + 1).split(FIELD_SEPARATOR));
+    }
 
+    private static String key(String type, List<String> fields) {
+        return type + TYPE_SEPARATOR + String.join(FIELD_SEPARATOR, fields);
     }
+
     /**
-     * Remove fields with format = "( values with comma separated )"
-     * @param fields
-     * @return
+     * Fields of an index field of the schema configuration, a composite index is given as "(field1, field2)"
      */
-    public static List<String> getSingleIndexFields(List<String> fields) {
-		List<String> result = new ArrayList<String>();
-		if (fields.size() > 0) {
-			for (String field : fields) {
-				boolean containsCompositeValues = (field.indexOf("(") == 0)
-						&& (field.indexOf(")") == field.length() - 1);
-				if (!containsCompositeValues) {
-					result.add(field);
-				}
-			}
-		}
-		return result;
-
+    private static List<String> getFields(String field) {
+        String trimmed = field.trim();
+        boolean composite = trimmed.startsWith("(") && trimmed.endsWith(")");
+        if (!composite) {
+            return Collections.singletonList(trimmed);
+        }
+        return Arrays.stream(trimmed.substring(1, trimmed.length() - 1).split("\\s*,\\s*"))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toList());
     }
-
 }
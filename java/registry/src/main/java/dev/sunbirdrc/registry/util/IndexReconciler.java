@@ -0,0 +1,206 @@
+package dev.sunbirdrc.registry.util;
+
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the indices of the definitions in every shard, in the background and away from the requests writing
+ * records. The indices a definition asks for are compared with the index catalog of the shard, the IndexCatalog
+ * vertices listing the indices created so far, and only the missing ones are created and added to the catalog.
+ * <p>
+ * Runs for every definition on start and for a definition when its schema is added or updated. A table or column
+ * only exists once the first record having it is written, so indices that can't be created yet stay pending and
+ * are tried again every reconcileInterval milliseconds.
+ * <p>
+ * Registries sharing a database may create the same index at once. Creating an index that exists does nothing, and
+ * a catalog entry is only added when the shard doesn't have it yet, which a unique index on the catalog enforces: the
+ * registry that loses the race fails its commit and finds the entry of the other one on its next attempt.
+ */
+@Component
+public class IndexReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(IndexReconciler.class);
+
+    @Autowired
+    private IDefinitionsManager definitionsManager;
+    @Autowired
+    private DBConnectionInfoMgr dbConnectionInfoMgr;
+    @Autowired
+    private DBProviderFactory dbProviderFactory;
+
+    @Value("${database.uuidPropertyName}")
+    private String uuidPropertyName;
+    @Value("${registry.index.reconcileInterval:60000}")
+    private long reconcileInterval;
+
+    /**
+     * Indices created in each shard, keyed by shard id and definition name
+     */
+    private final Map<String, Map<String, Set<String>>> catalogs = new ConcurrentHashMap<>();
+    private final Set<String> pendingDefinitions = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "index-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (reconcileInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::reconcilePending, reconcileInterval, reconcileInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Queues every known definition for reconciliation
+     *
+     * @return completes once the definitions were reconciled, indices that can't be created yet are left pending
+     */
+    public CompletableFuture<Void> reconcileAll() {
+        pendingDefinitions.addAll(definitionsManager.getAllKnownDefinitions());
+        return CompletableFuture.runAsync(this::reconcilePending, scheduler);
+    }
+
+    /**
+     * Queues the definition of an added or updated schema for reconciliation
+     */
+    public void reconcile(String definitionName) {
+        pendingDefinitions.add(definitionName);
+        scheduler.execute(this::reconcilePending);
+    }
+
+    public Set<String> getPendingDefinitions() {
+        return Collections.unmodifiableSet(pendingDefinitions);
+    }
+
+    synchronized void reconcilePending() {
+        if (pendingDefinitions.isEmpty()) {
+            return;
+        }
+        for (String definitionName : new ArrayList<>(pendingDefinitions)) {
+            Definition definition = definitionsManager.getDefinition(definitionName);
+            boolean complete = true;
+            if (definition != null) {
+                Set<String> indices = IndexHelper.getIndices(definition, uuidPropertyName);
+                for (DBConnectionInfo dbConnectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+                    complete &= reconcile(dbConnectionInfo, definitionName, indices);
+                }
+            }
+            if (complete) {
+                pendingDefinitions.remove(definitionName);
+            }
+        }
+    }
+
+    private boolean reconcile(DBConnectionInfo dbConnectionInfo, String definitionName, Set<String> indices) {
+        String shardId = dbConnectionInfo.getShardId();
+        DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
+        try (OSGraph osGraph = dbProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            Set<String> created = getCatalog(dbProvider, graph, shardId)
+                    .computeIfAbsent(definitionName, name -> ConcurrentHashMap.newKeySet());
+            boolean complete = true;
+            for (String index : indices) {
+                if (!created.contains(index)) {
+                    if (createIndex(dbProvider, graph, definitionName, index, shardId)) {
+                        created.add(index);
+                    } else {
+                        complete = false;
+                    }
+                }
+            }
+            return complete;
+        } catch (Exception e) {
+            logger.error("Can't reconcile indices of {} in shard {}: {}", definitionName, shardId, ExceptionUtils.getStackTrace(e));
+            return false;
+        }
+    }
+
+    private boolean createIndex(DatabaseProvider dbProvider, Graph graph, String definitionName, String index, String shardId) {
+        List<String> fields = IndexHelper.getIndexedFields(index);
+        try (Transaction tx = dbProvider.startTransaction(graph)) {
+            if (fields.size() == 1) {
+                if (IndexHelper.isUnique(index)) {
+                    dbProvider.createUniqueIndex(graph, definitionName, fields);
+                } else {
+                    dbProvider.createIndex(graph, definitionName, fields);
+                }
+            } else if (IndexHelper.isUnique(index)) {
+                dbProvider.createCompositeUniqueIndex(graph, definitionName, fields);
+            } else {
+                dbProvider.createCompositeIndex(graph, definitionName, fields);
+            }
+            if (!graph.traversal().V().hasLabel(Constants.INDEX_CATALOG_LABEL)
+                    .has(Constants.INDEX_CATALOG_DEFINITION, definitionName)
+                    .has(Constants.INDEX_CATALOG_INDEX, index).hasNext()) {
+                Vertex entry = graph.addVertex(Constants.INDEX_CATALOG_LABEL);
+                entry.property(Constants.INDEX_CATALOG_DEFINITION, definitionName);
+                entry.property(Constants.INDEX_CATALOG_INDEX, index);
+            }
+            dbProvider.commitTransaction(graph, tx);
+            logger.info("Created index {} of {} in shard {}", index, definitionName, shardId);
+            return true;
+        } catch (Exception e) {
+            logger.debug("Index {} of {} in shard {} can't be created yet: {}", index, definitionName, shardId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads the catalog of the shard on first use, it changes only through this reconciler afterwards
+     */
+    private Map<String, Set<String>> getCatalog(DatabaseProvider dbProvider, Graph graph, String shardId) throws Exception {
+        Map<String, Set<String>> catalog = catalogs.get(shardId);
+        if (catalog != null) {
+            return catalog;
+        }
+        catalog = new ConcurrentHashMap<>();
+        List<String> catalogFields = Arrays.asList(Constants.INDEX_CATALOG_DEFINITION, Constants.INDEX_CATALOG_INDEX);
+        try (Transaction tx = dbProvider.startTransaction(graph)) {
+            dbProvider.ensureIndexedLabel(graph, Constants.INDEX_CATALOG_LABEL, catalogFields);
+            dbProvider.commitTransaction(graph, tx);
+        }
+        try (Transaction tx = dbProvider.startTransaction(graph)) {
+            dbProvider.createCompositeUniqueIndex(graph, Constants.INDEX_CATALOG_LABEL, catalogFields);
+            dbProvider.commitTransaction(graph, tx);
+        } catch (Exception e) {
+            // a catalog with duplicate entries, from before the index, can't have it and relies on the lookup alone
+            logger.warn("Can't create the unique index of the index catalog of shard {}: {}", shardId, e.getMessage());
+        }
+        Iterator<Vertex> entries = graph.traversal().V().hasLabel(Constants.INDEX_CATALOG_LABEL);
+        while (entries.hasNext()) {
+            Vertex entry = entries.next();
+            catalog.computeIfAbsent(entry.value(Constants.INDEX_CATALOG_DEFINITION), name -> ConcurrentHashMap.newKeySet())
+                    .add(entry.value(Constants.INDEX_CATALOG_INDEX));
+        }
+        catalogs.put(shardId, catalog);
+        return catalog;
+    }
+}
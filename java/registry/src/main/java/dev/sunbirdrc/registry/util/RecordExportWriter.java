@@ -0,0 +1,147 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import dev.sunbirdrc.elastic.SearchBatchHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes exported records batch by batch to an output stream, either as NDJSON (one record per line) or CSV.
+ * Every batch is flushed once written, so the memory held is bounded by the batch size and not by the export size.
+ */
+public abstract class RecordExportWriter implements SearchBatchHandler {
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    protected final Writer writer;
+
+    protected RecordExportWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    public static boolean isSupported(String format) {
+        return NDJSON.equalsIgnoreCase(format) || CSV.equalsIgnoreCase(format);
+    }
+
+    public static String getMediaType(String format) {
+        return CSV.equalsIgnoreCase(format) ? CSV_MEDIA_TYPE : NDJSON_MEDIA_TYPE;
+    }
+
+    public static RecordExportWriter getInstance(String format, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        if (CSV.equalsIgnoreCase(format)) {
+            return new CsvWriter(outputStream, objectMapper);
+        } else if (NDJSON.equalsIgnoreCase(format)) {
+            return new NdJsonWriter(outputStream, objectMapper);
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+
+    @Override
+    public void handle(ArrayNode batch) throws IOException {
+        for (JsonNode record : batch) {
+            write(record);
+        }
+        flush();
+    }
+
+    protected abstract void write(JsonNode record) throws IOException;
+
+    protected void flush() throws IOException {
+        writer.flush();
+    }
+
+    public void close() throws IOException {
+        flush();
+    }
+
+    static class NdJsonWriter extends RecordExportWriter {
+        private final JsonGenerator generator;
+
+        NdJsonWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            super(outputStream);
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(null);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        protected void write(JsonNode record) throws IOException {
+            generator.writeTree(record);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * The columns are the top level fields of the first record exported; nested values are written as json text.
+     */
+    static class CsvWriter extends RecordExportWriter {
+        private final ObjectMapper objectMapper;
+        private List<String> columns;
+
+        CsvWriter(OutputStream outputStream, ObjectMapper objectMapper) {
+            super(outputStream);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected void write(JsonNode record) throws IOException {
+            if (columns == null) {
+                Set<String> fieldNames = new LinkedHashSet<>();
+                record.fieldNames().forEachRemaining(fieldNames::add);
+                columns = new ArrayList<>(fieldNames);
+                writeRow(columns);
+            }
+            List<String> values = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                JsonNode value = record.get(column);
+                if (value == null || value.isNull()) {
+                    values.add("");
+                } else if (value.isValueNode()) {
+                    values.add(value.asText());
+                } else {
+                    values.add(objectMapper.writeValueAsString(value));
+                }
+            }
+            writeRow(values);
+        }
+
+        private void writeRow(List<String> values) throws IOException {
+            Iterator<String> iterator = values.iterator();
+            while (iterator.hasNext()) {
+                writer.write(escape(iterator.next()));
+                if (iterator.hasNext()) {
+                    writer.write(',');
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package dev.sunbirdrc.registry.app;
+
+import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.service.RevokedCredentialFilter;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.TinkerGraphProvider;
+import dev.sunbirdrc.registry.util.EntityParenter;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import dev.sunbirdrc.registry.util.IndexReconciler;
+import dev.sunbirdrc.validators.IValidate;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static dev.sunbirdrc.registry.Constants.ATTESTATION_POLICY;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AppStartupRunnerTest {
+    private static final Logger logger = LoggerFactory.getLogger(AppStartupRunnerTest.class);
+    private static final int SHARDS = 3;
+    private static final int DEFINITIONS = 20;
+    // simulated round trip of opening a shard's graph
+    private static final long SHARD_LATENCY = 200;
+
+    private final Set<String> definitions = new TreeSet<>();
+    private final List<DBConnectionInfo> shards = new ArrayList<>();
+    private IElasticService elasticService;
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < DEFINITIONS; i++) {
+            definitions.add("Entity" + i);
+        }
+        for (int i = 0; i < SHARDS; i++) {
+            DBConnectionInfo dbConnectionInfo = new DBConnectionInfo();
+            dbConnectionInfo.setShardId("shard" + i);
+            shards.add(dbConnectionInfo);
+        }
+        elasticService = mock(IElasticService.class);
+        doAnswer(invocation -> {
+            Thread.sleep(20);
+            return null;
+        }).when(elasticService).ensureIndex(any());
+    }
+
+    @Test
+    public void shouldBeReadyOnlyAfterAllStartupTasks() throws Exception {
+        Map<String, DatabaseProvider> providers = new HashMap<>();
+        AppStartupRunner runner = runner(4, providers);
+        StartupReadiness startupReadiness = runner.startupReadiness;
+        assertFalse(startupReadiness.isReady());
+        assertFalse(startupReadiness.getHealthInfo().isHealthy());
+
+        runner.run(null);
+
+        assertTrue(startupReadiness.isReady());
+        assertTrue(startupReadiness.getHealthInfo().isHealthy());
+        for (DBConnectionInfo shard : shards) {
+            for (String definition : definitions) {
+                assertNotNull(runner.entityParenter.getKnownParentVertex(definition, shard.getShardId()));
+            }
+            // the owner index is verified in the background
+            verify(providers.get(shard.getShardId()), timeout(10000)).setOwnerIndexReady(true);
+        }
+        verify(runner.indexReconciler).reconcileAll();
+        verify(elasticService).ensureIndex(ATTESTATION_POLICY);
+        verify(elasticService, times(DEFINITIONS + 1)).ensureIndex(any());
+    }
+
+    @Test
+    public void shouldStartShardsSideBySide() throws Exception {
+        long start = System.currentTimeMillis();
+        runner(1, new HashMap<>()).run(null);
+        long sequential = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        runner(4, new HashMap<>()).run(null);
+        long concurrent = System.currentTimeMillis() - start;
+
+        logger.info("Started {} shards with {} definitions in {} ms one task at a time, in {} ms with 4 tasks at a time",
+                SHARDS, DEFINITIONS, sequential, concurrent);
+        assertTrue(concurrent < sequential);
+    }
+
+    @Test
+    public void shouldWaitForIndicesToBeReconciled() throws Exception {
+        AppStartupRunner runner = runner(4, new HashMap<>());
+        CompletableFuture<Void> reconciled = new CompletableFuture<>();
+        when(runner.indexReconciler.reconcileAll()).thenReturn(reconciled);
+        Thread reconciler = new Thread(() -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            reconciled.complete(null);
+        });
+        reconciler.start();
+
+        runner.run(null);
+
+        assertTrue(reconciled.isDone());
+        assertTrue(runner.startupReadiness.isReady());
+    }
+
+    @Test
+    public void shouldNotBeReadyWhenStartupFails() throws Exception {
+        AppStartupRunner runner = runner(4, new HashMap<>());
+        doThrow(new RuntimeException("validator failed")).when(runner.validator).compileDefinitions();
+        try {
+            runner.run(null);
+            fail("startup succeeded with a failed task");
+        } catch (RuntimeException e) {
+            assertEquals("validator failed", e.getMessage());
+        }
+        assertFalse(runner.startupReadiness.isReady());
+    }
+
+    private AppStartupRunner runner(int maxConcurrency, Map<String, DatabaseProvider> providers) {
+        IDefinitionsManager definitionsManager = mock(IDefinitionsManager.class);
+        when(definitionsManager.getAllKnownDefinitions()).thenReturn(definitions);
+        DBConnectionInfoMgr dbConnectionInfoMgr = mock(DBConnectionInfoMgr.class);
+        when(dbConnectionInfoMgr.getConnectionInfo()).thenReturn(shards);
+        DBProviderFactory dbProviderFactory = mock(DBProviderFactory.class);
+        for (DBConnectionInfo shard : shards) {
+            DatabaseProvider provider = spy(new TinkerGraphProvider(null));
+            ReflectionTestUtils.setField(provider, DatabaseProvider.class, "uuidPropertyName", "osid", String.class);
+            doAnswer(invocation -> {
+                Thread.sleep(SHARD_LATENCY);
+                return invocation.callRealMethod();
+            }).when(provider).getOSGraph();
+            when(dbProviderFactory.getInstance(shard)).thenReturn(provider);
+            providers.put(shard.getShardId(), provider);
+        }
+        EntityParenter entityParenter = new EntityParenter(definitionsManager, dbConnectionInfoMgr);
+        ReflectionTestUtils.setField(entityParenter, "dbProviderFactory", dbProviderFactory);
+        ReflectionTestUtils.setField(entityParenter, "uuidPropertyName", "osid");
+
+        AppStartupRunner runner = new AppStartupRunner();
+        runner.entityParenter = entityParenter;
+        runner.indexReconciler = mock(IndexReconciler.class);
+        when(runner.indexReconciler.reconcileAll()).thenReturn(CompletableFuture.completedFuture(null));
+        runner.dbConnectionInfoMgr = dbConnectionInfoMgr;
+        runner.definitionsManager = definitionsManager;
+        runner.startupReadiness = new StartupReadiness();
+        runner.elasticService = elasticService;
+        runner.validator = mock(IValidate.class);
+        runner.revokedCredentialFilter = mock(RevokedCredentialFilter.class);
+        ReflectionTestUtils.setField(runner, "isElasticSearchEnabled", true);
+        ReflectionTestUtils.setField(runner, "maxConcurrency", maxConcurrency);
+        ReflectionTestUtils.setField(runner, "timeoutMillis", 60000L);
+        return runner;
+    }
+}
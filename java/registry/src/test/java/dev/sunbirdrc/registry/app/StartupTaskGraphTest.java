@@ -0,0 +1,91 @@
+package dev.sunbirdrc.registry.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+public class StartupTaskGraphTest {
+    private ExecutorService executor;
+    private final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldRunTaskAfterItsDependencies() throws Exception {
+        new StartupTaskGraph()
+                .add("parents", () -> sleepAndComplete("parents", 100))
+                .add("schemas", () -> sleepAndComplete("schemas", 10))
+                .add("ownerIndex", () -> sleepAndComplete("ownerIndex", 0), "parents")
+                .run(executor, 5000);
+
+        assertEquals(3, completed.size());
+        assertTrue(completed.indexOf("ownerIndex") > completed.indexOf("parents"));
+        assertEquals("schemas", completed.get(0));
+    }
+
+    @Test
+    public void shouldRunIndependentTasksSideBySide() throws Exception {
+        StartupTaskGraph startupTasks = new StartupTaskGraph();
+        for (int i = 0; i < 4; i++) {
+            String name = "shard" + i;
+            startupTasks.add(name, () -> sleepAndComplete(name, 300));
+        }
+
+        long start = System.currentTimeMillis();
+        startupTasks.run(executor, 5000);
+
+        assertTrue(System.currentTimeMillis() - start < 4 * 300);
+        assertEquals(4, startupTasks.getTimings().size());
+    }
+
+    @Test
+    public void shouldSkipDependantsOfFailedTask() {
+        IllegalStateException failure = new IllegalStateException("shard unreachable");
+        StartupTaskGraph startupTasks = new StartupTaskGraph()
+                .add("parents", () -> {
+                    throw failure;
+                })
+                .add("ownerIndex", () -> sleepAndComplete("ownerIndex", 0), "parents")
+                .add("schemas", () -> sleepAndComplete("schemas", 0));
+        try {
+            startupTasks.run(executor, 5000);
+            fail("startup succeeded with a failed task");
+        } catch (Exception e) {
+            assertSame(failure, e);
+        }
+        assertEquals(Collections.singletonList("schemas"), completed);
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void shouldFailWhenTasksTakeTooLong() throws Exception {
+        new StartupTaskGraph().add("slow", () -> sleepAndComplete("slow", 1000)).run(executor, 50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectDependencyAddedLater() {
+        new StartupTaskGraph().add("ownerIndex", () -> {
+        }, "parents");
+    }
+
+    private void sleepAndComplete(String name, long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        completed.add(name);
+    }
+}
@@ -0,0 +1,193 @@
+package dev.sunbirdrc.registry.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import dev.sunbirdrc.actors.factory.MessageFactory;
+import dev.sunbirdrc.elastic.ESMessage;
+import dev.sunbirdrc.pojos.OSEvent;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.sunbird.akka.core.BaseActor;
+import org.sunbird.akka.core.LocalMessage;
+import org.sunbird.akka.core.MessageProtos;
+import org.sunbird.akka.core.Router;
+import org.sunbird.akka.core.SunbirdActorFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class LocalMessageTest {
+    private static final String SYSTEM_NAME = "local-message-test";
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeClass
+    public static void init() {
+        Config config = ConfigFactory.parseString(SYSTEM_NAME + ".akka.actor.deployment {\n" +
+                "  /SBRouter {\n" +
+                "    router = smallest-mailbox-pool\n" +
+                "    nr-of-instances = 1\n" +
+                "  }\n" +
+                "  /IndexingActor {\n" +
+                "    router = smallest-mailbox-pool\n" +
+                "    nr-of-instances = 1\n" +
+                "  }\n" +
+                "}");
+        new SunbirdActorFactory(config, "dev.sunbirdrc.registry.config").init(SYSTEM_NAME);
+    }
+
+    @Test
+    public void shouldPassPayloadToLocalActorWithoutEncoding() throws Exception {
+        AtomicInteger encoded = new AtomicInteger();
+        OSEvent osEvent = new OSEvent();
+        osEvent.setOsMap(new HashMap<>());
+        LocalMessage message = new LocalMessage(target("IndexingActor", "local"), osEvent, payload -> {
+            encoded.incrementAndGet();
+            return "{}";
+        });
+
+        Router.sendAndForget(message);
+
+        waitUntil(() -> IndexingActor.received.containsKey("local"));
+        assertSame(osEvent, IndexingActor.received.get("local"));
+        assertEquals(0, encoded.get());
+    }
+
+    @Test
+    public void shouldDecodePayloadSentAsString() throws Exception {
+        Router.sendAndForget(toIndexingActor(MessageFactory.instance().createOSActorLocalMessage(true, "remote", "student",
+                "1-abc", entity(3), null)).toMessage());
+
+        waitUntil(() -> IndexingActor.received.containsKey("remote"));
+        ESMessage esMessage = esMessage((OSEvent) IndexingActor.received.get("remote"));
+        assertEquals("student", esMessage.getIndexName());
+        assertEquals(entity(3), esMessage.getInput());
+    }
+
+    @Test
+    public void shouldEncodePayloadForTransport() throws Exception {
+        JsonNode entity = entity(3);
+        LocalMessage message = MessageFactory.instance().createOSActorLocalMessage(true, "ADD", "student", "1-abc",
+                entity, null);
+
+        MessageProtos.Message encoded = message.toMessage();
+
+        assertEquals("ADD", encoded.getPerformOperation());
+        OSEvent osEvent = new ObjectMapper().readValue(encoded.getPayload().getStringValue(), OSEvent.class);
+        assertEquals(entity, esMessage(osEvent).getInput());
+        assertEquals(MessageFactory.instance().createOSActorMessage(true, "ADD", "student", "1-abc", entity, null),
+                encoded);
+    }
+
+    /**
+     * Messages a second from the producer to an actor reading the entity, with the payload encoded to json and decoded
+     * by the actor, and passed as is
+     */
+    @Ignore("benchmark, run by hand")
+    @Test
+    public void benchmarkThroughput() throws Exception {
+        int count = 2000;
+        for (int fields : new int[]{10, 100, 1000}) {
+            JsonNode entity = entity(fields);
+            int size = new ObjectMapper().writeValueAsBytes(entity).length;
+            for (int round = 0; round < 3; round++) {
+                long encoded = run(count, i -> toIndexingActor(MessageFactory.instance().createOSActorLocalMessage(true,
+                        "bench", "student", String.valueOf(i), entity, null)).toMessage());
+                long local = run(count, i -> toIndexingActor(MessageFactory.instance().createOSActorLocalMessage(true,
+                        "bench", "student", String.valueOf(i), entity, null)));
+                System.out.printf("entity of %d bytes: json %d msg/s, local %d msg/s%n", size,
+                        count * 1000000000L / encoded, count * 1000000000L / local);
+            }
+        }
+    }
+
+    private interface MessageSource {
+        Object create(int i) throws Exception;
+    }
+
+    private static long run(int count, MessageSource source) throws Exception {
+        int before = IndexingActor.benchmarked.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Object message = source.create(i);
+            if (message instanceof LocalMessage) {
+                Router.sendAndForget((LocalMessage) message);
+            } else {
+                Router.sendAndForget((MessageProtos.Message) message);
+            }
+        }
+        waitUntil(() -> IndexingActor.benchmarked.get() == before + count);
+        return System.nanoTime() - start;
+    }
+
+    private static MessageProtos.Message target(String actorName, String operation) {
+        return MessageProtos.Message.newBuilder()
+                .setTargetActorName(actorName)
+                .setPerformOperation(operation)
+                .build();
+    }
+
+    private static LocalMessage toIndexingActor(LocalMessage message) {
+        return new LocalMessage(message.getMessage().toBuilder().setTargetActorName("IndexingActor").build(),
+                message.getPayload(), objectMapper::writeValueAsString);
+    }
+
+    private static ESMessage esMessage(OSEvent osEvent) {
+        Object esMessage = osEvent.getOsMap().get("esMessage");
+        return esMessage instanceof ESMessage ? (ESMessage) esMessage
+                : new ObjectMapper().convertValue(esMessage, ESMessage.class);
+    }
+
+    private static JsonNode entity(int fields) {
+        ObjectNode entity = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < fields; i++) {
+            entity.put("field" + i, "value of the field " + i + " in a typical record");
+        }
+        entity.set("address", JsonNodeFactory.instance.objectNode().put("city", "Bengaluru").put("pincode", "560001"));
+        return entity;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met in time");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
+
+/**
+ * Reads the entity out of the message the way OSActor does
+ */
+class IndexingActor extends BaseActor {
+    static final Map<String, Object> received = new java.util.concurrent.ConcurrentHashMap<>();
+    static final AtomicInteger benchmarked = new AtomicInteger();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    protected void onReceive(MessageProtos.Message request) throws Throwable {
+        OSEvent osEvent = getLocalPayload(OSEvent.class);
+        if (osEvent == null) {
+            osEvent = objectMapper.readValue(request.getPayload().getStringValue(), OSEvent.class);
+        }
+        Object esMessage = osEvent.getOsMap().get("esMessage");
+        if (!(esMessage instanceof ESMessage)) {
+            objectMapper.convertValue(esMessage, ESMessage.class);
+        }
+        if ("bench".equals(request.getPerformOperation())) {
+            benchmarked.incrementAndGet();
+        } else {
+            received.put(request.getPerformOperation(), osEvent);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package dev.sunbirdrc.registry.config;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.Test;
+import org.sunbird.akka.core.ActorMetrics;
+import org.sunbird.akka.core.BaseActor;
+import org.sunbird.akka.core.MessageProtos;
+import org.sunbird.akka.core.Router;
+import org.sunbird.akka.core.SunbirdActorFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class OverflowMailboxTest {
+    private static final String SYSTEM_NAME = "overflow-test";
+
+    private static void init(String actorName, int instances, int capacity, String overflowPolicy) {
+        Config config = ConfigFactory.parseString(SYSTEM_NAME + " {\n" +
+                "  test-mailbox {\n" +
+                "    mailbox-type = \"org.sunbird.akka.core.OverflowMailbox\"\n" +
+                "    mailbox-capacity = " + capacity + "\n" +
+                "    overflow-policy = " + overflowPolicy + "\n" +
+                "  }\n" +
+                "  akka.actor.deployment {\n" +
+                "    /SBRouter {\n" +
+                "      router = smallest-mailbox-pool\n" +
+                "      nr-of-instances = 1\n" +
+                "    }\n" +
+                "    /" + actorName + " {\n" +
+                "      router = smallest-mailbox-pool\n" +
+                "      nr-of-instances = " + instances + "\n" +
+                "      mailbox = test-mailbox\n" +
+                "    }\n" +
+                "  }\n" +
+                "}");
+        new SunbirdActorFactory(config, "dev.sunbirdrc.registry.config").init(SYSTEM_NAME);
+    }
+
+    @Test
+    public void shouldTurnAwayMessagesFloodingSlowActor() throws Exception {
+        init("SlowIndexer", 2, 5, "drop-new");
+        ActorMetrics.Stats stats = ActorMetrics.instance().get("SlowIndexer");
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            Router.sendAndForget(message("SlowIndexer", i));
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        // the senders aren't held up by the slow actor
+        assertTrue(elapsed < 1000);
+        assertTrue("mailbox depth " + stats.getMailboxDepth(), stats.getMailboxDepth() <= 10);
+        waitUntil(() -> stats.getProcessed() + stats.getDropped() == 100 && stats.getMailboxDepth() == 0);
+        // what both instances could take while the messages were sent, and the full mailboxes
+        assertTrue("processed " + stats.getProcessed(), stats.getProcessed() <= 2 * (elapsed / 100 + 1) + 10);
+        assertEquals(SlowIndexer.processed.size(), stats.getProcessed());
+        assertTrue(stats.getAvgProcessingMillis() >= 50);
+        assertTrue(stats.getMaxProcessingMillis() >= stats.getAvgProcessingMillis());
+        waitUntil(() -> stats.getDeadLetters() == stats.getDropped());
+    }
+
+    @Test
+    public void shouldKeepLatestMessagesWhenDroppingOldest() throws Exception {
+        init("SlowNotifier", 1, 3, "drop-oldest");
+        ActorMetrics.Stats stats = ActorMetrics.instance().get("SlowNotifier");
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            Router.sendAndForget(message("SlowNotifier", i));
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        waitUntil(() -> stats.getProcessed() + stats.getDropped() == 20 && stats.getMailboxDepth() == 0);
+        List<String> processed = new ArrayList<>(SlowNotifier.processed);
+        assertTrue("processed " + processed, processed.size() <= elapsed / 100 + 1 + 3);
+        assertEquals(Arrays.asList("17", "18", "19"), processed.subList(processed.size() - 3, processed.size()));
+        assertEquals(20 - processed.size(), stats.getDropped());
+    }
+
+    @Test
+    public void shouldHoldUpSendersUntilActorHasRoom() throws Exception {
+        init("SlowWriter", 1, 2, "block");
+        ActorMetrics.Stats stats = ActorMetrics.instance().get("SlowWriter");
+        // messages told before the pool has started wait in a queue of its own
+        Router.sendAndForget(message("SlowWriter", 0));
+        waitUntil(() -> stats.getProcessed() == 1);
+
+        long start = System.currentTimeMillis();
+        for (int i = 1; i <= 10; i++) {
+            Router.sendAndForget(message("SlowWriter", i));
+        }
+
+        // the sender waits for all but the messages that fit in the mailbox and the one being processed
+        assertTrue(System.currentTimeMillis() - start >= 6 * 100);
+        waitUntil(() -> stats.getProcessed() == 11 && stats.getMailboxDepth() == 0);
+        assertEquals(0, stats.getDropped());
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10"), new ArrayList<>(SlowWriter.processed));
+    }
+
+    private static MessageProtos.Message message(String actorName, int i) {
+        return MessageProtos.Message.newBuilder()
+                .setTargetActorName(actorName)
+                .setPerformOperation(String.valueOf(i))
+                .build();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met in time");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
+
+class SlowIndexer extends BaseActor {
+    static final Queue<String> processed = new ConcurrentLinkedQueue<>();
+
+    @Override
+    protected void onReceive(MessageProtos.Message request) throws Throwable {
+        Thread.sleep(100);
+        processed.add(request.getPerformOperation());
+    }
+}
+
+class SlowNotifier extends BaseActor {
+    static final Queue<String> processed = new ConcurrentLinkedQueue<>();
+
+    @Override
+    protected void onReceive(MessageProtos.Message request) throws Throwable {
+        Thread.sleep(100);
+        processed.add(request.getPerformOperation());
+    }
+}
+
+class SlowWriter extends BaseActor {
+    static final Queue<String> processed = new ConcurrentLinkedQueue<>();
+
+    @Override
+    protected void onReceive(MessageProtos.Message request) throws Throwable {
+        Thread.sleep(100);
+        processed.add(request.getPerformOperation());
+    }
+}
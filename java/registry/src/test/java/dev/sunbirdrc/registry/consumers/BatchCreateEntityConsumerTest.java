@@ -0,0 +1,233 @@
+package dev.sunbirdrc.registry.consumers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.helper.RegistryHelper;
+import dev.sunbirdrc.registry.model.dto.CreateEntityMessage;
+import dev.sunbirdrc.registry.model.dto.CreateEntityResult;
+import dev.sunbirdrc.registry.service.RegistryService;
+import dev.sunbirdrc.registry.service.WebhookService;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BatchCreateEntityConsumerTest {
+    private static final Logger logger = LoggerFactory.getLogger(BatchCreateEntityConsumerTest.class);
+    private static final String TOPIC = "create_entity";
+
+    @Mock
+    private ShardManager shardManager;
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+    @Mock
+    private RegistryService registryService;
+    @Mock
+    private RegistryHelper registryHelper;
+    @Mock
+    private WebhookService webhookService;
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, List<Integer>> createdSequencesPerKey = new HashMap<>();
+    private final Set<Integer> failingSequences = new HashSet<>();
+    private BatchCreateEntityConsumer consumer;
+    private int offset;
+
+    @Before
+    public void setUp() throws Exception {
+        consumer = new BatchCreateEntityConsumer(objectMapper, shardManager, kafkaTemplate, registryService, registryHelper,
+                webhookService);
+        ReflectionTestUtils.setField(consumer, "postCreateEntityTopic", "post_create_entity");
+        ReflectionTestUtils.setField(consumer, "deadLetterTopic", "create_entity_dlt");
+        ReflectionTestUtils.setField(consumer, "webhookUrl", "http://localhost/callback");
+        ReflectionTestUtils.setField(consumer, "deadLetterRetryDelayMs", 1L);
+        Shard shard = new Shard();
+        shard.setShardId("shard1");
+        shard.setShardLabel("");
+        when(shardManager.getShardProperty()).thenReturn("none");
+        when(shardManager.getShard(any())).thenReturn(shard);
+        SettableListenableFuture<Object> sent = new SettableListenableFuture<>();
+        sent.set(null);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn((SettableListenableFuture) sent);
+        when(registryService.addEntities(any(), anyList())).thenAnswer(invocation -> {
+            List<CreateEntityMessage> messages = invocation.getArgument(1);
+            List<CreateEntityResult> results = new ArrayList<>();
+            for (CreateEntityMessage message : messages) {
+                if (failingSequences.contains(message.getInputJson().elements().next().get("seq").asInt())) {
+                    results.add(CreateEntityResult.failed(new RuntimeException("invalid student")));
+                } else {
+                    results.add(CreateEntityResult.created(recordCreated(message.getInputJson())));
+                }
+            }
+            return results;
+        });
+    }
+
+    @Test
+    public void shouldCreateEachEntityTypeInOneCallAndAcknowledgeOnce() throws Exception {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            records.add(record("key" + i, i % 2 == 0 ? "Student" : "Teacher", i));
+        }
+
+        consumer.createEntitiesConsumer(records, acknowledgment);
+
+        verify(registryService, times(2)).addEntities(any(), anyList());
+        verify(kafkaTemplate, times(10)).send(eq("post_create_entity"), anyString(), anyString());
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    public void shouldKeepOrderPerKeyAcrossEntityTypes() throws Exception {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        String[] entityTypes = {"Student", "Teacher", "Student", "Student", "Teacher", "Student"};
+        for (int i = 0; i < entityTypes.length; i++) {
+            records.add(record("a", entityTypes[i], i));
+            records.add(record("b", entityTypes[entityTypes.length - 1 - i], i));
+        }
+
+        consumer.createEntitiesConsumer(records, acknowledgment);
+
+        for (String key : new String[]{"a", "b"}) {
+            List<Integer> sequences = createdSequencesPerKey.get(key);
+            assertEquals(entityTypes.length, sequences.size());
+            for (int i = 0; i < sequences.size(); i++) {
+                assertEquals(Integer.valueOf(i), sequences.get(i));
+            }
+        }
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    public void shouldDeadLetterOnlyTheFailingRecordsOfAGroup() throws Exception {
+        failingSequences.add(1);
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            records.add(record("key" + i, "Student", i));
+        }
+
+        consumer.createEntitiesConsumer(records, acknowledgment);
+
+        ArgumentCaptor<ProducerRecord> deadLetter = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(1)).send(deadLetter.capture());
+        assertEquals("create_entity_dlt", deadLetter.getValue().topic());
+        assertEquals("key1", deadLetter.getValue().key());
+        assertEquals("invalid student", new String(deadLetter.getValue().headers().lastHeader(
+                KafkaHeaders.DLT_EXCEPTION_MESSAGE).value()));
+        verify(registryService, times(1)).addEntities(any(), anyList());
+        verify(kafkaTemplate, times(3)).send(eq("post_create_entity"), anyString(), anyString());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    public void shouldSendDeadLetterAgainUntilSentWithoutRedeliveringBatch() throws Exception {
+        failingSequences.add(1);
+        failingSequences.add(3);
+        SettableListenableFuture<Object> notSent = new SettableListenableFuture<>();
+        notSent.setException(new RuntimeException("broker unavailable"));
+        SettableListenableFuture<Object> sent = new SettableListenableFuture<>();
+        sent.set(null);
+        AtomicInteger key1Sends = new AtomicInteger();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation ->
+                "key1".equals(((ProducerRecord) invocation.getArgument(0)).key()) && key1Sends.incrementAndGet() <= 2 ? notSent : sent);
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(record("key" + i, "Student", i));
+        }
+
+        consumer.createEntitiesConsumer(records, acknowledgment);
+
+        assertEquals(3, key1Sends.get());
+        verify(kafkaTemplate, times(4)).send(any(ProducerRecord.class));
+        verify(registryService, times(1)).addEntities(any(), anyList());
+        verify(acknowledgment, never()).nack(anyInt(), anyLong());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    public void shouldDeadLetterUnreadableRecords() throws Exception {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        records.add(record("key0", "Student", 0));
+        records.add(new ConsumerRecord<>(TOPIC, 0, offset++, "broken", "{not json"));
+        records.add(record("key2", "Student", 2));
+
+        consumer.createEntitiesConsumer(records, acknowledgment);
+
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+        verify(registryService, times(1)).addEntities(any(), anyList());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    public void shouldConsumeLargeBatches() throws Exception {
+        int batchSize = 500;
+        int batches = 20;
+        long start = System.nanoTime();
+        for (int batch = 0; batch < batches; batch++) {
+            List<ConsumerRecord<String, String>> records = new ArrayList<>();
+            for (int i = 0; i < batchSize; i++) {
+                records.add(record("key" + (i % 50), i % 3 == 0 ? "Teacher" : "Student", batch * batchSize + i));
+            }
+            consumer.createEntitiesConsumer(records, acknowledgment);
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Consumed {} create entity records in {} ms ({} records/s)", batchSize * batches, elapsedMillis,
+                batchSize * batches * 1000L / elapsedMillis);
+        verify(acknowledgment, times(batches)).acknowledge();
+        for (List<Integer> sequences : createdSequencesPerKey.values()) {
+            for (int i = 1; i < sequences.size(); i++) {
+                assertTrue(sequences.get(i) > sequences.get(i - 1));
+            }
+        }
+    }
+
+    private String recordCreated(JsonNode inputJson) {
+        JsonNode entity = inputJson.elements().next();
+        createdSequencesPerKey.computeIfAbsent(entity.get("key").asText(), k -> new ArrayList<>()).add(entity.get("seq").asInt());
+        return "uuid-" + entity.get("seq").asInt();
+    }
+
+    private ConsumerRecord<String, String> record(String key, String entityType, int seq) throws Exception {
+        JsonNode inputJson = objectMapper.readTree(String.format("{\"%s\": {\"key\": \"%s\", \"seq\": %d}}", entityType, key, seq));
+        CreateEntityMessage message = CreateEntityMessage.builder().userId("user").inputJson(inputJson).build();
+        return new ConsumerRecord<>(TOPIC, 0, offset++, key, objectMapper.writeValueAsString(message));
+    }
+}
@@ -0,0 +1,111 @@
+package dev.sunbirdrc.registry.controller;
+
+import dev.sunbirdrc.registry.helper.RegistryHelper;
+import dev.sunbirdrc.registry.service.FileStorageService;
+import dev.sunbirdrc.registry.service.S3Stub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class FileStorageControllerTest {
+    private static final String DOCUMENT_URI = "/api/v1/Teacher/1/marksheets/documents/marksheet.pdf";
+    private static final String OBJECT_NAME = "Teacher/1/marksheets/documents/marksheet.pdf";
+
+    private S3Stub s3Stub;
+    private MockMvc mockMvc;
+    private final byte[] content = new byte[10000];
+
+    @Before
+    public void setUp() throws Exception {
+        s3Stub = new S3Stub();
+        new Random(1).nextBytes(content);
+        s3Stub.putObject(OBJECT_NAME, content);
+        FileStorageService fileStorageService = new FileStorageService(s3Stub.client(), S3Stub.BUCKET, 5 * 1024 * 1024);
+        // as in the application, the content type is negotiated by the Accept header and not the file extension
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileStorageController(fileStorageService, mock(RegistryHelper.class)))
+                .setContentNegotiationManager(new ContentNegotiationManager(new HeaderContentNegotiationStrategy()))
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        s3Stub.close();
+    }
+
+    @Test
+    public void shouldStreamWholeDocument() throws Exception {
+        MvcResult result = mockMvc.perform(get(DOCUMENT_URI))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10000"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        assertArrayEquals(content, result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void shouldStreamRequestedRange() throws Exception {
+        MvcResult result = mockMvc.perform(get(DOCUMENT_URI).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/10000"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "100"))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 200), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void shouldStreamSuffixRange() throws Exception {
+        MvcResult result = mockMvc.perform(get(DOCUMENT_URI).header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 9990-9999/10000"))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(content, 9990, 10000), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void shouldRejectUnsatisfiableRanges() throws Exception {
+        mockMvc.perform(get(DOCUMENT_URI).header(HttpHeaders.RANGE, "bytes=10000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10000"));
+        mockMvc.perform(get(DOCUMENT_URI).header(HttpHeaders.RANGE, "bytes=0-9,20-29"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+        mockMvc.perform(get(DOCUMENT_URI).header(HttpHeaders.RANGE, "pages=1"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    public void shouldNotSendUnchangedDocumentAgain() throws Exception {
+        MvcResult result = mockMvc.perform(get(DOCUMENT_URI)).andExpect(status().isOk()).andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get(DOCUMENT_URI).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get(DOCUMENT_URI).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(DOCUMENT_URI).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldFailForMissingDocument() throws Exception {
+        mockMvc.perform(get("/api/v1/Teacher/1/marksheets/documents/missing.pdf"))
+                .andExpect(status().isInternalServerError());
+    }
+}
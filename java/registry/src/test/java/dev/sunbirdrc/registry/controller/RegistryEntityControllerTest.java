@@ -10,8 +10,12 @@ import org.mockito.ArgumentMatchers;
 import dev.sunbirdrc.registry.exception.RecordNotFoundException;
 import dev.sunbirdrc.registry.helper.RegistryHelper;
 import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.service.CertificateCache;
 import dev.sunbirdrc.registry.service.FileStorageService;
 import dev.sunbirdrc.registry.service.ICertificateService;
+import dev.sunbirdrc.registry.service.issuance.CredentialIssuer;
+import dev.sunbirdrc.registry.service.issuance.IssuanceJob;
+import dev.sunbirdrc.registry.service.postcommit.PostCommitDispatcher;
 import dev.sunbirdrc.registry.transform.*;
 import dev.sunbirdrc.registry.util.DefinitionsManager;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -36,6 +40,10 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.http.HttpHeaders;
 import javax.servlet.http.HttpServletRequest;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -67,6 +75,12 @@ public class RegistryEntityControllerTest {
     private FileStorageService fileStorageService;
     @MockBean
     private AsyncRequest asyncRequest;
+    @MockBean
+    private CredentialIssuer credentialIssuer;
+    @MockBean
+    private PostCommitDispatcher postCommitDispatcher;
+    @MockBean
+    private CertificateCache certificateCache;
     @Autowired
     private MockMvc mockMvc;
     private AbstractController abstractController;
@@ -252,4 +266,59 @@ public class RegistryEntityControllerTest {
         ResponseEntity<Object> response = registryEntityController.revokeACredential(request, "ScholarshipForTopClassStudents", "entityId", headers);
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
+
+    @Test
+    public void shouldReturnCredentialIssuanceStatusOfRecord() throws Exception {
+        IssuanceJob job = IssuanceJob.builder().entityId("123").entityName("Institute").shardId("shard1").userId("user")
+                .status(IssuanceJob.Status.FAILED).error("can't sign")
+                .data(new ObjectMapper().readTree("{\"instituteName\": \"Don bosco\"}")).build();
+        when(credentialIssuer.getJob("123")).thenReturn(job);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/Institute/123/credential/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.status").value("FAILED"))
+                .andExpect(jsonPath("$.result.data").doesNotExist());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/Teacher/123/credential/status"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/Institute/456/credential/status"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldNotRenderCertificateMatchingIfNoneMatch() throws Exception {
+        JsonNode node = new ObjectMapper().readTree("{\"Student\": {\"osid\": \"123\", \"name\": \"abc\", \"osUpdatedAt\": \"2026-10-19\", \"_osSignedData\": \"signed\"}}");
+        when(registryHelper.readEntity(any(), eq("Student"), eq("123"), eq(false), any(), eq(false))).thenReturn(node);
+        when(certificateService.getTemplateVersion(eq("Student"), eq("application/pdf"), any(), any())).thenReturn("template-1");
+        when(certificateCache.get(eq("123"), anyString(), any())).thenReturn(new byte[]{1, 2, 3});
+
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/Student/123").header("Accept", "application/pdf"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/Student/123").header("Accept", "application/pdf")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        verify(certificateCache, times(1)).get(eq("123"), anyString(), any());
+    }
+
+    @Test
+    public void shouldChangeCertificateOnceCredentialIsRevoked() throws Exception {
+        JsonNode node = new ObjectMapper().readTree("{\"Student\": {\"osid\": \"123\", \"name\": \"abc\", \"osUpdatedAt\": \"2026-10-19\", \"_osSignedData\": \"signed\"}}");
+        when(registryHelper.readEntity(any(), eq("Student"), eq("123"), eq(false), any(), eq(false))).thenReturn(node);
+        when(certificateService.getTemplateVersion(eq("Student"), eq("application/pdf"), any(), any())).thenReturn("template-1");
+        when(certificateCache.get(eq("123"), anyString(), any())).thenReturn(new byte[]{1, 2, 3});
+
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/Student/123").header("Accept", "application/pdf"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        when(registryHelper.checkIfCredentialIsRevoked(eq("signed"), any())).thenReturn(true);
+        String revokedETag = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/Student/123").header("Accept", "application/pdf")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(eTag, revokedETag);
+        verify(certificateCache, times(2)).get(eq("123"), anyString(), any());
+    }
 }
@@ -0,0 +1,272 @@
+package dev.sunbirdrc.registry.dao.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.pojos.Filter;
+import dev.sunbirdrc.pojos.FilterOperators;
+import dev.sunbirdrc.pojos.SearchQuery;
+import dev.sunbirdrc.registry.dao.IRegistryDao;
+import dev.sunbirdrc.registry.dao.RegistryDaoImpl;
+import dev.sunbirdrc.registry.dao.SearchDaoImpl;
+import dev.sunbirdrc.registry.dao.VertexWriter;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.util.DefinitionsManager;
+import dev.sunbirdrc.registry.util.EntityParenter;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import dev.sunbirdrc.registry.util.OSResourceLoader;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static dev.sunbirdrc.registry.middleware.util.Constants.ENTITY_LIST;
+import static dev.sunbirdrc.registry.middleware.util.Constants.TOTAL_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { DefinitionsManager.class, ObjectMapper.class, DBProviderFactory.class, DBConnectionInfoMgr.class, OSResourceLoader.class })
+@ActiveProfiles(Constants.TEST_ENVIRONMENT)
+public class OwnerIndexTest {
+    private static final Logger logger = LoggerFactory.getLogger(OwnerIndexTest.class);
+    private static final String ENTITY_TYPE = "Teacher";
+
+    @Autowired
+    private DefinitionsManager definitionsManager;
+    @Autowired
+    private DBProviderFactory dbProviderFactory;
+    @Autowired
+    private DBConnectionInfoMgr dbConnectionInfoMgr;
+    @Value("${registry.expandReference}")
+    private boolean expandReferenceObj;
+
+    private DatabaseProvider databaseProvider;
+    private Graph graph;
+    private IRegistryDao registryDao;
+    private VertexWriter vertexWriter;
+
+    @Before
+    public void setUp() {
+        dbConnectionInfoMgr.setUuidPropertyName("tid");
+        databaseProvider = dbProviderFactory.getInstance(null);
+        graph = databaseProvider.getOSGraph().getGraphStore();
+        databaseProvider.ensureIndexedLabel(graph, Constants.OWNER_INDEX_LABEL,
+                Arrays.asList(Constants.OWNER_INDEX_OWNER, Constants.OWNER_INDEX_ENTITY_ID));
+        registryDao = new RegistryDaoImpl(databaseProvider, definitionsManager, "tid", expandReferenceObj);
+        vertexWriter = new VertexWriter(graph, databaseProvider, "tid");
+    }
+
+    @Test
+    public void shouldIndexOwnersOfNewRecords() {
+        String owner = UUID.randomUUID().toString();
+        String otherOwner = UUID.randomUUID().toString();
+        String first = writeRecord(owner);
+        String second = writeRecord(owner, otherOwner);
+        writeRecord(otherOwner);
+
+        assertEquals(new HashSet<>(Arrays.asList(first, second)),
+                new HashSet<>(registryDao.getEntityIdsByOwner(graph, ENTITY_TYPE, owner)));
+        assertEquals(2, registryDao.getEntityIdsByOwner(graph, ENTITY_TYPE, otherOwner).size());
+        assertTrue(registryDao.getEntityIdsByOwner(graph, "Student", owner).isEmpty());
+    }
+
+    @Test
+    public void shouldReplaceOwnersOnUpdate() {
+        String owner = UUID.randomUUID().toString();
+        String newOwner = UUID.randomUUID().toString();
+        String id = writeRecord(owner);
+
+        vertexWriter.updateOwnerIndex(ENTITY_TYPE, id, owners(newOwner));
+
+        assertTrue(registryDao.getEntityIdsByOwner(graph, ENTITY_TYPE, owner).isEmpty());
+        assertEquals(Collections.singletonList(id), registryDao.getEntityIdsByOwner(graph, ENTITY_TYPE, newOwner));
+    }
+
+    @Test
+    public void shouldRemoveOwnersOnDelete() {
+        String owner = UUID.randomUUID().toString();
+        String id = writeRecord(owner);
+
+        vertexWriter.deleteOwnerIndex(id);
+
+        assertTrue(registryDao.getEntityIdsByOwner(graph, ENTITY_TYPE, owner).isEmpty());
+    }
+
+    @Test
+    public void shouldMatchOwnerExactly() {
+        String owner = UUID.randomUUID().toString();
+        writeRecord(owner + "-suffix");
+
+        assertTrue(registryDao.getEntityIdsByOwner(graph, ENTITY_TYPE, owner).isEmpty());
+    }
+
+    @Test
+    public void shouldReturnSameRecordsAsOwnerScan() {
+        String owner = UUID.randomUUID().toString();
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(writeRecord(owner));
+            writeRecord(UUID.randomUUID().toString());
+        }
+
+        JsonNode indexed = ownerSearch(true, owner);
+        JsonNode scanned = ownerSearch(false, owner);
+
+        assertEquals(5, indexed.get(ENTITY_TYPE).get(TOTAL_COUNT).asLong());
+        assertEquals(expected, ids(indexed));
+        assertEquals(ids(scanned), ids(indexed));
+    }
+
+    @Test
+    public void shouldReturnEmptyResultForOwnerWithoutRecords() {
+        JsonNode result = ownerSearch(true, UUID.randomUUID().toString());
+
+        assertEquals(0, result.get(ENTITY_TYPE).get(ENTITY_LIST).size());
+        assertEquals(0, result.get(ENTITY_TYPE).get(TOTAL_COUNT).asLong());
+    }
+
+    @Test
+    public void shouldScanOwnersExactlyUntilIndexIsReady() {
+        String owner = UUID.randomUUID().toString();
+        String id = writeRecord(owner);
+        writeRecord(owner + "-suffix");
+
+        assertEquals(Collections.singleton(id), ids(ownerSearch(false, owner)));
+    }
+
+    @Test
+    public void shouldNotAnswerContainsFilterFromIndex() {
+        String owner = UUID.randomUUID().toString();
+        String id = writeRecord(owner + "-suffix");
+
+        assertTrue(ids(ownerSearch(true, owner)).isEmpty());
+        assertEquals(Collections.singleton(id), ids(ownerSearch(true, FilterOperators.contains, owner)));
+    }
+
+    @Test
+    public void shouldAddMissingAndStaleRecordsInPagesBeforeUsingIndex() {
+        String owner = UUID.randomUUID().toString();
+        String otherOwner = UUID.randomUUID().toString();
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 2500; i++) {
+            String id = writeRecord(owner);
+            expected.add(id);
+            // as written by an instance without the owner index
+            vertexWriter.deleteOwnerIndex(id);
+        }
+        String stale = writeRecord(owner);
+        expected.add(stale);
+        vertexWriter.updateOwnerIndex(ENTITY_TYPE, stale, owners(otherOwner));
+        EntityParenter entityParenter = entityParenter();
+
+        entityParenter.ensureOwnerIndex(new DBConnectionInfo());
+
+        assertFalse(databaseProvider.isOwnerIndexReady());
+        assertEquals(expected, new HashSet<>(registryDao.getEntityIdsByOwner(graph, ENTITY_TYPE, owner)));
+        assertTrue(registryDao.getEntityIdsByOwner(graph, ENTITY_TYPE, otherOwner).isEmpty());
+
+        entityParenter.ensureOwnerIndex(new DBConnectionInfo());
+
+        assertTrue(databaseProvider.isOwnerIndexReady());
+        entityParenter.shutdown();
+    }
+
+    /**
+     * Compares the owner lookup with the owner scan, run with -DownerIndex.records=1000000 for a large registry
+     */
+    @Test
+    public void compareIndexedLookupWithOwnerScan() {
+        int records = Integer.getInteger("ownerIndex.records", 10000);
+        String owner = UUID.randomUUID().toString();
+        for (int i = 0; i < records; i++) {
+            writeRecord(i % 1000 == 0 ? owner : UUID.randomUUID().toString());
+        }
+
+        long start = System.nanoTime();
+        JsonNode scanned = ownerSearch(false, owner);
+        long scanNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        JsonNode indexed = ownerSearch(true, owner);
+        long indexNanos = System.nanoTime() - start;
+
+        logger.info("Owner lookup over {} records: owner scan {} ms, owner index {} ms", records,
+                scanNanos / 1000000, indexNanos / 1000000);
+        assertEquals(ids(scanned), ids(indexed));
+    }
+
+    private String writeRecord(String... owners) {
+        ObjectNode record = JsonNodeFactory.instance.objectNode();
+        record.put("teacherName", "owned");
+        record.set(OSSystemFields.osOwner.toString(), owners(owners));
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        root.set(ENTITY_TYPE, record);
+        return vertexWriter.writeNodeEntity(root);
+    }
+
+    private ArrayNode owners(String... owners) {
+        ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode();
+        for (String owner : owners) {
+            arrayNode.add(owner);
+        }
+        return arrayNode;
+    }
+
+    private EntityParenter entityParenter() {
+        IDefinitionsManager definitions = mock(IDefinitionsManager.class);
+        when(definitions.getAllKnownDefinitions()).thenReturn(Collections.singleton(ENTITY_TYPE));
+        DBConnectionInfoMgr connections = mock(DBConnectionInfoMgr.class);
+        DBProviderFactory providers = mock(DBProviderFactory.class);
+        when(providers.getInstance(any())).thenReturn(databaseProvider);
+        EntityParenter entityParenter = new EntityParenter(definitions, connections);
+        ReflectionTestUtils.setField(entityParenter, "dbProviderFactory", providers);
+        ReflectionTestUtils.setField(entityParenter, "uuidPropertyName", "tid");
+        ReflectionTestUtils.setField(entityParenter, "ownerIndexVerifyDelay", 3600000L);
+        return entityParenter;
+    }
+
+    private JsonNode ownerSearch(boolean ownerIndexReady, String owner) {
+        return ownerSearch(ownerIndexReady, FilterOperators.eq, owner);
+    }
+
+    private JsonNode ownerSearch(boolean ownerIndexReady, FilterOperators operator, String owner) {
+        SearchQuery searchQuery = new SearchQuery(Collections.singletonList(ENTITY_TYPE), 0, 100);
+        List<Filter> filters = new ArrayList<>();
+        filters.add(new Filter(OSSystemFields.osOwner.toString(), operator, owner));
+        searchQuery.setFilters(filters);
+        return new SearchDaoImpl(registryDao, "tid", ownerIndexReady).search(graph, searchQuery, false);
+    }
+
+    private Set<String> ids(JsonNode result) {
+        Set<String> ids = new HashSet<>();
+        result.get(ENTITY_TYPE).get(ENTITY_LIST).forEach(record -> ids.add(record.get("tid").asText()));
+        return ids;
+    }
+}
@@ -2,7 +2,9 @@ package dev.sunbirdrc.registry.helper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.sunbirdrc.registry.entities.AttestationPolicy;
+import dev.sunbirdrc.registry.identity_providers.pojos.CreateUserRequest;
 import dev.sunbirdrc.registry.identity_providers.pojos.IdentityException;
 import dev.sunbirdrc.registry.identity_providers.pojos.OwnerCreationException;
 import dev.sunbirdrc.registry.util.Definition;
@@ -20,6 +22,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.api.runtime.KieContainer;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,14 +36,18 @@ import dev.sunbirdrc.registry.identity_providers.pojos.IdentityManager;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringRunner.class)
@@ -81,7 +88,7 @@ public class EntityStateHelperTest {
         ReflectionTestUtils.setField(definitionsManager, "definitionMap", definitionMap);
     }
 
-    private void runTest(JsonNode existing, JsonNode updated, JsonNode expected, List<AttestationPolicy> attestationPolicies) throws IOException {
+    private void runTest(JsonNode existing, JsonNode updated, JsonNode expected, List<AttestationPolicy> attestationPolicies) throws IOException, IdentityException {
         RuleEngineService ruleEngineService = new RuleEngineService(kieContainer, identityManager, true);
         EntityStateHelper entityStateHelper = new EntityStateHelper(definitionsManager, ruleEngineService, conditionResolverService, claimRequestClient, true);
         ReflectionTestUtils.setField(entityStateHelper, "uuidPropertyName", "osid");
@@ -90,7 +97,7 @@ public class EntityStateHelperTest {
         assertEquals(expected, updated);
     }
 
-    public void shouldMarkAsDraftWhenThereIsNewEntry() throws IOException {
+    public void shouldMarkAsDraftWhenThereIsNewEntry() throws IOException, IdentityException {
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldMarkAsDraftWhenThereIsNewEntry.json"));
         runTest(test.get("existing"), test.get("updated"), test.get("afterStateChange"),
                 definitionsManager.getDefinition("Student").getOsSchemaConfiguration().getAttestationPolicies());
@@ -101,13 +108,13 @@ public class EntityStateHelperTest {
         return this.getClass().getResource("../../../../").getPath() + "entityStateHelper/";
     }
 
-    public void shouldMarkAsDraftIfThereIsAChange() throws IOException {
+    public void shouldMarkAsDraftIfThereIsAChange() throws IOException, IdentityException {
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldMarkAsDraftIfThereIsAChange.json"));
         runTest(test.get("existing"), test.get("updated"), test.get("afterStateChange"), Collections.emptyList());
     }
 
     @Test
-    public void shouldBeNoStateChangeIfTheDataDidNotChange() throws IOException {
+    public void shouldBeNoStateChangeIfTheDataDidNotChange() throws IOException, IdentityException {
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldBeNoStateChangeIfTheDataDidNotChange.json"));
         JsonNode beforeUpdate = test.get("updated").deepCopy();
         runTest(test.get("existing"), test.get("updated"), test.get("existing"), Collections.emptyList());
@@ -115,40 +122,57 @@ public class EntityStateHelperTest {
 
     @Test
     public void shouldCreateNewOwnersForNewlyAddedOwnerFields() throws IOException, DuplicateRecordException, EntityCreationException, IdentityException {
-        when(identityManager.createUser(any())).thenReturn("456");
+        when(identityManager.createUsers(any())).thenReturn(Collections.singletonList("456"));
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldAddNewOwner.json"));
         runTest(test.get("existing"), test.get("updated"), test.get("expected"), Collections.emptyList());
     }
 
+    @Test
+    public void shouldCreateOwnersOfInvitedEntityInOneCall() throws IOException, IdentityException {
+        when(identityManager.createUsers(any())).thenReturn(Arrays.asList("456", "789"));
+        JsonNode invited = m.readTree("{\"Institute\": {\"instituteName\": \"rtyuio\", \"email\": \"test@test.com\", " +
+                "\"contactNumber\": \"1234567890\", \"adminEmail\": \"admin@test.com\", \"adminMobile\": \"1233214321\"}}");
+        JsonNode expected = invited.deepCopy();
+        ((ObjectNode) expected.get("Institute")).set("osOwner", m.readTree("[\"456\", \"789\"]"));
+
+        runTest(m.readTree("{}"), invited, expected, Collections.emptyList());
+
+        ArgumentCaptor<List<CreateUserRequest>> requests = ArgumentCaptor.forClass(List.class);
+        verify(identityManager).createUsers(requests.capture());
+        verify(identityManager, never()).createUser(any());
+        assertEquals(Arrays.asList("test@test.com", "admin@test.com"),
+                requests.getValue().stream().map(CreateUserRequest::getUserName).collect(Collectors.toList()));
+    }
+
     @Test
     public void shouldNotCreateNewOwners() throws IOException, DuplicateRecordException, EntityCreationException, IdentityException {
-        when(identityManager.createUser(any())).thenReturn("456");
+        when(identityManager.createUsers(any())).thenReturn(Collections.singletonList("456"));
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldNotAddNewOwner.json"));
         runTest(test.get("existing"), test.get("updated"), test.get("expected"), Collections.emptyList());
     }
 
     @Test
     public void shouldNotModifyExistingOwners() throws IOException, DuplicateRecordException, EntityCreationException, IdentityException {
-        when(identityManager.createUser(any())).thenReturn("456");
+        when(identityManager.createUsers(any())).thenReturn(Collections.singletonList("456"));
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldNotModifyExistingOwner.json"));
         runTest(test.get("existing"), test.get("updated"), test.get("expected"), Collections.emptyList());
     }
 
     @Test
-    public void shouldNotAllowUserModifyingOwnerFields() throws IOException, DuplicateRecordException, EntityCreationException {
+    public void shouldNotAllowUserModifyingOwnerFields() throws IOException, DuplicateRecordException, EntityCreationException, IdentityException {
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldNotModifyOwnerDetails.json"));
         runTest(test.get("existing"), test.get("updated"), test.get("expected"), Collections.emptyList());
     }
 
     @Test
-    public void shouldNotAllowUserModifyingSystemFields() throws IOException, DuplicateRecordException, EntityCreationException {
+    public void shouldNotAllowUserModifyingSystemFields() throws IOException, DuplicateRecordException, EntityCreationException, IdentityException {
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldNotModifyOsStateByUser.json"));
         runTest(test.get("existing"), test.get("updated"), test.get("expected"), Collections.emptyList());
     }
 
     @Test
     public void shouldRemovePasswordOwnershipFields() throws IOException, OwnerCreationException, IdentityException {
-        when(identityManager.createUser(any())).thenReturn("456");
+        when(identityManager.createUsers(any())).thenReturn(Collections.singletonList("456"));
         JsonNode test = m.readTree(new File(getBaseDir() + "shouldRemovePasswordOwnershipFields.json"));
         runTest(test.get("existing"), test.get("updated"), test.get("expected"), Collections.emptyList());
     }
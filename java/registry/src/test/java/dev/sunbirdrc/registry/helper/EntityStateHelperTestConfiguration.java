@@ -1,5 +1,6 @@
 package dev.sunbirdrc.registry.helper;
 
+import dev.sunbirdrc.registry.service.impl.OutboundHttpClient;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
@@ -21,6 +22,11 @@ public class EntityStateHelperTestConfiguration {
         return  Mockito.mock(RestTemplate.class);
     }
 
+    @Bean
+    OutboundHttpClient mockOutboundHttpClient() {
+        return Mockito.mock(OutboundHttpClient.class);
+    }
+
     @Bean
     public KieContainer kieContainer() {
         KieServices kieServices = KieServices.Factory.get();
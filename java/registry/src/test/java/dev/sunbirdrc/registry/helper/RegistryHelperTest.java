@@ -80,6 +80,15 @@ public class RegistryHelperTest {
 	@Mock
 	private ISearchService searchService;
 
+	@Mock
+	private NativeSearchService nativeSearchService;
+
+	@Spy
+	private AttestationPolicyRegistry attestationPolicyRegistry = new AttestationPolicyRegistry();
+
+	@Spy
+	private RevokedCredentialFilter revokedCredentialFilter = new RevokedCredentialFilter();
+
 	@Mock
 	private ViewTemplateManager viewTemplateManager;
 
@@ -135,6 +144,9 @@ public class RegistryHelperTest {
 		registryHelper.setDefinitionsManager(definitionsManager);
 		registryHelper.setNotificationEnabled(true);
 		registryHelper.setSecurityEnabled(true);
+		ReflectionTestUtils.setField(attestationPolicyRegistry, "invalidationBus", new InvalidationBus());
+		ReflectionTestUtils.setField(attestationPolicyRegistry, "refreshAfter", 60000L);
+		ReflectionTestUtils.setField(revokedCredentialFilter, "invalidationBus", new InvalidationBus());
 	}
 
 	@Test
@@ -341,6 +353,7 @@ public class RegistryHelperTest {
 		mockDefinitionManager();
 		String testUserId = "be6d30e9-7c62-4a05-b4c8-ee28364da8e4";
 		when(identityManager.createUser(any())).thenReturn(testUserId);
+		when(identityManager.createUsers(any())).thenCallRealMethod();
 		when(registryService.addEntity(any(), any(), any(), anyBoolean())).thenReturn(UUID.randomUUID().toString());
 		when(shardManager.getShard(any())).thenReturn(new Shard());
 		ReflectionTestUtils.setField(registryHelper, "workflowEnabled", true);
@@ -357,6 +370,7 @@ public class RegistryHelperTest {
 		mockDefinitionManager();
 		String testUserId = "be6d30e9-7c62-4a05-b4c8-ee28364da8e4";
 		when(identityManager.createUser(any())).thenReturn(testUserId);
+		when(identityManager.createUsers(any())).thenCallRealMethod();
 		when(registryService.addEntity(any(), any(), any(), anyBoolean())).thenReturn(UUID.randomUUID().toString());
 		when(shardManager.getShard(any())).thenReturn(new Shard());
 		ReflectionTestUtils.setField(registryHelper, "notificationEnabled", true);
@@ -386,6 +400,7 @@ public class RegistryHelperTest {
 				"}}");
 		String testUserId = "be6d30e9-7c62-4a05-b4c8-ee28364da8e4";
 		when(identityManager.createUser(any())).thenReturn(testUserId);
+		when(identityManager.createUsers(any())).thenCallRealMethod();
 		when(registryService.addEntity(any(), any(), any(), anyBoolean())).thenReturn(UUID.randomUUID().toString());
 		when(shardManager.getShard(any())).thenReturn(new Shard());
 		mockDefinitionManager();
@@ -488,7 +503,7 @@ public class RegistryHelperTest {
 		mockAttestationPolicy2.set("attestorPlugin", JsonNodeFactory.instance.textNode("did:internal:ClaimPluginActor?entity=board-cbse"));
 		attestationArrayNodes.add(mockAttestationPolicy2);
 		attestationPolicyObject.set(ATTESTATION_POLICY, attestationArrayNodes);
-		when(searchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
+		when(nativeSearchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
 		when(readService.getEntity(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(studentJson);
 		registryHelper.entityStateHelper = mock(EntityStateHelper.class);
 		when(registryHelper.entityStateHelper.manageState(any(), any(), any(), any(), any())).thenReturn(studentJson);
@@ -521,7 +536,7 @@ public class RegistryHelperTest {
 		mockAttestationPolicy.set("name", JsonNodeFactory.instance.textNode("testAttestationPolicy"));
 		attestationArrayNodes.add(mockAttestationPolicy);
 		attestationPolicyObject.set(ATTESTATION_POLICY, attestationArrayNodes);
-		when(searchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
+		when(nativeSearchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
 		when(readService.getEntity(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(getMockStudent());
 		registryHelper.entityStateHelper = mock(EntityStateHelper.class);
 		when(registryHelper.entityStateHelper.manageState(any(), any(), any(), any(), any())).thenReturn(getMockStudent());
@@ -562,7 +577,7 @@ public class RegistryHelperTest {
 		mockAttestationPolicy2.set("attestorPlugin", JsonNodeFactory.instance.textNode("did:internal:ClaimPluginActor?entity=board-cbse"));
 		attestationArrayNodes.add(mockAttestationPolicy2);
 		attestationPolicyObject.set(ATTESTATION_POLICY, attestationArrayNodes);
-		when(searchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
+		when(nativeSearchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
 		when(readService.getEntity(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(getMockStudent());
 		registryHelper.entityStateHelper = mock(EntityStateHelper.class);
 		when(registryHelper.entityStateHelper.manageState(any(), any(), any(), any(), any())).thenReturn(getMockStudent());
@@ -603,7 +618,7 @@ public class RegistryHelperTest {
 		mockAttestationPolicy2.set("attestorPlugin", JsonNodeFactory.instance.textNode("did:internal:ClaimPluginActor?entity=board-cbse"));
 		attestationArrayNodes.add(mockAttestationPolicy2);
 		attestationPolicyObject.set(ATTESTATION_POLICY, attestationArrayNodes);
-		when(searchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
+		when(nativeSearchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
 		ObjectNode mockStudent = getMockStudent();
 		when(readService.getEntity(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(mockStudent);
 		registryHelper.entityStateHelper = mock(EntityStateHelper.class);
@@ -701,7 +716,7 @@ public class RegistryHelperTest {
 				"        }\n" +
 				"    ]\n" +
 				"}\n}");
-		when(searchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
+		when(nativeSearchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
 		when(dbConnectionInfoMgr.getUuidPropertyName()).thenReturn("osid");
 		ObjectNode student = new ObjectMapper().createObjectNode();
 		JsonNode studentNodeContent = new ObjectMapper().readTree("{\n" +
@@ -818,6 +833,61 @@ public class RegistryHelperTest {
 		assertFalse(registryHelper.checkIfCredentialIsRevoked("signedData", ""));
 	}
 
+	@Test
+	public void shouldNotSearchRevokedCredentialsIfFilterDoesNotContainSignedData() throws Exception {
+		doReturn(false).when(revokedCredentialFilter).mightBeRevoked(RevokedCredentialFilter.hash("signedData"));
+		assertFalse(registryHelper.checkIfCredentialIsRevoked("signedData", ""));
+		verify(searchService, never()).search(any(), anyString());
+	}
+
+	@Test
+	public void shouldLookUpRevocationOfAllCredentialsInOneSearch() throws Exception {
+		doReturn(false).when(revokedCredentialFilter).mightBeRevoked(RevokedCredentialFilter.hash("valid"));
+		JsonNode searchResponse = JsonNodeFactory.instance.objectNode()
+				.set(REVOKED_CREDENTIAL, JsonNodeFactory.instance.objectNode()
+						.set(ENTITY_LIST, JsonNodeFactory.instance.arrayNode()
+								.add(JsonNodeFactory.instance.objectNode().put("signedHash", RevokedCredentialFilter.hash("revoked")))));
+		ArgumentCaptor<JsonNode> searchCaptor = ArgumentCaptor.forClass(JsonNode.class);
+		when(searchService.search(searchCaptor.capture(), anyString())).thenReturn(searchResponse);
+
+		Set<String> revoked = registryHelper.getRevokedCredentials(Arrays.asList("revoked", "valid", "unknown"), "");
+
+		assertEquals(Collections.singleton("revoked"), revoked);
+		verify(searchService, times(1)).search(any(), anyString());
+		JsonNode signedHashes = searchCaptor.getValue().at("/filters/signedHash/or");
+		assertEquals(2, signedHashes.size());
+		assertEquals(2, searchCaptor.getValue().get("limit").asInt());
+	}
+
+	@Test
+	public void shouldPageRevokedCredentialsRevokedMoreThanOnce() throws Exception {
+		List<Integer> offsets = new ArrayList<>();
+		when(searchService.search(any(), anyString())).thenAnswer(invocation -> {
+			int offset = invocation.<JsonNode>getArgument(0).get("offset").asInt();
+			offsets.add(offset);
+			// "first" has two revocation records, they fill the first page
+			String signedData = offset == 0 ? "first" : "second";
+			ArrayNode page = JsonNodeFactory.instance.arrayNode();
+			for (int i = 0; i < (offset == 0 ? 2 : 1); i++) {
+				page.add(JsonNodeFactory.instance.objectNode().put("signedHash", RevokedCredentialFilter.hash(signedData)));
+			}
+			return JsonNodeFactory.instance.objectNode().set(REVOKED_CREDENTIAL,
+					JsonNodeFactory.instance.objectNode().set(ENTITY_LIST, page));
+		});
+
+		Set<String> revoked = registryHelper.getRevokedCredentials(Arrays.asList("first", "second"), "");
+
+		assertEquals(new HashSet<>(Arrays.asList("first", "second")), revoked);
+		assertEquals(Arrays.asList(0, 2), offsets);
+	}
+
+	@Test
+	public void shouldNotSearchRevokedCredentialsIfFilterContainsNoneOfThem() throws Exception {
+		doReturn(false).when(revokedCredentialFilter).mightBeRevoked(any());
+		assertTrue(registryHelper.getRevokedCredentials(Arrays.asList("a", "b"), "").isEmpty());
+		verify(searchService, never()).search(any(), anyString());
+	}
+
 	@Test
 	public void shouldNotContainShardIdInAsyncMode() throws Exception {
 		JsonNode inviteJson = new ObjectMapper().readTree("{\"Institute\":{\"email\":\"gecasu.ihises@tovinit.com\",\"instituteName\":\"gecasu\"}}");
@@ -870,6 +940,7 @@ public class RegistryHelperTest {
 		mockValidationService();
 		String testUserId = "be6d30e9-7c62-4a05-b4c8-ee28364da8e4";
 		when(identityManager.createUser(any())).thenReturn(testUserId);
+		when(identityManager.createUsers(any())).thenCallRealMethod();
 		when(registryService.addEntity(any(), any(), any(), anyBoolean())).thenReturn(UUID.randomUUID().toString());
 		when(shardManager.getShard(any())).thenReturn(new Shard());
 		ReflectionTestUtils.setField(registryHelper, "workflowEnabled", true);
@@ -888,6 +959,7 @@ public class RegistryHelperTest {
 		mockValidationService();
 		String testUserId = "be6d30e9-7c62-4a05-b4c8-ee28364da8e4";
 		when(identityManager.createUser(any())).thenReturn(testUserId);
+		when(identityManager.createUsers(any())).thenCallRealMethod();
 		when(registryService.addEntity(any(), any(), any(), anyBoolean())).thenReturn(UUID.randomUUID().toString());
 		when(shardManager.getShard(any())).thenReturn(new Shard());
 		ReflectionTestUtils.setField(registryHelper, "workflowEnabled", true);
@@ -929,11 +1001,11 @@ public class RegistryHelperTest {
 		mockAttestationPolicy2.set("attestorPlugin", JsonNodeFactory.instance.textNode("did:internal:ClaimPluginActor?entity=board-cbse"));
 		attestationArrayNodes.add(mockAttestationPolicy2);
 		attestationPolicyObject.set(ATTESTATION_POLICY, attestationArrayNodes);
-		when(searchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
+		when(nativeSearchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
 		ReflectionTestUtils.setField(registryHelper, "attestationPolicySearchEnabled", false);
 		List<AttestationPolicy> policies = registryHelper.getAttestationPolicies("Student");
 		assertEquals(1, policies.size());
-		verify(searchService, never()).search(any(), anyString());
+		verify(nativeSearchService, never()).search(any(), anyString());
 	}
 
 	@Test
@@ -950,10 +1022,31 @@ public class RegistryHelperTest {
 		mockAttestationPolicy2.set("attestorPlugin", JsonNodeFactory.instance.textNode("did:internal:ClaimPluginActor?entity=board-cbse"));
 		attestationArrayNodes.add(mockAttestationPolicy2);
 		attestationPolicyObject.set(ATTESTATION_POLICY, attestationArrayNodes);
-		when(searchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
+		when(nativeSearchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
 		ReflectionTestUtils.setField(registryHelper, "attestationPolicySearchEnabled", true);
 		List<AttestationPolicy> policies = registryHelper.getAttestationPolicies("Student");
 		assertEquals(3, policies.size());
-		verify(searchService, atMostOnce()).search(any(), anyString());
+		verify(nativeSearchService, atMostOnce()).search(any(), anyString());
+	}
+
+	@Test
+	public void shouldSearchAttestationPoliciesOnlyAfterTheyChange() throws Exception {
+		mockDefinitionManager();
+		ObjectNode attestationPolicyObject = JsonNodeFactory.instance.objectNode();
+		ObjectNode mockAttestationPolicy = JsonNodeFactory.instance.objectNode();
+		mockAttestationPolicy.set("name", JsonNodeFactory.instance.textNode("testAttestationPolicy"));
+		attestationPolicyObject.set(ATTESTATION_POLICY, JsonNodeFactory.instance.objectNode()
+				.set(ENTITY_LIST, JsonNodeFactory.instance.arrayNode().add(mockAttestationPolicy)));
+		when(nativeSearchService.search(any(), anyString())).thenReturn(attestationPolicyObject);
+		ReflectionTestUtils.setField(registryHelper, "attestationPolicySearchEnabled", true);
+
+		assertEquals(2, registryHelper.getAttestationPolicies("Student").size());
+		assertEquals("testAttestationPolicy", registryHelper.getAttestationPolicy("Student", "testAttestationPolicy").getName());
+		assertTrue(registryHelper.isAttestationPolicyNameAlreadyUsed("Student", "testAttestationPolicy"));
+		verify(nativeSearchService, times(1)).search(any(), anyString());
+
+		attestationPolicyRegistry.invalidate("Student");
+		assertEquals(2, registryHelper.getAttestationPolicies("Student").size());
+		verify(nativeSearchService, times(2)).search(any(), anyString());
 	}
 }
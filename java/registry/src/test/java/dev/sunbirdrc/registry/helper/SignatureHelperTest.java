@@ -0,0 +1,105 @@
+package dev.sunbirdrc.registry.helper;
+
+import dev.sunbirdrc.registry.entities.BatchResult;
+import dev.sunbirdrc.registry.exception.SignatureException;
+import dev.sunbirdrc.registry.service.SignatureService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SignatureHelperTest {
+    private static final int CONCURRENCY = 3;
+
+    private SignatureService signatureService;
+    private SignatureHelper signatureHelper;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        signatureService = mock(SignatureService.class);
+        signatureHelper = new SignatureHelper();
+        ReflectionTestUtils.setField(signatureHelper, "signatureService", signatureService);
+        ReflectionTestUtils.setField(signatureHelper, "batchConcurrency", CONCURRENCY);
+        signatureHelper.init();
+    }
+
+    @After
+    public void tearDown() {
+        signatureHelper.shutdown();
+    }
+
+    @Test
+    public void shouldSignIdenticalDocumentsOnce() throws Exception {
+        when(signatureService.sign(any())).thenAnswer(invocation -> "signed " + invocation.<Map<String, Object>>getArgument(0).get("data"));
+
+        List<BatchResult> results = signatureHelper.signEach(Arrays.asList(signRequest("a"), signRequest("b"), signRequest("a")));
+
+        assertEquals(Arrays.asList("signed a", "signed b", "signed a"), resultsOf(results));
+        verify(signatureService, times(2)).sign(any());
+    }
+
+    @Test
+    public void shouldReportFailureOfEachDocument() throws Exception {
+        when(signatureService.sign(any())).thenAnswer(invocation -> {
+            Object data = invocation.<Map<String, Object>>getArgument(0).get("data");
+            if ("b".equals(data)) {
+                throw new SignatureException.CreationException("can't sign b");
+            }
+            return "signed " + data;
+        });
+
+        List<BatchResult> results = signatureHelper.signEach(Arrays.asList(signRequest("a"), signRequest("b")));
+
+        assertEquals("signed a", results.get(0).getResult());
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getResult());
+        assertTrue(results.get(1).getError().endsWith("can't sign b"));
+    }
+
+    @Test
+    public void shouldVerifyAtMostConcurrencyAtOnce() throws Exception {
+        when(signatureService.verify(any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+            return !"forged".equals(invocation.getArgument(0));
+        });
+        List<String> credentials = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            credentials.add("credential-" + i);
+        }
+        credentials.add("forged");
+
+        List<BatchResult> results = signatureHelper.verifyEach(credentials);
+
+        assertEquals(11, results.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(true, results.get(i).getResult());
+        }
+        assertEquals(false, results.get(10).getResult());
+        assertTrue("calls in flight: " + maxInFlight.get(), maxInFlight.get() <= CONCURRENCY);
+        assertTrue(maxInFlight.get() > 1);
+    }
+
+    private static Map<String, Object> signRequest(String data) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("data", data);
+        request.put("credentialTemplate", "template");
+        return request;
+    }
+
+    private static List<Object> resultsOf(List<BatchResult> results) {
+        List<Object> values = new ArrayList<>();
+        results.forEach(result -> values.add(result.getResult()));
+        return values;
+    }
+}
@@ -0,0 +1,107 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.registry.entities.AttestationPolicy;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AttestationPolicyRegistryTest {
+    private final AttestationPolicyRegistry attestationPolicyRegistry = new AttestationPolicyRegistry();
+    private final InvalidationBus invalidationBus = new InvalidationBus();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(attestationPolicyRegistry, "invalidationBus", invalidationBus);
+        ReflectionTestUtils.setField(attestationPolicyRegistry, "refreshAfter", 60000L);
+        attestationPolicyRegistry.init();
+    }
+
+    @Test
+    public void shouldLoadPoliciesOfEntityOnce() {
+        assertEquals(2, attestationPolicyRegistry.getPolicies("Student", this::load).size());
+        assertEquals("Student-education", attestationPolicyRegistry.getPolicy("Student", "Student-education", this::load).get().getName());
+        assertFalse(attestationPolicyRegistry.getPolicy("Student", "unknown", this::load).isPresent());
+        assertEquals(1, loads.get());
+
+        attestationPolicyRegistry.getPolicies("Teacher", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldLoadPoliciesAgainOnceChanged() {
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+        attestationPolicyRegistry.getPolicies("Teacher", this::load);
+
+        attestationPolicyRegistry.invalidate("Student");
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+        attestationPolicyRegistry.getPolicies("Teacher", this::load);
+        assertEquals(3, loads.get());
+
+        attestationPolicyRegistry.invalidate(null);
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+        attestationPolicyRegistry.getPolicies("Teacher", this::load);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    public void shouldDropPoliciesChangedByAnotherInstance() {
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+
+        invalidationBus.receive(invalidationBus.getInstanceId() + "|attestation-policy|Student");
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+        assertEquals(1, loads.get());
+
+        invalidationBus.receive("another-instance|attestation-policy|Student");
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotKeepPoliciesLoadedWhileTheyChanged() {
+        attestationPolicyRegistry.getPolicies("Student", entityName -> {
+            attestationPolicyRegistry.invalidate(entityName);
+            return load(entityName);
+        });
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotKeepFailedLoads() {
+        List<AttestationPolicy> policies = attestationPolicyRegistry.getPolicies("Student", entityName -> {
+            throw new IllegalStateException("search failed");
+        });
+        assertEquals(Collections.emptyList(), policies);
+
+        assertEquals(2, attestationPolicyRegistry.getPolicies("Student", this::load).size());
+    }
+
+    @Test
+    public void shouldLoadPoliciesAgainOnceOlderThanRefreshAfter() {
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+        ReflectionTestUtils.setField(attestationPolicyRegistry, "refreshAfter", 0L);
+
+        attestationPolicyRegistry.getPolicies("Student", this::load);
+        assertEquals(2, loads.get());
+
+        List<AttestationPolicy> policies = attestationPolicyRegistry.getPolicies("Student", entityName -> {
+            throw new IllegalStateException("search failed");
+        });
+        assertEquals(2, policies.size());
+    }
+
+    private List<AttestationPolicy> load(String entityName) {
+        loads.incrementAndGet();
+        return Arrays.asList(
+                AttestationPolicy.builder().name(entityName + "-education").entity(entityName).build(),
+                AttestationPolicy.builder().name(entityName + "-experience").entity(entityName).build());
+    }
+}
@@ -0,0 +1,183 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CertificateCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private File directory;
+    private CertificateCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = temporaryFolder.newFolder("certificates");
+        cache = createCache(1000, directory.getAbsolutePath(), 10000);
+    }
+
+    @Test
+    public void shouldRenderOnceForSameKey() throws Exception {
+        String key = key("1");
+        assertArrayEquals(certificate("a"), (byte[]) cache.get("record", key, () -> render("a")));
+        assertArrayEquals(certificate("a"), (byte[]) cache.get("record", key, () -> render("a")));
+
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    public void shouldRenderAgainWhenRecordRevocationOrTemplateChanges() throws Exception {
+        cache.get("record", key("1"), () -> render("a"));
+        cache.get("record", CertificateCache.key("Student", "record", "2", false, "template-1", "application/pdf", null, null), () -> render("a"));
+        cache.get("record", CertificateCache.key("Student", "record", "1", false, "template-2", "application/pdf", null, null), () -> render("a"));
+        cache.get("record", CertificateCache.key("Student", "record", "1", false, "template-1", "text/html", null, null), () -> render("a"));
+        cache.get("record", CertificateCache.key("Student", "record", "1", true, "template-1", "text/html", null, null), () -> render("a"));
+
+        assertEquals(5, renders.get());
+    }
+
+    @Test
+    public void shouldServeFromDiskAfterRestart() throws Exception {
+        cache.get("record", key("1"), () -> render("a"));
+
+        CertificateCache restarted = createCache(1000, directory.getAbsolutePath(), 10000);
+        assertArrayEquals(certificate("a"), (byte[]) restarted.get("record", key("1"), () -> render("b")));
+
+        assertEquals(1, renders.get());
+        assertEquals(certificate("a").length, restarted.getDiskBytes());
+    }
+
+    @Test
+    public void shouldKeepMemoryWithinMaxBytes() throws Exception {
+        cache = createCache(250, "", 0);
+        for (int i = 0; i < 5; i++) {
+            String version = String.valueOf(i);
+            cache.get("record", key(version), () -> new byte[100]);
+        }
+        assertEquals(200, cache.getMemoryBytes());
+
+        // the eldest certificates were dropped, the latest are kept
+        cache.get("record", key("4"), () -> render("a"));
+        assertEquals(0, renders.get());
+        cache.get("record", key("0"), () -> render("a"));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    public void shouldKeepDiskWithinMaxBytes() throws Exception {
+        cache = createCache(0, directory.getAbsolutePath(), 1000);
+        for (int i = 0; i < 20; i++) {
+            String version = String.valueOf(i);
+            cache.get("record-" + i, key(version), () -> new byte[100]);
+        }
+
+        assertTrue("disk bytes " + cache.getDiskBytes(), cache.getDiskBytes() <= 1000);
+        assertEquals(cache.getDiskBytes(), sizeOf(directory));
+    }
+
+    @Test
+    public void shouldDropCertificatesOfInvalidatedRecord() throws Exception {
+        cache.get("record", key("1"), () -> render("a"));
+        cache.get("other", key("1"), () -> render("a"));
+
+        cache.invalidate("record");
+
+        assertEquals(certificate("a").length, cache.getMemoryBytes());
+        assertEquals(certificate("a").length, cache.getDiskBytes());
+        cache.get("record", key("1"), () -> render("a"));
+        cache.get("other", key("1"), () -> render("a"));
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    public void shouldRenderOnceForConcurrentMisses() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Object>> certificates = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                certificates.add(executor.submit(() -> cache.get("record", key("1"), () -> {
+                    gate.await(5, TimeUnit.SECONDS);
+                    return render("a");
+                })));
+            }
+            Thread.sleep(200);
+            gate.countDown();
+            for (Future<Object> certificate : certificates) {
+                assertArrayEquals(certificate("a"), (byte[]) certificate.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    public void shouldNotCacheFailedOrNonBinaryRendering() throws Exception {
+        try {
+            cache.get("record", key("1"), () -> {
+                renders.incrementAndGet();
+                throw new IllegalStateException("rendering failed");
+            });
+            fail("rendering should fail");
+        } catch (IllegalStateException e) {
+            assertEquals("rendering failed", e.getMessage());
+        }
+        cache.get("record", key("2"), () -> JsonNodeFactory.instance.objectNode());
+        cache.get("record", key("2"), () -> JsonNodeFactory.instance.objectNode());
+
+        assertEquals(0, cache.getMemoryBytes());
+        cache.get("record", key("1"), () -> render("a"));
+        assertEquals(2, renders.get());
+    }
+
+    private CertificateCache createCache(long memoryMaxBytes, String diskPath, long diskMaxBytes) throws IOException {
+        CertificateCache certificateCache = new CertificateCache();
+        ReflectionTestUtils.setField(certificateCache, "enabled", true);
+        ReflectionTestUtils.setField(certificateCache, "memoryMaxBytes", memoryMaxBytes);
+        ReflectionTestUtils.setField(certificateCache, "diskPath", diskPath);
+        ReflectionTestUtils.setField(certificateCache, "diskMaxBytes", diskMaxBytes);
+        certificateCache.init();
+        return certificateCache;
+    }
+
+    private static String key(String recordVersion) {
+        return CertificateCache.key("Student", "record", recordVersion, false, "template-1", "application/pdf",
+                JsonNodeFactory.instance.textNode("credential"), JsonNodeFactory.instance.objectNode());
+    }
+
+    private byte[] render(String content) {
+        renders.incrementAndGet();
+        return certificate(content);
+    }
+
+    private static byte[] certificate(String content) {
+        return ("certificate " + content).getBytes();
+    }
+
+    private static long sizeOf(File file) {
+        if (file.isFile()) {
+            return file.getName().endsWith(".tmp") ? 0 : file.length();
+        }
+        long size = 0;
+        for (File child : file.listFiles()) {
+            size += sizeOf(child);
+        }
+        return size;
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -47,6 +48,9 @@ public class DIDServiceTest {
     @Mock
     private RegistryHelper registryHelper;
 
+    @Spy
+    private DidCache didCache = new DidCache();
+
     @InjectMocks
     private DIDService didService;
     private static final String authorSchemaName = "Issuer";
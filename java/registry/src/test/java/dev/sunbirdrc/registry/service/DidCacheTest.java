@@ -0,0 +1,232 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.sunbirdrc.registry.service.impl.OutboundHttpClient;
+import dev.sunbirdrc.registry.service.impl.RetryRestTemplate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.sunbirdrc.registry.middleware.util.Constants.ENTITY_LIST;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class DidCacheTest {
+    private static final String DID = "did:web:issuer";
+
+    private HttpServer server;
+    private final Map<String, String> documents = new ConcurrentHashMap<>();
+    private final AtomicInteger resolutions = new AtomicInteger();
+    private volatile CountDownLatch resolveGate = new CountDownLatch(0);
+    private volatile int status = 200;
+
+    private InvalidationBus invalidationBus;
+    private DidCache didCache;
+    private ISearchService searchService;
+    private DIDService didService;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/did/resolve/", this::resolve);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        documents.put(DID, "{\"id\":\"" + DID + "\",\"verificationMethod\":[]}");
+
+        RetryRestTemplate retryRestTemplate = new RetryRestTemplate();
+        ReflectionTestUtils.setField(retryRestTemplate, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(retryRestTemplate, "outboundHttpClient",
+                new OutboundHttpClient(Runnable::run, Runnable::run, 1, 0, 1, 0, 50, 1000));
+
+        invalidationBus = new InvalidationBus();
+        didCache = new DidCache();
+        ReflectionTestUtils.setField(didCache, "invalidationBus", invalidationBus);
+        ReflectionTestUtils.setField(didCache, "ttl", 60000L);
+        ReflectionTestUtils.setField(didCache, "negativeTtl", 60000L);
+        ReflectionTestUtils.setField(didCache, "maxSize", 100);
+        didCache.init();
+        searchService = mock(ISearchService.class);
+        didService = new DIDService();
+        ReflectionTestUtils.setField(didService, "retryRestTemplate", retryRestTemplate);
+        ReflectionTestUtils.setField(didService, "resolveIdUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/did/resolve/{id}");
+        ReflectionTestUtils.setField(didService, "searchService", searchService);
+        ReflectionTestUtils.setField(didService, "didCache", didCache);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldResolveDidOnceWithinTtl() {
+        assertEquals(DID, didService.resolveDid(DID).get("id").asText());
+        assertEquals(DID, didService.resolveDid(DID).get("id").asText());
+
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void shouldResolveDidAgainOnceExpired() throws Exception {
+        ReflectionTestUtils.setField(didCache, "ttl", 50L);
+        didService.resolveDid(DID);
+        Thread.sleep(100);
+        didService.resolveDid(DID);
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void shouldRememberUnknownDid() {
+        assertNull(didService.resolveDid("did:web:unknown"));
+        assertNull(didService.resolveDid("did:web:unknown"));
+
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void shouldNotKeepFailedResolution() {
+        status = 500;
+        assertNull(didService.resolveDid(DID));
+        status = 200;
+
+        assertEquals(DID, didService.resolveDid(DID).get("id").asText());
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void shouldResolveOnceForConcurrentMisses() throws Exception {
+        resolveGate = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<JsonNode>> documents = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                documents.add(executor.submit(() -> didService.resolveDid(DID)));
+            }
+            Thread.sleep(200);
+            resolveGate.countDown();
+            for (Future<JsonNode> document : documents) {
+                assertEquals(DID, document.get(5, TimeUnit.SECONDS).get("id").asText());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void shouldKeepIssuerDidUntilIssuersChange() throws Exception {
+        when(searchService.search(any(), anyString())).thenReturn(issuers(DID));
+        assertEquals(DID, didService.getDid("issuer"));
+        assertEquals(DID, didService.getDid("issuer"));
+        verify(searchService, times(1)).search(any(), anyString());
+
+        when(searchService.search(any(), anyString())).thenReturn(issuers("did:web:updated"));
+        didCache.invalidateIssuers();
+
+        assertEquals("did:web:updated", didService.getDid("issuer"));
+        verify(searchService, times(2)).search(any(), anyString());
+    }
+
+    @Test
+    public void shouldRememberUnknownIssuer() throws Exception {
+        when(searchService.search(any(), anyString())).thenReturn(issuers());
+        for (int i = 0; i < 2; i++) {
+            try {
+                didService.getDid("unknown");
+                fail("issuer shouldn't be found");
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().contains("did unknown not found"));
+            }
+        }
+        // searched by name and by did once
+        verify(searchService, times(2)).search(any(), anyString());
+    }
+
+    @Test
+    public void shouldDropIssuerDidsChangedByAnotherInstance() throws Exception {
+        when(searchService.search(any(), anyString())).thenReturn(issuers(DID));
+        didService.getDid("issuer");
+
+        invalidationBus.receive(invalidationBus.getInstanceId() + "|did|issuers");
+        didService.getDid("issuer");
+        verify(searchService, times(1)).search(any(), anyString());
+
+        invalidationBus.receive("another-instance|did|issuers");
+        didService.getDid("issuer");
+        verify(searchService, times(2)).search(any(), anyString());
+    }
+
+    @Test
+    public void shouldSearchIssuerRememberedAsMissingBeforeGeneratingDid() throws Exception {
+        when(searchService.search(any(), anyString())).thenReturn(issuers());
+        try {
+            didService.getDid("issuer");
+            fail("issuer shouldn't be found");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("did issuer not found"));
+        }
+
+        when(searchService.search(any(), anyString())).thenReturn(issuers(DID));
+        assertEquals(DID, didService.ensureDidForName("issuer", "web"));
+        assertEquals(DID, didService.ensureDidForName("issuer", "web"));
+        // searched by name and by did for the miss, by name once the issuer exists
+        verify(searchService, times(3)).search(any(), anyString());
+    }
+
+    @Test
+    public void shouldNotCacheWhenTtlIsZero() throws Exception {
+        ReflectionTestUtils.setField(didCache, "ttl", 0L);
+        didService.resolveDid(DID);
+        didService.resolveDid(DID);
+
+        assertEquals(2, resolutions.get());
+    }
+
+    private void resolve(HttpExchange exchange) throws IOException {
+        resolutions.incrementAndGet();
+        try {
+            resolveGate.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String did = exchange.getRequestURI().getPath().substring("/did/resolve/".length());
+        String document = documents.get(did);
+        int responseStatus = status != 200 ? status : document == null ? 404 : 200;
+        byte[] body = (document == null || responseStatus != 200 ? "{}" : document).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(responseStatus, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static JsonNode issuers(String... dids) {
+        ArrayNode entities = JsonNodeFactory.instance.arrayNode();
+        for (String did : dids) {
+            entities.add(JsonNodeFactory.instance.objectNode().put("did", did));
+        }
+        ObjectNode results = JsonNodeFactory.instance.objectNode();
+        results.set("Issuer", JsonNodeFactory.instance.objectNode().set(ENTITY_LIST, entities));
+        return results;
+    }
+}
@@ -0,0 +1,141 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.pojos.APIMessage;
+import dev.sunbirdrc.pojos.SearchQuery;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static dev.sunbirdrc.registry.middleware.util.Constants.ENTITY_LIST;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringRunner.class)
+public class ElasticSearchServiceTest {
+    private static final Logger logger = LoggerFactory.getLogger(ElasticSearchServiceTest.class);
+    private static final int PAGE_SIZE = 100;
+
+    @Mock
+    private IElasticService elasticService;
+    @Mock
+    private APIMessage apiMessage;
+    @Mock
+    private IAuditService auditService;
+    @InjectMocks
+    private ElasticSearchService elasticSearchService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void setUp() throws IOException {
+        ReflectionTestUtils.setField(elasticSearchService, "uuidPropertyName", "osid");
+        ReflectionTestUtils.setField(elasticSearchService, "limit", PAGE_SIZE);
+        ReflectionTestUtils.setField(elasticSearchService, "expandReferenceObj", true);
+        when(elasticService.multiGet(any(), anyCollection())).thenAnswer(invocation -> {
+            String index = invocation.getArgument(0);
+            Collection<String> ids = invocation.getArgument(1);
+            Map<String, JsonNode> documents = new HashMap<>();
+            for (String id : ids) {
+                documents.put(id, JsonNodeFactory.instance.objectNode().put("osid", "1-" + id).put("index", index));
+            }
+            return documents;
+        });
+    }
+
+    @Test
+    public void shouldExpandReferencesWithOneMultiGetPerIndex() throws IOException {
+        when(elasticService.search(eq("student"), any(SearchQuery.class))).thenReturn(createPage());
+
+        JsonNode result = elasticSearchService.search(createSearchRequest(), "user");
+
+        JsonNode records = result.get("Student").get(ENTITY_LIST);
+        assertEquals(PAGE_SIZE, records.size());
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            JsonNode record = records.get(i);
+            assertEquals("1-" + uuid("i", i), record.get("institute").get("osid").asText());
+            assertEquals("institute", record.get("institute").get("index").asText());
+            assertEquals("1-" + uuid("c", i % 10), record.get("course").get("osid").asText());
+            assertEquals("1-" + uuid("g", i), record.get("guardian").get("osid").asText());
+            assertEquals("guardian", record.get("guardian").get("index").asText());
+            assertEquals("did:plain", record.get("note").asText());
+        }
+        verify(elasticService, times(1)).multiGet(eq("institute"), anyCollection());
+        verify(elasticService, times(1)).multiGet(eq("course"), anyCollection());
+        verify(elasticService, times(1)).multiGet(eq("guardian"), anyCollection());
+    }
+
+    @Test
+    public void shouldLeaveUnresolvedReferencesAsIs() throws IOException {
+        ObjectNode page = JsonNodeFactory.instance.objectNode();
+        ArrayNode records = page.putArray(ENTITY_LIST);
+        records.addObject().put("osid", "1-x").put("institute", "did:Unknown:" + uuid("u", 0));
+        when(elasticService.search(eq("student"), any(SearchQuery.class))).thenReturn(page);
+        when(elasticService.multiGet(eq("unknown"), anyCollection())).thenReturn(new HashMap<>());
+
+        JsonNode result = elasticSearchService.search(createSearchRequest(), "user");
+
+        assertEquals("did:Unknown:" + uuid("u", 0), result.get("Student").get(ENTITY_LIST).get(0).get("institute").asText());
+    }
+
+    @Test
+    public void benchmarkExpandReferenceForPageWithSeveralReferenceFields() throws IOException {
+        when(elasticService.search(eq("student"), any(SearchQuery.class))).thenAnswer(invocation -> createPage());
+        int iterations = 200;
+        for (int i = 0; i < 20; i++) {
+            elasticSearchService.search(createSearchRequest(), "user");
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            elasticSearchService.search(createSearchRequest(), "user");
+        }
+        long averageMicros = (System.nanoTime() - start) / iterations / 1000;
+        logger.info("search with reference expansion of a {} hit page with 3 reference fields: {} us/op", PAGE_SIZE, averageMicros);
+        verify(elasticService, times(iterations + 20)).multiGet(eq("institute"), anyCollection());
+    }
+
+    private JsonNode createSearchRequest() throws IOException {
+        return objectMapper.readTree("{\"entityType\": [\"Student\"], \"filters\": {}}");
+    }
+
+    private ObjectNode createPage() {
+        ObjectNode page = JsonNodeFactory.instance.objectNode();
+        ArrayNode records = page.putArray(ENTITY_LIST);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ObjectNode record = records.addObject();
+            record.put("osid", "1-" + uuid("s", i));
+            record.put("name", "student " + i);
+            record.put("institute", "did:Institute:1-" + uuid("i", i));
+            record.put("course", "did:Course:" + uuid("c", i % 10));
+            record.put("guardian", "did:Guardian:1-" + uuid("g", i));
+            record.put("note", "did:plain");
+            record.putObject("address").put("city", "city " + i);
+        }
+        return page;
+    }
+
+    private static String uuid(String prefix, int i) {
+        return String.format("%08x-0000-0000-0000-%012d", (int) prefix.charAt(0), i);
+    }
+}
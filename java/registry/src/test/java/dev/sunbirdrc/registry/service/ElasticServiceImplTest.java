@@ -0,0 +1,149 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.sunbirdrc.elastic.ElasticServiceImpl;
+import dev.sunbirdrc.pojos.SearchQuery;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ElasticServiceImplTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private HttpServer server;
+    private RestHighLevelClient client;
+    private String index;
+    private final TreeMap<String, ObjectNode> documents = new TreeMap<>();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final ElasticServiceImpl elasticService = new ElasticServiceImpl();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::search);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        client = new RestHighLevelClient(RestClient.builder(new HttpHost("127.0.0.1", server.getAddress().getPort())));
+        // every test gets its own index, the clients are kept statically by index
+        index = "export-" + UUID.randomUUID();
+        clients().put(index, client);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        clients().remove(index);
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldPageAcrossBatchesAndStopOnShortPage() throws IOException {
+        addDocuments(5);
+
+        List<List<String>> batches = searchAfter(2);
+
+        assertEquals(Arrays.asList(Arrays.asList("1-0", "1-1"), Arrays.asList("1-2", "1-3"),
+                Collections.singletonList("1-4")), batches);
+        assertEquals(3, requests.size());
+        assertEquals(0, requests.get(0).path("search_after").size());
+        assertEquals("1-1", requests.get(1).get("search_after").get(0).asText());
+        assertEquals("1-3", requests.get(2).get("search_after").get(0).asText());
+    }
+
+    @Test
+    public void shouldStopOnEmptyPageWhenLastBatchIsFull() throws IOException {
+        addDocuments(4);
+
+        List<List<String>> batches = searchAfter(2);
+
+        assertEquals(Arrays.asList(Arrays.asList("1-0", "1-1"), Arrays.asList("1-2", "1-3")), batches);
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void shouldLeaveInactiveRecordsOutOfBatches() throws IOException {
+        addDocuments(4);
+        documents.get("1-1").put("_status", false);
+
+        List<List<String>> batches = searchAfter(2);
+
+        assertEquals(Arrays.asList(Collections.singletonList("1-0"), Arrays.asList("1-2", "1-3")), batches);
+    }
+
+    private List<List<String>> searchAfter(int batchSize) throws IOException {
+        List<List<String>> batches = new ArrayList<>();
+        SearchQuery searchQuery = new SearchQuery(Collections.singletonList("Student"), 0, batchSize);
+        searchQuery.setFilters(new ArrayList<>());
+        elasticService.searchAfter(index, searchQuery, "osid", batchSize, batch -> {
+            List<String> ids = new ArrayList<>();
+            batch.forEach(record -> ids.add(record.get("osid").asText()));
+            batches.add(ids);
+        });
+        return batches;
+    }
+
+    private void addDocuments(int count) {
+        for (int i = 0; i < count; i++) {
+            documents.put("1-" + i, JsonNodeFactory.instance.objectNode().put("osid", "1-" + i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, RestHighLevelClient> clients() {
+        return (Map<String, RestHighLevelClient>) ReflectionTestUtils.getField(ElasticServiceImpl.class, "esClient");
+    }
+
+    /**
+     * Answers a search sorted on osid the way elastic search does, a page of size documents after the search_after
+     */
+    private void search(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        requests.add(request);
+        int size = request.get("size").asInt();
+        JsonNode cursor = request.path("search_after");
+        SortedMap<String, ObjectNode> remaining = cursor.size() == 0 ? documents
+                : documents.tailMap(cursor.get(0).asText() + "\0");
+        ArrayNode hits = JsonNodeFactory.instance.arrayNode();
+        for (ObjectNode document : remaining.values()) {
+            if (hits.size() == size) {
+                break;
+            }
+            String osid = document.get("osid").asText();
+            ObjectNode hit = hits.addObject().put("_index", index).put("_type", "_doc").put("_id", osid);
+            hit.putNull("_score");
+            hit.set("_source", document);
+            hit.putArray("sort").add(osid);
+        }
+        ObjectNode response = JsonNodeFactory.instance.objectNode().put("took", 1).put("timed_out", false);
+        response.putObject("_shards").put("total", 1).put("successful", 1).put("skipped", 0).put("failed", 0);
+        ObjectNode hitsNode = response.putObject("hits").put("total", -1);
+        hitsNode.putNull("max_score");
+        hitsNode.set("hits", hits);
+        byte[] body = objectMapper.writeValueAsString(response).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
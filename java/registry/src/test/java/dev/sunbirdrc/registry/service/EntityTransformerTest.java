@@ -0,0 +1,51 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.model.EventConfig;
+import dev.sunbirdrc.registry.util.OSSchemaConfiguration;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+public class EntityTransformerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EntityTransformer entityTransformer = new EntityTransformer();
+
+    @Test
+    public void shouldMaskPrivateAndRemoveInternalFields() throws Exception {
+        JsonNode input = objectMapper.readTree("{\"name\": \"abcdef\", \"identity\": {\"aadhaar\": \"123456\"}, \"notes\": \"internal\", \"age\": 10}");
+        OSSchemaConfiguration configuration = new OSSchemaConfiguration();
+        configuration.setPrivateFields(Arrays.asList("$.name", "$.identity.aadhaar", "$.missing"));
+        configuration.setPrivateFieldConfig(EventConfig.MASK);
+        configuration.setInternalFields(Collections.singletonList("$.notes"));
+        configuration.setInternalFieldConfig(EventConfig.NONE);
+
+        JsonNode output = entityTransformer.updatePrivateAndInternalFields(input, configuration);
+
+        assertEquals("XXXdef", output.get("name").asText());
+        assertEquals("XXX456", output.get("identity").get("aadhaar").asText());
+        assertFalse(output.has("notes"));
+        assertEquals(10, output.get("age").asInt());
+        assertEquals("abcdef", input.get("name").asText());
+        assertEquals("internal", input.get("notes").asText());
+    }
+
+    @Test
+    public void shouldHashPrivateFields() throws Exception {
+        JsonNode input = objectMapper.readTree("{\"email\": \"a@b.com\"}");
+        OSSchemaConfiguration configuration = new OSSchemaConfiguration();
+        configuration.setPrivateFields(Collections.singletonList("$.email"));
+        configuration.setPrivateFieldConfig(EventConfig.HASH);
+
+        JsonNode output = entityTransformer.updatePrivateAndInternalFields(input, configuration);
+
+        assertNotEquals("a@b.com", output.get("email").asText());
+        assertEquals(64, output.get("email").asText().length());
+    }
+}
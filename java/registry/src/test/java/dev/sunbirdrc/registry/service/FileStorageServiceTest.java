@@ -0,0 +1,109 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.registry.model.dto.DocumentsResponse;
+import io.minio.StatObjectResponse;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FileStorageServiceTest {
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private S3Stub s3Stub;
+    private FileStorageService fileStorageService;
+
+    @Before
+    public void setUp() throws Exception {
+        s3Stub = new S3Stub();
+        fileStorageService = new FileStorageService(s3Stub.client(), S3Stub.BUCKET, PART_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        s3Stub.close();
+    }
+
+    @Test
+    public void shouldUploadSmallFileInSingleRequest() throws Exception {
+        byte[] content = randomBytes(1024);
+        fileStorageService.save(new ByteArrayInputStream(content), content.length, "application/pdf", "Teacher/1/documents/small.pdf");
+
+        assertArrayEquals(content, s3Stub.getObject("Teacher/1/documents/small.pdf"));
+        assertEquals("application/pdf", s3Stub.getContentType("Teacher/1/documents/small.pdf"));
+        assertTrue(s3Stub.getPartSizes().isEmpty());
+    }
+
+    @Test
+    public void shouldUploadLargeFileInParts() throws Exception {
+        byte[] content = randomBytes(2 * PART_SIZE + 1024);
+        fileStorageService.save(new ByteArrayInputStream(content), content.length, null, "Teacher/1/documents/large.pdf");
+
+        assertArrayEquals(content, s3Stub.getObject("Teacher/1/documents/large.pdf"));
+        assertEquals(Arrays.asList(PART_SIZE, PART_SIZE, 1024), s3Stub.getPartSizes());
+    }
+
+    @Test
+    public void shouldUploadStreamOfUnknownSizeInParts() throws Exception {
+        byte[] content = randomBytes(PART_SIZE + 1024);
+        fileStorageService.save(new ByteArrayInputStream(content), "Teacher/1/documents/stream.pdf");
+
+        assertArrayEquals(content, s3Stub.getObject("Teacher/1/documents/stream.pdf"));
+        assertTrue(s3Stub.getPartSizes().stream().allMatch(size -> size <= PART_SIZE));
+    }
+
+    @Test
+    public void shouldSaveUploadedFilesWithTheirContentType() {
+        MultipartFile file = new MockMultipartFile("files", "scanned marksheet.png", "image/png", randomBytes(2048));
+        DocumentsResponse documentsResponse = fileStorageService.saveAndFetchFileNames(new MultipartFile[]{file}, "Teacher/1/marksheets/documents");
+
+        assertEquals(Collections.emptyList(), documentsResponse.getErrors());
+        String objectName = documentsResponse.getDocumentLocations().get(0);
+        assertTrue(objectName.endsWith("-scanned_marksheet.png"));
+        assertEquals("image/png", s3Stub.getContentType(objectName));
+    }
+
+    @Test
+    public void shouldStreamRangeOfDocument() throws Exception {
+        byte[] content = randomBytes(4096);
+        s3Stub.putObject("Teacher/1/documents/doc.pdf", content);
+
+        try (InputStream inputStream = fileStorageService.getDocument("Teacher/1/documents/doc.pdf", 100, 50L)) {
+            assertArrayEquals(Arrays.copyOfRange(content, 100, 150), IOUtils.toByteArray(inputStream));
+        }
+        try (InputStream inputStream = fileStorageService.getDocument("Teacher/1/documents/doc.pdf", 4000, null)) {
+            assertArrayEquals(Arrays.copyOfRange(content, 4000, 4096), IOUtils.toByteArray(inputStream));
+        }
+        try (InputStream inputStream = fileStorageService.getDocument("Teacher/1/documents/doc.pdf", 0, null)) {
+            assertArrayEquals(content, IOUtils.toByteArray(inputStream));
+        }
+    }
+
+    @Test
+    public void shouldGetDocumentInfoWithoutReadingIt() throws Exception {
+        byte[] content = randomBytes(4096);
+        s3Stub.putObject("Teacher/1/documents/doc.pdf", content);
+
+        StatObjectResponse documentInfo = fileStorageService.getDocumentInfo("Teacher/1/documents/doc.pdf");
+        assertEquals(4096, documentInfo.size());
+        assertEquals(DigestUtils.md5Hex(content), documentInfo.etag());
+        assertNotNull(documentInfo.lastModified());
+    }
+
+    static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
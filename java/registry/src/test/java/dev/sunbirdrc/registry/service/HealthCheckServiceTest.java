@@ -0,0 +1,207 @@
+package dev.sunbirdrc.registry.service;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import dev.sunbirdrc.pojos.ComponentHealthInfo;
+import dev.sunbirdrc.pojos.HealthCheckResponse;
+import dev.sunbirdrc.pojos.HealthIndicator;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static dev.sunbirdrc.registry.middleware.util.Constants.SUNBIRDRC_DATABASE_NAME;
+import static dev.sunbirdrc.registry.middleware.util.Constants.SUNBIRDRC_REGISTRY_STARTUP;
+import static org.junit.Assert.*;
+
+public class HealthCheckServiceTest {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private HealthCheckService healthCheckService;
+
+    private class StubIndicator implements HealthIndicator {
+        private final String name;
+        private final long latency;
+        private volatile boolean healthy = true;
+        private volatile boolean ignoresInterrupts;
+        private final AtomicInteger checks = new AtomicInteger();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        StubIndicator(String name, long latency) {
+            this.name = name;
+            this.latency = latency;
+        }
+
+        @Override
+        public String getServiceName() {
+            return name;
+        }
+
+        @Override
+        public ComponentHealthInfo getHealthInfo() {
+            checks.incrementAndGet();
+            threads.add(Thread.currentThread().getName() + Thread.currentThread().getId());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (ignoresInterrupts) {
+                    Uninterruptibles.sleepUninterruptibly(latency, TimeUnit.MILLISECONDS);
+                } else {
+                    Thread.sleep(latency);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return new ComponentHealthInfo(name, healthy);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (healthCheckService != null) {
+            healthCheckService.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldServeKeptResultsWithoutCheckingComponents() throws Exception {
+        StubIndicator database = new StubIndicator(SUNBIRDRC_DATABASE_NAME, 200);
+        StubIndicator signer = new StubIndicator("signer", 300);
+        createService(10000, 1000, 60000, database, signer);
+        waitUntil(() -> healthCheckService.health(null).isHealthy());
+
+        long start = System.currentTimeMillis();
+        HealthCheckResponse response = null;
+        for (int i = 0; i < 100; i++) {
+            response = healthCheckService.health(null);
+        }
+
+        assertTrue(System.currentTimeMillis() - start < 200);
+        assertEquals(1, database.checks.get());
+        assertEquals(1, signer.checks.get());
+        assertTrue(response.isHealthy());
+        for (ComponentHealthInfo healthInfo : response.getChecks()) {
+            assertNotNull(healthInfo.getAge());
+        }
+    }
+
+    @Test
+    public void shouldReportComponentNotAnsweringInTime() throws Exception {
+        StubIndicator database = new StubIndicator(SUNBIRDRC_DATABASE_NAME, 10);
+        StubIndicator slow = new StubIndicator("slow", 5000);
+        createService(10000, 100, 60000, database, slow);
+        waitUntil(() -> "TIMEOUT".equals(check(healthCheckService.health(null), "slow").getErr()));
+
+        HealthCheckResponse response = healthCheckService.health(null);
+
+        assertFalse(response.isHealthy());
+        assertTrue(check(response, SUNBIRDRC_DATABASE_NAME).isHealthy());
+        assertFalse(check(response, "slow").isHealthy());
+    }
+
+    @Test
+    public void shouldNotCheckComponentAgainUntilItsHangingCheckReturns() throws Exception {
+        StubIndicator hanging = new StubIndicator("hanging", 500);
+        hanging.ignoresInterrupts = true;
+        createService(50, 50, 60000, hanging);
+
+        waitUntil(() -> hanging.checks.get() >= 2);
+
+        assertEquals(1, maxInFlight.get());
+        assertEquals("TIMEOUT", check(healthCheckService.health(null), "hanging").getErr());
+    }
+
+    @Test
+    public void shouldReportComponentNotCheckedRecently() throws Exception {
+        StubIndicator database = new StubIndicator(SUNBIRDRC_DATABASE_NAME, 10);
+        createService(60000, 1000, 100, database);
+        waitUntil(() -> healthCheckService.health(null).isHealthy());
+
+        waitUntil(() -> "STALE".equals(check(healthCheckService.health(null), SUNBIRDRC_DATABASE_NAME).getErr()));
+        assertFalse(healthCheckService.health(null).isHealthy());
+    }
+
+    @Test
+    public void shouldKeepResultOfEveryComponentCheckedOnRequest() {
+        List<HealthIndicator> indicators = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            indicators.add(new StubIndicator("component-" + i, 20));
+        }
+        createService(0, 5000, 60000, indicators.toArray(new HealthIndicator[0]));
+
+        HealthCheckResponse response = healthCheckService.health(null);
+
+        assertEquals(40, response.getChecks().size());
+        for (int i = 0; i < 40; i++) {
+            assertEquals("component-" + i, response.getChecks().get(i).getName());
+        }
+        assertTrue(response.isHealthy());
+        assertTrue("checks at once: " + maxInFlight.get(), maxInFlight.get() <= 4);
+    }
+
+    @Test
+    public void shouldCheckOnRequestOnSameThreads() {
+        StubIndicator database = new StubIndicator(SUNBIRDRC_DATABASE_NAME, 1);
+        createService(0, 1000, 60000, database);
+
+        for (int i = 0; i < 20; i++) {
+            healthCheckService.health(null);
+        }
+
+        assertEquals(20, database.checks.get());
+        assertTrue("threads: " + database.threads, database.threads.size() <= 4);
+    }
+
+    @Test
+    public void shouldBeReadyOnlyWhenReadinessComponentsAreHealthy() throws Exception {
+        StubIndicator startup = new StubIndicator(SUNBIRDRC_REGISTRY_STARTUP, 10);
+        StubIndicator database = new StubIndicator(SUNBIRDRC_DATABASE_NAME, 10);
+        StubIndicator signer = new StubIndicator("signer", 10);
+        startup.healthy = false;
+        signer.healthy = false;
+        createService(0, 1000, 60000, startup, database, signer);
+
+        assertFalse(healthCheckService.readiness(null).isHealthy());
+        assertTrue(healthCheckService.liveness().isHealthy());
+
+        startup.healthy = true;
+        HealthCheckResponse readiness = healthCheckService.readiness(null);
+        assertTrue(readiness.isHealthy());
+        assertEquals(2, readiness.getChecks().size());
+        assertFalse(healthCheckService.health(null).isHealthy());
+    }
+
+    private void createService(long interval, long timeout, long maxAge, HealthIndicator... indicators) {
+        healthCheckService = new HealthCheckService();
+        ReflectionTestUtils.setField(healthCheckService, "healthIndicators", Arrays.asList(indicators));
+        ReflectionTestUtils.setField(healthCheckService, "interval", interval);
+        ReflectionTestUtils.setField(healthCheckService, "timeout", timeout);
+        ReflectionTestUtils.setField(healthCheckService, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(healthCheckService, "maxAge", maxAge);
+        ReflectionTestUtils.setField(healthCheckService, "readinessComponents",
+                new String[]{SUNBIRDRC_REGISTRY_STARTUP, SUNBIRDRC_DATABASE_NAME});
+        healthCheckService.init();
+    }
+
+    private static ComponentHealthInfo check(HealthCheckResponse response, String name) {
+        return response.getChecks().stream().filter(check -> check.getName().equals(name)).findFirst().orElse(null);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met in time");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
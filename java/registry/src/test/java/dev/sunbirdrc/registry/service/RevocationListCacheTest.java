@@ -0,0 +1,293 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.sunbirdrc.registry.service.impl.OutboundHttpClient;
+import dev.sunbirdrc.registry.service.impl.RetryRestTemplate;
+import dev.sunbirdrc.registry.service.impl.SignatureV2ServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class RevocationListCacheTest {
+    private static final String ISSUER = "did:issuer:1";
+
+    private HttpServer server;
+    // revoked credentials of the stub credential service, the latest issued first
+    private final List<ObjectNode> revoked = new CopyOnWriteArrayList<>();
+    private final Map<String, ObjectNode> credentials = new HashMap<>();
+    private final AtomicInteger listCalls = new AtomicInteger();
+    private volatile int status = 200;
+
+    private RevocationListCache revocationListCache;
+    private SignatureV2ServiceImpl signatureService;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/credentials/revocation-list", this::revocationList);
+        server.createContext("/credentials/", this::credential);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        for (int i = 0; i < 2500; i++) {
+            revoked.add(credential(String.format("c-%04d", 2500 - i), 2500 - i));
+        }
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        RetryRestTemplate retryRestTemplate = new RetryRestTemplate();
+        ReflectionTestUtils.setField(retryRestTemplate, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(retryRestTemplate, "outboundHttpClient",
+                new OutboundHttpClient(Runnable::run, Runnable::run, 1, 0, 1, 0, 50, 1000));
+
+        revocationListCache = new RevocationListCache();
+        ReflectionTestUtils.setField(revocationListCache, "refreshAfter", 60000L);
+        ReflectionTestUtils.setField(revocationListCache, "pageSize", 1000);
+        ReflectionTestUtils.setField(revocationListCache, "maxEntries", 1000000);
+        ReflectionTestUtils.setField(revocationListCache, "maxIssuers", 1000);
+        ReflectionTestUtils.setField(revocationListCache, "negativeTtl", 60000L);
+        signatureService = new SignatureV2ServiceImpl();
+        ReflectionTestUtils.setField(signatureService, "retryRestTemplate", retryRestTemplate);
+        ReflectionTestUtils.setField(signatureService, "revocationListCache", revocationListCache);
+        ReflectionTestUtils.setField(signatureService, "getRevocationListURL",
+                baseUrl + "/credentials/revocation-list?issuerId={issuerDid}&page={page}&limit={limit}");
+        ReflectionTestUtils.setField(signatureService, "getCredentialByIdURL", baseUrl + "/credentials/{id}");
+        ReflectionTestUtils.setField(signatureService, "deleteCredentialByIdURL", baseUrl + "/credentials/{id}");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldServePagesFromMemory() throws Exception {
+        RevocationListCache.Snapshot revocationList = signatureService.getRevocationList(ISSUER);
+        assertEquals(2500, revocationList.size());
+        assertEquals(3, listCalls.get());
+
+        for (int i = 0; i < 100; i++) {
+            signatureService.getRevocationList(ISSUER);
+        }
+        ArrayNode page = signatureService.getRevocationList(ISSUER).page(2, 10);
+
+        assertEquals(3, listCalls.get());
+        assertEquals(10, page.size());
+        assertEquals("c-2490", page.get(0).get("id").asText());
+        assertEquals(0, revocationList.page(26, 100).size());
+    }
+
+    @Test
+    public void shouldAddCredentialRevokedThroughRegistry() throws Exception {
+        RevocationListCache.Snapshot before = signatureService.getRevocationList(ISSUER);
+        credentials.put("c-new", credential("c-new", 3000));
+
+        signatureService.revoke("Student", "1-7d8d4f4e-38a5-4c0b-8d1a-37f6f1ac9a41", "c-new");
+
+        RevocationListCache.Snapshot after = signatureService.getRevocationList(ISSUER);
+        assertEquals(3, listCalls.get());
+        assertEquals(2501, after.size());
+        assertTrue(after.getVersion() > before.getVersion());
+        JsonNode added = after.page(1, 1).get(0);
+        assertEquals("c-new", added.get("id").asText());
+        assertEquals("7d8d4f4e-38a5-4c0b-8d1a-37f6f1ac9a41", added.get("tags").get(1).asText());
+        ObjectNode delta = after.since(before.getVersion());
+        assertFalse(delta.get("complete").asBoolean());
+        assertEquals(1, delta.get("revoked").size());
+        assertEquals(0, after.since(after.getVersion()).get("revoked").size());
+    }
+
+    @Test
+    public void shouldReadStaleListAgainKeepingVersionsOfKnownCredentials() throws Exception {
+        RevocationListCache.Snapshot before = signatureService.getRevocationList(ISSUER);
+        revoked.add(0, credential("c-elsewhere", 3000));
+        ReflectionTestUtils.setField(revocationListCache, "refreshAfter", 0L);
+
+        RevocationListCache.Snapshot after = signatureService.getRevocationList(ISSUER);
+
+        assertEquals(6, listCalls.get());
+        assertEquals(2501, after.size());
+        ObjectNode delta = after.since(before.getVersion());
+        assertFalse(delta.get("complete").asBoolean());
+        assertEquals("c-elsewhere", delta.get("revoked").get(0).get("id").asText());
+        assertEquals(1, delta.get("revoked").size());
+    }
+
+    @Test
+    public void shouldKeepVersionAndETagIfNothingChanged() throws Exception {
+        RevocationListCache.Snapshot before = signatureService.getRevocationList(ISSUER);
+        ReflectionTestUtils.setField(revocationListCache, "refreshAfter", 0L);
+
+        RevocationListCache.Snapshot after = signatureService.getRevocationList(ISSUER);
+
+        assertEquals(before.getVersion(), after.getVersion());
+        assertEquals(before.eTag("page:1:1000"), after.eTag("page:1:1000"));
+        assertNotEquals(after.eTag("page:1:1000"), after.eTag("page:2:1000"));
+    }
+
+    @Test
+    public void shouldSendWholeListSinceVersionBeforeReinstatement() throws Exception {
+        RevocationListCache.Snapshot before = signatureService.getRevocationList(ISSUER);
+        revoked.remove(0);
+        ReflectionTestUtils.setField(revocationListCache, "refreshAfter", 0L);
+
+        RevocationListCache.Snapshot after = signatureService.getRevocationList(ISSUER);
+
+        assertNotEquals(before.eTag("compact"), after.eTag("compact"));
+        ObjectNode delta = after.since(before.getVersion());
+        assertTrue(delta.get("complete").asBoolean());
+        assertEquals(2499, delta.get("revoked").size());
+        assertFalse(after.since(after.getVersion()).get("complete").asBoolean());
+    }
+
+    @Test
+    public void shouldServeCurrentListIfReadingFails() throws Exception {
+        RevocationListCache.Snapshot before = signatureService.getRevocationList(ISSUER);
+        status = 500;
+        ReflectionTestUtils.setField(revocationListCache, "refreshAfter", 0L);
+
+        RevocationListCache.Snapshot after = signatureService.getRevocationList(ISSUER);
+
+        assertEquals(before.getVersion(), after.getVersion());
+        assertEquals(2500, after.size());
+    }
+
+    @Test
+    public void shouldNotReadListAgainWhileItFails() throws Exception {
+        status = 500;
+        for (int i = 0; i < 2; i++) {
+            try {
+                signatureService.getRevocationList(ISSUER);
+                fail("reading the list should fail");
+            } catch (Exception e) {
+                assertTrue(e.getMessage().contains("500"));
+            }
+        }
+        int calls = listCalls.get();
+        ReflectionTestUtils.setField(revocationListCache, "negativeTtl", 0L);
+        status = 200;
+
+        assertEquals(2500, signatureService.getRevocationList(ISSUER).size());
+        assertTrue(listCalls.get() > calls);
+    }
+
+    @Test
+    public void shouldDropEmptyListsBeforeListsInUse() throws Exception {
+        ReflectionTestUtils.setField(revocationListCache, "maxIssuers", 2);
+        signatureService.getRevocationList(ISSUER);
+        int calls = listCalls.get();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, revocationListCache.get("did:unknown:" + i, (page, limit) -> JsonNodeFactory.instance.arrayNode()).size());
+        }
+        signatureService.getRevocationList(ISSUER);
+
+        assertEquals(calls, listCalls.get());
+    }
+
+    @Test
+    public void shouldDropLeastRecentlyUsedListsPastMaxIssuers() throws Exception {
+        ReflectionTestUtils.setField(revocationListCache, "maxIssuers", 2);
+        AtomicInteger reads = new AtomicInteger();
+        RevocationListCache.PageLoader loader = (page, limit) -> {
+            reads.incrementAndGet();
+            return JsonNodeFactory.instance.arrayNode().add(credential("c-1", 1));
+        };
+        revocationListCache.get("did:issuer:a", loader);
+        Thread.sleep(5);
+        revocationListCache.get("did:issuer:b", loader);
+        Thread.sleep(5);
+        revocationListCache.get("did:issuer:a", loader);
+        Thread.sleep(5);
+        revocationListCache.get("did:issuer:c", loader);
+        assertEquals(3, reads.get());
+
+        revocationListCache.get("did:issuer:a", loader);
+        assertEquals(3, reads.get());
+        revocationListCache.get("did:issuer:b", loader);
+        assertEquals(4, reads.get());
+    }
+
+    @Test
+    public void shouldEncodeIdsCompactly() throws Exception {
+        ObjectNode compact = signatureService.getRevocationList(ISSUER).compact();
+
+        assertEquals(2500, compact.get("count").asInt());
+        byte[] encoded = Base64.getUrlDecoder().decode(compact.get("encodedList").asText());
+        String ids = new String(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(encoded))),
+                StandardCharsets.UTF_8);
+        String[] lines = ids.split("\n");
+        assertEquals(2500, lines.length);
+        assertEquals("c-2500", lines[0]);
+        assertTrue(encoded.length < ids.length());
+    }
+
+    private void revocationList(HttpExchange exchange) throws IOException {
+        listCalls.incrementAndGet();
+        Map<String, String> query = new HashMap<>();
+        for (String parameter : exchange.getRequestURI().getQuery().split("&")) {
+            String[] pair = parameter.split("=", 2);
+            query.put(pair[0], pair[1]);
+        }
+        int page = Integer.parseInt(query.get("page"));
+        int limit = Integer.parseInt(query.get("limit"));
+        ArrayNode items = JsonNodeFactory.instance.arrayNode();
+        for (int i = (page - 1) * limit; i < Math.min(revoked.size(), page * limit); i++) {
+            items.add(revoked.get(i));
+        }
+        respond(exchange, status, items);
+    }
+
+    private void credential(HttpExchange exchange) throws IOException {
+        String id = exchange.getRequestURI().getPath().substring("/credentials/".length());
+        ObjectNode credential = credentials.get(id);
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            revoked.add(0, credential);
+            respond(exchange, 200, JsonNodeFactory.instance.objectNode());
+            return;
+        }
+        ObjectNode document = JsonNodeFactory.instance.objectNode();
+        document.put("id", id);
+        document.set("issuer", JsonNodeFactory.instance.objectNode().put("id", ISSUER));
+        document.set("issuanceDate", credential.get("issuanceDate"));
+        respond(exchange, 200, document);
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = new ObjectMapper().writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static ObjectNode credential(String id, int day) {
+        ObjectNode credential = JsonNodeFactory.instance.objectNode();
+        credential.put("id", id);
+        credential.set("tags", JsonNodeFactory.instance.arrayNode().add("Student"));
+        credential.put("issuer", ISSUER);
+        credential.put("issuanceDate", new Date(day * 86400000L).toInstant().toString());
+        return credential;
+    }
+}
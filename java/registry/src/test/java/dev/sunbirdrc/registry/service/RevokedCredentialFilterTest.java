@@ -0,0 +1,193 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.TinkerGraphProvider;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static dev.sunbirdrc.registry.Constants.REVOKED_CREDENTIAL;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RevokedCredentialFilterTest {
+    private static final Logger logger = LoggerFactory.getLogger(RevokedCredentialFilterTest.class);
+
+    private final Map<String, DatabaseProvider> providers = new LinkedHashMap<>();
+    private RevokedCredentialFilter filter;
+
+    @Before
+    public void setUp() {
+        List<DBConnectionInfo> shards = new ArrayList<>();
+        DBProviderFactory dbProviderFactory = mock(DBProviderFactory.class);
+        for (String shardId : Arrays.asList("shard1", "shard2")) {
+            DBConnectionInfo dbConnectionInfo = new DBConnectionInfo();
+            dbConnectionInfo.setShardId(shardId);
+            shards.add(dbConnectionInfo);
+            DatabaseProvider provider = new TinkerGraphProvider(null);
+            when(dbProviderFactory.getInstance(dbConnectionInfo)).thenReturn(provider);
+            providers.put(shardId, provider);
+        }
+        DBConnectionInfoMgr dbConnectionInfoMgr = mock(DBConnectionInfoMgr.class);
+        when(dbConnectionInfoMgr.getConnectionInfo()).thenReturn(shards);
+
+        filter = spy(new RevokedCredentialFilter());
+        ReflectionTestUtils.setField(filter, "dbConnectionInfoMgr", dbConnectionInfoMgr);
+        ReflectionTestUtils.setField(filter, "dbProviderFactory", dbProviderFactory);
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveProbability", 0.01);
+        ReflectionTestUtils.setField(filter, "rebuildInterval", 0L);
+        ReflectionTestUtils.setField(filter, "pollInterval", 0L);
+        ReflectionTestUtils.setField(filter, "invalidationBus", new InvalidationBus());
+        filter.init();
+    }
+
+    @After
+    public void tearDown() {
+        filter.shutdown();
+    }
+
+    @Test
+    public void shouldTreatEveryCredentialAsRevokedUntilBuilt() {
+        assertFalse(filter.isLoaded());
+        assertTrue(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential")));
+    }
+
+    @Test
+    public void shouldBuildFromRevokedCredentialsOfEveryShard() throws Exception {
+        revoke("shard1", "credential-1");
+        revoke("shard2", "credential-2");
+
+        filter.rebuild();
+
+        assertTrue(filter.isLoaded());
+        assertTrue(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-1")));
+        assertTrue(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-2")));
+        assertFalse(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-3")));
+    }
+
+    @Test
+    public void shouldAddRevokedCredentialsToBuiltFilter() throws Exception {
+        filter.rebuild();
+        String signedHash = RevokedCredentialFilter.hash("credential-1");
+        assertFalse(filter.mightBeRevoked(signedHash));
+
+        filter.revoked(signedHash);
+
+        assertTrue(filter.mightBeRevoked(signedHash));
+    }
+
+    @Test
+    public void shouldKeepCredentialsRevokedWhileBuilding() throws Exception {
+        String signedHash = RevokedCredentialFilter.hash("credential-1");
+        doAnswer(invocation -> {
+            filter.revoked(signedHash);
+            return invocation.callRealMethod();
+        }).when(filter).loadRevokedHashes(any());
+
+        filter.rebuild();
+
+        assertTrue(filter.mightBeRevoked(signedHash));
+    }
+
+    @Test
+    public void shouldKeepCurrentFilterIfBuildFails() throws Exception {
+        revoke("shard1", "credential-1");
+        filter.rebuild();
+        doThrow(new RuntimeException("shard unavailable")).when(filter).loadRevokedHashes(any());
+
+        try {
+            filter.rebuild();
+            fail("rebuild should fail");
+        } catch (RuntimeException e) {
+            assertEquals("shard unavailable", e.getMessage());
+        }
+        assertTrue(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-1")));
+        assertFalse(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-2")));
+    }
+
+    @Test
+    public void shouldAddCredentialsRevokedInTheStoreSinceLastPoll() throws Exception {
+        filter.rebuild();
+        revoke("shard2", "credential-1");
+        assertFalse(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-1")));
+
+        filter.poll();
+
+        assertTrue(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-1")));
+        assertFalse(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-2")));
+    }
+
+    @Test
+    public void shouldNotRuleOutCredentialsOnceFilterIsNotPolled() throws Exception {
+        filter.rebuild();
+        ReflectionTestUtils.setField(filter, "pollInterval", 1000L);
+        assertFalse(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-1")));
+
+        ReflectionTestUtils.setField(filter, "syncedAt", System.currentTimeMillis() - 5000);
+        assertTrue(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-1")));
+
+        filter.poll();
+        assertFalse(filter.mightBeRevoked(RevokedCredentialFilter.hash("credential-1")));
+    }
+
+    @Test
+    public void shouldRuleOutMostCredentialsOfRevocationsFilterIsSizedFor() throws Exception {
+        int revocations = 20_000;
+        doReturn((long) revocations).when(filter).countRevokedHashes();
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            for (int i = 0; i < revocations; i++) {
+                consumer.accept(RevokedCredentialFilter.hash("revoked-" + i));
+            }
+            return null;
+        }).when(filter).loadRevokedHashes(any());
+        ReflectionTestUtils.setField(filter, "expectedInsertions", (long) revocations);
+        filter.rebuild();
+
+        int checks = 10_000;
+        List<String> signedHashes = new ArrayList<>(checks);
+        for (int i = 0; i < checks; i++) {
+            signedHashes.add(RevokedCredentialFilter.hash("valid-" + i));
+        }
+        int positives = 0;
+        long start = System.nanoTime();
+        for (String signedHash : signedHashes) {
+            if (filter.mightBeRevoked(signedHash)) {
+                positives++;
+            }
+        }
+        long took = System.nanoTime() - start;
+        logger.info("{} checks against {} revocations in {} ms, {} checks/s, {} needed a search",
+                checks, revocations, took / 1_000_000, checks * 1_000_000_000L / Math.max(took, 1), positives);
+
+        assertTrue("false positives: " + positives, positives < checks * 0.02);
+        for (int i = 0; i < revocations; i += 997) {
+            assertTrue(filter.mightBeRevoked(RevokedCredentialFilter.hash("revoked-" + i)));
+        }
+    }
+
+    private void revoke(String shardId, String signedData) throws Exception {
+        try (OSGraph osGraph = providers.get(shardId).getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            Vertex vertex = graph.addVertex(REVOKED_CREDENTIAL);
+            vertex.property(RevokedCredentialFilter.SIGNED_HASH, RevokedCredentialFilter.hash(signedData));
+            vertex.property(OSSystemFields.osCreatedAt.name(), Instant.now().toString());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package dev.sunbirdrc.registry.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.minio.MinioClient;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process S3 compatible object store for tests, it serves the calls FileStorageService makes: single and
+ * multipart uploads, stat, ranged downloads and deletes of the objects of one bucket.
+ */
+public class S3Stub implements AutoCloseable {
+    public static final String BUCKET = "documents";
+    private static final String S3_NAMESPACE = "http://s3.amazonaws.com/doc/2006-03-01/";
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+    private final HttpServer server;
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, SortedMap<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final List<Integer> partSizes = Collections.synchronizedList(new ArrayList<>());
+
+    public S3Stub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public MinioClient client() {
+        return MinioClient.builder()
+                .endpoint("http://127.0.0.1:" + server.getAddress().getPort())
+                .region("us-east-1")
+                .credentials("access", "secret")
+                .build();
+    }
+
+    public byte[] getObject(String objectName) {
+        StoredObject object = objects.get(objectName);
+        return object == null ? null : object.content;
+    }
+
+    public String getContentType(String objectName) {
+        return objects.get(objectName).contentType;
+    }
+
+    public void putObject(String objectName, byte[] content) {
+        objects.put(objectName, new StoredObject(content, "application/octet-stream"));
+    }
+
+    /**
+     * @return sizes of the parts of the multipart uploads received so far
+     */
+    public List<Integer> getPartSizes() {
+        return partSizes;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String objectName = path.substring(BUCKET.length() + 2);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            switch (exchange.getRequestMethod()) {
+                case "HEAD":
+                    stat(exchange, objectName);
+                    break;
+                case "GET":
+                    get(exchange, objectName);
+                    break;
+                case "PUT":
+                    put(exchange, objectName, query);
+                    break;
+                case "POST":
+                    post(exchange, objectName, query);
+                    break;
+                case "DELETE":
+                    objects.remove(objectName);
+                    exchange.sendResponseHeaders(204, -1);
+                    break;
+                default:
+                    exchange.sendResponseHeaders(405, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void stat(HttpExchange exchange, String objectName) throws IOException {
+        StoredObject object = objects.get(objectName);
+        if (object == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        addObjectHeaders(exchange, object);
+        exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.content.length));
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void get(HttpExchange exchange, String objectName) throws IOException {
+        StoredObject object = objects.get(objectName);
+        if (object == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        addObjectHeaders(exchange, object);
+        byte[] content = object.content;
+        int status = 200;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null) {
+            Matcher matcher = RANGE.matcher(range);
+            if (!matcher.matches()) {
+                exchange.sendResponseHeaders(416, -1);
+                return;
+            }
+            int start = Integer.parseInt(matcher.group(1));
+            int end = matcher.group(2).isEmpty() ? content.length - 1 : Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+            exchange.getResponseHeaders().set("Content-Range", String.format("bytes %d-%d/%d", start, end, content.length));
+            content = Arrays.copyOfRange(content, start, end + 1);
+            status = 206;
+        }
+        send(exchange, status, content);
+    }
+
+    private void put(HttpExchange exchange, String objectName, Map<String, String> query) throws IOException {
+        byte[] content = IOUtils.toByteArray(exchange.getRequestBody());
+        if (query.containsKey("partNumber")) {
+            uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), content);
+            partSizes.add(content.length);
+        } else {
+            objects.put(objectName, new StoredObject(content, exchange.getRequestHeaders().getFirst("Content-Type")));
+        }
+        exchange.getResponseHeaders().set("ETag", "\"" + DigestUtils.md5Hex(content) + "\"");
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void post(HttpExchange exchange, String objectName, Map<String, String> query) throws IOException {
+        IOUtils.toByteArray(exchange.getRequestBody());
+        if (query.containsKey("uploads")) {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new TreeMap<>());
+            send(exchange, 200, xml("InitiateMultipartUploadResult", "<Bucket>" + BUCKET + "</Bucket><Key>" + objectName
+                    + "</Key><UploadId>" + uploadId + "</UploadId>"));
+            return;
+        }
+        SortedMap<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] part : parts.values()) {
+            content.write(part);
+        }
+        objects.put(objectName, new StoredObject(content.toByteArray(), exchange.getRequestHeaders().getFirst("Content-Type")));
+        send(exchange, 200, xml("CompleteMultipartUploadResult", "<Bucket>" + BUCKET + "</Bucket><Key>" + objectName
+                + "</Key><ETag>\"" + DigestUtils.md5Hex(content.toByteArray()) + "\"</ETag>"));
+    }
+
+    private static void addObjectHeaders(HttpExchange exchange, StoredObject object) {
+        exchange.getResponseHeaders().set("ETag", "\"" + DigestUtils.md5Hex(object.content) + "\"");
+        exchange.getResponseHeaders().set("Last-Modified", HTTP_DATE.format(object.lastModified));
+        exchange.getResponseHeaders().set("Content-Type", object.contentType == null ? "application/octet-stream" : object.contentType);
+    }
+
+    private static byte[] xml(String root, String body) {
+        return ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><" + root + " xmlns=\"" + S3_NAMESPACE + "\">" + body + "</" + root + ">")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                String[] keyValue = param.split("=", 2);
+                params.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+            }
+        }
+        return params;
+    }
+
+    private static final class StoredObject {
+        private final byte[] content;
+        private final String contentType;
+        private final ZonedDateTime lastModified = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+
+        StoredObject(byte[] content, String contentType) {
+            this.content = content;
+            this.contentType = contentType;
+        }
+    }
+}
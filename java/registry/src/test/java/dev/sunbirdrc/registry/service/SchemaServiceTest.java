@@ -11,6 +11,7 @@ import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.util.Definition;
 import dev.sunbirdrc.registry.util.DefinitionsManager;
+import dev.sunbirdrc.registry.util.IndexReconciler;
 import dev.sunbirdrc.validators.IValidate;
 import org.apache.commons.io.IOUtils;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -51,6 +52,8 @@ public class SchemaServiceTest {
 
 	@Spy
 	SchemaAuthFilter schemaAuthFilter;
+	@Mock
+	IndexReconciler indexReconciler;
 	@InjectMocks
 	SchemaService schemaService;
 
@@ -165,6 +168,7 @@ public class SchemaServiceTest {
 		schemaNode.set(Schema, object);
 		schemaService.addSchema(schemaNode);
 		assertEquals(2, definitionsManager.getAllKnownDefinitions().size());
+		verify(indexReconciler).reconcile("Student");
 	}
 
 	@Test
@@ -177,6 +181,7 @@ public class SchemaServiceTest {
 		schemaNode.set(Schema, object);
 		schemaService.addSchema(schemaNode);
 		assertEquals(1, definitionsManager.getAllKnownDefinitions().size());
+		verifyNoInteractions(indexReconciler);
 	}
 
 	@Test
@@ -0,0 +1,100 @@
+package dev.sunbirdrc.registry.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.sunbirdrc.registry.service.impl.OutboundHttpClient;
+import dev.sunbirdrc.registry.service.impl.RetryRestTemplate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TemplateCacheTest {
+    private HttpServer server;
+    private String url;
+    private volatile String template = "<html>{{name}}</html>";
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private TemplateCache templateCache;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/templates/Student.html", this::serve);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/templates/Student.html";
+
+        RetryRestTemplate retryRestTemplate = new RetryRestTemplate();
+        ReflectionTestUtils.setField(retryRestTemplate, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(retryRestTemplate, "outboundHttpClient",
+                new OutboundHttpClient(Runnable::run, Runnable::run, 1, 0, 1, 0, 50, 1000));
+        templateCache = new TemplateCache();
+        ReflectionTestUtils.setField(templateCache, "retryRestTemplate", retryRestTemplate);
+        ReflectionTestUtils.setField(templateCache, "revalidateAfter", 60000L);
+        ReflectionTestUtils.setField(templateCache, "maxEntries", 10);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldFetchOnceWithinRevalidateAfter() {
+        assertEquals(template, templateCache.getTemplate(url));
+        String version = templateCache.getVersion(url);
+
+        assertEquals(version, templateCache.getVersion(url));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void shouldRevalidateWithConditionalRequest() {
+        ReflectionTestUtils.setField(templateCache, "revalidateAfter", 0L);
+        String version = templateCache.getVersion(url);
+
+        assertEquals(version, templateCache.getVersion(url));
+        assertEquals(template, templateCache.getTemplate(url));
+        assertEquals(3, requests.get());
+        assertEquals(2, notModified.get());
+    }
+
+    @Test
+    public void shouldChangeVersionWhenTemplateChanges() {
+        ReflectionTestUtils.setField(templateCache, "revalidateAfter", 0L);
+        String version = templateCache.getVersion(url);
+        template = "<html>{{name}} {{school}}</html>";
+
+        assertNotEquals(version, templateCache.getVersion(url));
+        assertEquals(0, notModified.get());
+        assertEquals(template, templateCache.getTemplate(url));
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String current = template;
+        String eTag = "\"" + current.hashCode() + "\"";
+        exchange.getResponseHeaders().add("ETag", eTag);
+        if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = current.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import dev.sunbirdrc.registry.model.event.Event;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class FileEventServiceTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldAppendEventsAsNdjson() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "events/events.ndjson");
+        FileEventService eventService = createEventService(file, 100);
+        for (int i = 0; i < 250; i++) {
+            eventService.pushEvents(event(eventService, i));
+        }
+        eventService.stop();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(250, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode event = objectMapper.readTree(lines.get(i));
+            assertEquals("entity-" + i, event.get("object").get("id").asText());
+            assertEquals("ADD", event.get("eid").asText());
+        }
+        assertFalse(lines.get(0).contains("\n  "));
+        assertEquals(250, eventService.getPublishedCount());
+        assertEquals(0, eventService.getDroppedCount());
+    }
+
+    @Test
+    public void shouldAppendToExistingFile() throws Exception {
+        File file = temporaryFolder.newFile("events.ndjson");
+        FileEventService eventService = createEventService(file, 100);
+        eventService.pushEvents(event(eventService, 1));
+        eventService.stop();
+        eventService = createEventService(file, 100);
+        eventService.pushEvents(event(eventService, 2));
+        eventService.stop();
+
+        assertEquals(2, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void shouldDropEventsWhenQueueIsFull() throws Exception {
+        File file = temporaryFolder.newFile("events.ndjson");
+        FileEventService eventService = new FileEventService();
+        ReflectionTestUtils.setField(eventService, "filePath", file.getAbsolutePath());
+        ReflectionTestUtils.setField(eventService, "queueCapacity", 2);
+        ReflectionTestUtils.setField(eventService, "batchSize", 10);
+        // the worker is not started, so nothing is taken off the queue
+        ReflectionTestUtils.setField(eventService, "queue", new ArrayBlockingQueue<Event>(2));
+        for (int i = 0; i < 5; i++) {
+            eventService.pushEvents(event(eventService, i));
+        }
+
+        assertEquals(2, eventService.getQueueSize());
+        assertEquals(3, eventService.getDroppedCount());
+        assertEquals(Long.valueOf(2), eventService.getMetrics().get("queued"));
+        assertEquals(Long.valueOf(3), eventService.getMetrics().get("dropped"));
+    }
+
+    @Test
+    public void shouldNotStartWhenEventsAreDisabled() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "disabled/events.ndjson");
+        FileEventService eventService = new FileEventService();
+        ReflectionTestUtils.setField(eventService, "filePath", file.getAbsolutePath());
+        eventService.start();
+
+        eventService.pushEvents(event(eventService, 1));
+        eventService.stop();
+
+        assertNull(ReflectionTestUtils.getField(eventService, "worker"));
+        assertFalse(file.exists());
+        assertEquals(0, eventService.getDroppedCount());
+    }
+
+    @Test
+    public void shouldCloseFileOnlyOnceWorkerHasExited() throws Exception {
+        File file = temporaryFolder.newFile("events.ndjson");
+        CountDownLatch publishing = new CountDownLatch(1);
+        AtomicBoolean workerAliveOnClose = new AtomicBoolean(true);
+        FileEventService eventService = new FileEventService() {
+            @Override
+            protected void publish(List<Event> events, List<String> messages) {
+                publishing.countDown();
+                try {
+                    // a publisher stuck until the worker is interrupted
+                    Thread.sleep(60000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            protected void close() {
+                workerAliveOnClose.set(((Thread) ReflectionTestUtils.getField(this, "worker")).isAlive());
+                super.close();
+            }
+        };
+        ReflectionTestUtils.setField(eventService, "enabled", true);
+        ReflectionTestUtils.setField(eventService, "filePath", file.getAbsolutePath());
+        ReflectionTestUtils.setField(eventService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(eventService, "batchSize", 1);
+        ReflectionTestUtils.setField(eventService, "drainTimeoutMillis", 100L);
+        eventService.start();
+        for (int i = 0; i < 3; i++) {
+            eventService.pushEvents(event(eventService, i));
+        }
+        publishing.await();
+
+        eventService.stop();
+
+        assertFalse(workerAliveOnClose.get());
+        assertEquals(2, eventService.getDroppedCount());
+    }
+
+    private FileEventService createEventService(File file, int batchSize) {
+        FileEventService eventService = new FileEventService();
+        ReflectionTestUtils.setField(eventService, "enabled", true);
+        ReflectionTestUtils.setField(eventService, "filePath", file.getAbsolutePath());
+        ReflectionTestUtils.setField(eventService, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(eventService, "batchSize", batchSize);
+        eventService.start();
+        return eventService;
+    }
+
+    private Event event(FileEventService eventService, int i) {
+        return eventService.createTelemetryObject("ADD", "user", "USER", "entity-" + i, "Teacher",
+                JsonNodeFactory.instance.objectNode().put("name", "teacher " + i));
+    }
+}
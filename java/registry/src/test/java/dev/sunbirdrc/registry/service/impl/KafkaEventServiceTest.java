@@ -0,0 +1,65 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KafkaEventServiceTest {
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+    @InjectMocks
+    private KafkaEventService eventService;
+
+    @Test
+    public void shouldSendCompactEventsFromBackgroundThread() throws Exception {
+        ReflectionTestUtils.setField(eventService, "enabled", true);
+        ReflectionTestUtils.setField(eventService, "metricsTopic", "events");
+        ReflectionTestUtils.setField(eventService, "queueCapacity", 100);
+        ReflectionTestUtils.setField(eventService, "batchSize", 10);
+        SettableListenableFuture<SendResult<String, String>> sent = new SettableListenableFuture<>();
+        sent.set(null);
+        SettableListenableFuture<SendResult<String, String>> failed = new SettableListenableFuture<>();
+        failed.setException(new RuntimeException("broker unavailable"));
+        when(kafkaTemplate.send(eq("events"), anyString(), anyString())).thenReturn(sent, sent, failed);
+        eventService.start();
+
+        for (int i = 0; i < 3; i++) {
+            eventService.pushEvents(eventService.createTelemetryObject("UPDATE", "user", "USER", "entity-" + i, "Teacher",
+                    JsonNodeFactory.instance.objectNode().put("name", "teacher")));
+        }
+        eventService.stop();
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate, times(3)).send(eq("events"), keys.capture(), messages.capture());
+        verify(kafkaTemplate).flush();
+        List<String> sentMessages = messages.getAllValues();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("entity-" + i, keys.getAllValues().get(i));
+            assertEquals("entity-" + i, new ObjectMapper().readTree(sentMessages.get(i)).get("object").get("id").asText());
+            assertFalse(sentMessages.get(i).contains("\n"));
+        }
+        assertEquals(2, eventService.getPublishedCount());
+        assertEquals(1, eventService.getFailedCount());
+    }
+}
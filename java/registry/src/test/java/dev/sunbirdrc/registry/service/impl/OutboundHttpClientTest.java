@@ -0,0 +1,267 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.sunbirdrc.registry.exception.SignatureException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class OutboundHttpClientTest {
+    private HttpServer server;
+    private String baseUrl;
+    private ExecutorService executor;
+    private OutboundHttpClient outboundHttpClient;
+    private RetryRestTemplate retryRestTemplate;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> requestUris = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        server.createContext("/echo", exchange -> {
+            requests.incrementAndGet();
+            synchronized (requestUris) {
+                requestUris.add(exchange.getRequestURI().getRawPath());
+            }
+            respond(exchange, 200, "{\"status\":\"UP\"}");
+        });
+        server.start();
+        executor = Executors.newFixedThreadPool(8);
+        outboundHttpClient = new OutboundHttpClient(executor, executor, 3, 10, 2, 100, 2, 50);
+        retryRestTemplate = new RetryRestTemplate();
+        ReflectionTestUtils.setField(retryRestTemplate, "restTemplate", new RestTemplate(new HttpComponentsClientHttpRequestFactory()));
+        ReflectionTestUtils.setField(retryRestTemplate, "outboundHttpClient", outboundHttpClient);
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldExpandUriVariablesOfConcurrentCalls() throws Exception {
+        ReflectionTestUtils.setField(retryRestTemplate, "outboundHttpClient", new OutboundHttpClient(executor, executor, 3, 10, 2, 100, 20, 5000));
+        List<CompletableFuture<ResponseEntity<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(retryRestTemplate.getForEntityAsync(baseUrl + "/echo/{id}", "did:web:" + i + " x"));
+        }
+        for (CompletableFuture<ResponseEntity<String>> future : futures) {
+            assertEquals(HttpStatus.OK, future.get().getStatusCode());
+        }
+
+        assertEquals(20, requests.get());
+        assertTrue(requestUris.contains("/echo/did%3Aweb%3A7%20x"));
+    }
+
+    @Test
+    public void shouldRetryUnavailableServiceWithBackoff() {
+        AtomicInteger attempts = new AtomicInteger();
+        server.createContext("/flaky", exchange -> respond(exchange, attempts.incrementAndGet() < 3 ? 503 : 200, "{}"));
+
+        ResponseEntity<String> response = retryRestTemplate.getForEntity(baseUrl + "/flaky");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, attempts.get());
+        assertEquals(Long.valueOf(2), outboundHttpClient.getMetrics().get(baseUrl).get("retries"));
+        assertEquals(Long.valueOf(0), outboundHttpClient.getMetrics().get(baseUrl).get("failures"));
+    }
+
+    @Test
+    public void shouldRetryUnreachableServiceUntilMaxAttempts() {
+        String unreachable = baseUrl;
+        server.stop(0);
+        server = null;
+
+        try {
+            retryRestTemplate.getForEntity(unreachable + "/echo");
+            fail("reached a stopped server");
+        } catch (ResourceAccessException e) {
+            // expected
+        }
+
+        assertEquals(Long.valueOf(3), outboundHttpClient.getMetrics().get(unreachable).get("calls"));
+        assertEquals(Long.valueOf(1), outboundHttpClient.getMetrics().get(unreachable).get("failures"));
+    }
+
+    @Test
+    public void shouldRetryCallsFailingWithUnreachableSigner() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = outboundHttpClient.execute(baseUrl, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new CompletionException(new SignatureException().new UnreachableException("signer"));
+            }
+            return "signed";
+        });
+
+        assertEquals("signed", result);
+        assertEquals(Long.valueOf(2), outboundHttpClient.getMetrics().get(baseUrl).get("retries"));
+    }
+
+    @Test
+    public void shouldRunTasksWaitingOnAsyncCallsApartFromTheCalls() throws Exception {
+        ExecutorService callExecutor = Executors.newFixedThreadPool(1);
+        ExecutorService taskExecutor = Executors.newFixedThreadPool(1);
+        OutboundHttpClient client = new OutboundHttpClient(callExecutor, taskExecutor, 3, 10, 2, 100, 10, 1000);
+        RestTemplate restTemplate = new RestTemplate();
+        try {
+            // with one pool of a single thread the task would wait forever on the call queued behind it
+            CompletableFuture<String> task = client.supplyAsync(() -> client.executeAsync(baseUrl,
+                    () -> restTemplate.getForObject(baseUrl + "/echo", String.class)).join());
+
+            assertEquals("{\"status\":\"UP\"}", task.get(5, TimeUnit.SECONDS));
+        } finally {
+            callExecutor.shutdownNow();
+            taskExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldServeMetricsUnderOutbound() {
+        retryRestTemplate.getForEntity(baseUrl + "/echo");
+
+        assertEquals("outbound", outboundHttpClient.getMetricsName());
+        assertEquals(Long.valueOf(1), outboundHttpClient.getMetrics().get(baseUrl).get("calls"));
+    }
+
+    @Test
+    public void shouldNotRetryCallsMadeOnce() {
+        AtomicInteger attempts = new AtomicInteger();
+        server.createContext("/unavailable", exchange -> respond(exchange, 503, "{}"));
+        RestTemplate restTemplate = new RestTemplate();
+
+        try {
+            outboundHttpClient.executeOnce(baseUrl, () -> {
+                attempts.incrementAndGet();
+                return restTemplate.postForObject(baseUrl + "/unavailable", "{}", String.class);
+            });
+            fail("503 should be thrown");
+        } catch (HttpServerErrorException.ServiceUnavailable e) {
+            // expected
+        }
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void shouldRejectCallsBeyondBulkhead() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+
+        CompletableFuture<ResponseEntity<String>> first = retryRestTemplate.getForEntityAsync(baseUrl + "/slow");
+        CompletableFuture<ResponseEntity<String>> second = retryRestTemplate.getForEntityAsync(baseUrl + "/slow");
+        waitForInFlight(2);
+        try {
+            retryRestTemplate.getForEntity(baseUrl + "/echo");
+            fail("call beyond the bulkhead went through");
+        } catch (OutboundHttpClient.BulkheadFullException e) {
+            // expected
+        }
+        release.countDown();
+
+        assertEquals(HttpStatus.OK, first.get().getStatusCode());
+        assertEquals(HttpStatus.OK, second.get().getStatusCode());
+        assertEquals(Long.valueOf(1), outboundHttpClient.getMetrics().get(baseUrl).get("rejected"));
+        assertEquals(Long.valueOf(0), outboundHttpClient.getMetrics().get(baseUrl).get("inFlight"));
+    }
+
+    @Test
+    public void shouldOverlapIndependentAsyncCalls() throws Exception {
+        server.createContext("/delayed", exchange -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+        ReflectionTestUtils.setField(retryRestTemplate, "outboundHttpClient", new OutboundHttpClient(executor, executor, 3, 10, 2, 100, 10, 50));
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<ResponseEntity<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(retryRestTemplate.getForEntityAsync(baseUrl + "/delayed"));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+        assertTrue(System.currentTimeMillis() - start < 4 * 300);
+    }
+
+    @Test
+    public void shouldPropagateFailureOfAsyncCall() throws Exception {
+        server.createContext("/error", exchange -> respond(exchange, 500, "{}"));
+
+        try {
+            retryRestTemplate.postForEntityAsync(baseUrl + "/error", "{}").get();
+            fail("500 should be thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof HttpServerErrorException.InternalServerError);
+        }
+        assertEquals(Long.valueOf(1), outboundHttpClient.getMetrics().get(baseUrl).get("calls"));
+    }
+
+    @Test
+    public void shouldGroupCallsByDestination() {
+        assertEquals("http://localhost:8013", OutboundHttpClient.destinationOf("http://localhost:8013/did/resolve/{id}"));
+        assertEquals("https://example.com", OutboundHttpClient.destinationOf("https://example.com?x=1"));
+        assertEquals("http://signer:8079", OutboundHttpClient.destinationOf("http://signer:8079"));
+    }
+
+    private void waitForInFlight(long calls) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (outboundHttpClient.getMetrics().containsKey(baseUrl)
+                    && outboundHttpClient.getMetrics().get(baseUrl).get("inFlight") >= calls) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("calls didn't start");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
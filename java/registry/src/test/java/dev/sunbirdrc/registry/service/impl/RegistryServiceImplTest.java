@@ -11,6 +11,7 @@ import com.typesafe.config.ConfigFactory;
 import dev.sunbirdrc.pojos.ComponentHealthInfo;
 import dev.sunbirdrc.pojos.HealthCheckResponse;
 import dev.sunbirdrc.pojos.HealthIndicator;
+import dev.sunbirdrc.pojos.UniqueIdentifierField;
 import dev.sunbirdrc.registry.authorization.SchemaAuthFilter;
 import dev.sunbirdrc.registry.dao.IRegistryDao;
 import dev.sunbirdrc.registry.dao.VertexReader;
@@ -20,8 +21,13 @@ import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.model.DBConnectionInfo;
 import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.model.dto.CreateEntityMessage;
+import dev.sunbirdrc.registry.model.dto.CreateEntityResult;
 import dev.sunbirdrc.registry.model.event.Event;
 import dev.sunbirdrc.registry.service.*;
+import dev.sunbirdrc.registry.service.issuance.CredentialIssuer;
+import dev.sunbirdrc.registry.service.postcommit.PostCommitDispatcher;
+import dev.sunbirdrc.registry.service.postcommit.PostCommitJob;
 import dev.sunbirdrc.registry.sink.DBProviderFactory;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
 import dev.sunbirdrc.registry.sink.shard.Shard;
@@ -51,8 +57,13 @@ import org.sunbird.akka.core.SunbirdActorFactory;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static dev.sunbirdrc.registry.Constants.ATTESTATION_POLICY;
 import static dev.sunbirdrc.registry.Constants.Schema;
 import static dev.sunbirdrc.registry.Constants.SchemaName;
 import static org.junit.Assert.*;
@@ -148,6 +159,20 @@ public class RegistryServiceImplTest {
 
 	@Mock
 	private SchemaAuthFilter schemaAuthFilter;
+	@Mock
+	private IndexReconciler indexReconciler;
+	@Mock
+	private AttestationPolicyRegistry attestationPolicyRegistry;
+	@Mock
+	private RevokedCredentialFilter revokedCredentialFilter;
+	@Mock
+	private DidCache didCache;
+	@Mock
+	private CredentialIssuer credentialIssuer;
+	@Mock
+	private CertificateCache certificateCache;
+	@Mock
+	private PostCommitDispatcher postCommitDispatcher;
 
 	@Mock
 	private EntityParenter entityParenter;
@@ -162,6 +187,7 @@ public class RegistryServiceImplTest {
 		ReflectionTestUtils.setField(schemaService, "definitionsManager", definitionsManager);
 		ReflectionTestUtils.setField(schemaService, "validator", jsonValidationService);
 		ReflectionTestUtils.setField(schemaService, "schemaAuthFilter", schemaAuthFilter);
+		ReflectionTestUtils.setField(schemaService, "indexReconciler", indexReconciler);
 		ReflectionTestUtils.setField(registryService, "schemaService", schemaService);
 		ReflectionTestUtils.setField(registryService, "objectMapper", objectMapper);
 		ReflectionTestUtils.setField(registryService, "eventService", eventService);
@@ -204,6 +230,7 @@ public class RegistryServiceImplTest {
 		mockDatabaseProvider = mock(DatabaseProvider.class);
 		when(mockDatabaseProvider.getHealthInfo()).thenReturn(new ComponentHealthInfo(Constants.SUNBIRDRC_DATABASE_NAME, true));
 		ReflectionTestUtils.setField(healthCheckService, "healthIndicators", Arrays.asList(encryptionService, mockDatabaseProvider));
+		healthCheckService.init();
 		when(shard.getDatabaseProvider()).thenReturn(mockDatabaseProvider);
 		when(shardManager.getDefaultShard()).thenReturn(shard);
 		when(signatureService.getHealthInfo()).thenReturn(new ComponentHealthInfo(Constants.SUNBIRD_SIGNATURE_SERVICE_NAME, true));
@@ -219,6 +246,7 @@ public class RegistryServiceImplTest {
 		when(encryptionService.getHealthInfo()).thenReturn(new ComponentHealthInfo(Constants.SUNBIRD_ENCRYPTION_SERVICE_NAME, false));
 		when(mockDatabaseProvider.getHealthInfo()).thenReturn(new ComponentHealthInfo(Constants.SUNBIRDRC_DATABASE_NAME, true));
 		ReflectionTestUtils.setField(healthCheckService, "healthIndicators", Arrays.asList(signatureService, encryptionService, mockDatabaseProvider));
+		healthCheckService.init();
 		when(shard.getDatabaseProvider()).thenReturn(mockDatabaseProvider);
 		when(shardManager.getDefaultShard()).thenReturn(shard);
 		when(signatureService.getHealthInfo()).thenReturn(new ComponentHealthInfo(Constants.SUNBIRD_SIGNATURE_SERVICE_NAME, true));
@@ -421,6 +449,32 @@ public class RegistryServiceImplTest {
 		definitionsManager.removeDefinition(JsonNodeFactory.instance.textNode(schema));
 	}
 
+	@Test
+	public void shouldRecordPropertiesUpdatedRecordIsCommittedWith() throws Exception {
+		String schema = IOUtils.toString(this.getClass().getClassLoader().getResourceAsStream("Teacher.json"), Charset.defaultCharset());
+		definitionsManager.appendNewDefinition(JsonNodeFactory.instance.textNode(schema));
+		ReflectionTestUtils.setField(registryService, "persistenceEnabled", true);
+		ReflectionTestUtils.setField(registryService, "uuidPropertyName", "osid");
+		ReflectionTestUtils.setField(registryService, "searchProvider", "dev.sunbirdrc.registry.service.ElasticSearchService");
+		when(shard.getDatabaseProvider()).thenReturn(mockDatabaseProvider);
+		when(shard.getShardLabel()).thenReturn("");
+		when(eventService.createTelemetryObject(anyString(), anyString(), anyString(), anyString(), anyString(), any())).thenReturn(mock(Event.class));
+		String teacherOsid = addTeacherToGraph();
+		VertexReader vertexReader = new VertexReader(mockDatabaseProvider, graph, ReadConfiguratorFactory.getOne(false), "osid",
+				definitionsManager, false);
+		String previousVersion = PostCommitDispatcher.version(vertexReader.getVertex("Teacher", teacherOsid));
+		ObjectNode inputJson = JsonNodeFactory.instance.objectNode();
+		inputJson.set("Teacher", objectMapper.readTree("{\"osid\": \"" + teacherOsid + "\", \"gender\": \"male\"}"));
+
+		registryService.updateEntity(shard, "", teacherOsid, String.valueOf(inputJson), false);
+
+		ArgumentCaptor<PostCommitJob> jobCaptor = ArgumentCaptor.forClass(PostCommitJob.class);
+		verify(postCommitDispatcher).prepare(jobCaptor.capture());
+		assertEquals(PostCommitDispatcher.version(vertexReader.getVertex("Teacher", teacherOsid)), jobCaptor.getValue().getVersion());
+		assertNotEquals(previousVersion, jobCaptor.getValue().getVersion());
+		definitionsManager.removeDefinition(JsonNodeFactory.instance.textNode(schema));
+	}
+
 	@Test
 	public void shouldNotRemoveAnyFieldsInUpdate() throws Exception {
 
@@ -486,6 +540,28 @@ public class RegistryServiceImplTest {
 				"}}"));
 	}
 
+	@Test
+	public void shouldInvalidatePoliciesOfBothEntitiesWhenPolicyMoves() throws Exception {
+		ReflectionTestUtils.setField(registryService, "persistenceEnabled", true);
+		ReflectionTestUtils.setField(registryService, "uuidPropertyName", "osid");
+		ReflectionTestUtils.setField(registryService, "isEventsEnabled", false);
+		when(shard.getDatabaseProvider()).thenReturn(mockDatabaseProvider);
+		when(shard.getShardLabel()).thenReturn("");
+		String policyOsid = new VertexWriter(graph, mockDatabaseProvider, "osid").writeNodeEntity(objectMapper.readTree(
+				"{\"AttestationPolicy\": {\"name\": \"teacherPolicy\", \"entity\": \"Teacher\"}}"));
+		ObjectNode inputJson = JsonNodeFactory.instance.objectNode();
+		inputJson.set(ATTESTATION_POLICY, objectMapper.readTree("{\"osid\": \"" + policyOsid + "\", \"entity\": \"Student\"}"));
+
+		registryService.updateEntity(shard, "", policyOsid, String.valueOf(inputJson), true);
+
+		verify(attestationPolicyRegistry).invalidate("Student");
+		verify(attestationPolicyRegistry).invalidate("Teacher");
+	}
+
+	private static ObjectNode signedCredential(String signedData) {
+		return JsonNodeFactory.instance.objectNode().put("_osSignedData", signedData);
+	}
+
 	private String addTeacherToGraph() throws JsonProcessingException {
 		VertexWriter vertexWriter = new VertexWriter(graph, mockDatabaseProvider, "osid");
 		return vertexWriter.writeNodeEntity(objectMapper.readTree("{\"Teacher\":  {\n" +
@@ -527,4 +603,136 @@ public class RegistryServiceImplTest {
 		assertEquals(5, JSONUtil.convertStringJsonNode(definitionsManager.getDefinition("TrainingCertificate").getContent()).get("definitions").get("TrainingCertificate").get("properties").size());
 		definitionsManager.removeDefinition(JsonNodeFactory.instance.textNode(schema));
 	}
+
+	@Test
+	public void shouldEncryptWhileGeneratingIds() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			IIdGenService idGenService = mock(IIdGenService.class);
+			when(idGenService.generateId(any())).thenAnswer(invocation -> {
+				Thread.sleep(300);
+				return Collections.singletonMap("/code", "S-1");
+			});
+			EncryptionHelper encryptionHelper = mock(EncryptionHelper.class);
+			when(encryptionHelper.getEncryptedJson(any())).thenAnswer(invocation -> {
+				JsonNode node = ((JsonNode) invocation.getArgument(0)).deepCopy();
+				Thread.sleep(300);
+				((ObjectNode) node.get("Student").get("identityDetails")).put("dob", "encrypted");
+				return node;
+			});
+			IDefinitionsManager definitions = spy(definitionsManager);
+			ReflectionTestUtils.setField(registryService, "definitionsManager", definitions);
+			ReflectionTestUtils.setField(registryService, "idGenService", idGenService);
+			ReflectionTestUtils.setField(registryService, "idGenEnabled", true);
+			ReflectionTestUtils.setField(registryService, "encryptionHelper", encryptionHelper);
+			ReflectionTestUtils.setField(registryService, "encryptionEnabled", true);
+			ReflectionTestUtils.setField(registryService, "outboundHttpClient", new OutboundHttpClient(executor, executor, 1, 0, 1, 0, 10, 1000));
+
+			doReturn(Collections.singletonList(new UniqueIdentifierField("/code", "code", "S-###"))).when(definitions).getUniqueIdentifierFields("Student");
+			long overlapped = timePrepare();
+			JsonNode prepared = prepareStudent();
+			assertEquals("S-1", prepared.get("Student").get("code").asText());
+			assertEquals("encrypted", prepared.get("Student").get("identityDetails").get("dob").asText());
+			assertEquals("Male", prepared.get("Student").get("identityDetails").get("gender").asText());
+
+			// an id generated into a nested object may be private, so the entity is encrypted after the id is generated
+			doReturn(Collections.singletonList(new UniqueIdentifierField("/identityDetails/code", "code", "S-###"))).when(definitions).getUniqueIdentifierFields("Student");
+			long sequential = timePrepare();
+
+			assertTrue(String.format("overlapped %d ms, sequential %d ms", overlapped, sequential), overlapped + 200 < sequential);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldApplyOnlyChangedValues() throws Exception {
+		JsonNode before = objectMapper.readTree("{\"a\": \"1\", \"b\": {\"c\": \"2\"}, \"d\": [{\"e\": \"3\"}, {\"e\": \"4\"}]}");
+		JsonNode after = objectMapper.readTree("{\"a\": \"1\", \"b\": {\"c\": \"x\"}, \"d\": [{\"e\": \"3\"}, {\"e\": \"y\"}]}");
+		JsonNode target = objectMapper.readTree("{\"a\": \"5\", \"id\": \"6\", \"b\": {\"c\": \"2\", \"f\": \"7\"}, \"d\": [{\"e\": \"3\", \"g\": \"8\"}, {\"e\": \"4\"}]}");
+
+		JsonNode result = RegistryServiceImpl.applyChanges(before, after, target);
+
+		assertEquals(objectMapper.readTree("{\"a\": \"5\", \"id\": \"6\", \"b\": {\"c\": \"x\", \"f\": \"7\"}, \"d\": [{\"e\": \"3\", \"g\": \"8\"}, {\"e\": \"y\"}]}"), result);
+	}
+
+	@Test
+	public void shouldSetOnlyCredentialOfEntity() throws Exception {
+		String schema = IOUtils.toString(this.getClass().getClassLoader().getResourceAsStream("Student.json"), Charset.defaultCharset());
+		definitionsManager.appendNewDefinition(JsonNodeFactory.instance.textNode(schema));
+		ReflectionTestUtils.setField(registryService, "uuidPropertyName", "osid");
+		ReflectionTestUtils.setField(registryService, "searchProvider", "dev.sunbirdrc.registry.service.ElasticSearchService");
+		when(shard.getDatabaseProvider()).thenReturn(mockDatabaseProvider);
+		when(shard.getShardLabel()).thenReturn("");
+		String studentOsid = addStudentToGraph();
+
+		assertTrue(registryService.setCredential(shard, "Student", studentOsid, objectMapper.readTree("{\"name\": \"abc\"}"), signedCredential("signed-credential")));
+
+		ArgumentCaptor<JsonNode> esNodeCaptor = ArgumentCaptor.forClass(JsonNode.class);
+		verify(registryService, times(1)).callESActors(esNodeCaptor.capture(), eq("UPDATE"), eq("Student"), eq(studentOsid), any());
+		JsonNode output = esNodeCaptor.getValue().get("Student");
+		assertEquals("abc", output.get("name").asText());
+		assertEquals("signed-credential", output.get("_osSignedData").asText());
+		verify(eventService, never()).pushEvents(any());
+		definitionsManager.removeDefinition(JsonNodeFactory.instance.textNode(schema));
+	}
+
+	@Test
+	public void shouldNotSetCredentialOfEntityChangedSinceItWasSigned() throws Exception {
+		ReflectionTestUtils.setField(registryService, "uuidPropertyName", "osid");
+		when(shard.getDatabaseProvider()).thenReturn(mockDatabaseProvider);
+		when(shard.getShardLabel()).thenReturn("");
+		VertexWriter vertexWriter = new VertexWriter(graph, mockDatabaseProvider, "osid");
+		String studentOsid = vertexWriter.writeNodeEntity(objectMapper.readTree("{\"Student\": {\"name\": \"abc\", \"osUpdatedAt\": \"2026-10-19T10:00:00Z\"}}"));
+
+		assertFalse(registryService.setCredential(shard, "Student", studentOsid,
+				objectMapper.readTree("{\"name\": \"abc\", \"osUpdatedAt\": \"2026-10-19T09:00:00Z\"}"), signedCredential("signed-credential")));
+		assertFalse(graph.traversal().V().has("osid", studentOsid).next().property("_osSignedData").isPresent());
+
+		assertTrue(registryService.setCredential(shard, "Student", studentOsid,
+				objectMapper.readTree("{\"name\": \"abc\", \"osUpdatedAt\": \"2026-10-19T10:00:00Z\"}"), signedCredential("signed-credential")));
+		// signed again after it got a credential
+		assertFalse(registryService.setCredential(shard, "Student", studentOsid,
+				objectMapper.readTree("{\"name\": \"abc\", \"osUpdatedAt\": \"2026-10-19T10:00:00Z\"}"), signedCredential("signed-again")));
+		assertEquals("signed-credential", graph.traversal().V().has("osid", studentOsid).next().value("_osSignedData"));
+	}
+
+	@Test
+	public void shouldWritePreparedEntitiesOneByOneWhenTheirTransactionFails() throws Exception {
+		String schema = IOUtils.toString(this.getClass().getClassLoader().getResourceAsStream("Student.json"), Charset.defaultCharset());
+		definitionsManager.appendNewDefinition(JsonNodeFactory.instance.textNode(schema));
+		ReflectionTestUtils.setField(registryService, "persistenceEnabled", true);
+		ReflectionTestUtils.setField(registryService, "commitEnabled", true);
+		ReflectionTestUtils.setField(registryService, "uuidPropertyName", "osid");
+		ReflectionTestUtils.setField(registryService, "searchProvider", "dev.sunbirdrc.registry.service.NativeSearchService");
+		DatabaseProvider databaseProvider = spy(mockDatabaseProvider);
+		doThrow(new RuntimeException("write conflict")).doCallRealMethod().when(databaseProvider).commitTransaction(any(), any());
+		when(shard.getDatabaseProvider()).thenReturn(databaseProvider);
+		when(shard.getShardLabel()).thenReturn("");
+		List<CreateEntityMessage> messages = Arrays.asList(
+				CreateEntityMessage.builder().userId("user").skipSignature(true)
+						.inputJson(objectMapper.readTree("{\"Student\": {\"name\": \"a\"}}")).build(),
+				CreateEntityMessage.builder().userId("user").skipSignature(true)
+						.inputJson(objectMapper.readTree("{\"Student\": {\"name\": \"b\"}}")).build());
+
+		List<CreateEntityResult> results = registryService.addEntities(shard, messages);
+
+		assertTrue(String.valueOf(results.get(0).getError()), results.get(0).isCreated());
+		assertTrue(String.valueOf(results.get(1).getError()), results.get(1).isCreated());
+		assertNotEquals(results.get(0).getEntityId(), results.get(1).getEntityId());
+		verify(databaseProvider, times(3)).commitTransaction(any(), any());
+		verify(systemFieldsHelper, times(2)).ensureCreateAuditFields(eq("Student"), any(), eq("user"));
+		definitionsManager.removeDefinition(JsonNodeFactory.instance.textNode(schema));
+	}
+
+	private long timePrepare() throws Exception {
+		long start = System.currentTimeMillis();
+		prepareStudent();
+		return System.currentTimeMillis() - start;
+	}
+
+	private JsonNode prepareStudent() throws IOException {
+		JsonNode student = objectMapper.readTree("{\"Student\": {\"identityDetails\": {\"dob\": \"2000-01-01\", \"gender\": \"Male\"}}}");
+		return ReflectionTestUtils.invokeMethod(registryService, "prepareEntity", "user", student, true);
+	}
 }
@@ -12,9 +12,12 @@ import dev.sunbirdrc.registry.exception.SignatureException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.service.CredentialSchemaService;
 import dev.sunbirdrc.registry.service.DIDService;
+import dev.sunbirdrc.registry.service.RevocationListCache;
+import dev.sunbirdrc.registry.service.TemplateCache;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -52,6 +55,12 @@ public class SignatureV2ServiceImplTest {
     @Mock
     private DIDService didService;
 
+    @Mock
+    private TemplateCache templateCache;
+
+    @Mock
+    private RevocationListCache revocationListCache;
+
     @InjectMocks
     private SignatureV2ServiceImpl signatureService;
 
@@ -264,19 +273,17 @@ public class SignatureV2ServiceImplTest {
     }
 
     @Test
-    public void testRevocationList_success() throws IOException {
+    public void testGetRevocationList_success() throws Exception {
         // Set up test data
         String issuerDid = "validIssuerDid";
-        Integer page = 1;
-        Integer limit = 10;
         String responseBody = "[{\"id\": \"1\", \"name\": \"John Doe\"}, {\"id\": \"2\", \"name\": \"Jane Smith\"}]";
         ResponseEntity<String> responseEntity = new ResponseEntity<>(responseBody, HttpStatus.OK);
 
         // Mock the behavior of retryRestTemplate.getForEntity()
         when(retryRestTemplate.getForEntity(any(), any(), any(), any())).thenReturn(responseEntity);
 
-        // Invoke the method under test
-        ArrayNode result = signatureService.revocationList(issuerDid, page, limit);
+        // Invoke the page loader the revocation list cache is given
+        ArrayNode result = revocationListPageLoader(issuerDid).load(1, 10);
 
         // Verify the result
         assertNotNull(result);
@@ -287,36 +294,43 @@ public class SignatureV2ServiceImplTest {
         assertEquals("Jane Smith", result.get(1).get("name").asText());
 
         // Verify the interaction with dependencies
-        verify(retryRestTemplate).getForEntity(any(), eq(issuerDid), eq(page), eq(limit));
+        verify(retryRestTemplate).getForEntity(any(), eq(issuerDid), eq(1), eq(10));
         verifyNoMoreInteractions(retryRestTemplate);
         verifyNoInteractions(objectMapper, credentialSchemaService, didService);
     }
 
     @Test
-    public void testRevocationList_Exception() throws IOException {
+    public void testGetRevocationList_Exception() throws Exception {
         // Set up test data
         String issuerDid = "validIssuerDid";
-        Integer page = 1;
-        Integer limit = 10;
         String responseBody = "{\"error\": \"Invalid request\"}";
         ResponseEntity<String> responseEntity = new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
 
         // Mock the behavior of retryRestTemplate.getForEntity()
         when(retryRestTemplate.getForEntity(any(), any(), any(), any())).thenReturn(responseEntity);
 
-        // Invoke the method under test
-        ArrayNode result = signatureService.revocationList(issuerDid, page, limit);
-
-        // Verify the result
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
+        // A failed page is thrown, an empty one would reinstate every credential
+        RevocationListCache.PageLoader loader = revocationListPageLoader(issuerDid);
+        try {
+            loader.load(1, 10);
+            fail("failed page should be thrown");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains(issuerDid));
+        }
 
         // Verify the interaction with dependencies
-        verify(retryRestTemplate).getForEntity(any(), eq(issuerDid), eq(page), eq(limit));
+        verify(retryRestTemplate).getForEntity(any(), eq(issuerDid), eq(1), eq(10));
         verifyNoMoreInteractions(retryRestTemplate);
         verifyNoInteractions(objectMapper, credentialSchemaService, didService);
     }
 
+    private RevocationListCache.PageLoader revocationListPageLoader(String issuerDid) throws Exception {
+        signatureService.getRevocationList(issuerDid);
+        ArgumentCaptor<RevocationListCache.PageLoader> loader = ArgumentCaptor.forClass(RevocationListCache.PageLoader.class);
+        verify(revocationListCache).get(eq(issuerDid), loader.capture());
+        return loader.getValue();
+    }
+
     @Test
     public void testGetHealthInfo() throws Exception {
         // Mocking the RetryRestTemplate to return a ResponseEntity with a successful response
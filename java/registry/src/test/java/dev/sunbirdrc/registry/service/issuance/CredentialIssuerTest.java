@@ -0,0 +1,388 @@
+package dev.sunbirdrc.registry.service.issuance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.pojos.ComponentHealthInfo;
+import dev.sunbirdrc.registry.config.GenericConfiguration;
+import dev.sunbirdrc.registry.exception.RecordNotFoundException;
+import dev.sunbirdrc.registry.exception.SignatureException;
+import dev.sunbirdrc.registry.helper.SignatureHelper;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.service.RegistryService;
+import dev.sunbirdrc.registry.service.SignatureService;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CredentialIssuerTest {
+    private static final String STUDENT = "Student";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final StubSigner signer = new StubSigner();
+    private final Shard shard = new Shard();
+    private final List<CredentialIssuer> issuers = new ArrayList<>();
+    private RegistryService registryService;
+    private IDefinitionsManager definitionsManager;
+    private File queue;
+
+    @Before
+    public void setUp() throws Exception {
+        queue = temporaryFolder.newFolder("issuance-queue");
+        registryService = mock(RegistryService.class);
+        definitionsManager = mock(IDefinitionsManager.class);
+        when(definitionsManager.getCredentialTemplate(STUDENT)).thenReturn("{}");
+        when(registryService.setCredential(any(), anyString(), anyString(), any(), any())).thenReturn(true);
+        shard.setShardId("shard1");
+        shard.setShardLabel("");
+    }
+
+    @After
+    public void tearDown() {
+        issuers.forEach(CredentialIssuer::shutdown);
+    }
+
+    @Test
+    public void shouldIssueLaterOnlyForEntitiesWithCredentialTemplate() throws Exception {
+        CredentialIssuer issuer = createIssuer(0, true);
+        assertTrue(issuer.issuesLater(STUDENT));
+        assertFalse(issuer.issuesLater("Teacher"));
+
+        assertFalse(createIssuer(0, false).issuesLater(STUDENT));
+    }
+
+    @Test
+    public void shouldKeepJobsPendingUntilSigned() throws Exception {
+        CredentialIssuer issuer = createIssuer(0, true);
+        for (String id : Arrays.asList("a", "b", "c")) {
+            issuer.submit(prepare(issuer, id));
+        }
+
+        assertEquals(IssuanceJob.Status.PENDING, issuer.getJob("a").getStatus());
+        assertEquals(3, issuer.getQueuedCount());
+        assertEquals(3, persistedJobs());
+        assertTrue(signer.batches.isEmpty());
+    }
+
+    @Test
+    public void shouldResumePersistedJobsAndSignThemInOneBatch() throws Exception {
+        CredentialIssuer stopped = createIssuer(0, true);
+        for (String id : Arrays.asList("a", "b", "c")) {
+            stopped.submit(prepare(stopped, id));
+        }
+        stopped.shutdown();
+
+        CredentialIssuer issuer = createIssuer(1, true);
+        waitUntil(() -> isIssued(issuer, "a", "b", "c"));
+
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b", "c")), signer.batches);
+        for (String id : Arrays.asList("a", "b", "c")) {
+            verify(registryService).setCredential(shard, STUDENT, id, data(id), credential("signed-" + id));
+        }
+        assertEquals(0, persistedJobs());
+    }
+
+    @Test
+    public void shouldSignOneAtATimeWhenBatchFails() throws Exception {
+        signer.failures.put("b", Integer.MAX_VALUE);
+        CredentialIssuer stopped = createIssuer(0, true);
+        for (String id : Arrays.asList("a", "b", "c")) {
+            stopped.submit(prepare(stopped, id));
+        }
+        stopped.shutdown();
+
+        CredentialIssuer issuer = createIssuer(1, true);
+        waitUntil(() -> isIssued(issuer, "a", "c") && issuer.getJob("b").getStatus() == IssuanceJob.Status.FAILED);
+
+        IssuanceJob failed = issuer.getJob("b");
+        assertEquals(3, failed.getAttempts());
+        assertTrue(failed.getError().endsWith("can't sign b"));
+        verify(registryService, never()).setCredential(any(), anyString(), eq("b"), any(), any());
+        // the failed job is kept
+        assertEquals(1, persistedJobs());
+    }
+
+    @Test
+    public void shouldKeepFailedJobsAcrossRestarts() throws Exception {
+        signer.failures.put("a", Integer.MAX_VALUE);
+        CredentialIssuer failing = createIssuer(1, true);
+        failing.submit(prepare(failing, "a"));
+        waitUntil(() -> failing.getJob("a").getStatus() == IssuanceJob.Status.FAILED);
+        failing.shutdown();
+        signer.failures.clear();
+
+        CredentialIssuer issuer = createIssuer(1, true);
+
+        IssuanceJob failed = issuer.getJob("a");
+        assertEquals(IssuanceJob.Status.FAILED, failed.getStatus());
+        assertTrue(failed.getError().endsWith("can't sign a"));
+        assertEquals(0, issuer.getQueuedCount());
+        verify(registryService, never()).setCredential(any(), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    public void shouldRetryUntilSigned() throws Exception {
+        signer.failures.put("a", 1);
+        CredentialIssuer issuer = createIssuer(1, true);
+        issuer.submit(prepare(issuer, "a"));
+
+        waitUntil(() -> isIssued(issuer, "a"));
+
+        assertEquals(1, issuer.getJob("a").getAttempts());
+        verify(registryService, times(1)).setCredential(shard, STUDENT, "a", data("a"), credential("signed-a"));
+    }
+
+    @Test
+    public void shouldRetryWhenCredentialCanNotBeWritten() throws Exception {
+        doThrow(new RuntimeException("database unavailable")).doReturn(true)
+                .when(registryService).setCredential(shard, STUDENT, "a", data("a"), credential("signed-a"));
+        CredentialIssuer issuer = createIssuer(1, true);
+        issuer.submit(prepare(issuer, "a"));
+
+        waitUntil(() -> isIssued(issuer, "a"));
+
+        verify(registryService, times(2)).setCredential(shard, STUDENT, "a", data("a"), credential("signed-a"));
+        // the write is retried with the credential signed on the first attempt
+        assertEquals(Collections.singletonList("a"), signer.signed);
+        assertTrue(signer.revoked.isEmpty());
+    }
+
+    @Test
+    public void shouldRevokeCredentialThatCouldNotBeWritten() throws Exception {
+        doThrow(new RuntimeException("database unavailable"))
+                .when(registryService).setCredential(shard, STUDENT, "a", data("a"), credential("signed-a"));
+        CredentialIssuer issuer = createIssuer(1, true);
+        issuer.submit(prepare(issuer, "a"));
+
+        waitUntil(() -> issuer.getJob("a").getStatus() == IssuanceJob.Status.FAILED);
+
+        assertEquals(3, issuer.getJob("a").getAttempts());
+        assertEquals(Collections.singletonList("a"), signer.signed);
+        assertEquals(Collections.singletonList("signed-a"), signer.revoked);
+    }
+
+    @Test
+    public void shouldResumeWriteOfSignedCredentialWithoutSigningAgain() throws Exception {
+        doThrow(new RuntimeException("database unavailable"))
+                .when(registryService).setCredential(shard, STUDENT, "a", data("a"), credential("signed-a"));
+        CredentialIssuer stopped = createIssuer(1, true);
+        ReflectionTestUtils.setField(stopped, "initialBackoffMillis", 60000L);
+        ReflectionTestUtils.setField(stopped, "maxBackoffMillis", 60000L);
+        stopped.submit(prepare(stopped, "a"));
+        waitUntil(() -> persistedAttempts("a") == 1);
+        stopped.shutdown();
+        doReturn(true).when(registryService).setCredential(shard, STUDENT, "a", data("a"), credential("signed-a"));
+
+        CredentialIssuer issuer = createIssuer(1, true);
+        waitUntil(() -> isIssued(issuer, "a"));
+
+        assertEquals(Collections.singletonList("a"), signer.signed);
+        assertTrue(signer.revoked.isEmpty());
+    }
+
+    @Test
+    public void shouldFailJobOfMissingRecord() throws Exception {
+        doThrow(new RecordNotFoundException("record not found"))
+                .when(registryService).setCredential(shard, STUDENT, "a", data("a"), credential("signed-a"));
+        CredentialIssuer issuer = createIssuer(1, true);
+        issuer.submit(prepare(issuer, "a"));
+
+        waitUntil(() -> issuer.getJob("a").getStatus() == IssuanceJob.Status.FAILED);
+
+        assertEquals(0, issuer.getJob("a").getAttempts());
+        assertEquals(1, persistedJobs());
+    }
+
+    @Test
+    public void shouldRevokeCredentialOfRecordChangedSinceAdded() throws Exception {
+        when(registryService.setCredential(shard, STUDENT, "a", data("a"), credential("signed-a"))).thenReturn(false);
+        CredentialIssuer issuer = createIssuer(1, true);
+        issuer.submit(prepare(issuer, "a"));
+
+        waitUntil(() -> issuer.getJob("a").getStatus() == IssuanceJob.Status.SUPERSEDED);
+
+        assertEquals(Collections.singletonList("signed-a"), signer.revoked);
+        assertEquals(0, persistedJobs());
+    }
+
+    @Test
+    public void shouldSignPreparedRecordRevokingTheCredentialItCameWith() throws Exception {
+        CredentialIssuer issuer = createIssuer(1, true);
+        ObjectNode data = data("a").put("_osSignedData", "signed-before");
+        issuer.submit(issuer.prepare("shard1", STUDENT, "a", "user", data));
+
+        waitUntil(() -> isIssued(issuer, "a"));
+
+        assertEquals(Collections.singletonList("signed-before"), signer.revoked);
+        verify(registryService).setCredential(shard, STUDENT, "a", data, credential("signed-a"));
+    }
+
+    @Test
+    public void shouldDiscardJobOfUncommittedRecord() throws Exception {
+        CredentialIssuer issuer = createIssuer(1, true);
+        IssuanceJob job = prepare(issuer, "a");
+        assertEquals(1, persistedJobs());
+
+        issuer.discard(job);
+
+        assertNull(issuer.getJob("a"));
+        assertEquals(0, persistedJobs());
+    }
+
+    private CredentialIssuer createIssuer(int workers, boolean async) throws Exception {
+        SignatureHelper signatureHelper = new SignatureHelper();
+        ReflectionTestUtils.setField(signatureHelper, "signatureService", signer);
+        ShardManager shardManager = mock(ShardManager.class);
+        when(shardManager.getShardInstance("shard1")).thenReturn(shard);
+
+        CredentialIssuer issuer = new CredentialIssuer();
+        ReflectionTestUtils.setField(issuer, "signatureEnabled", true);
+        ReflectionTestUtils.setField(issuer, "asyncEnabled", async);
+        ReflectionTestUtils.setField(issuer, "queuePath", queue.getAbsolutePath());
+        ReflectionTestUtils.setField(issuer, "workers", workers);
+        ReflectionTestUtils.setField(issuer, "batchSize", 10);
+        ReflectionTestUtils.setField(issuer, "maxAttempts", 3);
+        ReflectionTestUtils.setField(issuer, "initialBackoffMillis", 20L);
+        ReflectionTestUtils.setField(issuer, "maxBackoffMillis", 100L);
+        ReflectionTestUtils.setField(issuer, "finishedJobs", 100);
+        ReflectionTestUtils.setField(issuer, "signatureHelper", signatureHelper);
+        ReflectionTestUtils.setField(issuer, "definitionsManager", definitionsManager);
+        ReflectionTestUtils.setField(issuer, "shardManager", shardManager);
+        ReflectionTestUtils.setField(issuer, "registryService", registryService);
+        ReflectionTestUtils.setField(issuer, "objectMapper", new ObjectMapper());
+        issuer.init();
+        issuers.add(issuer);
+        return issuer;
+    }
+
+    private static IssuanceJob prepare(CredentialIssuer issuer, String id) throws IOException {
+        return issuer.prepare("shard1", STUDENT, id, "user", data(id));
+    }
+
+    private static ObjectNode data(String id) {
+        return JsonNodeFactory.instance.objectNode().put("name", id);
+    }
+
+    private static JsonNode credential(String signedCredential) {
+        ObjectNode credential = JsonNodeFactory.instance.objectNode();
+        OSSystemFields.credentials.setCredential(GenericConfiguration.getSignatureProvider(), credential, signedCredential);
+        return credential;
+    }
+
+    private static boolean isIssued(CredentialIssuer issuer, String... ids) {
+        for (String id : ids) {
+            IssuanceJob job = issuer.getJob(id);
+            if (job == null || job.getStatus() != IssuanceJob.Status.ISSUED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int persistedJobs() {
+        return queue.listFiles((dir, name) -> name.endsWith(".json")).length;
+    }
+
+    private int persistedAttempts(String entityId) {
+        try {
+            return new ObjectMapper().readTree(new File(queue, entityId + ".json")).path("attempts").asInt();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Signs the name of every record, failing the names in failures as many times as given, and records the batches,
+     * the names signed and the credentials revoked
+     */
+    private static class StubSigner implements SignatureService {
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+        private final List<String> revoked = new CopyOnWriteArrayList<>();
+        private final List<String> signed = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object sign(Map<String, Object> propertyValue) throws SignatureException.CreationException {
+            String name = name(propertyValue);
+            if (failures.getOrDefault(name, 0) > 0) {
+                failures.computeIfPresent(name, (key, count) -> count - 1);
+                throw new SignatureException.CreationException("can't sign " + name);
+            }
+            signed.add(name);
+            return "signed-" + name;
+        }
+
+        @Override
+        public List<Object> signAll(List<Map<String, Object>> propertyValues) throws SignatureException.CreationException {
+            List<String> names = propertyValues.stream().map(StubSigner::name).collect(Collectors.toList());
+            batches.add(names);
+            List<Object> signed = new ArrayList<>();
+            for (Map<String, Object> propertyValue : propertyValues) {
+                signed.add(sign(propertyValue));
+            }
+            return signed;
+        }
+
+        private static String name(Map<String, Object> propertyValue) {
+            return ((JsonNode) propertyValue.get("data")).get("name").asText();
+        }
+
+        @Override
+        public boolean verify(Object propertyValue) {
+            return true;
+        }
+
+        @Override
+        public String getKey(String keyId) {
+            return null;
+        }
+
+        @Override
+        public void revoke(String entityName, String entityId, String signed) {
+            revoked.add(signed);
+        }
+
+        @Override
+        public String getServiceName() {
+            return "stub-signer";
+        }
+
+        @Override
+        public ComponentHealthInfo getHealthInfo() {
+            return new ComponentHealthInfo(getServiceName(), true);
+        }
+    }
+}
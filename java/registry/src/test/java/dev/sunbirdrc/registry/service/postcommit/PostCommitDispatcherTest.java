@@ -0,0 +1,205 @@
+package dev.sunbirdrc.registry.service.postcommit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import dev.sunbirdrc.registry.service.RegistryService;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PostCommitDispatcherTest {
+    private static final String STUDENT = "Student";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Shard shard = new Shard();
+    private final List<PostCommitDispatcher> dispatchers = new ArrayList<>();
+    private final List<String> run = new CopyOnWriteArrayList<>();
+    private RegistryService registryService;
+    private File queue;
+
+    @Before
+    public void setUp() throws Exception {
+        queue = temporaryFolder.newFolder("post-commit-queue");
+        registryService = mock(RegistryService.class);
+        doAnswer(invocation -> {
+            PostCommitJob job = invocation.getArgument(1);
+            run.add(job.getOperation() + " " + job.getEntityId());
+            return null;
+        }).when(registryService).runPostCommit(any(), any());
+        shard.setShardId("shard1");
+        shard.setShardLabel("");
+    }
+
+    @After
+    public void tearDown() {
+        dispatchers.forEach(PostCommitDispatcher::shutdown);
+    }
+
+    @Test
+    public void shouldRunJobsOfRecordInOrderAndRetryUntilDone() throws Exception {
+        doThrow(new RuntimeException("audit unavailable")).doThrow(new RuntimeException("audit unavailable"))
+                .doAnswer(invocation -> run.add("ADD a"))
+                .when(registryService).runPostCommit(any(), argThat(job -> job != null && job.getOperation() == PostCommitJob.Operation.ADD
+                        && job.getEntityId().equals("a")));
+        PostCommitDispatcher dispatcher = createDispatcher(4);
+
+        for (PostCommitJob job : Arrays.asList(job(PostCommitJob.Operation.ADD, "a"), job(PostCommitJob.Operation.UPDATE, "a"),
+                job(PostCommitJob.Operation.DELETE, "a"))) {
+            dispatcher.prepare(job);
+            dispatcher.submit(job);
+        }
+
+        waitUntil(() -> run.size() == 3);
+        assertEquals(Arrays.asList("ADD a", "UPDATE a", "DELETE a"), run);
+        assertEquals(2L, (long) dispatcher.getMetrics().get("retries"));
+        waitUntil(() -> persistedJobs() == 0);
+    }
+
+    @Test
+    public void shouldResumeCommittedJobsAndDropUncommittedOnes() throws Exception {
+        PostCommitDispatcher stopped = createDispatcher(1);
+        stopped.shutdown();
+        stopped.prepare(job(PostCommitJob.Operation.ADD, "a"));
+        PostCommitJob pending = job(PostCommitJob.Operation.ADD, "b");
+        stopped.prepare(pending);
+        for (String id : Arrays.asList("c", "d")) {
+            PostCommitJob job = job(PostCommitJob.Operation.ADD, id);
+            stopped.prepare(job);
+            stopped.submit(job);
+        }
+        assertEquals(4, persistedJobs());
+
+        PostCommitDispatcher dispatcher = createDispatcher(1);
+        waitUntil(() -> persistedJobs() == 0);
+
+        assertEquals(Arrays.asList("ADD b", "ADD c", "ADD d"), run);
+        verify(dispatcher).wasCommitted(eq(shard), argThat(job -> job != null && job.getEntityId().equals("a")));
+        verify(dispatcher, never()).wasCommitted(any(), argThat(job -> job != null && job.getEntityId().equals("c")));
+        assertEquals(1L, (long) dispatcher.getMetrics().get("dropped"));
+    }
+
+    @Test
+    public void shouldDiscardJobOfUncommittedRecord() throws Exception {
+        PostCommitDispatcher dispatcher = createDispatcher(1);
+        PostCommitJob job = job(PostCommitJob.Operation.ADD, "a");
+        dispatcher.prepare(job);
+        assertEquals(1, persistedJobs());
+
+        dispatcher.discard(job);
+
+        assertEquals(0, persistedJobs());
+        assertTrue(run.isEmpty());
+    }
+
+    @Test
+    public void shouldLeaveJobsToCallerWhenNotAsync() throws Exception {
+        PostCommitDispatcher dispatcher = new PostCommitDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "queuePath", queue.getAbsolutePath());
+        dispatcher.init();
+
+        dispatcher.prepare(job(PostCommitJob.Operation.ADD, "a"));
+
+        assertFalse(dispatcher.isAsync());
+        assertEquals(0, persistedJobs());
+    }
+
+    @Test
+    public void shouldGiveUpFailingJobAndRunNextJobsOfRecord() throws Exception {
+        doThrow(new RuntimeException("mapping rejected"))
+                .when(registryService).runPostCommit(any(), argThat(job -> job != null && job.getOperation() == PostCommitJob.Operation.ADD));
+        PostCommitDispatcher dispatcher = createDispatcher(1);
+
+        for (PostCommitJob job : Arrays.asList(job(PostCommitJob.Operation.ADD, "b"), job(PostCommitJob.Operation.UPDATE, "b"))) {
+            dispatcher.prepare(job);
+            dispatcher.submit(job);
+        }
+
+        waitUntil(() -> run.size() == 1);
+        assertEquals(Collections.singletonList("UPDATE b"), run);
+        assertEquals(1L, (long) dispatcher.getMetrics().get("failed"));
+        assertEquals(3L, (long) dispatcher.getMetrics().get("retries"));
+        waitUntil(() -> persistedJobs() == 0);
+        File[] failed = queue.listFiles((dir, name) -> name.endsWith(".failed"));
+        assertEquals(1, failed.length);
+        PostCommitJob failedJob = new ObjectMapper().readValue(failed[0], PostCommitJob.class);
+        assertEquals("mapping rejected", failedJob.getError());
+        assertEquals(3, failedJob.getAttempts());
+
+        dispatcher.shutdown();
+        createDispatcher(1);
+        Thread.sleep(200);
+        assertEquals(Collections.singletonList("UPDATE b"), run);
+    }
+
+    @Test
+    public void shouldChangeVersionWithPropertiesOfRecord() {
+        Vertex vertex = TinkerGraph.open().addVertex(STUDENT);
+        vertex.property("name", "a");
+        String version = PostCommitDispatcher.version(vertex);
+
+        assertEquals(version, PostCommitDispatcher.version(vertex));
+        vertex.property("name", "b");
+        assertNotEquals(version, PostCommitDispatcher.version(vertex));
+    }
+
+    private PostCommitJob job(PostCommitJob.Operation operation, String entityId) {
+        PostCommitJob job = new PostCommitJob(operation, "shard1", "user", STUDENT, entityId, entityId, 1);
+        job.setEntity(JsonNodeFactory.instance.objectNode().set(STUDENT, JsonNodeFactory.instance.objectNode().put("osid", entityId)));
+        return job;
+    }
+
+    private PostCommitDispatcher createDispatcher(int workers) throws Exception {
+        ShardManager shardManager = mock(ShardManager.class);
+        when(shardManager.getShardInstance("shard1")).thenReturn(shard);
+        PostCommitDispatcher dispatcher = spy(new PostCommitDispatcher());
+        ReflectionTestUtils.setField(dispatcher, "asyncEnabled", true);
+        ReflectionTestUtils.setField(dispatcher, "queuePath", queue.getAbsolutePath());
+        ReflectionTestUtils.setField(dispatcher, "workers", workers);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMillis", 20L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMillis", 100L);
+        ReflectionTestUtils.setField(dispatcher, "shardManager", shardManager);
+        ReflectionTestUtils.setField(dispatcher, "registryService", registryService);
+        ReflectionTestUtils.setField(dispatcher, "objectMapper", new ObjectMapper());
+        // the record of a isn't in the database, its commit failed
+        doAnswer(invocation -> !((PostCommitJob) invocation.getArgument(1)).getEntityId().equals("a"))
+                .when(dispatcher).wasCommitted(any(), any());
+        dispatcher.init();
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    private int persistedJobs() {
+        return queue.listFiles((dir, name) -> name.endsWith(".json") || name.endsWith(".pending")).length;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
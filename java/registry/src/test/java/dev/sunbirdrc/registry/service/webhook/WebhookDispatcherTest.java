@@ -0,0 +1,225 @@
+package dev.sunbirdrc.registry.service.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import dev.sunbirdrc.registry.model.dto.WebhookEvent;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WebhookDispatcherTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failuresToReturn = new AtomicInteger();
+    private HttpServer server;
+    private String url;
+    private WebhookDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/callback", exchange -> {
+            requests.incrementAndGet();
+            String body = IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+            int status = 200;
+            if (failuresToReturn.get() > 0) {
+                failuresToReturn.decrementAndGet();
+                status = 500;
+            } else {
+                receivedBodies.add(body);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/callback";
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldDeliverEventsWithoutBlockingTheCaller() throws Exception {
+        dispatcher = createDispatcher(1, null);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(dispatcher.dispatch(event(i)));
+        }
+
+        waitUntil(() -> receivedBodies.size() == 20);
+        for (String body : receivedBodies) {
+            assertEquals("sunbird-rc-create", objectMapper.readTree(body).get("event").asText());
+        }
+        // the endpoint gets the event before the dispatcher hears back from it
+        waitUntil(() -> dispatcher.getPendingCount(url) == 0);
+        assertEquals(0, dispatcher.getPendingCount(url));
+    }
+
+    @Test
+    public void shouldBatchEventsPerEndpoint() throws Exception {
+        dispatcher = createDispatcher(5, null);
+        for (int i = 0; i < 23; i++) {
+            dispatcher.dispatch(event(i));
+        }
+
+        waitUntil(() -> countEvents() == 23);
+        for (String body : receivedBodies) {
+            JsonNode events = objectMapper.readTree(body);
+            assertTrue(events.isArray());
+            assertTrue(events.size() <= 5);
+        }
+        assertTrue(receivedBodies.size() < 23);
+    }
+
+    @Test
+    public void shouldRetryFailedDeliveriesWithBackoff() throws Exception {
+        dispatcher = createDispatcher(1, null);
+        failuresToReturn.set(2);
+
+        dispatcher.dispatch(event(1));
+
+        waitUntil(() -> receivedBodies.size() == 1);
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void shouldStopCallingEndpointWhileCircuitIsOpen() throws Exception {
+        dispatcher = createDispatcher(1, null);
+        ReflectionTestUtils.setField(dispatcher, "openDurationMillis", 60000L);
+        failuresToReturn.set(Integer.MAX_VALUE);
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(event(i));
+        }
+
+        waitUntil(() -> dispatcher.isCircuitOpen(url));
+        int requestsWhenOpened = requests.get();
+        Thread.sleep(300);
+        assertEquals(requestsWhenOpened, requests.get());
+        assertEquals(10, dispatcher.getPendingCount(url));
+    }
+
+    @Test
+    public void shouldResumePendingDeliveriesAfterRestart() throws Exception {
+        File store = temporaryFolder.newFolder("webhooks");
+        dispatcher = createDispatcher(1, store.getAbsolutePath());
+        failuresToReturn.set(Integer.MAX_VALUE);
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch(event(i));
+        }
+        waitUntil(() -> dispatcher.isCircuitOpen(url));
+        dispatcher.shutdown();
+        assertEquals(3, store.listFiles((dir, name) -> name.endsWith(".json")).length);
+
+        failuresToReturn.set(0);
+        dispatcher = createDispatcher(1, store.getAbsolutePath());
+
+        waitUntil(() -> receivedBodies.size() == 3);
+        waitUntil(() -> store.listFiles((dir, name) -> name.endsWith(".json")).length == 0);
+    }
+
+    @Test
+    public void shouldUpdateRetryStoreOffTheHttpClientThreads() throws Exception {
+        File store = temporaryFolder.newFolder("webhooks");
+        dispatcher = createDispatcher(1, store.getAbsolutePath());
+        List<String> writers = new CopyOnWriteArrayList<>();
+        ReflectionTestUtils.setField(dispatcher, "retryStore", new WebhookRetryStore(store.toPath(), objectMapper) {
+            @Override
+            void save(WebhookDelivery delivery) {
+                writers.add(Thread.currentThread().getName());
+                super.save(delivery);
+            }
+
+            @Override
+            void delete(WebhookDelivery delivery) {
+                writers.add(Thread.currentThread().getName());
+                super.delete(delivery);
+            }
+        });
+        failuresToReturn.set(1);
+
+        dispatcher.dispatch(event(0));
+
+        waitUntil(() -> receivedBodies.size() == 1 && writers.size() == 3);
+        assertEquals(Thread.currentThread().getName(), writers.get(0));
+        assertEquals("webhook-retry-store", writers.get(1));
+        assertEquals("webhook-retry-store", writers.get(2));
+        assertEquals(0, store.listFiles((dir, name) -> name.endsWith(".json")).length);
+    }
+
+    @Test
+    public void shouldDropEventsWithoutUrl() throws Exception {
+        dispatcher = createDispatcher(1, null);
+        assertFalse(dispatcher.dispatch(WebhookEvent.builder().event("sunbird-rc-create").build()));
+    }
+
+    private WebhookDispatcher createDispatcher(int batchSize, String retryStorePath) throws IOException {
+        WebhookDispatcher webhookDispatcher = new WebhookDispatcher();
+        ReflectionTestUtils.setField(webhookDispatcher, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(webhookDispatcher, "webhookEnabled", true);
+        ReflectionTestUtils.setField(webhookDispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(webhookDispatcher, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(webhookDispatcher, "batchSize", batchSize);
+        ReflectionTestUtils.setField(webhookDispatcher, "maxAttempts", 5);
+        ReflectionTestUtils.setField(webhookDispatcher, "initialBackoffMillis", 20L);
+        ReflectionTestUtils.setField(webhookDispatcher, "maxBackoffMillis", 200L);
+        ReflectionTestUtils.setField(webhookDispatcher, "failureThreshold", 3);
+        ReflectionTestUtils.setField(webhookDispatcher, "openDurationMillis", 100L);
+        ReflectionTestUtils.setField(webhookDispatcher, "timeoutMillis", 2000);
+        ReflectionTestUtils.setField(webhookDispatcher, "retryStorePath", retryStorePath);
+        webhookDispatcher.init();
+        return webhookDispatcher;
+    }
+
+    private WebhookEvent event(int i) {
+        return WebhookEvent.builder().event("sunbird-rc-create").data("entity-" + i).webhookUrl(url).build();
+    }
+
+    private int countEvents() {
+        int count = 0;
+        for (String body : receivedBodies) {
+            try {
+                count += objectMapper.readTree(body).size();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return count;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
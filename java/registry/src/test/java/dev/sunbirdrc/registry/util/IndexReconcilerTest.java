@@ -0,0 +1,154 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.exception.IndexException;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.TinkerGraphProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class IndexReconcilerTest {
+    private static final String TEACHER = "Teacher";
+
+    private DatabaseProvider databaseProvider;
+    private IDefinitionsManager definitionsManager;
+    private DBConnectionInfoMgr dbConnectionInfoMgr;
+    private DBProviderFactory dbProviderFactory;
+    private Definition definition;
+    private final List<IndexReconciler> reconcilers = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        databaseProvider = spy(new TinkerGraphProvider(null));
+        definition = new Definition(new ObjectMapper().readTree(getClass().getClassLoader().getResourceAsStream("Teacher.json")));
+        definition.getOsSchemaConfiguration().setIndexFields(new ArrayList<>(Arrays.asList("studentName", "(serialNum, studentCode)")));
+        definitionsManager = mock(IDefinitionsManager.class);
+        when(definitionsManager.getDefinition(TEACHER)).thenReturn(definition);
+        when(definitionsManager.getAllKnownDefinitions()).thenReturn(Collections.singleton(TEACHER));
+        DBConnectionInfo dbConnectionInfo = new DBConnectionInfo();
+        dbConnectionInfo.setShardId("shard1");
+        dbConnectionInfoMgr = mock(DBConnectionInfoMgr.class);
+        when(dbConnectionInfoMgr.getConnectionInfo()).thenReturn(Collections.singletonList(dbConnectionInfo));
+        dbProviderFactory = mock(DBProviderFactory.class);
+        when(dbProviderFactory.getInstance(dbConnectionInfo)).thenReturn(databaseProvider);
+    }
+
+    @After
+    public void tearDown() {
+        reconcilers.forEach(IndexReconciler::shutdown);
+    }
+
+    @Test
+    public void shouldComputeIndicesOfDefinition() {
+        assertEquals(new LinkedHashSet<>(Arrays.asList("index:osid", "index:studentName", "index:serialNum,studentCode",
+                "unique:identityValue")), IndexHelper.getIndices(definition, "osid"));
+        assertTrue(IndexHelper.isUnique("unique:identityValue"));
+        assertEquals(Arrays.asList("serialNum", "studentCode"), IndexHelper.getIndexedFields("index:serialNum,studentCode"));
+    }
+
+    @Test
+    public void shouldCreateEachIndexOnce() throws Exception {
+        IndexReconciler reconciler = reconciler();
+        reconciler.reconcileAll();
+        awaitReconciled(reconciler);
+
+        verify(databaseProvider).createIndex(any(), eq(TEACHER), eq(Collections.singletonList("osid")));
+        verify(databaseProvider).createIndex(any(), eq(TEACHER), eq(Collections.singletonList("studentName")));
+        verify(databaseProvider).createCompositeIndex(any(), eq(TEACHER), eq(Arrays.asList("serialNum", "studentCode")));
+        verify(databaseProvider).createUniqueIndex(any(), eq(TEACHER), eq(Collections.singletonList("identityValue")));
+
+        // a restarted registry reads the catalog instead of creating the indices again
+        IndexReconciler restarted = reconciler();
+        restarted.reconcileAll();
+        awaitReconciled(restarted);
+        verify(databaseProvider, times(2)).createIndex(any(), any(), any());
+        verify(databaseProvider, times(1)).createCompositeIndex(any(), any(), any());
+        verify(databaseProvider, times(1)).createUniqueIndex(any(), any(), any());
+    }
+
+    @Test
+    public void shouldKeepIndexPendingUntilLabelExists() throws Exception {
+        doThrow(new IndexException.LabelNotFoundException(TEACHER)).doNothing()
+                .when(databaseProvider).createUniqueIndex(any(), eq(TEACHER), any());
+        IndexReconciler reconciler = reconciler(20);
+
+        reconciler.reconcile(TEACHER);
+        awaitReconciled(reconciler);
+        verify(databaseProvider, times(2)).createUniqueIndex(any(), eq(TEACHER), any());
+        verify(databaseProvider, times(2)).createIndex(any(), eq(TEACHER), any());
+    }
+
+    @Test
+    public void shouldCreateIndicesAddedToSchema() throws Exception {
+        IndexReconciler reconciler = reconciler();
+        reconciler.reconcileAll();
+        awaitReconciled(reconciler);
+
+        definition.getOsSchemaConfiguration().getIndexFields().add("schoolName");
+        reconciler.reconcile(TEACHER);
+        awaitReconciled(reconciler);
+
+        verify(databaseProvider, times(1)).createIndex(any(), eq(TEACHER), eq(Collections.singletonList("schoolName")));
+        verify(databaseProvider, times(1)).createIndex(any(), eq(TEACHER), eq(Collections.singletonList("studentName")));
+    }
+
+    @Test
+    public void shouldAddCatalogEntryOnceWhenRegistriesCreateIndexTogether() throws Exception {
+        IndexReconciler other = reconciler();
+        // the other registry read the catalog before this one created any index
+        ReflectionTestUtils.setField(other, "catalogs", new ConcurrentHashMap<>(
+                Collections.singletonMap("shard1", new ConcurrentHashMap<>())));
+        IndexReconciler reconciler = reconciler();
+        reconciler.reconcileAll();
+        awaitReconciled(reconciler);
+
+        other.reconcileAll();
+        awaitReconciled(other);
+
+        Map<String, Long> entries = new HashMap<>();
+        databaseProvider.getOSGraph().getGraphStore().traversal().V().hasLabel(Constants.INDEX_CATALOG_LABEL)
+                .forEachRemaining(entry -> entries.merge(entry.value(Constants.INDEX_CATALOG_INDEX), 1L, Long::sum));
+        assertEquals(IndexHelper.getIndices(definition, "osid"), entries.keySet());
+        assertTrue(entries.values().stream().allMatch(count -> count == 1));
+        verify(databaseProvider, times(2)).createUniqueIndex(any(), eq(TEACHER), any());
+    }
+
+    private IndexReconciler reconciler() {
+        return reconciler(0);
+    }
+
+    private IndexReconciler reconciler(long reconcileInterval) {
+        IndexReconciler reconciler = new IndexReconciler();
+        ReflectionTestUtils.setField(reconciler, "definitionsManager", definitionsManager);
+        ReflectionTestUtils.setField(reconciler, "dbConnectionInfoMgr", dbConnectionInfoMgr);
+        ReflectionTestUtils.setField(reconciler, "dbProviderFactory", dbProviderFactory);
+        ReflectionTestUtils.setField(reconciler, "uuidPropertyName", "osid");
+        ReflectionTestUtils.setField(reconciler, "reconcileInterval", reconcileInterval);
+        reconciler.init();
+        reconcilers.add(reconciler);
+        return reconciler;
+    }
+
+    private static void awaitReconciled(IndexReconciler reconciler) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!reconciler.getPendingDefinitions().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(reconciler.getPendingDefinitions().isEmpty());
+    }
+}
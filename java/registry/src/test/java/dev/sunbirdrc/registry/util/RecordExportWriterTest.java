@@ -0,0 +1,45 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RecordExportWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldWriteOneRecordPerLineForNdJson() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        RecordExportWriter writer = RecordExportWriter.getInstance(RecordExportWriter.NDJSON, outputStream, objectMapper);
+        writer.handle((ArrayNode) objectMapper.readTree("[{\"name\":\"a\"},{\"name\":\"b\"}]"));
+        writer.handle((ArrayNode) objectMapper.readTree("[{\"name\":\"c\"}]"));
+        writer.close();
+        assertEquals("{\"name\":\"a\"}\n{\"name\":\"b\"}\n{\"name\":\"c\"}\n",
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldWriteHeaderAndEscapedValuesForCsv() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        RecordExportWriter writer = RecordExportWriter.getInstance(RecordExportWriter.CSV, outputStream, objectMapper);
+        writer.handle((ArrayNode) objectMapper.readTree(
+                "[{\"name\":\"a, b\",\"age\":10,\"address\":{\"city\":\"x\"}},{\"name\":\"c\"}]"));
+        writer.close();
+        assertEquals("name,age,address\r\n\"a, b\",10,\"{\"\"city\"\":\"\"x\"\"}\"\r\nc,,\r\n",
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldSupportOnlyKnownFormats() {
+        assertTrue(RecordExportWriter.isSupported("CSV"));
+        assertTrue(RecordExportWriter.isSupported("ndjson"));
+        assertFalse(RecordExportWriter.isSupported("xml"));
+    }
+}
@@ -3,15 +3,29 @@ package dev.sunbirdrc.validators.json.jsonschema;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.sunbirdrc.registry.middleware.MiddlewareHaltException;
 import dev.sunbirdrc.registry.util.Definition;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class JsonValidationServiceImplTest {
+    private static final Logger logger = LoggerFactory.getLogger(JsonValidationServiceImplTest.class);
 
     private JsonValidationServiceImpl jsonValidationService;
 
@@ -180,4 +194,111 @@ public class JsonValidationServiceImplTest {
                 "}", false);
 
     }
+
+    @Test(expected = MiddlewareHaltException.class)
+    public void testValidateJsonNode() throws Exception {
+        jsonObj = mapper.readTree(new File(sampleJsonPathOnlyRequiredErrors));
+        jsonValidationService.validate(schemaDefinition.getTitle(), jsonObj, false);
+    }
+
+    @Test
+    public void testIgnoreRequiredValidationJsonNode() throws Exception {
+        jsonObj = mapper.readTree(new File(sampleJsonPathOnlyRequiredErrors));
+        jsonValidationService.validate(schemaDefinition.getTitle(), jsonObj, true);
+    }
+
+    @Test(expected = MiddlewareHaltException.class)
+    public void testIgnoreRequiredValidationWithSchemaViolationsJsonNode() throws Exception {
+        jsonObj = mapper.readTree(new File(sampleJsonPathRequiredSchemaErrors));
+        jsonValidationService.validate(schemaDefinition.getTitle(), jsonObj, true);
+    }
+
+    @Test
+    public void shouldReportSameViolationsForJsonNodeAndString() throws Exception {
+        jsonObj = mapper.readTree(new File(sampleJsonPathRequiredSchemaErrors));
+        ((ObjectNode) jsonObj.get("Student")).put("name", 10).putNull("dob");
+        assertEquals(validationMessage(mapper.writeValueAsString(jsonObj)), validationMessage(jsonObj));
+    }
+
+    @Test
+    public void shouldRecompileChangedDefinition() throws Exception {
+        jsonValidationService.compileDefinitions();
+        JsonNode student = mapper.readTree("{\"Student\":{\"name\":\"Rohan K\",\"dob\":\"2000-01-01\"}}");
+        jsonValidationService.validate("Student", student, false);
+
+        ObjectNode changedSchema = (ObjectNode) mapper.readTree(schemaDefinition.getContent());
+        ((ArrayNode) changedSchema.at("/definitions/Student/required")).add("gender");
+        jsonValidationService.addDefinitions("Student", changedSchema.toString());
+
+        try {
+            jsonValidationService.validate("Student", student, false);
+            fail("validated with the old definition");
+        } catch (MiddlewareHaltException e) {
+            // gender is required now
+        }
+        jsonValidationService.removeDefinition("Student");
+        jsonValidationService.validate("Student", student, false);
+    }
+
+    @Test
+    public void shouldCompileOnceForConcurrentValidations() throws Exception {
+        JsonNode student = mapper.readTree("{\"Student\":{\"name\":\"Rohan K\",\"dob\":\"2000-01-01\"}}");
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executorService.submit(() -> {
+                    jsonValidationService.validate("Student", student, false);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Compares the string round trip with the tree adapter, run with -Dvalidation.iterations for steadier numbers
+     */
+    @Ignore("benchmark, run by hand")
+    @Test
+    public void compareJsonNodeValidationWithStringValidation() throws Exception {
+        int iterations = Integer.getInteger("validation.iterations", 200);
+        JsonNode small = mapper.readTree("{\"Student\":{\"name\":\"Rohan K\",\"dob\":\"2000-01-01\"}}");
+        ObjectNode large = small.deepCopy();
+        ArrayNode education = ((ObjectNode) large.get("Student")).putArray("education");
+        for (int i = 0; i < 1000; i++) {
+            education.addObject().put("title", "course " + i).put("fromDate", "2010-01-01");
+        }
+        for (JsonNode payload : new JsonNode[]{small, large}) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                jsonValidationService.validate("Student", mapper.writeValueAsString(payload), false);
+            }
+            long stringNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                jsonValidationService.validate("Student", payload, false);
+            }
+            long nodeNanos = System.nanoTime() - start;
+            logger.info("Validating {} bytes {} times: string {} ms, json node {} ms", payload.toString().length(),
+                    iterations, stringNanos / 1000000, nodeNanos / 1000000);
+        }
+    }
+
+    private String validationMessage(Object payload) {
+        try {
+            if (payload instanceof JsonNode) {
+                jsonValidationService.validate(schemaDefinition.getTitle(), (JsonNode) payload, false);
+            } else {
+                jsonValidationService.validate(schemaDefinition.getTitle(), (String) payload, false);
+            }
+            return null;
+        } catch (MiddlewareHaltException e) {
+            return e.getMessage();
+        }
+    }
 }
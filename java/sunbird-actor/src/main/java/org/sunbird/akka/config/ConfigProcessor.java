@@ -4,12 +4,14 @@ import com.typesafe.config.Config;
 
 /**
  * Defines the configuration format expected by this library
+ * Substitutions are resolved, so that settings like the number of instances
+ * may be overridden through environment variables, ${?VARIABLE}.
  */
 public class ConfigProcessor {
     private Config config;
 
     public ConfigProcessor(Config config) {
-        this.config = config;
+        this.config = config.resolve();
     }
 
     public Config getConfig() {
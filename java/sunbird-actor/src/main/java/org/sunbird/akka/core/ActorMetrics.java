@@ -0,0 +1,115 @@
+package org.sunbird.akka.core;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the mailbox depth, processing time and dead letters of every actor type.
+ * All the instances of a pooled actor are counted under the name of the pool.
+ */
+public class ActorMetrics {
+    private static final ActorMetrics instance = new ActorMetrics();
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Disallow external instantiation
+     */
+    private ActorMetrics() {}
+
+    public static ActorMetrics instance() {
+        return instance;
+    }
+
+    /**
+     * Gets the counters of the actor type, creating them when seen first
+     * @param actorType
+     * @return
+     */
+    public Stats get(String actorType) {
+        return stats.computeIfAbsent(actorType, name -> new Stats());
+    }
+
+    /**
+     * @return the counters of every actor type seen so far, by name
+     */
+    public Map<String, Stats> snapshot() {
+        return new TreeMap<>(stats);
+    }
+
+    public static class Stats {
+        private final AtomicLong mailboxDepth = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong processingNanos = new AtomicLong();
+        private final AtomicLong maxProcessingNanos = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong deadLetters = new AtomicLong();
+
+        void enqueued() {
+            mailboxDepth.incrementAndGet();
+        }
+
+        void dequeued() {
+            mailboxDepth.decrementAndGet();
+        }
+
+        void processed(long nanos, boolean failure) {
+            processed.incrementAndGet();
+            if (failure) {
+                failed.incrementAndGet();
+            }
+            processingNanos.addAndGet(nanos);
+            maxProcessingNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void dropped() {
+            dropped.incrementAndGet();
+        }
+
+        void deadLetter() {
+            deadLetters.incrementAndGet();
+        }
+
+        /**
+         * @return messages waiting in the mailboxes of all the instances
+         */
+        public long getMailboxDepth() {
+            return mailboxDepth.get();
+        }
+
+        public long getProcessed() {
+            return processed.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public double getAvgProcessingMillis() {
+            long count = processed.get();
+            return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(processingNanos.get()) / count / 1000;
+        }
+
+        public double getMaxProcessingMillis() {
+            return (double) TimeUnit.NANOSECONDS.toMicros(maxProcessingNanos.get()) / 1000;
+        }
+
+        /**
+         * @return messages turned away because a mailbox was full
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        /**
+         * @return messages addressed to the actor that weren't delivered, dropped ones included
+         */
+        public long getDeadLetters() {
+            return deadLetters.get();
+        }
+    }
+}
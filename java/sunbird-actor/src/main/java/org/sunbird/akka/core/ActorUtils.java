@@ -2,6 +2,8 @@ package org.sunbird.akka.core;
 
 import akka.actor.ActorRef;
 
+import java.util.Iterator;
+
 public class ActorUtils {
     /**
      * Returns the name of the actor
@@ -12,4 +14,18 @@ public class ActorUtils {
     public static String getName(ActorRef actor) {
         return actor.path().name();
     }
+
+    /**
+     * Returns the name of the top level actor, the pool, the actor belongs to
+     * This is used to count the instances of a pooled actor together
+     * @param actor
+     * @return
+     */
+    public static String getTypeName(ActorRef actor) {
+        Iterator<String> elements = actor.path().getElements().iterator();
+        if (elements.hasNext() && "user".equals(elements.next()) && elements.hasNext()) {
+            return elements.next();
+        }
+        return getName(actor);
+    }
 }
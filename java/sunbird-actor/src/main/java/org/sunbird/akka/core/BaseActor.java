@@ -15,11 +15,14 @@ public abstract class BaseActor extends UntypedAbstractActor {
     protected MessageProtos.Message.Builder responseMsgBldr;
     protected final String ON_FAILURE_METHOD_NAME = "onFailure";
     protected final String ON_SUCCESS_METHOD_NAME = "onSuccess";
+    private ActorMetrics.Stats stats;
+    private Object localPayload;
 
     @Override
     public void preStart() throws Exception {
         super.preStart();
         String name = self().path().name();
+        stats = ActorMetrics.instance().get(ActorUtils.getTypeName(self()));
         logger.debug("Actor {} getting ready", name);
     }
 
@@ -40,13 +43,28 @@ public abstract class BaseActor extends UntypedAbstractActor {
      * @return
      */
     public void tellToSource(MessageProtos.Message request) {
-        logger.info("REPLY ok to Source actor {}", sender().path().toSerializationFormat());
+        logger.debug("REPLY ok to Source actor {}", sender().path().toSerializationFormat());
         sender().tell(request, getSelf());
     }
 
 
+    /**
+     * Gets the payload object of the message being processed, when it was sent
+     * from this JVM as a LocalMessage. Otherwise, the payload is in the message.
+     * @param type
+     * @return the payload, or null when not sent locally or of another type
+     */
+    protected <T> T getLocalPayload(Class<T> type) {
+        return type.isInstance(localPayload) ? type.cast(localPayload) : null;
+    }
+
     @Override
     public void onReceive(Object genericMessage) throws Throwable {
+        localPayload = null;
+        if (genericMessage instanceof LocalMessage) {
+            localPayload = ((LocalMessage) genericMessage).getPayload();
+            genericMessage = ((LocalMessage) genericMessage).getMessage();
+        }
         if (genericMessage != null) {
         MessageProtos.Message sunbirdActorMessage = null;
         try {
@@ -76,13 +94,16 @@ public abstract class BaseActor extends UntypedAbstractActor {
                 responseMsgBldr = MessageProtos.Message.newBuilder(msgWithSrc);
 
                 if (!self().path().parent().name().equals(Router.ROUTER_NAME)) {
-                    logger.info("SEND message from {} to {}",
+                    logger.debug("SEND message from {} to {}",
                             msgWithSrc.getSourceActorName(),
                             msgWithSrc.getTargetActorName());
                 }
+                long start = System.nanoTime();
+                boolean failure = true;
                 try {
                     // Act upon the message.
                     onReceive(msgWithSrc);
+                    failure = false;
 
                     // Ack if this is of type 'ask'.
                     if (msgWithSrc.getMsgOption() == MessageProtos.MessageOption.GET_BACK_RESPONSE) {
@@ -96,6 +117,8 @@ public abstract class BaseActor extends UntypedAbstractActor {
                     }
                 } catch (Exception e) {
                     logger.error("Exception occurred while Act upon the message {}", ExceptionUtils.getStackTrace(e));
+                } finally {
+                    stats.processed(System.nanoTime() - start, failure);
                 }
             }
 
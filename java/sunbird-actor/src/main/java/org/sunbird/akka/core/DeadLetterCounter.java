@@ -0,0 +1,21 @@
+package org.sunbird.akka.core;
+
+import akka.actor.AbstractActor;
+import akka.actor.DeadLetter;
+
+/**
+ * Counts the dead letters of every actor type in ActorMetrics.
+ * Subscribed to the event stream of the actor system by the factory.
+ */
+public class DeadLetterCounter extends AbstractActor {
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(DeadLetter.class, msg -> {
+                    if (msg.recipient() != null) {
+                        ActorMetrics.instance().get(ActorUtils.getTypeName(msg.recipient())).deadLetter();
+                    }
+                })
+                .build();
+    }
+}
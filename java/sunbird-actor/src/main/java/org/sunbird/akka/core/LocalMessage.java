@@ -0,0 +1,58 @@
+package org.sunbird.akka.core;
+
+import com.google.protobuf.Value;
+
+/**
+ * A message whose payload is kept as an object while it stays in this JVM.
+ * Actors read it through BaseActor.getLocalPayload, so that the payload isn't
+ * encoded by the sender only to be decoded by the receiver.
+ * When the target is remote, or isn't known locally, the message is sent as
+ * a MessageProtos.Message with the payload encoded to a string.
+ * The payload must not be changed once the message is sent.
+ */
+public final class LocalMessage {
+    /**
+     * Encodes the payload for the message leaving this JVM, usually to json
+     */
+    public interface PayloadEncoder {
+        String encode(Object payload) throws Exception;
+    }
+
+    private final MessageProtos.Message message;
+    private final Object payload;
+    private final PayloadEncoder encoder;
+
+    /**
+     * @param message the message without payload
+     * @param payload
+     * @param encoder
+     */
+    public LocalMessage(MessageProtos.Message message, Object payload, PayloadEncoder encoder) {
+        this.message = message;
+        this.payload = payload;
+        this.encoder = encoder;
+    }
+
+    public MessageProtos.Message getMessage() {
+        return message;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    /**
+     * Gets the message with the payload encoded, for sending it outside this JVM
+     * @return
+     */
+    public MessageProtos.Message toMessage() {
+        try {
+            return MessageProtos.Message.newBuilder(message)
+                    .setPayload(Value.newBuilder().setStringValue(encoder.encode(payload)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Payload of the message to " + message.getTargetActorName()
+                    + " can't be encoded", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.sunbird.akka.core;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.DeadLetter;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.ProducesMessageQueue;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import com.typesafe.config.Config;
+import scala.Option;
+
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * A bounded mailbox. When it is full, the overflow-policy decides what happens to the incoming message:
+ * the sender waits until the actor has made room (block), or a message is turned away - the incoming one
+ * (drop-new) or the one waiting longest (drop-oldest). Messages turned away are logged, published as dead
+ * letters and counted in ActorMetrics.
+ * An actor whose messages mustn't be lost uses block, on a dispatcher of its own so that the senders it
+ * holds up never take the threads it needs to catch up.
+ *
+ * Refer it from the actor deployment with mailbox = <name> where the named section has
+ *   mailbox-type = "org.sunbird.akka.core.OverflowMailbox"
+ *   mailbox-capacity = 1000
+ *   overflow-policy = drop-new
+ * The capacity is for every instance of a pooled actor.
+ */
+public class OverflowMailbox implements MailboxType, ProducesMessageQueue<OverflowMailbox.OverflowQueue> {
+    public static final String DROP_NEW = "drop-new";
+    public static final String DROP_OLDEST = "drop-oldest";
+    public static final String BLOCK = "block";
+
+    private final int capacity;
+    private final String overflowPolicy;
+
+    public OverflowMailbox(ActorSystem.Settings settings, Config config) {
+        this(config.getInt("mailbox-capacity"),
+                config.hasPath("overflow-policy") ? config.getString("overflow-policy") : DROP_NEW);
+    }
+
+    public OverflowMailbox(int capacity, String overflowPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("mailbox-capacity must be positive");
+        }
+        if (!DROP_NEW.equals(overflowPolicy) && !DROP_OLDEST.equals(overflowPolicy) && !BLOCK.equals(overflowPolicy)) {
+            throw new IllegalArgumentException("Unknown overflow-policy " + overflowPolicy);
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+        String actorType = owner.isDefined() ? ActorUtils.getTypeName(owner.get()) : "unknown";
+        return new OverflowQueue(capacity, overflowPolicy, actorType, ActorMetrics.instance().get(actorType),
+                system.isDefined() ? system.get() : null);
+    }
+
+    public static class OverflowQueue implements MessageQueue {
+        private final LinkedBlockingDeque<Envelope> queue;
+        private final String overflowPolicy;
+        private final String actorType;
+        private final ActorMetrics.Stats stats;
+        private final ActorSystem system;
+        private final LoggingAdapter logger;
+
+        OverflowQueue(int capacity, String overflowPolicy, String actorType, ActorMetrics.Stats stats, ActorSystem system) {
+            this.queue = new LinkedBlockingDeque<>(capacity);
+            this.overflowPolicy = overflowPolicy;
+            this.actorType = actorType;
+            this.stats = stats;
+            this.system = system;
+            this.logger = system != null ? Logging.getLogger(system, OverflowMailbox.class) : null;
+        }
+
+        @Override
+        public void enqueue(ActorRef receiver, Envelope handle) {
+            if (BLOCK.equals(overflowPolicy)) {
+                try {
+                    queue.putLast(handle);
+                } catch (InterruptedException e) {
+                    // the sender is being stopped, only then is a message turned away
+                    Thread.currentThread().interrupt();
+                    drop(receiver, handle);
+                    return;
+                }
+                stats.enqueued();
+                return;
+            }
+            while (!queue.offerLast(handle)) {
+                if (DROP_NEW.equals(overflowPolicy)) {
+                    drop(receiver, handle);
+                    return;
+                }
+                Envelope oldest = queue.pollFirst();
+                if (oldest != null) {
+                    stats.dequeued();
+                    drop(receiver, oldest);
+                }
+            }
+            stats.enqueued();
+        }
+
+        @Override
+        public Envelope dequeue() {
+            Envelope envelope = queue.pollFirst();
+            if (envelope != null) {
+                stats.dequeued();
+            }
+            return envelope;
+        }
+
+        @Override
+        public int numberOfMessages() {
+            return queue.size();
+        }
+
+        @Override
+        public boolean hasMessages() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+            Envelope envelope;
+            while ((envelope = dequeue()) != null) {
+                deadLetters.enqueue(owner, envelope);
+            }
+        }
+
+        private void drop(ActorRef receiver, Envelope envelope) {
+            stats.dropped();
+            if (logger != null) {
+                logger.warning("Mailbox of {} is full, turned away {}", actorType, describe(envelope.message()));
+            }
+            if (system != null) {
+                ActorRef sender = envelope.sender() != null ? envelope.sender() : system.deadLetters();
+                system.eventStream().publish(new DeadLetter(envelope.message(), sender, receiver));
+            }
+        }
+
+        private static String describe(Object message) {
+            if (message instanceof LocalMessage) {
+                message = ((LocalMessage) message).getMessage();
+            }
+            if (message instanceof MessageProtos.Message) {
+                MessageProtos.Message protoMessage = (MessageProtos.Message) message;
+                return protoMessage.getPerformOperation() + " to " + protoMessage.getTargetActorName();
+            }
+            return message.getClass().getSimpleName();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import akka.actor.ActorSelection;
 import akka.dispatch.OnComplete;
 import akka.pattern.Patterns;
 import akka.util.Timeout;
+import com.typesafe.config.Config;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import scala.concurrent.ExecutionContext;
 import scala.concurrent.Future;
@@ -30,6 +31,52 @@ public class Router extends BaseActor {
      */
     public static int WAIT_TIME_VALUE = 10;
 
+    /**
+     * Overrides WAIT_TIME_VALUE when present in the actor system configuration
+     */
+    public static final String ASK_TIMEOUT_CONFIG = "sunbird-router.ask-timeout";
+
+    private Timeout askTimeout;
+
+    /**
+     * Tells the message straight to the target actor, skipping the router when
+     * no reply is wanted. Used for side effects like indexing, notifications and audit.
+     * Falls back to the router when the target isn't known locally.
+     * @param message
+     */
+    public static void sendAndForget(MessageProtos.Message message) {
+        ActorCache actorCache = ActorCache.instance();
+        if (message.getMsgOption() == SEND_AND_FORGET) {
+            ActorRef ref = actorCache.get(message.getTargetActorName());
+            if (ref != null) {
+                ref.tell(message, ActorRef.noSender());
+                return;
+            }
+            ActorSelection selection = actorCache.getRemote(message.getTargetActorName());
+            if (selection != null) {
+                selection.tell(message, ActorRef.noSender());
+                return;
+            }
+        }
+        actorCache.get(ROUTER_NAME).tell(message, ActorRef.noSender());
+    }
+
+    /**
+     * Tells the message with its payload object to the target actor in this JVM.
+     * The payload is encoded only when the target is remote or unknown.
+     * @param message
+     */
+    public static void sendAndForget(LocalMessage message) {
+        if (message.getMessage().getMsgOption() == SEND_AND_FORGET) {
+            ActorRef ref = ActorCache.instance().get(message.getMessage().getTargetActorName());
+            if (ref != null) {
+                ref.tell(message, ActorRef.noSender());
+                return;
+            }
+        }
+        sendAndForget(message.toMessage());
+    }
+
     // TODO - Could there be a supervisor strategy?
 //    private static SupervisorStrategy strategy =
 //            new OneForOneStrategy(10, Duration.create(1, TimeUnit.MINUTES),
@@ -42,6 +89,17 @@ public class Router extends BaseActor {
 //        return strategy;
 //    }
 
+    @Override
+    public void preStart() throws Exception {
+        super.preStart();
+        Config config = getContext().getSystem().settings().config();
+        if (config.hasPath(ASK_TIMEOUT_CONFIG)) {
+            askTimeout = Timeout.create(config.getDuration(ASK_TIMEOUT_CONFIG));
+        } else {
+            askTimeout = new Timeout(Duration.create(WAIT_TIME_VALUE, TimeUnit.SECONDS));
+        }
+    }
+
     @Override
     public void onReceive(MessageProtos.Message request) {
         route(request);
@@ -111,13 +169,12 @@ public class Router extends BaseActor {
      * @return boolean
      */
     private boolean route(ActorSelection router, ActorRef ref, MessageProtos.Message message, ExecutionContext ec) {
-        logger.info("Actor Service Call start for api {}", message.getTargetActorName());
-        Timeout timeout = new Timeout(Duration.create(WAIT_TIME_VALUE, TimeUnit.SECONDS));
+        logger.debug("Actor Service Call start for api {}", message.getTargetActorName());
         Future<Object> future = null;
         if (router == null) {
-            future = Patterns.ask(ref, message, timeout);
+            future = Patterns.ask(ref, message, askTimeout);
         } else {
-            future = Patterns.ask(router, message, timeout);
+            future = Patterns.ask(router, message, askTimeout);
         }
 
         future.onComplete(
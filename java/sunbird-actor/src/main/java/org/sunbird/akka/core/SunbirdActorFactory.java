@@ -3,6 +3,7 @@ package org.sunbird.akka.core;
 import akka.actor.ActorRef;
 import akka.actor.ActorSelection;
 import akka.actor.ActorSystem;
+import akka.actor.DeadLetter;
 import akka.actor.Props;
 import akka.routing.FromConfig;
 import com.typesafe.config.Config;
@@ -35,6 +36,7 @@ public class SunbirdActorFactory {
         createActorSystem(name);
         createRouter();
         //createDeadLetterActor();
+        createDeadLetterCounter();
         initActors();
         printCache();
     }
@@ -55,7 +57,8 @@ public class SunbirdActorFactory {
         router = actorSystem.actorOf(
                 FromConfig.getInstance()
                         .props(
-                                Props.create(Router.class).withDispatcher(getDispatcherName(Router.class))),
+                                withMailbox(Props.create(Router.class).withDispatcher(getDispatcherName(Router.class)),
+                                        Router.class)),
                 Router.ROUTER_NAME);
         ActorCache.instance().add(Router.ROUTER_NAME, router);
     }
@@ -105,14 +108,40 @@ public class SunbirdActorFactory {
      * @return
      */
     private String getDispatcherName(Class<? extends BaseActor> actor) {
-        String completePath = this.actorSystem.name() + ".akka.actor.deployment./" + actor.getSimpleName()+ ".dispatcher";
-        String dispatcher = "";
+        return getDeploymentSetting(actor, "dispatcher");
+    }
+
+    /**
+     * Gets the mailbox name from the configuration, empty when the default unbounded one is used
+     * @param actor
+     * @return
+     */
+    private String getMailboxName(Class<? extends BaseActor> actor) {
+        return getDeploymentSetting(actor, "mailbox");
+    }
+
+    private String getDeploymentSetting(Class<? extends BaseActor> actor, String setting) {
+        String completePath = this.actorSystem.name() + ".akka.actor.deployment./" + actor.getSimpleName() + "." + setting;
+        String value = "";
         try {
-            dispatcher = configProcessor.getConfig().getString(completePath);
+            value = configProcessor.getConfig().getString(completePath);
         } catch (ConfigException missingConfig) {
-            // System.out.println("Dispatcher not provided and so default");
+            // Not provided and so default
         }
-        return dispatcher;
+        return value;
+    }
+
+    /**
+     * Sets the mailbox of every instance of the actor, when one is configured.
+     * The mailbox is set on the routee props because the deployment setting
+     * would only apply to the pool itself.
+     * @param props
+     * @param actor
+     * @return
+     */
+    private Props withMailbox(Props props, Class<? extends BaseActor> actor) {
+        String mailbox = getMailboxName(actor);
+        return mailbox.isEmpty() ? props : props.withMailbox(mailbox);
     }
 
     /**
@@ -132,6 +161,7 @@ public class SunbirdActorFactory {
         } else {
             props = Props.create(actor);
         }
+        props = withMailbox(props, actor);
 
         String name = actor.getSimpleName();
         ActorRef actorRef = actorContext.actorOf(FromConfig.getInstance().props(props), name);
@@ -146,6 +176,13 @@ public class SunbirdActorFactory {
 //        actorSystem.eventStream().subscribe(actor, DeadLetter.class);
 //    }
 
+    /**
+     * Counts the dead letters of every actor type, see ActorMetrics
+     */
+    private void createDeadLetterCounter() {
+        final ActorRef counter = actorSystem.actorOf(Props.create(DeadLetterCounter.class), "DeadLetterCounter");
+        actorSystem.eventStream().subscribe(counter, DeadLetter.class);
+    }
 
     private void printCache() {
         ActorCache.instance().print();
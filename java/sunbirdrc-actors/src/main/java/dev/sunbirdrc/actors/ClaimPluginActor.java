@@ -14,7 +14,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
-import org.sunbird.akka.core.ActorCache;
 import org.sunbird.akka.core.BaseActor;
 import org.sunbird.akka.core.MessageProtos;
 import org.sunbird.akka.core.Router;
@@ -118,6 +117,6 @@ public class ClaimPluginActor extends BaseActor {
             pluginResponseMessage.setResponse(pluginRequestMessage.getPropertyData());
         }
         MessageProtos.Message pluginResponseActorMessage = MessageFactory.instance().createPluginResponseMessage(pluginResponseMessage);
-        ActorCache.instance().get(Router.ROUTER_NAME).tell(pluginResponseActorMessage, null);
+        Router.sendAndForget(pluginResponseActorMessage);
     }
 }
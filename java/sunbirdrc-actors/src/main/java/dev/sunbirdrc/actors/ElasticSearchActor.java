@@ -18,7 +18,10 @@ public class ElasticSearchActor extends BaseActor {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         elasticSearch = new ElasticServiceImpl();
         objectMapper = new ObjectMapper();
-        ESMessage esMessage = objectMapper.readValue(request.getPayload().getStringValue(), ESMessage.class);
+        ESMessage esMessage = getLocalPayload(ESMessage.class);
+        if (esMessage == null) {
+            esMessage = objectMapper.readValue(request.getPayload().getStringValue(), ESMessage.class);
+        }
         //ESMessage es =  objectMapper.writeValue(request.getPayload(), ESMessage.class);
         switch (request.getPerformOperation()) {
             case "ADD":
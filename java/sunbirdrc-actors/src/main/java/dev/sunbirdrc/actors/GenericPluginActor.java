@@ -9,7 +9,6 @@ import dev.sunbirdrc.pojos.PluginResponseMessage;
 import dev.sunbirdrc.pojos.PluginResponseMessageCreator;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
-import org.sunbird.akka.core.ActorCache;
 import org.sunbird.akka.core.BaseActor;
 import org.sunbird.akka.core.MessageProtos;
 import org.sunbird.akka.core.Router;
@@ -44,6 +43,6 @@ public class GenericPluginActor extends BaseActor {
             pluginResponseMessage.setStatus(REJECT_CLAIM.name());
         }
         MessageProtos.Message esProtoMessage = MessageFactory.instance().createPluginResponseMessage(pluginResponseMessage);
-        ActorCache.instance().get(Router.ROUTER_NAME).tell(esProtoMessage, null);
+        Router.sendAndForget(esProtoMessage);
     }
 }
@@ -19,7 +19,10 @@ public class NotificationActor extends BaseActor {
         logger.debug("Received a message to Notification Actor {}", request.getPerformOperation());
         objectMapper = new ObjectMapper();
         notificationService = new NotificationService();
-        NotificationMessage notificationMessage = objectMapper.readValue(request.getPayload().getStringValue(), NotificationMessage.class);
+        NotificationMessage notificationMessage = getLocalPayload(NotificationMessage.class);
+        if (notificationMessage == null) {
+            notificationMessage = objectMapper.readValue(request.getPayload().getStringValue(), NotificationMessage.class);
+        }
         Map<String, String> response = notificationService.notify(notificationMessage);
         logger.info("{}", response);
     }
@@ -21,16 +21,21 @@ public class OSActor extends BaseActor {
 		/*
 		 * AuditRecord auditRecord = null;
 		 */        
-        OSEvent osEvent = objectMapper.readValue(message.getPayload().getStringValue(), OSEvent.class);
+        OSEvent osEvent = getLocalPayload(OSEvent.class);
+        if (osEvent == null) {
+            osEvent = objectMapper.readValue(message.getPayload().getStringValue(), OSEvent.class);
+        }
         Map<String, Object> osMap = osEvent.getOsMap();
         elasticSearchEnabled = (boolean) osMap.get("esEnabled");
-        if(null != osMap.get("esMessage")) {
-            esMessage = objectMapper.convertValue(osMap.get("esMessage"),ESMessage.class);
+        Object esMap = osMap.get("esMessage");
+        if (esMap instanceof ESMessage) {
+            esMessage = (ESMessage) esMap;
+        } else if (null != esMap) {
+            esMessage = objectMapper.convertValue(esMap, ESMessage.class);
         }
         if(elasticSearchEnabled) {
-            MessageProtos.Message esProtoMessage = MessageFactory.instance().createElasticSearchMessage(
-                    message.getPerformOperation(), esMessage);
-            ActorCache.instance().get(Router.ROUTER_NAME).tell(esProtoMessage, null);
+            Router.sendAndForget(MessageFactory.instance().createElasticSearchLocalMessage(
+                    message.getPerformOperation(), esMessage));
         }
 		/*
 		 * if(null != osMap.get("auditMessage")) { auditRecord =
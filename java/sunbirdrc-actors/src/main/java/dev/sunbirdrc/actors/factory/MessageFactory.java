@@ -11,6 +11,7 @@ import dev.sunbirdrc.pojos.attestation.auto.AutoAttestationMessage;
 import dev.sunbirdrc.pojos.attestation.auto.AutoAttestationPolicy;
 import dev.sunbirdrc.pojos.attestation.exception.PolicyNotFoundException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import org.sunbird.akka.core.LocalMessage;
 import org.sunbird.akka.core.MessageProtos;
 
 import java.util.HashMap;
@@ -18,6 +19,8 @@ import java.util.Map;
 
 public class MessageFactory {
     private static final MessageFactory instance = new MessageFactory();
+    private static final ObjectMapper jsonMapper = new ObjectMapper();
+    private static final LocalMessage.PayloadEncoder jsonEncoder = jsonMapper::writeValueAsString;
 
     private MessageFactory() {
     }
@@ -37,6 +40,16 @@ public class MessageFactory {
         return msgBuilder.build();
     }
 
+    /**
+     * Same as createElasticSearchMessage, with the payload passed as is to an actor in this JVM
+     */
+    public LocalMessage createElasticSearchLocalMessage(String operation, ESMessage esMessage) {
+        MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
+        msgBuilder.setPerformOperation(operation);
+        msgBuilder.setTargetActorName(Constants.ELASTIC_SEARCH_ACTOR);
+        return new LocalMessage(msgBuilder.build(), esMessage, jsonEncoder);
+    }
+
     public MessageProtos.Message createAuditMessage(AuditRecord auditRecord) throws JsonProcessingException {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setTargetActorName(Constants.AUDIT_ACTOR);
@@ -69,6 +82,27 @@ public class MessageFactory {
         return msgBuilder.build();
     }
 
+    /**
+     * Same as createOSActorMessage, with the payload passed as is to an actor in this JVM
+     */
+    public LocalMessage createOSActorLocalMessage(boolean esEnabled, String operation, String index, String uuidPropertyValue,
+                                                  JsonNode latestNode, AuditRecord auditRecord) {
+        MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
+        msgBuilder.setPerformOperation(operation);
+        msgBuilder.setTargetActorName(Constants.OS_ACTOR);
+        ESMessage esMessage = new ESMessage();
+        esMessage.setIndexName(index);
+        esMessage.setUuidPropertyValue(uuidPropertyValue);
+        esMessage.setInput(latestNode);
+        OSEvent osEvent = new OSEvent();
+        Map<String, Object> osMsg = new HashMap<>();
+        osMsg.put("esEnabled", esEnabled);
+        osMsg.put("esMessage", esMessage);
+        osMsg.put("auditMessage", auditRecord);
+        osEvent.setOsMap(osMsg);
+        return new LocalMessage(msgBuilder.build(), osEvent, jsonEncoder);
+    }
+
     public MessageProtos.Message createPluginActorMessage(String pluginActorName, PluginRequestMessage pluginRequestMessage) throws JsonProcessingException {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setTargetActorName(pluginActorName);
@@ -94,6 +128,20 @@ public class MessageFactory {
         return msgBuilder.build();
     }
 
+    /**
+     * Same as createNotificationActorMessage, with the payload passed as is to an actor in this JVM
+     */
+    public LocalMessage createNotificationActorLocalMessage(String operation, String to, String subject, String message) {
+        MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
+        msgBuilder.setPerformOperation(operation);
+        msgBuilder.setTargetActorName(Constants.NOTIFICATION_ACTOR);
+        NotificationMessage notificationMessage = new NotificationMessage();
+        notificationMessage.setMessage(message);
+        notificationMessage.setTo(to);
+        notificationMessage.setSubject(subject);
+        return new LocalMessage(msgBuilder.build(), notificationMessage, jsonEncoder);
+    }
+
     public MessageProtos.Message createAutoAttestationMessage(AutoAttestationPolicy autoAttestationPolicy, JsonNode updatedNode, String accessToken, String url) throws JsonProcessingException {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setPerformOperation("");
@@ -0,0 +1,48 @@
+package dev.sunbirdrc.validators.json.jsonschema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Copies a jackson tree into the org.json tree everit validates, so a request that is already parsed is not written
+ * to a string and parsed a second time.
+ */
+final class JsonNodeConverter {
+
+    private JsonNodeConverter() {
+    }
+
+    static Object toJson(JsonNode node) {
+        switch (node.getNodeType()) {
+            case OBJECT:
+                JSONObject object = new JSONObject();
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    object.put(field.getKey(), toJson(field.getValue()));
+                }
+                return object;
+            case ARRAY:
+                JSONArray array = new JSONArray();
+                for (JsonNode element : node) {
+                    array.put(toJson(element));
+                }
+                return array;
+            case STRING:
+                return node.textValue();
+            case NUMBER:
+                return node.numberValue();
+            case BOOLEAN:
+                return node.booleanValue();
+            case BINARY:
+            case POJO:
+                return node.asText();
+            default:
+                return JSONObject.NULL;
+        }
+    }
+}
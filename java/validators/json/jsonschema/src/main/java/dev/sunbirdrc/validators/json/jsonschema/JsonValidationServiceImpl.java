@@ -14,9 +14,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class JsonValidationServiceImpl implements IValidate {
@@ -25,9 +25,13 @@ public class JsonValidationServiceImpl implements IValidate {
 	public final static String TITLE = "title";
 	private final String REQUIRED_KEYWORD = "required";
 
-	private Map<String, Schema> entitySchemaMap = new HashMap<>();
-	private Map<String, String> definitionMap = new HashMap<>();;
+	/**
+	 * Definition content and its compiled schema by title. A changed definition replaces the entry, so a schema
+	 * compiled from the old content is never used for it.
+	 */
+	private final Map<String, EntitySchema> entitySchemaMap = new ConcurrentHashMap<>();
 	private final String schemaUrl;
+	private volatile boolean compileOnAdd;
 
 	private final ObjectMapper objectMapper;
 
@@ -37,59 +41,94 @@ public class JsonValidationServiceImpl implements IValidate {
 	}
 
 	private Schema getEntitySchema(String entityType) throws MiddlewareHaltException {
-		if (entitySchemaMap.containsKey(entityType)) {
-			return entitySchemaMap.get(entityType);
-		} else {
-			Schema schema;
-			try {
-				String definitionContent = definitionMap.get(entityType);
-				if (definitionContent != null) {
-					JSONObject rawSchema = new JSONObject(definitionContent);
-
-					SchemaLoader schemaLoader = SchemaLoader.builder().schemaJson(rawSchema).draftV7Support()
-							.resolutionScope(schemaUrl).build();
-					schema = schemaLoader.load().build();
-					entitySchemaMap.put(entityType, schema);
-				} else {
-					return null;
+		EntitySchema entitySchema = entitySchemaMap.get(entityType);
+		if (entitySchema == null) {
+			return null;
+		}
+		Schema schema = entitySchema.schema;
+		if (schema == null) {
+			synchronized (entitySchema) {
+				if (entitySchema.schema == null) {
+					entitySchema.schema = compile(entityType, entitySchema.content);
 				}
-			} catch (Exception e) {
-				logger.error("can't validate, {}: schema has a problem!, {}", entityType, ExceptionUtils.getStackTrace(e));
-				throw new MiddlewareHaltException("can't validate, "+ entityType + ": schema has a problem!");
+				schema = entitySchema.schema;
 			}
-			return schema;
+		}
+		return schema;
+	}
+
+	private Schema compile(String entityType, String definitionContent) throws MiddlewareHaltException {
+		try {
+			JSONObject rawSchema = new JSONObject(definitionContent);
+
+			SchemaLoader schemaLoader = SchemaLoader.builder().schemaJson(rawSchema).draftV7Support()
+					.resolutionScope(schemaUrl).build();
+			return schemaLoader.load().build();
+		} catch (Exception e) {
+			logger.error("can't validate, {}: schema has a problem!, {}", entityType, ExceptionUtils.getStackTrace(e));
+			throw new MiddlewareHaltException("can't validate, "+ entityType + ": schema has a problem!");
 		}
 	}
 
+	/**
+	 * Referenced schemas are resolved from schemaUrl, which usually is the registry itself. So this is called once
+	 * the registry serves requests, definitions failing to compile here are tried again on their first validation.
+	 */
+	@Override
+	public void compileDefinitions() {
+		for (String entityType : entitySchemaMap.keySet()) {
+			try {
+				getEntitySchema(entityType);
+			} catch (MiddlewareHaltException e) {
+				logger.warn("Compiling {} failed, it is compiled again on first use", entityType);
+			}
+		}
+		compileOnAdd = true;
+		logger.info("Compiled {} definitions", entitySchemaMap.size());
+	}
+
 	@Override
 	public void validate(String entityType, String objString, boolean ignoreRequiredFields) throws MiddlewareHaltException {
 		Schema schema = getEntitySchema(entityType);
 		if (schema != null) {
-			JSONObject obj = new JSONObject(objString);
-			try {
-				schema.validate(obj); // throws a ValidationException if this object is invalid
-			} catch (ValidationException e) {
-				logger.error("Validation Exception : " + e.getAllMessages());
-				if (ignoreRequiredFields) {
-					List<ValidationException> flattenedExceptions = flattenException(e).stream()
-							.filter(ve -> !ve.getKeyword().equals(REQUIRED_KEYWORD))
-							.collect(Collectors.toList());
-
-					if (!flattenedExceptions.isEmpty()) {
-						String errMsg = flattenedExceptions.stream()
-								.map(ve -> String.format("%s : %s", ve.getPointerToViolation(), ve.getMessage()))
-								.collect(Collectors.joining("; "));
-						throw new MiddlewareHaltException("Validation Exception : " + errMsg);
-					}
-				} else {
-					throw new MiddlewareHaltException("Validation Exception : " + String.join("; ", e.getAllMessages()));
-				}
-			}
+			validate(schema, new JSONObject(objString), ignoreRequiredFields);
+		} else {
+			logger.warn("{} schema not found for validation", entityType);
+		}
+	}
+
+	@Override
+	public void validate(String entityType, JsonNode payload, boolean ignoreRequiredFields) throws MiddlewareHaltException {
+		Schema schema = getEntitySchema(entityType);
+		if (schema != null) {
+			validate(schema, JsonNodeConverter.toJson(payload), ignoreRequiredFields);
 		} else {
 			logger.warn("{} schema not found for validation", entityType);
 		}
 	}
 
+	private void validate(Schema schema, Object obj, boolean ignoreRequiredFields) throws MiddlewareHaltException {
+		try {
+			schema.validate(obj); // throws a ValidationException if this object is invalid
+		} catch (ValidationException e) {
+			logger.error("Validation Exception : " + e.getAllMessages());
+			if (ignoreRequiredFields) {
+				List<ValidationException> flattenedExceptions = flattenException(e).stream()
+						.filter(ve -> !ve.getKeyword().equals(REQUIRED_KEYWORD))
+						.collect(Collectors.toList());
+
+				if (!flattenedExceptions.isEmpty()) {
+					String errMsg = flattenedExceptions.stream()
+							.map(ve -> String.format("%s : %s", ve.getPointerToViolation(), ve.getMessage()))
+							.collect(Collectors.joining("; "));
+					throw new MiddlewareHaltException("Validation Exception : " + errMsg);
+				}
+			} else {
+				throw new MiddlewareHaltException("Validation Exception : " + String.join("; ", e.getAllMessages()));
+			}
+		}
+	}
+
 	/**
      * Store all list of known definitions as definitionMap.
      * Must get populated before creating the schema.
@@ -99,7 +138,14 @@ public class JsonValidationServiceImpl implements IValidate {
      */
     @Override
     public void addDefinitions(String definitionTitle, String definitionContent) {
-        definitionMap.put(definitionTitle, definitionContent);
+        entitySchemaMap.put(definitionTitle, new EntitySchema(definitionContent));
+        if (compileOnAdd) {
+            try {
+                getEntitySchema(definitionTitle);
+            } catch (MiddlewareHaltException e) {
+                logger.warn("Compiling {} failed, it is compiled again on first use", definitionTitle);
+            }
+        }
     }
 
 	private List<ValidationException> flattenException(ValidationException e) {
@@ -136,9 +182,18 @@ public class JsonValidationServiceImpl implements IValidate {
 	@Override
 	public void removeDefinition(String schema) {
 		try {
-			definitionMap.remove(schema);
+			entitySchemaMap.remove(schema);
 		} catch (Exception e) {
 			logger.error("Failed removing schema from definition manager", e);
 		}
 	}
+
+	private static class EntitySchema {
+		private final String content;
+		private volatile Schema schema;
+
+		EntitySchema(String content) {
+			this.content = content;
+		}
+	}
 }